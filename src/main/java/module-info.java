@@ -12,4 +12,6 @@ module org.anticorruption_application.anticorruptionapplication {
     opens org.anticorruption.application.Controllers to javafx.fxml;
     exports org.anticorruption.application.Models;
     opens org.anticorruption.application.Models to javafx.fxml;
+    exports org.anticorruption.application.Services;
+    exports org.anticorruption.application.Indexes;
 }
\ No newline at end of file
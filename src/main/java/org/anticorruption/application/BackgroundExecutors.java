@@ -0,0 +1,68 @@
+package org.anticorruption.application;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Утилитарный класс для создания фоновых пулов потоков приложения.
+ * <p>
+ * Все потоки создаются демонами с понятными именами, поэтому фоновые задачи
+ * не мешают завершению приложения и легко различаются при отладке.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class BackgroundExecutors {
+
+    /**
+     * Приватный конструктор для предотвращения создания экземпляров.
+     * Класс предназначен только для статического использования.
+     */
+    private BackgroundExecutors() {
+        throw new IllegalStateException("Утилитарный класс не может быть инстанцирован");
+    }
+
+    /**
+     * Создает пул с фиксированным количеством потоков-демонов.
+     *
+     * @param name    Префикс имени потоков
+     * @param threads Количество потоков
+     * @return Пул потоков
+     */
+    public static ExecutorService newFixedPool(String name, int threads) {
+        return Executors.newFixedThreadPool(Math.max(1, threads), daemonThreadFactory(name));
+    }
+
+    /**
+     * Создает однопоточный исполнитель, выполняющий задачи строго по очереди.
+     *
+     * @param name Имя потока
+     * @return Однопоточный исполнитель
+     */
+    public static ExecutorService newSingleThread(String name) {
+        return Executors.newSingleThreadExecutor(daemonThreadFactory(name));
+    }
+
+    /**
+     * Создает однопоточный планировщик отложенных и периодических задач.
+     *
+     * @param name Имя потока
+     * @return Планировщик задач
+     */
+    public static ScheduledExecutorService newScheduled(String name) {
+        return Executors.newSingleThreadScheduledExecutor(daemonThreadFactory(name));
+    }
+
+    private static ThreadFactory daemonThreadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,38 +1,103 @@
 package org.anticorruption.application.Controllers;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.ObjectBinding;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.PieChart;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
-import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.URI;
-import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.KeyEvent;
+import javafx.geometry.Insets;
+import javafx.geometry.Side;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.stage.Window;
 import javafx.util.StringConverter;
 import org.anticorruption.application.AntiCorruptionApplication;
+import org.anticorruption.application.BackgroundExecutors;
 import org.anticorruption.application.ConfigManager;
 import org.anticorruption.application.HttpsClient;
+import org.anticorruption.application.Notifications;
+import org.anticorruption.application.Indexes.AccessGroupIndex;
+import org.anticorruption.application.Indexes.AgentLookup;
+import org.anticorruption.application.Indexes.AgentWorkloadIndex;
+import org.anticorruption.application.Indexes.ReportAggregates;
+import org.anticorruption.application.Indexes.ReportSketches;
+import org.anticorruption.application.Indexes.ReportTextIndex;
+import org.anticorruption.application.Indexes.SlaTracker;
+import org.anticorruption.application.Models.AccessGroup;
+import org.anticorruption.application.Models.NameCollation;
 import org.anticorruption.application.Models.Report;
+import org.anticorruption.application.Models.ReportQuery;
+import org.anticorruption.application.Models.ReportStatus;
 import org.anticorruption.application.Models.User;
+import org.anticorruption.application.Models.UserSummary;
+import org.anticorruption.application.Services.AutocompleteService;
+import org.anticorruption.application.Services.BulkGroupUpdateService;
+import org.anticorruption.application.Services.DraftJournal;
+import org.anticorruption.application.Services.DuplicateDetectionService;
+import org.anticorruption.application.Services.ExportTask;
+import org.anticorruption.application.Services.FilterResultCache;
+import org.anticorruption.application.Services.PersonGraphService;
+import org.anticorruption.application.Services.PersonLinkService;
+import org.anticorruption.application.Services.ReportImportTask;
+import org.anticorruption.application.Services.SubmissionQueue;
+import org.anticorruption.application.Services.PhotoService;
+import org.anticorruption.application.Services.QueryPlanner;
+import org.anticorruption.application.Services.ReportSearchService;
+import org.anticorruption.application.Services.ReportValidator;
+import org.anticorruption.application.Services.SavedFilterStore;
+import org.anticorruption.application.Services.ReportSketchService;
+import org.anticorruption.application.Services.ReportStatisticsService;
+import org.anticorruption.application.Services.SlaService;
+import org.anticorruption.application.Services.TableExporter;
+import org.anticorruption.application.Services.UserDetailsCache;
+import org.anticorruption.application.Services.UserSearchService;
 import org.anticorruption.application.UserSession;
 
 import static org.anticorruption.application.AlertUtils.showAlert;
@@ -51,11 +116,13 @@ public class MainController implements Initializable {
     @FXML
     public Button assignButton;
     @FXML
+    public Button assignLeastLoadedButton;
+    @FXML
     public Button logoutButton;
     @FXML
     public Button aboutAuthorButton;
     @FXML
-    private TableColumn<Report, String> assignedToColumn;
+    private TableColumn<Report, Report> assignedToColumn;
 
     @FXML
     private TabPane mainTabPane;
@@ -65,6 +132,8 @@ public class MainController implements Initializable {
     private Tab processReportsTab;
     @FXML
     private Tab adminTab;
+    @FXML
+    private Tab statisticsTab;
 
     @FXML
     private DatePicker incidentDatePicker;
@@ -80,6 +149,25 @@ public class MainController implements Initializable {
     private TextArea evidenceDescriptionArea;
     @FXML
     private TextField witnessesField;
+    @FXML
+    private CheckBox rapidEntryCheckBox;
+    @FXML
+    private VBox submissionQueuePane;
+    @FXML
+    private Label submissionQueueLabel;
+    @FXML
+    private ListView<SubmissionQueue.Entry> submissionListView;
+
+    /**
+     * Очередь отправки отчетов в режиме быстрого ввода.
+     */
+    private final SubmissionQueue submissionQueue = new SubmissionQueue();
+
+    /**
+     * Автосохранение черновика формы создания отчета.
+     */
+    private final DraftJournal draftJournal = new DraftJournal();
+    private final ObservableList<SubmissionQueue.Entry> submissionItems = FXCollections.observableArrayList();
 
     private final HttpClient client = HttpClient.newHttpClient();
     private final ObjectMapper mapper = new ObjectMapper();
@@ -94,8 +182,13 @@ public class MainController implements Initializable {
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         setupTimeField();
+        setupSubmissionQueue();
+        setupDraftAutosave();
+        bindAutocomplete(incidentLocationField, AutocompleteService.Field.LOCATION, false);
+        bindAutocomplete(involvedPersonsField, AutocompleteService.Field.PERSON, true);
         setupReportsTable();
         setupFilterComponents();
+        setupStatisticsTab();
         loadAgentsForFilter();
         setupUsersTable(); // Добавьте этот метод
         loadReports(); // Загружаем данные при инициализации
@@ -110,6 +203,7 @@ public class MainController implements Initializable {
             createReportTab.setDisable(!userSession.hasGroup("CreateReport"));
             processReportsTab.setDisable(!userSession.hasGroup("ViewReport") && !userSession.hasGroup("AccessToAllReports"));
             adminTab.setDisable(!userSession.hasGroup("ManageUserGroups"));
+            statisticsTab.setDisable(processReportsTab.isDisable());
 
             mainTabPane.getTabs().removeIf(Tab::isDisable);
 
@@ -163,6 +257,15 @@ public class MainController implements Initializable {
                 return;
             }
 
+            if (rapidEntryCheckBox.isSelected()) {
+                // Быстрый ввод: форма сразу освобождается, отчет отправляется в фоне
+                submissionQueue.enqueue(requestBody);
+                clearReportForm();
+                draftJournal.discard();
+                incidentDatePicker.requestFocus();
+                return;
+            }
+
             HttpRequest request = HttpRequest.newBuilder().uri(URI.create(SERVER_URL + "/api/reports")).header("Content-Type", "application/json").header("Authorization", "Bearer " + UserSession.getInstance().getToken()).POST(HttpRequest.BodyPublishers.ofString(requestBody.toString())).build();
             HttpsClient.getClient().sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(HttpResponse::body).thenAccept(this::handleReportResponse).exceptionally(e -> {
                 System.err.println("Ошибка при отправке доноса: " + e.getMessage());
@@ -221,10 +324,9 @@ public class MainController implements Initializable {
     }
 
     private void validateTimeField() {
-        String timePattern = "^([01]?[0-9]|2[0-3]):[0-5][0-9]$";
         String time = incidentTimeField.getText();
 
-        if (!time.isEmpty() && !time.matches(timePattern)) {
+        if (!time.isEmpty() && !ReportValidator.isValidTime(time)) {
             showAlert(Alert.AlertType.WARNING, "Неверный формат", "Пожалуйста, введите время в формате ЧЧ:ММ (например, 09:30 или 14:45)");
             incidentTimeField.requestFocus();
         }
@@ -232,31 +334,12 @@ public class MainController implements Initializable {
 
     // Обновляем метод validateForm
     private boolean validateForm() {
-        if (incidentDatePicker.getValue() == null) {
-            showAlert(Alert.AlertType.WARNING, "Ошибка валидации", "Выберите дату инцидента");
-            return false;
-        }
-
-        if (incidentTimeField.getText().isEmpty() || !incidentTimeField.getText().matches("^([01]?[0-9]|2[0-3]):[0-5][0-9]$")) {
-            showAlert(Alert.AlertType.WARNING, "Ошибка валидации", "Введите корректное время в формате ЧЧ:ММ");
-            return false;
-        }
-
-        if (incidentLocationField.getText().isEmpty()) {
-            showAlert(Alert.AlertType.WARNING, "Ошибка валидации", "Укажите место инцидента");
+        String error = ReportValidator.validate(incidentDatePicker.getValue(), incidentTimeField.getText(),
+                incidentLocationField.getText(), involvedPersonsField.getText(), descriptionArea.getText());
+        if (error != null) {
+            showAlert(Alert.AlertType.WARNING, "Ошибка валидации", error);
             return false;
         }
-
-        if (involvedPersonsField.getText().isEmpty()) {
-            showAlert(Alert.AlertType.WARNING, "Ошибка валидации", "Укажите вовлеченных лиц");
-            return false;
-        }
-
-        if (descriptionArea.getText().isEmpty()) {
-            showAlert(Alert.AlertType.WARNING, "Ошибка валидации", "Добавьте описание инцидента");
-            return false;
-        }
-
         return true;
     }
 
@@ -274,6 +357,7 @@ public class MainController implements Initializable {
             if (statusNode != null && "CREATED".equals(statusNode.asText())) {
                 showAlert(Alert.AlertType.INFORMATION, "Успех", "Донос успешно отправлен");
                 clearReportForm();
+                draftJournal.discard();
             } else {
                 String errorMessage = messageNode != null ? messageNode.asText() : "Неизвестная ошибка при отправке доноса";
                 showAlert(Alert.AlertType.ERROR, "Ошибка", errorMessage);
@@ -284,6 +368,146 @@ public class MainController implements Initializable {
         }
     }
 
+    /**
+     * Настраивает список очереди отправки: состояние каждого отчета, возврат
+     * неотправленных отчетов в форму двойным щелчком и ограничение истории отправленных.
+     */
+    private void setupSubmissionQueue() {
+        submissionListView.setItems(submissionItems);
+        submissionListView.setCellFactory(listView -> new ListCell<>() {
+            @Override
+            protected void updateItem(SubmissionQueue.Entry entry, boolean empty) {
+                super.updateItem(entry, empty);
+                getStyleClass().remove("submission-failed");
+                if (empty || entry == null) {
+                    setText(null);
+                    return;
+                }
+                String text = entry.getStatus() + ": " + entry.getTitle();
+                if (entry.getStatus() == SubmissionQueue.Status.FAILED) {
+                    text += "\n" + entry.getMessage();
+                    getStyleClass().add("submission-failed");
+                }
+                setText(text);
+            }
+        });
+        submissionListView.setOnMouseClicked(event -> {
+            if (event.getClickCount() == 2) {
+                restoreFailedSubmission();
+            }
+        });
+        submissionQueuePane.visibleProperty().bind(
+                rapidEntryCheckBox.selectedProperty().or(Bindings.isNotEmpty(submissionItems)));
+        submissionQueuePane.managedProperty().bind(submissionQueuePane.visibleProperty());
+
+        int historyLimit = ConfigManager.getIntProperty("submission.history.limit", 50);
+        submissionQueue.setListener(entry -> {
+            if (entry.getStatus() == SubmissionQueue.Status.QUEUED) {
+                submissionItems.add(0, entry);
+            }
+            if (entry.getStatus() == SubmissionQueue.Status.SENT) {
+                // Удаляем самые старые отправленные записи сверх лимита
+                int sent = 0;
+                for (Iterator<SubmissionQueue.Entry> iterator = submissionItems.iterator(); iterator.hasNext(); ) {
+                    if (iterator.next().getStatus() == SubmissionQueue.Status.SENT && ++sent > historyLimit) {
+                        iterator.remove();
+                    }
+                }
+            }
+            submissionListView.refresh();
+            int unfinished = submissionQueue.getUnfinishedCount();
+            long failed = submissionItems.stream().filter(item -> item.getStatus() == SubmissionQueue.Status.FAILED).count();
+            submissionQueueLabel.setText("Ожидают отправки: " + unfinished + (failed > 0 ? ", с ошибкой: " + failed : ""));
+        });
+    }
+
+    /**
+     * Возвращает выбранный неотправленный отчет в форму для исправления и повторной отправки.
+     */
+    @FXML
+    private void restoreFailedSubmission() {
+        SubmissionQueue.Entry entry = submissionListView.getSelectionModel().getSelectedItem();
+        if (entry == null || entry.getStatus() != SubmissionQueue.Status.FAILED) {
+            return;
+        }
+        if (!isReportFormEmpty()) {
+            Alert confirm = new Alert(Alert.AlertType.CONFIRMATION,
+                    "Форма содержит несохраненные данные. Заменить их неотправленным отчетом?", ButtonType.YES, ButtonType.NO);
+            confirm.setTitle("Исправление отчета");
+            confirm.setHeaderText(null);
+            if (confirm.showAndWait().orElse(ButtonType.NO) != ButtonType.YES) {
+                return;
+            }
+        }
+        ObjectNode body = entry.getBody();
+        fillReportForm(field -> body.path(field).asText());
+        submissionItems.remove(entry);
+        incidentDatePicker.requestFocus();
+    }
+
+    /**
+     * Включает автосохранение черновика при изменении полей формы и восстанавливает
+     * черновик, оставшийся после сбоя или истечения сессии.
+     * Обработчик изменений только снимает значения полей; запись выполняется в фоне.
+     */
+    private void setupDraftAutosave() {
+        InvalidationListener autosave = observable -> draftJournal.update(captureReportForm());
+        incidentDatePicker.valueProperty().addListener(autosave);
+        incidentTimeField.textProperty().addListener(autosave);
+        incidentLocationField.textProperty().addListener(autosave);
+        involvedPersonsField.textProperty().addListener(autosave);
+        descriptionArea.textProperty().addListener(autosave);
+        evidenceDescriptionArea.textProperty().addListener(autosave);
+        witnessesField.textProperty().addListener(autosave);
+
+        draftJournal.load().thenAccept(fields -> Platform.runLater(() -> {
+            if (fields.isEmpty() || !isReportFormEmpty()) {
+                return;
+            }
+            fillReportForm(field -> fields.getOrDefault(field, ""));
+            if (incidentDatePicker.getScene() != null && incidentDatePicker.getScene().getWindow() != null) {
+                Notifications.show(incidentDatePicker.getScene().getWindow(), "Черновик восстановлен",
+                        "Форма заполнена данными неотправленного отчета");
+            }
+        }));
+    }
+
+    /**
+     * Снимает значения полей формы по ключам запроса создания отчета.
+     *
+     * @return Значения полей
+     */
+    private Map<String, String> captureReportForm() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("incidentDate", incidentDatePicker.getValue() != null ? incidentDatePicker.getValue().toString() : "");
+        fields.put("incidentTime", incidentTimeField.getText());
+        fields.put("incidentLocation", incidentLocationField.getText());
+        fields.put("involvedPersons", involvedPersonsField.getText());
+        fields.put("description", descriptionArea.getText());
+        fields.put("evidenceDescription", evidenceDescriptionArea.getText());
+        fields.put("witnesses", witnessesField.getText());
+        return fields;
+    }
+
+    /**
+     * Заполняет форму значениями полей по ключам запроса создания отчета.
+     *
+     * @param fields Значение поля по ключу
+     */
+    private void fillReportForm(Function<String, String> fields) {
+        incidentDatePicker.setValue(ReportValidator.parseDate(fields.apply("incidentDate")));
+        incidentTimeField.setText(fields.apply("incidentTime"));
+        incidentLocationField.setText(fields.apply("incidentLocation"));
+        involvedPersonsField.setText(fields.apply("involvedPersons"));
+        descriptionArea.setText(fields.apply("description"));
+        evidenceDescriptionArea.setText(fields.apply("evidenceDescription"));
+        witnessesField.setText(fields.apply("witnesses"));
+    }
+
+    private boolean isReportFormEmpty() {
+        return captureReportForm().values().stream().allMatch(value -> value == null || value.isEmpty());
+    }
+
     private void clearReportForm() {
         incidentDatePicker.setValue(null);
         incidentTimeField.clear();
@@ -299,31 +523,182 @@ public class MainController implements Initializable {
     @FXML
     private TableColumn<Report, Long> idColumn;
     @FXML
-    private TableColumn<Report, String> statusColumn;
+    private TableColumn<Report, ReportStatus> statusColumn;
+    @FXML
+    private TableColumn<Report, Report> incidentDateColumn;
+    @FXML
+    private TableColumn<Report, Report> dateSubmittedColumn;
     @FXML
     private TableColumn<Report, String> solutionColumn;
+    @FXML
+    private TableColumn<Report, Report> duplicatesColumn;
+    @FXML
+    private CheckBox groupDuplicatesCheckBox;
+
+    private final DuplicateDetectionService duplicateDetectionService = new DuplicateDetectionService();
+
+    /**
+     * Группы возможных дубликатов: "идентификатор отчета → идентификатор группы".
+     */
+    private Map<Long, Long> duplicateClusters = Map.of();
+
+    /**
+     * Идентификаторы отчетов группы дубликатов в порядке возрастания по идентификатору группы.
+     */
+    private Map<Long, List<Long>> duplicateClusterMembers = Map.of();
 
     private final ObservableList<Report> reportsData = FXCollections.observableArrayList();
 
+    /**
+     * Порядок строк таблицы отчетов: сортировка пользователя по колонкам и,
+     * если включена группировка, предварительное упорядочивание по группам дубликатов.
+     */
+    private ObjectBinding<Comparator<Report>> reportsComparator;
+
+    /**
+     * Настраивает колонки дат отчета.
+     * Значением ячейки служит сам отчет, а сортировка выполняется по уже разобранным
+     * числовым значениям дат, без повторного разбора строк при каждом сравнении.
+     */
+    private void setupDateColumns() {
+        incidentDateColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue()));
+        incidentDateColumn.setCellFactory(column -> new ReportTextCell(report -> {
+            String date = report.getIncidentDate();
+            String time = report.getIncidentTime();
+            if (date == null) {
+                return "";
+            }
+            return time != null ? date + " " + time : date;
+        }));
+        incidentDateColumn.setComparator(Comparator
+                .comparingInt(Report::getIncidentEpochDay)
+                .thenComparingInt(Report::getIncidentMinuteOfDay));
+
+        dateSubmittedColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue()));
+        dateSubmittedColumn.setCellFactory(column -> new ReportTextCell(report ->
+                report.getDateSubmitted() != null ? report.getDateSubmitted().replace('T', ' ') : ""));
+        dateSubmittedColumn.setComparator(Comparator.comparingLong(Report::getDateSubmittedMillis));
+    }
+
+    /**
+     * Ячейка таблицы отчетов, отображающая текст, вычисленный по отчету.
+     */
+    private static class ReportTextCell extends TableCell<Report, Report> {
+        private final Function<Report, String> formatter;
+
+        ReportTextCell(Function<Report, String> formatter) {
+            this.formatter = formatter;
+        }
+
+        @Override
+        protected void updateItem(Report report, boolean empty) {
+            super.updateItem(report, empty);
+            setText(empty || report == null ? null : formatter.apply(report));
+        }
+    }
+
+    /**
+     * Настраивает колонку-отметку возможных дубликатов.
+     * Отчеты с дубликатами помечаются количеством похожих отчетов, во всплывающей
+     * подсказке перечислены их номера.
+     */
+    private void setupDuplicatesColumn() {
+        duplicatesColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue()));
+        duplicatesColumn.setCellFactory(column -> new TableCell<>() {
+            @Override
+            protected void updateItem(Report report, boolean empty) {
+                super.updateItem(report, empty);
+                Long clusterId = empty || report == null ? null : duplicateClusters.get(report.getId());
+                if (clusterId == null) {
+                    setText(null);
+                    setTooltip(null);
+                    return;
+                }
+                List<Long> members = duplicateClusterMembers.get(clusterId);
+                setText("⚠ " + (members.size() - 1));
+                String others = members.stream()
+                        .filter(id -> !id.equals(report.getId()))
+                        .map(id -> "#" + id)
+                        .collect(Collectors.joining(", "));
+                setTooltip(new Tooltip("Возможные дубликаты: " + others));
+            }
+        });
+        duplicatesColumn.setComparator(Comparator.comparingInt(this::getDuplicateCount));
+    }
+
+    /**
+     * Обновляет группы дубликатов после фонового пересчета.
+     *
+     * @param clusters Отображение "идентификатор отчета → идентификатор группы"
+     */
+    private void setDuplicateClusters(Map<Long, Long> clusters) {
+        Map<Long, List<Long>> members = new HashMap<>();
+        clusters.forEach((reportId, clusterId) -> members.computeIfAbsent(clusterId, id -> new ArrayList<>()).add(reportId));
+        members.values().forEach(Collections::sort);
+        duplicateClusters = clusters;
+        duplicateClusterMembers = members;
+        if (groupDuplicatesCheckBox.isSelected()) {
+            reportsComparator.invalidate();
+        }
+        reportsTable.refresh();
+    }
+
+    private int getDuplicateCount(Report report) {
+        Long clusterId = duplicateClusters.get(report.getId());
+        return clusterId != null ? duplicateClusterMembers.get(clusterId).size() - 1 : 0;
+    }
+
+    /**
+     * Создает порядок строк таблицы отчетов. Если включена группировка, дубликаты
+     * располагаются рядом: сначала группы дубликатов, затем остальные отчеты;
+     * сортировка пользователя по колонкам сохраняется внутри групп и среди остальных отчетов.
+     */
+    private Comparator<Report> createReportsComparator() {
+        Comparator<Report> tableComparator = reportsTable.getComparator();
+        if (!groupDuplicatesCheckBox.isSelected()) {
+            return tableComparator;
+        }
+        Comparator<Report> grouping = Comparator.comparing(
+                (Report report) -> duplicateClusters.get(report.getId()), Comparator.nullsLast(Comparator.naturalOrder()));
+        return grouping.thenComparing(tableComparator != null
+                ? tableComparator
+                : Comparator.comparing(Report::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+    }
+
     private void setupReportsTable() {
         // Настраиваем колонки
         idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
         statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
+        setupDateColumns();
+        setupDuplicatesColumn();
         solutionColumn.setCellValueFactory(new PropertyValueFactory<>("solution"));
 
         UserSession userSession = UserSession.getInstance();
 
         if (userSession.hasGroup("AssignProcessReport")) {
-            assignedToColumn.setCellValueFactory(new PropertyValueFactory<>("assignedToFullName"));
+            assignedToColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue()));
+            assignedToColumn.setCellFactory(column -> new ReportTextCell(report ->
+                    report.getAssignedToFullName() != null ? report.getAssignedToFullName() : ""));
+            assignedToColumn.setComparator(Comparator.comparing(Report::getAssignedToSortKey, NameCollation.ORDER));
         } else {
             assignedToColumn.setVisible(false);
         }
 
         assignButton.setVisible(userSession.hasGroup("AssignProcessReport"));
         assignButton.setManaged(userSession.hasGroup("AssignProcessReport"));
-
-        // Привязываем данные
-        reportsTable.setItems(reportsData);
+        assignLeastLoadedButton.setVisible(userSession.hasGroup("AssignProcessReport"));
+        assignLeastLoadedButton.setManaged(userSession.hasGroup("AssignProcessReport"));
+
+        // Привязываем данные через сортированное представление: сортировка по колонкам
+        // и группировка дубликатов не переставляют элементы исходного списка
+        SortedList<Report> sortedReports = new SortedList<>(reportsData);
+        reportsComparator = Bindings.createObjectBinding(this::createReportsComparator,
+                reportsTable.comparatorProperty(), groupDuplicatesCheckBox.selectedProperty());
+        sortedReports.comparatorProperty().bind(reportsComparator);
+        reportsTable.setSortPolicy(table -> true);
+        reportsTable.setItems(sortedReports);
+        reportsTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        setupSlaHighlighting();
 
         // Добавляем обработчик двойного клика
         reportsTable.setOnMouseClicked(event -> {
@@ -336,12 +711,376 @@ public class MainController implements Initializable {
         });
     }
 
+    /**
+     * Контроль сроков обработки отчетов.
+     */
+    private final SlaService slaService = new SlaService();
+
+    /**
+     * Подсвечивает строки отчетов, срок обработки которых истекает или уже нарушен,
+     * и показывает уведомление о новых нарушениях.
+     */
+    private void setupSlaHighlighting() {
+        reportsTable.setRowFactory(table -> new TableRow<>() {
+            @Override
+            protected void updateItem(Report report, boolean empty) {
+                super.updateItem(report, empty);
+                getStyleClass().removeAll("sla-warning", "sla-breached");
+                if (empty || report == null) {
+                    return;
+                }
+                switch (slaService.getLevel(report.getId())) {
+                    case WARNING -> getStyleClass().add("sla-warning");
+                    case BREACHED -> getStyleClass().add("sla-breached");
+                    default -> {
+                    }
+                }
+            }
+        });
+
+        slaService.setListener(transitions -> Platform.runLater(() -> {
+            reportsTable.refresh();
+            List<Long> breachedIds = transitions.stream()
+                    .filter(transition -> transition.level() == SlaTracker.Level.BREACHED)
+                    .map(SlaTracker.Transition::reportId)
+                    .sorted()
+                    .toList();
+            if (!breachedIds.isEmpty() && reportsTable.getScene() != null) {
+                String ids = breachedIds.stream().limit(10).map(id -> "#" + id).collect(Collectors.joining(", "));
+                if (breachedIds.size() > 10) {
+                    ids += " и еще " + (breachedIds.size() - 10);
+                }
+                Notifications.show(reportsTable.getScene().getWindow(), "Нарушен срок обработки",
+                        "Заявок с нарушенным сроком: " + breachedIds.size() + "\n" + ids);
+            }
+        }));
+    }
+
+    @FXML
+    private Label statisticsTotalLabel;
+    @FXML
+    private ComboBox<String> statisticsPeriodComboBox;
+    @FXML
+    private PieChart statusChart;
+    @FXML
+    private BarChart<String, Number> periodChart;
+    @FXML
+    private BarChart<String, Number> agentChart;
+    @FXML
+    private BarChart<String, Number> locationChart;
+
+    @FXML
+    private Label sketchDistinctLabel;
+    @FXML
+    private Label sketchLocationsLabel;
+    @FXML
+    private ListView<String> sketchLocationsListView;
+    @FXML
+    private Label closeTimeLabel;
+    @FXML
+    private TableView<ReportSketches.CloseTime> closeTimeTable;
+
+    private static final String PERIOD_DAY = "По дням";
+    private static final String PERIOD_WEEK = "По неделям";
+    private static final DateTimeFormatter PERIOD_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    /**
+     * Количество последних периодов на графике по дате инцидента.
+     */
+    private static final int STATISTICS_PERIOD_LIMIT = ConfigManager.getIntProperty("statistics.period.limit", 60);
+
+    /**
+     * Сводные показатели по отчетам для вкладки статистики.
+     */
+    private final ReportStatisticsService reportStatisticsService = new ReportStatisticsService();
+
+    /**
+     * Приближенная статистика по всем когда-либо загруженным отчетам.
+     */
+    private final ReportSketchService reportSketchService = new ReportSketchService();
+
+    /**
+     * Последний полученный снимок показателей.
+     */
+    private ReportAggregates.Snapshot statisticsSnapshot;
+
+    /**
+     * Настраивает вкладку статистики.
+     */
+    private void setupStatisticsTab() {
+        statisticsPeriodComboBox.getItems().setAll(PERIOD_DAY, PERIOD_WEEK);
+        statisticsPeriodComboBox.setValue(PERIOD_WEEK);
+        statisticsPeriodComboBox.setOnAction(event -> {
+            if (statisticsSnapshot != null) {
+                showStatistics(statisticsSnapshot);
+            }
+        });
+
+        TableColumn<ReportSketches.CloseTime, String> agentColumn = new TableColumn<>("Сотрудник");
+        agentColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(
+                cell.getValue().getAgent().isEmpty() ? "Все сотрудники" : cell.getValue().getAgent()));
+        agentColumn.setPrefWidth(240);
+        TableColumn<ReportSketches.CloseTime, Long> countColumn = new TableColumn<>("Закрыто");
+        countColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getCount()));
+        closeTimeTable.getColumns().addAll(List.of(agentColumn, countColumn,
+                closeTimeColumn("Медиана, ч", ReportSketches.CloseTime::getMedian),
+                closeTimeColumn("90%, ч", ReportSketches.CloseTime::getP90),
+                closeTimeColumn("99%, ч", ReportSketches.CloseTime::getP99)));
+    }
+
+    private static TableColumn<ReportSketches.CloseTime, String> closeTimeColumn(String title, ToDoubleFunction<ReportSketches.CloseTime> getter) {
+        TableColumn<ReportSketches.CloseTime, String> column = new TableColumn<>(title);
+        column.setCellValueFactory(cell -> {
+            double hours = getter.applyAsDouble(cell.getValue());
+            return new ReadOnlyObjectWrapper<>(Double.isNaN(hours) ? "—" : String.format("%.1f", hours));
+        });
+        return column;
+    }
+
+    /**
+     * Отображает приближенные показатели вместе с границами их погрешности.
+     *
+     * @param summary Снимок приближенных показателей
+     */
+    private void showSketchSummary(ReportSketches.Summary summary) {
+        sketchDistinctLabel.setText(String.format("Разных вовлеченных лиц: ≈%d, разных мест: ≈%d (погрешность ±%.1f%%)",
+                summary.getDistinctPersons(), summary.getDistinctLocations(), summary.getDistinctError() * 100));
+        sketchLocationsLabel.setText(String.format("Частые места (оценка сверху, завышение не более %d с вероятностью %.1f%%):",
+                summary.getLocationErrorBound(), summary.getLocationConfidence() * 100));
+        sketchLocationsListView.getItems().setAll(summary.getTopLocations().stream()
+                .map(entry -> entry.getKey() + " — ≈" + entry.getValue())
+                .toList());
+        closeTimeLabel.setText(String.format("Время закрытия заявок (процентили, погрешность по рангу ±%.1f%%):",
+                summary.getRankError() * 100));
+        closeTimeTable.getItems().setAll(summary.getCloseTimes());
+    }
+
+    /**
+     * Отображает снимок показателей на вкладке статистики.
+     *
+     * @param snapshot Снимок показателей
+     */
+    private void showStatistics(ReportAggregates.Snapshot snapshot) {
+        statisticsSnapshot = snapshot;
+        statisticsTotalLabel.setText("Всего заявок: " + snapshot.getTotal());
+
+        ObservableList<PieChart.Data> statusData = FXCollections.observableArrayList();
+        snapshot.getByStatus().forEach((status, count) -> statusData.add(new PieChart.Data(status + " (" + count + ")", count)));
+        statusChart.setData(statusData);
+
+        boolean weekly = PERIOD_WEEK.equals(statisticsPeriodComboBox.getValue());
+        NavigableMap<LocalDate, Integer> periods = weekly ? snapshot.getByWeek() : snapshot.getByDay();
+        XYChart.Series<String, Number> periodSeries = new XYChart.Series<>();
+        periods.descendingMap().entrySet().stream()
+                .limit(STATISTICS_PERIOD_LIMIT)
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> periodSeries.getData().add(new XYChart.Data<>(
+                        (weekly ? "с " : "") + entry.getKey().format(PERIOD_FORMAT), entry.getValue())));
+        periodChart.getData().setAll(List.of(periodSeries));
+
+        agentChart.getData().setAll(List.of(toSeries(snapshot.getTopAgents())));
+        locationChart.getData().setAll(List.of(toSeries(snapshot.getTopLocations())));
+    }
+
+    private static XYChart.Series<String, Number> toSeries(List<Map.Entry<String, Integer>> entries) {
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        entries.forEach(entry -> series.getData().add(new XYChart.Data<>(entry.getKey(), entry.getValue())));
+        return series;
+    }
+
+    /**
+     * Поток для экспорта таблиц в файлы.
+     */
+    private final ExecutorService exportExecutor = BackgroundExecutors.newSingleThread("table-export");
+
+    /**
+     * Поток импорта отчетов из файла; отправки внутри импорта выполняются асинхронно.
+     */
+    private final ExecutorService importExecutor = BackgroundExecutors.newSingleThread("report-import");
+
+    /**
+     * Экспортирует отчеты, отображаемые в таблице, в порядке сортировки таблицы.
+     */
+    @FXML
+    private void exportReports() {
+        TableExporter<Report> exporter = new TableExporter<>(List.of("ID", "Статус", "Дата инцидента", "Время инцидента",
+                "Место", "Вовлеченные лица", "Описание", "Доказательства", "Свидетели", "Дата подачи",
+                "Назначенный сотрудник", "Решение", "Дата обновления"), report -> {
+            // Длинные тексты распаковываются без кэширования, чтобы экспорт не удерживал их в памяти
+            String[] texts = report.peekLongTexts();
+            return new String[]{
+                    String.valueOf(report.getId()), report.getStatus() != null ? report.getStatus().toString() : null,
+                    report.getIncidentDate(), report.getIncidentTime(), report.getIncidentLocation(),
+                    report.getInvolvedPersons(), texts[0], texts[1], report.getWitnesses(), report.getDateSubmitted(),
+                    report.getAssignedToFullName(), texts[2], report.getLastUpdated()
+            };
+        });
+        startExport(reportsTable.getItems(), exporter, "reports");
+    }
+
+    /**
+     * Экспортирует пользователей, отображаемых в таблице, с учетом фильтра по группе.
+     */
+    @FXML
+    private void exportUsers() {
+        TableExporter<UserSummary> exporter = new TableExporter<>(List.of("ID", "Имя пользователя", "ФИО", "Группы", "Уволен"),
+                user -> new String[]{
+                        String.valueOf(user.getId()), user.getUsername(), user.getFullName(),
+                        user.getGroups() != null
+                                ? user.getGroups().stream().map(AccessGroup::getName).sorted().collect(Collectors.joining(", "))
+                                : null,
+                        Boolean.TRUE.equals(user.getIsFired()) ? "Да" : "Нет"
+                });
+        startExport(usersTable.getItems(), exporter, "users");
+    }
+
+    /**
+     * Запрашивает файл и запускает экспорт в фоне с окном прогресса и кнопкой отмены.
+     *
+     * @param rows        Строки таблицы
+     * @param exporter    Описание колонок
+     * @param defaultName Имя файла по умолчанию без расширения
+     * @param <T>         Тип строк
+     */
+    private <T> void startExport(ObservableList<T> rows, TableExporter<T> exporter, String defaultName) {
+        if (rows.isEmpty()) {
+            showAlert(Alert.AlertType.WARNING, "Экспорт", "Нет данных для экспорта.");
+            return;
+        }
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Экспорт");
+        for (TableExporter.Format format : TableExporter.Format.values()) {
+            fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(format.getDescription(), format.getExtension()));
+        }
+        fileChooser.setInitialFileName(defaultName + ".csv");
+        Window owner = mainTabPane.getScene().getWindow();
+        File file = fileChooser.showSaveDialog(owner);
+        if (file == null) {
+            return;
+        }
+        TableExporter.Format format = TableExporter.Format.fromFileName(file.getName());
+        if (!file.getName().contains(".") && fileChooser.getSelectedExtensionFilter() != null) {
+            // Расширение не указано: берем формат из выбранного фильтра
+            String extension = fileChooser.getSelectedExtensionFilter().getExtensions().get(0).substring(1);
+            file = new File(file.getPath() + extension);
+            format = TableExporter.Format.fromFileName(file.getName());
+        }
+
+        ExportTask<T> task = new ExportTask<>(rows, exporter, file.toPath(), format);
+        Stage progressStage = showTaskProgress(task, "Экспорт");
+
+        File target = file;
+        task.setOnSucceeded(event -> {
+            progressStage.close();
+            showAlert(Alert.AlertType.INFORMATION, "Экспорт", "Экспортировано строк: " + task.getValue() + "\n" + target);
+        });
+        task.setOnCancelled(event -> {
+            progressStage.close();
+            showAlert(Alert.AlertType.INFORMATION, "Экспорт", "Экспорт отменен.");
+        });
+        task.setOnFailed(event -> {
+            progressStage.close();
+            showAlert(Alert.AlertType.ERROR, "Ошибка", "Ошибка при экспорте: " + task.getException().getMessage());
+        });
+
+        exportExecutor.execute(task);
+    }
+
+    /**
+     * Открывает окно с прогрессом фоновой задачи и кнопкой отмены.
+     * Закрытие окна также отменяет задачу.
+     *
+     * @param task  Фоновая задача
+     * @param title Заголовок окна
+     * @return Открытое окно, которое нужно закрыть по завершении задачи
+     */
+    private Stage showTaskProgress(Task<?> task, String title) {
+        Label messageLabel = new Label();
+        messageLabel.textProperty().bind(task.messageProperty());
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.setPrefWidth(360);
+        progressBar.progressProperty().bind(task.progressProperty());
+        Button cancelButton = new Button("Отмена");
+        cancelButton.setOnAction(event -> task.cancel());
+        VBox content = new VBox(10, messageLabel, progressBar, cancelButton);
+        content.setPadding(new Insets(20));
+
+        Stage progressStage = new Stage();
+        progressStage.initOwner(mainTabPane.getScene().getWindow());
+        progressStage.setTitle(title);
+        progressStage.setScene(new Scene(content));
+        progressStage.getScene().getStylesheets().add(Objects.requireNonNull(AntiCorruptionApplication.class.getResource("styles.css")).toExternalForm());
+        progressStage.setOnCloseRequest(event -> task.cancel());
+        progressStage.show();
+        return progressStage;
+    }
+
+    /**
+     * Импортирует отчеты из файла JSON Lines или CSV.
+     * Строки проверяются теми же правилами, что и форма создания отчета, и отправляются
+     * на сервер в фоне; результат по каждой строке записывается рядом с исходным файлом.
+     * Повторный импорт того же файла продолжает с необработанных строк.
+     */
+    @FXML
+    private void importReports() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Импорт отчетов");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("JSON Lines, CSV", "*.jsonl", "*.csv"),
+                new FileChooser.ExtensionFilter("JSON Lines", "*.jsonl"),
+                new FileChooser.ExtensionFilter("CSV", "*.csv"));
+        File file = fileChooser.showOpenDialog(mainTabPane.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        ReportImportTask task = new ReportImportTask(file.toPath());
+        Stage progressStage = showTaskProgress(task, "Импорт отчетов");
+
+        task.setOnSucceeded(event -> {
+            progressStage.close();
+            ReportImportTask.Summary summary = task.getValue();
+            showAlert(Alert.AlertType.INFORMATION, "Импорт отчетов",
+                    "Строк в файле: " + summary.getTotal()
+                            + "\nОтправлено: " + summary.getSubmitted()
+                            + "\nНе прошли проверку: " + summary.getInvalid()
+                            + "\nОшибки отправки: " + summary.getFailed()
+                            + "\nОбработаны ранее: " + summary.getSkipped()
+                            + "\n\nРезультаты по строкам: " + summary.getResultFile());
+            loadReports();
+        });
+        task.setOnCancelled(event -> {
+            progressStage.close();
+            showAlert(Alert.AlertType.INFORMATION, "Импорт отчетов",
+                    "Импорт прерван. Повторный импорт файла продолжит с необработанных строк.");
+            loadReports();
+        });
+        task.setOnFailed(event -> {
+            progressStage.close();
+            showAlert(Alert.AlertType.ERROR, "Ошибка", "Ошибка при импорте: " + task.getException().getMessage());
+        });
+
+        importExecutor.execute(task);
+    }
+
     /**
      * Выполняет выход пользователя из системы.
      * Очищает текущую сессию и возвращает на экран входа.
      */
     @FXML
     private void onLogout() {
+        int unfinished = submissionQueue.getUnfinishedCount();
+        if (unfinished > 0) {
+            Alert confirm = new Alert(Alert.AlertType.CONFIRMATION,
+                    "Еще не отправлено отчетов: " + unfinished + ". Выйти и прервать их отправку?", ButtonType.YES, ButtonType.NO);
+            confirm.setTitle("Выход");
+            confirm.setHeaderText(null);
+            if (confirm.showAndWait().orElse(ButtonType.NO) != ButtonType.YES) {
+                return;
+            }
+        }
+        submissionQueue.cancelPending();
+        shutdownServices();
         // Очистите сессию пользователя
         UserSession.getInstance().clear();
 
@@ -363,6 +1102,29 @@ public class MainController implements Initializable {
         }
     }
 
+    /**
+     * Останавливает фоновые потоки служб этого окна. После входа в систему создается
+     * новый контроллер со своими службами, поэтому потоки старого окна, иначе продолжающие
+     * работать и обращаться к нему, завершаются при выходе.
+     */
+    private void shutdownServices() {
+        slaService.shutdown();
+        draftJournal.shutdown();
+        duplicateDetectionService.shutdown();
+        reportStatisticsService.shutdown();
+        reportSketchService.shutdown();
+        reportSearchService.shutdown();
+        personLinkService.shutdown();
+        autocompleteService.shutdown();
+        personGraphService.shutdown();
+        userSearchService.shutdown();
+        photoService.shutdown();
+        savedFilterStore.shutdown();
+        queryPlanner.shutdown();
+        exportExecutor.shutdown();
+        importExecutor.shutdown();
+    }
+
     @FXML
     private void refreshReports() {
         loadReports();
@@ -384,10 +1146,73 @@ public class MainController implements Initializable {
     @FXML
     private Label accessMessageLabel; // Добавьте это поле
 
+    @FXML
+    private TextField reportSearchField;
+    @FXML
+    private Label searchStatusLabel;
+
+    /**
+     * Максимальное количество результатов полнотекстового поиска.
+     */
+    private static final int SEARCH_RESULTS_LIMIT = ConfigManager.getIntProperty("reports.search.limit", 500);
+
+    private final ReportSearchService reportSearchService = new ReportSearchService();
+
+    /**
+     * Связи отчетов с упомянутыми в них сотрудниками.
+     */
+    private final PersonLinkService personLinkService = new PersonLinkService();
+
+    /**
+     * Подсказки при вводе места инцидента и вовлеченных лиц.
+     */
+    private final AutocompleteService autocompleteService = new AutocompleteService();
+
+    /**
+     * Граф совместных упоминаний лиц в отчетах.
+     */
+    private final PersonGraphService personGraphService = new PersonGraphService();
+
+    /**
+     * Отчеты последней полной загрузки по идентификатору.
+     * Используются для отображения результатов локального поиска.
+     */
+    private final Map<Long, Report> loadedReports = new HashMap<>();
+
+    /**
+     * Выполняет полнотекстовый поиск по описаниям, доказательствам, свидетелям и решениям
+     * в локальном индексе и показывает найденные отчеты по убыванию релевантности.
+     * Фразы указываются в двойных кавычках. Пустой запрос возвращает полный список.
+     */
+    @FXML
+    private void searchReports() {
+        String query = reportSearchField.getText();
+        if (query == null || query.isBlank()) {
+            loadReports();
+            return;
+        }
+
+        long started = System.nanoTime();
+        reportSearchService.search(query, SEARCH_RESULTS_LIMIT).thenAccept(hits -> Platform.runLater(() -> {
+            List<Report> found = new ArrayList<>();
+            for (ReportTextIndex.Hit hit : hits) {
+                Report report = loadedReports.get(hit.getReportId());
+                if (report != null) {
+                    found.add(report);
+                }
+            }
+            reportsData.setAll(found);
+            long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+            searchStatusLabel.setText("Найдено: " + found.size() + " (" + elapsedMillis + " мс)");
+        })).exceptionally(e -> {
+            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Ошибка", "Ошибка при поиске: " + e.getMessage()));
+            return null;
+        });
+    }
+
     private void handleReportsResponse(String responseBody) {
         try {
             JsonNode response = mapper.readTree(responseBody);
-            System.out.printf("responseBody=%s\n", responseBody);
             // Добавим проверку на null перед вызовом asText()
             JsonNode statusNode = response.get("status");
             if (statusNode == null) {
@@ -401,10 +1226,24 @@ public class MainController implements Initializable {
                 JsonNode dataNode = response.get("data");
                 if (dataNode != null && dataNode.isArray()) {
                     List<Report> reports = mapper.readValue(dataNode.toString(), mapper.getTypeFactory().constructCollectionType(List.class, Report.class));
+                    filterResultCache.sync(reports);
+                    queryPlanner.sync(reports);
+                    reportSearchService.syncAll(reports);
+                    personLinkService.syncReports(reports);
+                    autocompleteService.syncReports(reports);
+                    personGraphService.syncReports(reports);
+                    agentWorkloadIndex.sync(reports);
+                    slaService.sync(reports);
+                    reportSketchService.ingest(reports).thenAccept(summary -> Platform.runLater(() -> showSketchSummary(summary)));
+                    reportStatisticsService.sync(reports).thenAccept(snapshot -> Platform.runLater(() -> showStatistics(snapshot)));
+                    duplicateDetectionService.sync(reports).thenAccept(clusters -> Platform.runLater(() -> setDuplicateClusters(clusters)));
 
                     Platform.runLater(() -> {
+                        loadedReports.clear();
+                        reports.forEach(report -> loadedReports.put(report.getId(), report));
                         reportsData.clear();
                         reportsData.addAll(reports);
+                        searchStatusLabel.setText("");
                         accessMessageLabel.setText(""); // Скрываем сообщение
                     });
                 } else {
@@ -443,6 +1282,8 @@ public class MainController implements Initializable {
             controller.setStage(stage);
             // Устанавливаем report в контроллер
             controller.setReport(report);
+            controller.setPersonGraph(personGraphService.getGraph());
+            controller.setReportLookup(loadedReports::get);
 
             stage.setTitle("Детали доноса #" + report.getId());
             stage.setScene(new Scene(root));
@@ -458,34 +1299,96 @@ public class MainController implements Initializable {
     }
 
     @FXML
-    private TableView<User> usersTable; // Добавьте это поле
+    private TableView<UserSummary> usersTable; // Добавьте это поле
+    @FXML
+    private TableColumn<UserSummary, String> usernameColumn; // Колонка для UserName
     @FXML
-    private TableColumn<User, String> usernameColumn; // Колонка для UserName
+    private TableColumn<UserSummary, UserSummary> fullNameColumn; // Колонка для ФИО
     @FXML
-    private TableColumn<User, String> fullNameColumn; // Колонка для ФИО
+    private TableColumn<UserSummary, Long> avatarColumn; // Колонка с миниатюрой фотографии
 
-    private final ObservableList<User> usersData = FXCollections.observableArrayList(); // Данные пользователей
+    /**
+     * Размер миниатюры фотографии в таблице пользователей.
+     */
+    private static final int AVATAR_SIZE = 32;
+
+    @FXML
+    private ListView<String> groupsOverviewListView; // Группы доступа с количеством участников
+
+    private final ObservableList<UserSummary> usersData = FXCollections.observableArrayList(); // Данные пользователей
+    private final FilteredList<UserSummary> filteredUsers = new FilteredList<>(usersData);
+    private final AccessGroupIndex accessGroupIndex = new AccessGroupIndex();
+
+    @FXML
+    private TextField userSearchField; // Поиск по справочнику пользователей
+    @FXML
+    private Label userSearchStatusLabel;
+
+    private final UserSearchService userSearchService = new UserSearchService();
+
+    /**
+     * Выбранная группа в списке групп; null — все пользователи.
+     */
+    private String selectedUsersGroup;
+
+    /**
+     * Идентификаторы пользователей, найденных по строке поиска; null — поиск не задан.
+     */
+    private Set<Long> userSearchMatches;
+
+    /**
+     * Номер последнего запроса поиска. Ответы на устаревшие запросы отбрасываются.
+     */
+    private long userSearchGeneration;
+
+    /**
+     * Пункт списка групп, означающий отсутствие фильтра по группе.
+     */
+    private static final String ALL_GROUPS_ITEM = "Все пользователи";
 
     public void loadUsers() {
         HttpRequest request = HttpRequest.newBuilder().uri(URI.create(SERVER_URL + "/api/users")).header("Authorization", "Bearer " + UserSession.getInstance().getToken()).GET().build();
 
-        HttpsClient.getClient().sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(HttpResponse::body).thenAccept(this::handleUsersResponse).exceptionally(e -> {
+        HttpsClient.getClient().sendAsync(request, HttpResponse.BodyHandlers.ofInputStream()).thenApply(HttpResponse::body).thenAccept(this::handleUsersResponse).exceptionally(e -> {
             Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Ошибка", "Ошибка при загрузке пользователей: " + e.getMessage()));
             return null;
         });
     }
 
-    private void handleUsersResponse(String responseBody) {
-        try {
-            JsonNode response = mapper.readTree(responseBody);
-            JsonNode dataNode = response.get("data");
-            if (dataNode != null && dataNode.isArray()) {
-                List<User> users = mapper.readValue(dataNode.toString(), mapper.getTypeFactory().constructCollectionType(List.class, User.class));
-                List<User> finalUsers = users.stream().peek(user -> user.setFullName((user.getFullName()).equals("null null null") ? "" : user.getFirstName() + " " + user.getLastName() + " " + user.getMiddleName())).toList();
+    /**
+     * Разбирает список пользователей потоково, сразу в краткие записи.
+     * Поле data читается без построения промежуточного дерева JSON,
+     * а поля полной карточки сотрудника пропускаются парсером.
+     *
+     * @param responseBody Поток тела ответа /api/users
+     */
+    private void handleUsersResponse(InputStream responseBody) {
+        try (JsonParser parser = mapper.getFactory().createParser(responseBody)) {
+            List<UserSummary> users = null;
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.currentName();
+                    JsonToken valueToken = parser.nextToken();
+                    if ("data".equals(fieldName) && valueToken == JsonToken.START_ARRAY) {
+                        users = mapper.readerForListOf(UserSummary.class).readValue(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+            if (users != null) {
+                // ФИО и ключи сортировки вычисляются один раз, вне потока интерфейса
+                users.forEach(UserSummary::normalizeNames);
+                List<UserSummary> finalUsers = List.copyOf(users);
+                accessGroupIndex.replaceAll(finalUsers);
+                userSearchService.sync(finalUsers);
+                personLinkService.setEmployees(finalUsers);
+                autocompleteService.setEmployees(finalUsers);
+                photoService.syncUsers(finalUsers);
                 Platform.runLater(() -> {
-                    usersData.clear();
-                    usersData.addAll(finalUsers);
-                    usersTable.setItems(usersData);
+                    usersData.setAll(finalUsers);
+                    refreshGroupsOverview();
+                    searchUsers();
                 });
             }
         } catch (Exception e) {
@@ -500,53 +1403,226 @@ public class MainController implements Initializable {
     private void setupUsersTable() {
         // Настраиваем колонки
         usernameColumn.setCellValueFactory(new PropertyValueFactory<>("username"));
-        fullNameColumn.setCellValueFactory(new PropertyValueFactory<>("fullName"));
+        fullNameColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue()));
+        fullNameColumn.setCellFactory(column -> new TableCell<>() {
+            @Override
+            protected void updateItem(UserSummary user, boolean empty) {
+                super.updateItem(user, empty);
+                setText(empty || user == null ? null : user.getFullName());
+            }
+        });
+        // Сортировка по заранее вычисленным ключам с учетом русского алфавита
+        fullNameColumn.setComparator(Comparator.comparing(UserSummary::getFullNameSortKey, NameCollation.ORDER));
+        avatarColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
+        avatarColumn.setCellFactory(column -> new AvatarCell());
+
+        // Привязываем данные через фильтр по группе с сохранением сортировки таблицы
+        SortedList<UserSummary> sortedUsers = new SortedList<>(filteredUsers);
+        sortedUsers.comparatorProperty().bind(usersTable.comparatorProperty());
+        usersTable.setItems(sortedUsers);
+        usersTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+
+        // Список групп: название и количество участников из обратного индекса
+        groupsOverviewListView.setCellFactory(param -> new ListCell<>() {
+            @Override
+            protected void updateItem(String group, boolean empty) {
+                super.updateItem(group, empty);
+                if (empty || group == null) {
+                    setText(null);
+                } else if (ALL_GROUPS_ITEM.equals(group)) {
+                    setText(group + " (" + usersData.size() + ")");
+                } else {
+                    setText(group + " (" + accessGroupIndex.count(group) + ")");
+                }
+            }
+        });
+        groupsOverviewListView.getSelectionModel().selectedItemProperty().addListener((obs, oldGroup, newGroup) -> applyGroupFilter(newGroup));
 
-        // Привязываем данные
-        usersTable.setItems(usersData);
+        // Поиск выполняется при вводе, вне потока интерфейса
+        userSearchField.textProperty().addListener((obs, oldText, newText) -> searchUsers());
 
         // Добавляем обработчик двойного клика (если нужен)
         usersTable.setOnMouseClicked(event -> {
             if (event.getClickCount() == 2) {
-                User selectedUser = usersTable.getSelectionModel().getSelectedItem();
+                UserSummary selectedUser = usersTable.getSelectionModel().getSelectedItem();
                 if (selectedUser != null) {
                     editUser();
                 }
             }
-        });
+        });
+    }
+
+
+    /**
+     * Обновляет список групп после изменения индекса, сохраняя выбранную группу.
+     */
+    private void refreshGroupsOverview() {
+        String selectedGroup = groupsOverviewListView.getSelectionModel().getSelectedItem();
+
+        List<String> items = new ArrayList<>();
+        items.add(ALL_GROUPS_ITEM);
+        items.addAll(accessGroupIndex.getGroupCounts().keySet());
+        groupsOverviewListView.getItems().setAll(items);
+        groupsOverviewListView.refresh();
+
+        if (selectedGroup != null && items.contains(selectedGroup)) {
+            groupsOverviewListView.getSelectionModel().select(selectedGroup);
+        } else {
+            groupsOverviewListView.getSelectionModel().select(ALL_GROUPS_ITEM);
+        }
+        applyGroupFilter(groupsOverviewListView.getSelectionModel().getSelectedItem());
+    }
+
+    /**
+     * Оставляет в таблице пользователей только участников выбранной группы.
+     *
+     * @param group Название группы или null для отображения всех пользователей
+     */
+    private void applyGroupFilter(String group) {
+        selectedUsersGroup = group == null || ALL_GROUPS_ITEM.equals(group) ? null : group;
+        updateUsersPredicate();
+    }
+
+    /**
+     * Ищет пользователей по имени пользователя, ФИО, отделу, должности, табельному номеру,
+     * электронной почте, телефону и навыкам. Запрос можно вводить как кириллицей, так и латиницей.
+     */
+    private void searchUsers() {
+        String query = userSearchField.getText();
+        long requested = ++userSearchGeneration;
+        long started = System.nanoTime();
+        userSearchService.search(query).thenAccept(matches -> Platform.runLater(() -> {
+            if (requested != userSearchGeneration) {
+                return;
+            }
+            userSearchMatches = matches;
+            updateUsersPredicate();
+            if (matches == null) {
+                userSearchStatusLabel.setText("");
+            } else {
+                long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+                userSearchStatusLabel.setText("Найдено: " + filteredUsers.size() + " (" + elapsedMillis + " мс)");
+            }
+        })).exceptionally(e -> {
+            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Ошибка", "Ошибка при поиске пользователей: " + e.getMessage()));
+            return null;
+        });
+    }
+
+    /**
+     * Применяет к таблице пользователей фильтр по группе вместе с результатом поиска.
+     */
+    private void updateUsersPredicate() {
+        String group = selectedUsersGroup;
+        Set<Long> matches = userSearchMatches;
+        if (group == null && matches == null) {
+            filteredUsers.setPredicate(null);
+        } else {
+            filteredUsers.setPredicate(user -> (group == null || accessGroupIndex.contains(group, user.getId()))
+                    && (matches == null || matches.contains(user.getId())));
+        }
+    }
+
+    private final UserDetailsCache userDetailsCache = new UserDetailsCache();
+    private final PhotoService photoService = new PhotoService();
+
+    /**
+     * Ячейка таблицы с миниатюрой фотографии сотрудника.
+     * Миниатюра загружается и декодируется в фоне только для видимых строк;
+     * результат применяется, если ячейка все еще показывает того же пользователя.
+     */
+    private class AvatarCell extends TableCell<UserSummary, Long> {
+        private final ImageView imageView = new ImageView();
+
+        AvatarCell() {
+            imageView.setFitWidth(AVATAR_SIZE);
+            imageView.setFitHeight(AVATAR_SIZE);
+            imageView.setPreserveRatio(true);
+        }
+
+        @Override
+        protected void updateItem(Long userId, boolean empty) {
+            super.updateItem(userId, empty);
+            if (empty || userId == null) {
+                setGraphic(null);
+                return;
+            }
+
+            Image cached = photoService.getCachedThumbnail(userId, AVATAR_SIZE);
+            imageView.setImage(cached);
+            setGraphic(imageView);
+            if (cached == null) {
+                photoService.getThumbnail(userId, AVATAR_SIZE).thenAccept(image -> Platform.runLater(() -> {
+                    if (userId.equals(getItem())) {
+                        imageView.setImage(image);
+                    }
+                }));
+            }
+        }
     }
 
-
+    /**
+     * Открывает форму редактирования выбранного пользователя.
+     * Полная карточка сотрудника загружается по требованию через кэш карточек.
+     */
     @FXML
     private void editUser() {
-        User selectedUser = usersTable.getSelectionModel().getSelectedItem();
+        UserSummary selectedUser = usersTable.getSelectionModel().getSelectedItem();
         if (selectedUser != null) {
-            try {
-                FXMLLoader loader = new FXMLLoader(getClass().getResource("/org/anticorruption/application/user_details.fxml"));
-                Parent root = loader.load();
+            userDetailsCache.get(selectedUser.getId())
+                    .thenAccept(user -> Platform.runLater(() -> showUserDetails(user)))
+                    .exceptionally(e -> {
+                        showAlert(Alert.AlertType.ERROR, "Ошибка", "Ошибка при загрузке данных пользователя: " + e.getMessage());
+                        return null;
+                    });
+        } else {
+            showAlert(Alert.AlertType.WARNING, "Ошибка", "Выберите пользователя для редактирования.");
+        }
+    }
+
+    private void showUserDetails(User user) {
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/org/anticorruption/application/user_details.fxml"));
+            Parent root = loader.load();
 
-                UserDetailsController controller = loader.getController();
-                controller.setUser(selectedUser); // Передаем выбранного пользователя контроллеру
+            UserDetailsController controller = loader.getController();
+            controller.setPhotoService(photoService);
+            controller.setUser(user); // Передаем выбранного пользователя контроллеру
+            controller.setMentionedReports(getReportsMentioning(user.getId()));
 
-                Stage stage = new Stage();
-                controller.setDialogStage(stage);
-                stage.setTitle("Редактирование пользователя");
-                stage.setScene(new Scene(root));
-                stage.initModality(Modality.APPLICATION_MODAL);
-                stage.showAndWait();
+            Stage stage = new Stage();
+            controller.setDialogStage(stage);
+            stage.setTitle("Редактирование пользователя");
+            stage.setScene(new Scene(root));
+            stage.initModality(Modality.APPLICATION_MODAL);
+            stage.showAndWait();
 
+            // Карточка могла измениться на сервере, поэтому удаляем её из кэша
+            userDetailsCache.invalidate(user.getId());
+            photoService.invalidate(user.getId());
 
-                // После закрытия окна обновляем данные
-                loadUsers();
-            } catch (IOException e) {
-                e.printStackTrace(System.err);
-                showAlert(Alert.AlertType.ERROR, "Ошибка", "Ошибка при открытии окна редактирования: " + e.getMessage());
-            }
-        } else {
-            showAlert(Alert.AlertType.WARNING, "Ошибка", "Выберите пользователя для редактирования.");
+            // После закрытия окна обновляем данные
+            loadUsers();
+        } catch (IOException e) {
+            e.printStackTrace(System.err);
+            showAlert(Alert.AlertType.ERROR, "Ошибка", "Ошибка при открытии окна редактирования: " + e.getMessage());
         }
     }
 
+    /**
+     * Возвращает загруженные отчеты, в поле "Вовлеченные лица" которых упоминается сотрудник.
+     *
+     * @param userId Идентификатор сотрудника
+     * @return Отчеты, упорядоченные по идентификатору
+     */
+    private List<Report> getReportsMentioning(Long userId) {
+        return personLinkService.getReportIds(userId).stream()
+                .map(loadedReports::get)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(Report::getId))
+                .toList();
+    }
+
     @FXML
     private void refreshUsers() {
         loadUsers(); // Загружаем пользователей заново
@@ -555,7 +1631,7 @@ public class MainController implements Initializable {
     @FXML
     private void deleteUser() {
         // Получаем выбранного пользователя из таблицы
-        User selectedUser = usersTable.getSelectionModel().getSelectedItem();
+        UserSummary selectedUser = usersTable.getSelectionModel().getSelectedItem();
 
         if (selectedUser == null) {
             showAlert(Alert.AlertType.WARNING, "Внимание", "Выберите пользователя для удаления.");
@@ -575,13 +1651,14 @@ public class MainController implements Initializable {
         }
     }
 
-    private void deleteUserFromServer(User user) {
+    private void deleteUserFromServer(UserSummary user) {
         try {
             HttpRequest request = HttpRequest.newBuilder().uri(URI.create(SERVER_URL + "/api/users/delete/" + user.getId())).header("Authorization", "Bearer " + UserSession.getInstance().getToken()).DELETE().build();
 
             HttpsClient.getClient().sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenAccept(response -> Platform.runLater(() -> {
                 if (response.statusCode() == 200) {
                     // Успешное удаление
+                    userDetailsCache.invalidate(user.getId());
                     showAlert(Alert.AlertType.INFORMATION, "Успех", "Пользователь " + user.getUsername() + " успешно удален.");
 
                     // Обновляем список пользователей
@@ -630,7 +1707,7 @@ public class MainController implements Initializable {
      */
     @FXML
     private void updatePassword() {
-        User selectedUser = usersTable.getSelectionModel().getSelectedItem();
+        UserSummary selectedUser = usersTable.getSelectionModel().getSelectedItem();
 
         if (selectedUser == null) {
             showAlert(Alert.AlertType.WARNING, "Внимание", "Выберите пользователя для обновления пароля.");
@@ -651,6 +1728,86 @@ public class MainController implements Initializable {
         result.ifPresent(newPassword -> updateUserPassword(selectedUser.getId(), newPassword));
     }
 
+    private final BulkGroupUpdateService bulkGroupUpdateService = new BulkGroupUpdateService();
+
+    /**
+     * Добавляет группу доступа всем выбранным пользователям.
+     */
+    @FXML
+    private void bulkAddGroup() {
+        startBulkGroupUpdate(BulkGroupUpdateService.Operation.ADD);
+    }
+
+    /**
+     * Убирает группу доступа у всех выбранных пользователей.
+     */
+    @FXML
+    private void bulkRemoveGroup() {
+        startBulkGroupUpdate(BulkGroupUpdateService.Operation.REMOVE);
+    }
+
+    /**
+     * Загружает список групп доступа и предлагает выбрать группу для массовой операции.
+     *
+     * @param operation Операция над группой
+     */
+    private void startBulkGroupUpdate(BulkGroupUpdateService.Operation operation) {
+        List<UserSummary> selectedUsers = List.copyOf(usersTable.getSelectionModel().getSelectedItems());
+        if (selectedUsers.isEmpty()) {
+            showAlert(Alert.AlertType.WARNING, "Внимание", "Выберите одного или нескольких пользователей.");
+            return;
+        }
+
+        bulkGroupUpdateService.loadAccessGroups()
+                .thenAccept(groups -> Platform.runLater(() -> showBulkGroupDialog(selectedUsers, groups, operation)))
+                .exceptionally(e -> {
+                    showAlert(Alert.AlertType.ERROR, "Ошибка", "Ошибка при загрузке групп доступа: " + e.getMessage());
+                    return null;
+                });
+    }
+
+    private void showBulkGroupDialog(List<UserSummary> selectedUsers, List<AccessGroup> groups, BulkGroupUpdateService.Operation operation) {
+        boolean isAdd = operation == BulkGroupUpdateService.Operation.ADD;
+
+        ChoiceDialog<String> dialog = new ChoiceDialog<>();
+        dialog.setTitle(isAdd ? "Добавить группу" : "Убрать группу");
+        dialog.setHeaderText("Выбрано пользователей: " + selectedUsers.size());
+        dialog.setContentText("Группа доступа:");
+        dialog.getDialogPane().getStylesheets().add(Objects.requireNonNull(getClass().getResource("/org/anticorruption/application/styles.css")).toExternalForm());
+        groups.stream().map(AccessGroup::getName).forEach(dialog.getItems()::add);
+
+        Optional<String> result = dialog.showAndWait();
+        if (result.isEmpty()) {
+            return;
+        }
+
+        AccessGroup group = groups.stream().filter(g -> g.getName().equals(result.get())).findFirst().orElseThrow();
+        int changedCount = BulkGroupUpdateService.computeChanges(selectedUsers, group, operation).size();
+        if (changedCount == 0) {
+            showAlert(Alert.AlertType.INFORMATION, "Информация", "Нет изменений для обновления.");
+            return;
+        }
+
+        Alert confirmAlert = new Alert(Alert.AlertType.CONFIRMATION);
+        confirmAlert.setTitle("Подтверждение");
+        confirmAlert.setHeaderText(null);
+        confirmAlert.setContentText((isAdd ? "Добавить группу " : "Убрать группу ") + group.getName()
+                + " у пользователей: " + changedCount + " из " + selectedUsers.size() + "?");
+        confirmAlert.getDialogPane().getStylesheets().add(Objects.requireNonNull(getClass().getResource("/org/anticorruption/application/styles.css")).toExternalForm());
+
+        Optional<ButtonType> confirmation = confirmAlert.showAndWait();
+        if (confirmation.isPresent() && confirmation.get() == ButtonType.OK) {
+            bulkGroupUpdateService.apply(selectedUsers, group, operation).thenAccept(bulkResult -> Platform.runLater(() -> {
+                bulkResult.getUpdated().forEach(accessGroupIndex::put);
+                bulkResult.getUpdated().forEach(updatedUser -> userDetailsCache.invalidate(updatedUser.getId()));
+                refreshGroupsOverview();
+                Alert.AlertType alertType = bulkResult.getFailed().isEmpty() ? Alert.AlertType.INFORMATION : Alert.AlertType.WARNING;
+                showAlert(alertType, "Результат операции", bulkResult.toSummary());
+                loadUsers();
+            }));
+        }
+    }
+
     private void updateUserPassword(Long userId, String newPassword) {
         try {
             // Создаем JSON-объект с новым паролем
@@ -675,10 +1832,15 @@ public class MainController implements Initializable {
         }
     }
 
-    private void loadAgents(Report report) {
+    /**
+     * Загружает список сотрудников и выполняет действие после загрузки в потоке JavaFX.
+     *
+     * @param onLoaded Действие, выполняемое после загрузки сотрудников
+     */
+    private void loadAgents(Runnable onLoaded) {
         HttpRequest request = HttpRequest.newBuilder().uri(URI.create(SERVER_URL + "/api/users/get-agents")).header("Authorization", "Bearer " + UserSession.getInstance().getToken()).GET().build();
 
-        HttpsClient.getClient().sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(HttpResponse::body).thenAccept(responseBody -> handleAgentsResponse(responseBody, report)) // Передаем отчет в обработчик
+        HttpsClient.getClient().sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(HttpResponse::body).thenAccept(responseBody -> handleAgentsResponse(responseBody, onLoaded))
                 .exceptionally(e -> {
                     Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Ошибка", "Ошибка при загрузке сотрудников: " + e.getMessage()));
                     return null;
@@ -687,15 +1849,24 @@ public class MainController implements Initializable {
 
     private List<User> agents = new ArrayList<>();
 
-    private void handleAgentsResponse(String responseBody, Report report) {
+    /**
+     * Поиск сотрудников фильтра по ФИО и имени пользователя.
+     */
+    private AgentLookup agentLookup = new AgentLookup(List.of());
+
+    /**
+     * Статистика нагрузки сотрудников для подсказок при назначении.
+     */
+    private final AgentWorkloadIndex agentWorkloadIndex = new AgentWorkloadIndex();
+
+    private void handleAgentsResponse(String responseBody, Runnable onLoaded) {
         try {
             JsonNode response = mapper.readTree(responseBody);
             JsonNode dataNode = response.get("data");
             if (dataNode != null && dataNode.isArray()) {
                 agents = mapper.readValue(dataNode.toString(), mapper.getTypeFactory().constructCollectionType(List.class, User.class));
 
-                // Обновляем диалог выбора агента, передавая отчет
-                Platform.runLater(() -> showAssignAgentDialog(report));
+                Platform.runLater(onLoaded);
             }
         } catch (Exception e) {
             Platform.runLater(() -> {
@@ -705,17 +1876,58 @@ public class MainController implements Initializable {
         }
     }
 
+    /**
+     * Возвращает сотрудников с правом решения заявок.
+     */
+    private List<User> getSolveReportAgents() {
+        return agents.stream().filter(user -> user.getGroups().stream().anyMatch(group -> "SolveReport".equals(group.getName()))).toList();
+    }
+
+    /**
+     * Ключ сотрудника в статистике нагрузки: значение, которое сервер записывает в поле assignedTo.
+     */
+    private static String agentKey(User agent) {
+        return String.valueOf(agent.getId());
+    }
+
+    /**
+     * Показывает диалог назначения со списком сотрудников, упорядоченным по подсказке:
+     * учитываются открытые заявки, среднее время закрытия и опыт работы с тем же местом и лицами.
+     *
+     * @param report Назначаемая заявка
+     */
     private void showAssignAgentDialog(Report report) {
-        ChoiceDialog<User> dialog = new ChoiceDialog<>();
+        Dialog<User> dialog = new Dialog<>();
         dialog.setTitle("Назначить сотрудника");
         dialog.setHeaderText("Выберите сотрудника для назначения на заявку");
-        dialog.setContentText("Сотрудник:");
         dialog.getDialogPane().getStylesheets().add(Objects.requireNonNull(getClass().getResource("/org/anticorruption/application/styles.css")).toExternalForm());
 
         // Фильтруем только агентов с правом решения заявок
-        List<User> filteredAgents = agents.stream().filter(user -> user.getGroups().stream().anyMatch(group -> "SolveReport".equals(group.getName()))).toList();
-
-        dialog.getItems().addAll(filteredAgents);
+        Map<String, User> agentsByKey = new LinkedHashMap<>();
+        getSolveReportAgents().forEach(agent -> agentsByKey.put(agentKey(agent), agent));
+        List<AgentWorkloadIndex.Suggestion> suggestions = agentWorkloadIndex.rank(agentsByKey.keySet(), report);
+
+        TableView<AgentWorkloadIndex.Suggestion> table = new TableView<>(FXCollections.observableArrayList(suggestions));
+        table.setPrefSize(640, 320);
+        TableColumn<AgentWorkloadIndex.Suggestion, String> nameColumn = new TableColumn<>("Сотрудник");
+        nameColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(agentsByKey.get(cell.getValue().getAgentKey()).getFullName()));
+        nameColumn.setPrefWidth(240);
+        TableColumn<AgentWorkloadIndex.Suggestion, Integer> loadColumn = new TableColumn<>("В работе");
+        loadColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getOpenLoad()));
+        TableColumn<AgentWorkloadIndex.Suggestion, String> closeColumn = new TableColumn<>("Ср. закрытие, дн.");
+        closeColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getAverageCloseDays() < 0
+                ? "—" : String.format("%.1f", cell.getValue().getAverageCloseDays())));
+        TableColumn<AgentWorkloadIndex.Suggestion, Integer> familiarityColumn = new TableColumn<>("Опыт по месту/лицам");
+        familiarityColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getFamiliarity()));
+        table.getColumns().addAll(List.of(nameColumn, loadColumn, closeColumn, familiarityColumn));
+        table.getSelectionModel().selectFirst();
+
+        dialog.getDialogPane().setContent(table);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+        dialog.setResultConverter(button -> {
+            AgentWorkloadIndex.Suggestion selected = table.getSelectionModel().getSelectedItem();
+            return button == ButtonType.OK && selected != null ? agentsByKey.get(selected.getAgentKey()) : null;
+        });
 
         Optional<User> result = dialog.showAndWait();
         result.ifPresent(agent -> assignSelectedAgent(report, agent));
@@ -723,30 +1935,50 @@ public class MainController implements Initializable {
 
 
     private void assignSelectedAgent(Report report, User agent) {
-        // Назначаем сотрудника на заявку
+        sendAssignment(report, agent).thenAccept(error -> {
+            if (error == null) {
+                showAlert(Alert.AlertType.INFORMATION, "Успех", "Сотрудник успешно назначен на заявку.");
+            } else {
+                showAlert(Alert.AlertType.ERROR, "Ошибка", error);
+            }
+        });
+    }
+
+    /**
+     * Отправляет назначение сотрудника на заявку и после подтверждения сервером
+     * обновляет отчет в таблице и зависимые индексы.
+     *
+     * @param report Назначаемая заявка
+     * @param agent  Сотрудник
+     * @return Будущий текст ошибки или null, если назначение выполнено
+     */
+    private CompletableFuture<String> sendAssignment(Report report, User agent) {
         try {
             HttpRequest request = HttpRequest.newBuilder().uri(URI.create(SERVER_URL + "/api/reports/" + report.getId() + "/assign?assignedTo=" + agent.getId())).header("Authorization", "Bearer " + UserSession.getInstance().getToken()).method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
 
-            HttpsClient.getClient().sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(HttpResponse::body).thenAccept(responseBody -> {
+            return HttpsClient.getClient().sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(HttpResponse::body).thenApply(responseBody -> {
                 try {
                     JsonNode response = mapper.readTree(responseBody);
                     if ("OK".equals(response.get("status").asText())) {
-                        showAlert(Alert.AlertType.INFORMATION, "Успех", "Сотрудник успешно назначен на заявку.");
-                        report.setAssignedToFullName(agent.getFullName()); // Обновляем ФИО назначенного сотрудника
-                        reportsTable.refresh(); // Обновляем таблицу
-                    } else {
-                        showAlert(Alert.AlertType.ERROR, "Ошибка", response.get("message").asText());
+                        Platform.runLater(() -> {
+                            report.setAssignedTo(agentKey(agent));
+                            report.setAssignedToFullName(agent.getFullName()); // Обновляем ФИО назначенного сотрудника
+                            agentWorkloadIndex.update(report);
+                            filterResultCache.upsert(List.of(report));
+                            queryPlanner.upsert(List.of(report));
+                            reportStatisticsService.upsert(List.of(report)).thenAccept(snapshot -> Platform.runLater(() -> showStatistics(snapshot)));
+                            reportsTable.refresh(); // Обновляем таблицу
+                        });
+                        return (String) null;
                     }
+                    return response.get("message").asText();
                 } catch (Exception e) {
-                    showAlert(Alert.AlertType.ERROR, "Ошибка", "Ошибка при обработке ответа: " + e.getMessage());
+                    return "Ошибка при обработке ответа: " + e.getMessage();
                 }
-            }).exceptionally(e -> {
-                showAlert(Alert.AlertType.ERROR, "Ошибка", "Ошибка при отправке запроса: " + e.getMessage());
-                return null;
-            });
+            }).exceptionally(e -> "Ошибка при отправке запроса: " + e.getMessage());
 
         } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Ошибка", "Ошибка при назначении сотрудника: " + e.getMessage());
+            return CompletableFuture.completedFuture("Ошибка при назначении сотрудника: " + e.getMessage());
         }
     }
 
@@ -758,12 +1990,125 @@ public class MainController implements Initializable {
     private void assignAgentToReport() {
         Report selectedReport = reportsTable.getSelectionModel().getSelectedItem();
         if (selectedReport != null) {
-            loadAgents(selectedReport); // Передаем выбранный отчет в метод загрузки агентов
+            loadAgents(() -> showAssignAgentDialog(selectedReport)); // Передаем выбранный отчет в диалог после загрузки агентов
         } else {
             showAlert(Alert.AlertType.WARNING, "Ошибка", "Выберите отчет для назначения агента.");
         }
     }
 
+    /**
+     * Максимальное количество одновременных запросов при массовом назначении
+     * (параметр assign.concurrency, по умолчанию 4).
+     */
+    private final int assignConcurrency = Math.max(1, ConfigManager.getIntProperty("assign.concurrency", 4));
+
+    /**
+     * Назначает каждую выбранную заявку наименее загруженному сотруднику.
+     * Нагрузка учитывается после каждого назначения, а открытая заявка, которая уже
+     * назначена, не учитывается в нагрузке текущего исполнителя, поэтому заявки
+     * распределяются между сотрудниками равномерно. Запросы отправляются очередью
+     * с ограниченной параллельностью, а после ответа на все запросы показывается
+     * одна сводка успешных и неудачных назначений.
+     */
+    @FXML
+    private void assignToLeastLoaded() {
+        List<Report> selectedReports = List.copyOf(reportsTable.getSelectionModel().getSelectedItems());
+        if (selectedReports.isEmpty()) {
+            showAlert(Alert.AlertType.WARNING, "Ошибка", "Выберите заявки для назначения.");
+            return;
+        }
+
+        loadAgents(() -> {
+            Map<String, User> agentsByKey = new LinkedHashMap<>();
+            getSolveReportAgents().forEach(agent -> agentsByKey.put(agentKey(agent), agent));
+            if (agentsByKey.isEmpty()) {
+                showAlert(Alert.AlertType.WARNING, "Ошибка", "Нет сотрудников с правом решения заявок.");
+                return;
+            }
+
+            // Поправки к нагрузке, пока сервер не подтвердил назначения: выбранные открытые
+            // заявки снимаются с текущих исполнителей и добавляются выбранным сотрудникам
+            Map<String, Integer> pending = new HashMap<>();
+            for (Report report : selectedReports) {
+                if (isOpenAssignment(report)) {
+                    pending.merge(report.getAssignedTo(), -1, Integer::sum);
+                }
+            }
+            List<Map.Entry<Report, User>> assignments = new ArrayList<>();
+            int unchanged = 0;
+            for (Report report : selectedReports) {
+                String agentKey = agentWorkloadIndex.leastLoaded(agentsByKey.keySet(), pending);
+                pending.merge(agentKey, 1, Integer::sum);
+                if (agentKey.equals(report.getAssignedTo())) {
+                    unchanged++;
+                } else {
+                    assignments.add(Map.entry(report, agentsByKey.get(agentKey)));
+                }
+            }
+
+            int requested = selectedReports.size();
+            int skipped = unchanged;
+            sendAssignments(assignments).thenAccept(failed -> Platform.runLater(() ->
+                    showAssignmentSummary(requested, skipped, assignments, failed)));
+        });
+    }
+
+    /**
+     * Проверяет, что заявка открыта и уже назначена, то есть учтена в нагрузке исполнителя.
+     */
+    private static boolean isOpenAssignment(Report report) {
+        return report.getAssignedTo() != null && !report.getAssignedTo().isBlank()
+                && (report.getStatus() == null || report.getStatus().isOpen());
+    }
+
+    /**
+     * Отправляет назначения очередью: одновременно выполняется не более assign.concurrency запросов.
+     *
+     * @param assignments Назначения "заявка → сотрудник"
+     * @return Будущие неудачные назначения с текстом ошибки
+     */
+    private CompletableFuture<Map<Report, String>> sendAssignments(Collection<Map.Entry<Report, User>> assignments) {
+        Queue<Map.Entry<Report, User>> queue = new ConcurrentLinkedQueue<>(assignments);
+        Map<Report, String> failed = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = Math.min(assignConcurrency, queue.size()); i > 0; i--) {
+            workers.add(sendNextAssignment(queue, failed));
+        }
+        return CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).thenApply(ignored -> failed);
+    }
+
+    private CompletableFuture<Void> sendNextAssignment(Queue<Map.Entry<Report, User>> queue, Map<Report, String> failed) {
+        Map.Entry<Report, User> next = queue.poll();
+        if (next == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return sendAssignment(next.getKey(), next.getValue()).thenCompose(error -> {
+            if (error != null) {
+                failed.put(next.getKey(), error);
+            }
+            return sendNextAssignment(queue, failed);
+        });
+    }
+
+    private void showAssignmentSummary(int requested, int unchanged, List<Map.Entry<Report, User>> assignments,
+                                       Map<Report, String> failed) {
+        Map<User, Integer> assigned = new LinkedHashMap<>();
+        assignments.stream()
+                .filter(assignment -> !failed.containsKey(assignment.getKey()))
+                .forEach(assignment -> assigned.merge(assignment.getValue(), 1, Integer::sum));
+
+        StringBuilder summary = new StringBuilder()
+                .append("Выбрано заявок: ").append(requested).append('\n')
+                .append("Назначено: ").append(assignments.size() - failed.size()).append('\n')
+                .append("Без изменений: ").append(unchanged).append('\n')
+                .append("Ошибок: ").append(failed.size());
+        assigned.forEach((agent, count) ->
+                summary.append('\n').append(" + ").append(agent.getFullName()).append(": ").append(count));
+        failed.forEach((report, reason) ->
+                summary.append('\n').append(" - #").append(report.getId()).append(": ").append(reason));
+        showAlert(failed.isEmpty() ? Alert.AlertType.INFORMATION : Alert.AlertType.WARNING, "Назначение", summary.toString());
+    }
+
     @FXML
     private TextField filterReporterIdField;
     @FXML
@@ -775,16 +2120,35 @@ public class MainController implements Initializable {
     @FXML
     private TextField filterInvolvedPersonsField;
     @FXML
-    private ComboBox<String> filterStatusComboBox;
+    private ComboBox<ReportStatus> filterStatusComboBox;
     @FXML
     private ComboBox<User> filterAssignedToComboBox;
     @FXML
     private Button filterButton;
+    @FXML
+    private ComboBox<String> savedFiltersComboBox;
+
+    private final SavedFilterStore savedFilterStore = new SavedFilterStore();
+
+    /**
+     * Результаты недавних фильтров; сбрасываются при изменении затронутых отчетов.
+     */
+    private final FilterResultCache filterResultCache = new FilterResultCache();
+
+    /**
+     * Выбор локального или серверного выполнения фильтра.
+     */
+    private final QueryPlanner queryPlanner = new QueryPlanner();
+
+    /**
+     * Сохраненные фильтры по названию.
+     */
+    private Map<String, ReportQuery> savedFilters = Map.of();
 
     // Метод инициализации фильтра
     private void setupFilterComponents() {
         // Наполнение ComboBox статусами
-        filterStatusComboBox.getItems().addAll("NEW", "IN_PROGRESS", "CLOSED");
+        filterStatusComboBox.getItems().addAll(ReportStatus.NEW, ReportStatus.IN_PROGRESS, ReportStatus.CLOSED);
         // Установка prompt text
         filterStatusComboBox.setPromptText("Статус");
         filterAssignedToComboBox.setPromptText("Назначен");
@@ -793,6 +2157,177 @@ public class MainController implements Initializable {
 
         // Обработчик кнопки фильтрации
         filterButton.setOnAction(event -> applyFilter());
+
+        setupAgentFilter();
+
+        bindAutocomplete(filterLocationField, AutocompleteService.Field.LOCATION, false);
+
+        savedFiltersComboBox.setOnAction(event -> {
+            ReportQuery query = savedFilters.get(savedFiltersComboBox.getValue());
+            if (query != null) {
+                fillFilterForm(query);
+                runFilter(query);
+            }
+        });
+        savedFilterStore.load().thenAccept(filters -> Platform.runLater(() -> showSavedFilters(filters, null)));
+    }
+
+    /**
+     * Обновляет список сохраненных фильтров.
+     *
+     * @param filters  Фильтры по названию
+     * @param selected Название фильтра для выбора или null
+     */
+    private void showSavedFilters(Map<String, ReportQuery> filters, String selected) {
+        savedFilters = filters;
+        // Выбор программно заданного значения не должен запускать фильтр повторно
+        EventHandler<ActionEvent> handler = savedFiltersComboBox.getOnAction();
+        savedFiltersComboBox.setOnAction(null);
+        savedFiltersComboBox.getItems().setAll(filters.keySet());
+        savedFiltersComboBox.setValue(selected);
+        savedFiltersComboBox.setOnAction(handler);
+    }
+
+    /**
+     * Сохраняет текущие условия фильтра под названием, введенным пользователем.
+     */
+    @FXML
+    private void saveFilter() {
+        ReportQuery query = captureFilter();
+        if (query.isEmpty()) {
+            showAlert(Alert.AlertType.WARNING, "Внимание", "Задайте хотя бы одно условие фильтра.");
+            return;
+        }
+
+        TextInputDialog dialog = new TextInputDialog(Objects.requireNonNullElse(savedFiltersComboBox.getValue(), ""));
+        dialog.setTitle("Сохранить фильтр");
+        dialog.setHeaderText("Условия: " + query);
+        dialog.setContentText("Название:");
+        dialog.getDialogPane().getStylesheets().add(Objects.requireNonNull(getClass().getResource("/org/anticorruption/application/styles.css")).toExternalForm());
+
+        dialog.showAndWait().map(String::strip).filter(name -> !name.isEmpty()).ifPresent(name ->
+                savedFilterStore.save(name, query).thenAccept(filters -> Platform.runLater(() -> showSavedFilters(filters, name))));
+    }
+
+    /**
+     * Удаляет выбранный сохраненный фильтр.
+     */
+    @FXML
+    private void deleteSavedFilter() {
+        String name = savedFiltersComboBox.getValue();
+        if (name == null) {
+            showAlert(Alert.AlertType.WARNING, "Внимание", "Выберите сохраненный фильтр.");
+            return;
+        }
+        savedFilterStore.delete(name).thenAccept(filters -> Platform.runLater(() -> showSavedFilters(filters, null)));
+    }
+
+    /**
+     * Настраивает выбор сотрудника в фильтре: строки отображения берутся из
+     * {@link AgentLookup}, а ввод текста при фокусе на списке выбирает лучшее совпадение
+     * по началам слов ФИО и имени пользователя, в том числе с опечатками.
+     * Набранный текст сбрасывается после паузы agents.typeahead.reset.millis (по умолчанию 1000).
+     */
+    private void setupAgentFilter() {
+        filterAssignedToComboBox.setCellFactory(param -> new ListCell<>() {
+            @Override
+            protected void updateItem(User user, boolean empty) {
+                super.updateItem(user, empty);
+                setText(empty || user == null ? null : agentLookup.display(user));
+            }
+        });
+        filterAssignedToComboBox.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(User user) {
+                return agentLookup.display(user);
+            }
+
+            @Override
+            public User fromString(String string) {
+                return agentLookup.findByDisplay(string);
+            }
+        });
+
+        long resetMillis = ConfigManager.getIntProperty("agents.typeahead.reset.millis", 1000);
+        StringBuilder typed = new StringBuilder();
+        long[] lastTyped = {0};
+        filterAssignedToComboBox.addEventFilter(KeyEvent.KEY_TYPED, event -> {
+            String character = event.getCharacter();
+            if (character.isEmpty() || Character.isISOControl(character.charAt(0))) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            if (now - lastTyped[0] > resetMillis) {
+                typed.setLength(0);
+            }
+            lastTyped[0] = now;
+            typed.append(character);
+            List<User> found = agentLookup.search(typed.toString(), 1);
+            if (!found.isEmpty()) {
+                filterAssignedToComboBox.getSelectionModel().select(found.get(0));
+            }
+            event.consume();
+        });
+    }
+
+    /**
+     * Подключает к полю ввода подсказки из {@link AutocompleteService}.
+     * Запрос подсказок выполняется в фоне; ответ на устаревший текст отбрасывается.
+     *
+     * @param field      Поле ввода
+     * @param type       Вид подсказок
+     * @param multiValue Поле содержит несколько значений через запятую или точку с запятой;
+     *                   подсказка относится к последнему значению
+     */
+    private void bindAutocomplete(TextInputControl field, AutocompleteService.Field type, boolean multiValue) {
+        int limit = ConfigManager.getIntProperty("autocomplete.limit", 8);
+        ContextMenu menu = new ContextMenu();
+        long[] generation = {0};
+        boolean[] applying = {false};
+
+        field.textProperty().addListener((observable, oldText, text) -> {
+            if (applying[0] || !field.isFocused()) {
+                return;
+            }
+            long requested = ++generation[0];
+            int start = multiValue ? Math.max(text.lastIndexOf(','), text.lastIndexOf(';')) + 1 : 0;
+            String prefix = text.substring(start).strip();
+            if (prefix.isEmpty()) {
+                menu.hide();
+                return;
+            }
+            autocompleteService.suggest(type, prefix, limit).thenAccept(suggestions -> Platform.runLater(() -> {
+                if (requested != generation[0] || !field.isFocused()) {
+                    return;
+                }
+                if (suggestions.isEmpty() || (suggestions.size() == 1 && suggestions.get(0).equals(prefix))) {
+                    menu.hide();
+                    return;
+                }
+                menu.getItems().clear();
+                for (String suggestion : suggestions) {
+                    MenuItem item = new MenuItem(suggestion);
+                    item.setMnemonicParsing(false);
+                    item.setOnAction(event -> {
+                        applying[0] = true;
+                        String head = field.getText().substring(0, Math.min(start, field.getText().length()));
+                        field.setText(head + (start > 0 ? " " : "") + suggestion);
+                        field.positionCaret(field.getText().length());
+                        applying[0] = false;
+                    });
+                    menu.getItems().add(item);
+                }
+                if (!menu.isShowing()) {
+                    menu.show(field, Side.BOTTOM, 0, 0);
+                }
+            }));
+        });
+        field.focusedProperty().addListener((observable, wasFocused, focused) -> {
+            if (!focused) {
+                generation[0]++;
+                menu.hide();
+            }
+        });
     }
 
     /**
@@ -824,78 +2359,137 @@ public class MainController implements Initializable {
 
     /**
      * Применяет фильтр к списку отчетов.
-     * Формирует запрос на сервер с указанными параметрами фильтрации.
+     * Результат берется из кэша, если тот же фильтр уже выполнялся и затронутые отчеты
+     * с тех пор не менялись, иначе формируется запрос на сервер.
      */
     @FXML
     public void applyFilter() {
         try {
-            // Подготовка параметров запроса
-            Map<String, Object> params = new HashMap<>();
-
-            // Добавление параметров с проверкой на пустоту
-            addParameterIfNotEmpty(params, "reporterId", filterReporterIdField.getText());
-
-            if (filterStartDatePicker.getValue() != null) {
-                params.put("startIncidentDate", filterStartDatePicker.getValue().toString());
-            }
-
-            if (filterEndDatePicker.getValue() != null) {
-                params.put("endIncidentDate", filterEndDatePicker.getValue().toString());
-            }
+            runFilter(captureFilter());
+        } catch (Exception e) {
+            showAlert(Alert.AlertType.ERROR, "Ошибка", "Ошибка при применении фильтра: " + e.getMessage());
+        }
+    }
 
-            addParameterIfNotEmpty(params, "incidentLocation", filterLocationField.getText());
-            addParameterIfNotEmpty(params, "involvedPersons", filterInvolvedPersonsField.getText());
+    /**
+     * Снимает условия фильтра с полей формы.
+     *
+     * @return Нормализованные условия фильтра
+     */
+    private ReportQuery captureFilter() {
+        User assignedTo = filterAssignedToComboBox.getValue();
+        return new ReportQuery(filterReporterIdField.getText(), filterStartDatePicker.getValue(), filterEndDatePicker.getValue(),
+                filterLocationField.getText(), filterInvolvedPersonsField.getText(), filterStatusComboBox.getValue(),
+                assignedTo != null ? assignedTo.getId() : null);
+    }
 
-            if (filterStatusComboBox.getValue() != null) {
-                params.put("status", filterStatusComboBox.getValue());
-            }
+    /**
+     * Заполняет поля формы фильтра условиями сохраненного фильтра.
+     *
+     * @param query Условия фильтра
+     */
+    private void fillFilterForm(ReportQuery query) {
+        filterReporterIdField.setText(Objects.requireNonNullElse(query.getReporterId(), ""));
+        filterStartDatePicker.setValue(query.getStartIncidentDate());
+        filterEndDatePicker.setValue(query.getEndIncidentDate());
+        filterLocationField.setText(Objects.requireNonNullElse(query.getIncidentLocation(), ""));
+        filterInvolvedPersonsField.setText(Objects.requireNonNullElse(query.getInvolvedPersons(), ""));
+        filterStatusComboBox.setValue(query.getStatus());
+        filterAssignedToComboBox.setValue(agentLookup != null ? agentLookup.findById(query.getAssignedTo()) : null);
+    }
 
-            // Изменяем логику для ComboBox сотрудников
-            if (filterAssignedToComboBox.getValue() != null) {
-                params.put("assignedTo", filterAssignedToComboBox.getValue().getId());
-            }
+    /**
+     * Выполняет фильтр: из кэша результатов, по локальной копии отчетов или запросом
+     * на сервер — по плану {@link QueryPlanner}. Способ выполнения и его длительность
+     * показываются в сообщении о результате и записываются в журнал. Результат локального
+     * выполнения, как и результат сервера, сохраняется в кэше результатов.
+     *
+     * @param query Условия фильтра
+     */
+    private void runFilter(ReportQuery query) {
+        long started = System.nanoTime();
+        List<Report> cached = filterResultCache.get(query);
+        if (cached != null) {
+            System.err.println("План фильтра: кэш [" + query + "]; результат " + cached.size() + " отч., "
+                    + (System.nanoTime() - started) / 1_000_000 + " мс");
+            showFilteredReports(cached, "из кэша");
+            return;
+        }
 
-            // Формирование URL с параметрами
-            StringBuilder urlBuilder = new StringBuilder(SERVER_URL + "/api/reports/filter?");
-            for (Map.Entry<String, Object> entry : params.entrySet()) {
-                urlBuilder.append(entry.getKey()).append("=").append(URLEncoder.encode(entry.getValue().toString(), StandardCharsets.UTF_8)).append("&");
+        queryPlanner.plan(query).thenAccept(plan -> {
+            if (plan.getStrategy() == QueryPlanner.Strategy.LOCAL) {
+                queryPlanner.executeLocal(plan).thenAccept(found -> {
+                    logPlan(plan, found.size());
+                    filterResultCache.put(query, found);
+                    Platform.runLater(() -> showFilteredReports(found, plan.getStrategy() + ", " + plan.getElapsedMillis() + " мс"));
+                }).exceptionally(this::handleFilterError);
+                return;
             }
-            String url = urlBuilder.toString().replaceAll("&$", "");
 
-            // Создание HTTP-запроса
+            // Параметры всегда перечисляются в одном порядке
+            String url = SERVER_URL + "/api/reports/filter?" + query.toQueryString();
             HttpRequest request = HttpRequest.newBuilder().uri(URI.create(url)).header("Authorization", "Bearer " + UserSession.getInstance().getToken()).GET().build();
 
-            // Отправка запроса
-            HttpsClient.getClient().sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(HttpResponse::body).thenAccept(this::handleFilteredReportsResponse).exceptionally(this::handleFilterError);
-        } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Ошибка", "Ошибка при применении фильтра: " + e.getMessage());
-        }
+            HttpsClient.getClient().sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(HttpResponse::body).thenAccept(responseBody -> handleFilteredReportsResponse(plan, responseBody)).exceptionally(this::handleFilterError);
+        }).exceptionally(this::handleFilterError);
     }
 
-    // Вспомогательный метод для добавления параметров
-    private void addParameterIfNotEmpty(Map<String, Object> params, String key, String value) {
-        if (value != null && !value.trim().isEmpty()) {
-            params.put(key, value);
-        }
+    /**
+     * Записывает в журнал выполненный план фильтра: способ, оценку, причину выбора,
+     * фактическое количество отчетов и длительность.
+     *
+     * @param plan Выполненный план
+     * @param rows Количество найденных отчетов
+     */
+    private void logPlan(QueryPlanner.Plan plan, int rows) {
+        System.err.println("План фильтра: " + plan + "; результат " + rows + " отч., " + plan.getElapsedMillis() + " мс");
+    }
+
+    /**
+     * Показывает результат фильтра в таблице отчетов.
+     *
+     * @param reports Найденные отчеты
+     * @param source  Способ получения результата для сообщения пользователю
+     */
+    private void showFilteredReports(List<Report> reports, String source) {
+        reportsData.clear();
+        reportsData.addAll(reports);
+
+        // Опционально: показать количество найденных отчетов
+        int count = reports.size();
+        showAlert(Alert.AlertType.INFORMATION, "Результаты поиска", "Найдено отчетов: " + count + " (" + source + ")");
     }
 
     // Обработка ответа с отфильтрованными отчетами
-    private void handleFilteredReportsResponse(String responseBody) {
+    private void handleFilteredReportsResponse(QueryPlanner.Plan plan, String responseBody) {
         try {
             JsonNode response = mapper.readTree(responseBody);
             JsonNode dataNode = response.get("data");
 
             if (dataNode != null && dataNode.isArray()) {
                 List<Report> filteredReports = mapper.readValue(dataNode.toString(), mapper.getTypeFactory().constructCollectionType(List.class, Report.class));
-
-                Platform.runLater(() -> {
-                    reportsData.clear();
-                    reportsData.addAll(filteredReports);
-
-                    // Опционально: показать количество найденных отчетов
-                    int count = filteredReports.size();
-                    showAlert(Alert.AlertType.INFORMATION, "Результаты поиска", "Найдено отчетов: " + count);
-                });
+                queryPlanner.recordRemote(plan, filteredReports.size());
+                // Объединение выполняется в потоке планировщика до учета новых версий отчетов
+                CompletableFuture<List<Report>> result = plan.getStrategy() == QueryPlanner.Strategy.HYBRID
+                        ? queryPlanner.mergeHybrid(plan, filteredReports)
+                        : CompletableFuture.completedFuture(filteredReports);
+                queryPlanner.upsert(filteredReports);
+                filterResultCache.upsert(filteredReports);
+                reportSearchService.upsert(filteredReports);
+                personLinkService.upsertReports(filteredReports);
+                autocompleteService.upsertReports(filteredReports);
+                personGraphService.upsertReports(filteredReports);
+                filteredReports.forEach(agentWorkloadIndex::update);
+                slaService.upsert(filteredReports);
+                reportSketchService.ingest(filteredReports).thenAccept(summary -> Platform.runLater(() -> showSketchSummary(summary)));
+                reportStatisticsService.upsert(filteredReports).thenAccept(snapshot -> Platform.runLater(() -> showStatistics(snapshot)));
+                duplicateDetectionService.upsert(filteredReports).thenAccept(clusters -> Platform.runLater(() -> setDuplicateClusters(clusters)));
+
+                result.thenAccept(merged -> {
+                    logPlan(plan, merged.size());
+                    filterResultCache.put(plan.getQuery(), merged);
+                    Platform.runLater(() -> showFilteredReports(merged, plan.getStrategy() + ", " + plan.getElapsedMillis() + " мс"));
+                }).exceptionally(this::handleFilterError);
             }
         } catch (Exception e) {
             Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Ошибка", "Ошибка при обработке отфильтрованных отчетов: " + e.getMessage()));
@@ -923,37 +2517,11 @@ public class MainController implements Initializable {
                 agents = mapper.readValue(dataNode.toString(), mapper.getTypeFactory().constructCollectionType(List.class, User.class));
                 agents = agents.stream().filter(user -> user.getGroups().stream().anyMatch(group -> "SolveReport".equals(group.getName()))).collect(Collectors.toList());
 
-                Platform.runLater(() -> {
-                    // Настройка ComboBox для выбора сотрудника
-                    filterAssignedToComboBox.getItems().clear();
-                    filterAssignedToComboBox.getItems().addAll(agents);
-
-                    // Кастомизация отображения сотрудника в ComboBox
-                    filterAssignedToComboBox.setCellFactory(param -> new ListCell<User>() {
-                        @Override
-                        protected void updateItem(User user, boolean empty) {
-                            super.updateItem(user, empty);
-
-                            if (empty || user == null) {
-                                setText(null);
-                            } else {
-                                setText(user.getFullName() + " (" + user.getUsername() + ")");
-                            }
-                        }
-                    });
+                AgentLookup lookup = new AgentLookup(agents);
 
-                    // Настройка конвертера для правильного отображения выбранного значения
-                    filterAssignedToComboBox.setConverter(new StringConverter<User>() {
-                        @Override
-                        public String toString(User user) {
-                            return user == null ? "" : user.getFullName() + " (" + user.getUsername() + ")";
-                        }
-
-                        @Override
-                        public User fromString(String string) {
-                            return filterAssignedToComboBox.getItems().stream().filter(user -> (user.getFullName() + " (" + user.getUsername() + ")").equals(string)).findFirst().orElse(null);
-                        }
-                    });
+                Platform.runLater(() -> {
+                    agentLookup = lookup;
+                    filterAssignedToComboBox.getItems().setAll(lookup.getAll());
                 });
             }
         } catch (Exception e) {
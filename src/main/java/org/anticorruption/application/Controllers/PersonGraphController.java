@@ -0,0 +1,126 @@
+package org.anticorruption.application.Controllers;
+
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.stage.Stage;
+import lombok.Setter;
+import org.anticorruption.application.Indexes.CoOccurrenceGraph;
+import org.anticorruption.application.Indexes.PersonExtractor;
+import org.anticorruption.application.Models.Report;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Контроллер окна связей лиц, упомянутых в заявке.
+ * Показывает окрестность выбранного лица в графе совместных упоминаний,
+ * размер группы связанных лиц и заявки, в которых лицо упоминается.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class PersonGraphController {
+    @FXML
+    private ComboBox<PersonExtractor.Person> personComboBox;
+    @FXML
+    private Spinner<Integer> hopsSpinner;
+    @FXML
+    private ListView<String> neighboursListView;
+    @FXML
+    private ListView<Report> reportsListView;
+    @FXML
+    private Label componentLabel;
+
+    @Setter
+    private Stage stage;
+
+    /**
+     * Граф совместных упоминаний.
+     */
+    @Setter
+    private CoOccurrenceGraph graph;
+
+    /**
+     * Поиск загруженной заявки по идентификатору.
+     */
+    @Setter
+    private Function<Long, Report> reportLookup = id -> null;
+
+    /**
+     * Инициализирует компоненты окна.
+     */
+    @FXML
+    private void initialize() {
+        hopsSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(1, 4, 1));
+        hopsSpinner.valueProperty().addListener((observable, oldValue, newValue) -> refresh());
+        personComboBox.valueProperty().addListener((observable, oldValue, newValue) -> refresh());
+        reportsListView.setCellFactory(param -> new ListCell<>() {
+            @Override
+            protected void updateItem(Report report, boolean empty) {
+                super.updateItem(report, empty);
+                if (empty || report == null) {
+                    setText(null);
+                } else {
+                    setText("#" + report.getId()
+                            + (report.getIncidentDate() != null ? " от " + report.getIncidentDate() : "")
+                            + " — " + report.getInvolvedPersons());
+                }
+            }
+        });
+    }
+
+    /**
+     * Устанавливает лиц, упомянутых в заявке, и выбирает первое из них.
+     *
+     * @param persons Лица из поля "Вовлеченные лица"
+     */
+    public void setPersons(List<PersonExtractor.Person> persons) {
+        personComboBox.getItems().setAll(persons);
+        if (!persons.isEmpty()) {
+            personComboBox.setValue(persons.get(0));
+        } else {
+            componentLabel.setText("В заявке не найдено лиц");
+        }
+    }
+
+    /**
+     * Обновляет списки для выбранного лица и глубины.
+     */
+    private void refresh() {
+        PersonExtractor.Person person = personComboBox.getValue();
+        if (person == null || graph == null) {
+            neighboursListView.getItems().clear();
+            reportsListView.getItems().clear();
+            return;
+        }
+
+        List<String> neighbours = new ArrayList<>();
+        graph.neighbourhood(person.getKey(), hopsSpinner.getValue()).forEach((key, distance) -> {
+            int weight = graph.getWeight(person.getKey(), key);
+            neighbours.add(graph.getDisplayName(key) + " — шагов: " + distance
+                    + (weight > 0 ? ", совместно в заявках: " + weight : ""));
+        });
+        neighboursListView.getItems().setAll(neighbours);
+
+        List<Report> reports = graph.getReports(person.getKey()).stream()
+                .map(reportLookup)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(Report::getId))
+                .toList();
+        reportsListView.getItems().setAll(reports);
+
+        int componentSize = graph.component(person.getKey()).size();
+        componentLabel.setText("Связанных лиц в группе: " + Math.max(0, componentSize - 1));
+    }
+
+    /**
+     * Закрывает окно.
+     */
+    @FXML
+    private void onClose() {
+        if (stage != null) {
+            stage.close();
+        }
+    }
+}
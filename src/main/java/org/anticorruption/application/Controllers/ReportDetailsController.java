@@ -3,20 +3,29 @@ package org.anticorruption.application.Controllers;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
+import javafx.stage.Modality;
 import javafx.stage.Stage;
 import lombok.Setter;
 import org.anticorruption.application.ConfigManager;
 import org.anticorruption.application.HttpsClient;
+import org.anticorruption.application.Indexes.CoOccurrenceGraph;
+import org.anticorruption.application.Indexes.PersonExtractor;
 import org.anticorruption.application.Models.Report;
+import org.anticorruption.application.Models.ReportStatus;
 import org.anticorruption.application.UserSession;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.function.Function;
 
 /**
  * Контроллер для управления деталями отчета в антикоррупционной информационной системе.
@@ -47,6 +56,18 @@ public class ReportDetailsController {
     private Report report;
     @Setter
     private Stage stage;
+
+    /**
+     * Граф совместных упоминаний лиц для окна связей.
+     */
+    @Setter
+    private CoOccurrenceGraph personGraph;
+
+    /**
+     * Поиск загруженной заявки по идентификатору.
+     */
+    @Setter
+    private Function<Long, Report> reportLookup = id -> null;
     private final HttpClient client = HttpClient.newHttpClient();
     private final ObjectMapper mapper = new ObjectMapper();
 
@@ -83,7 +104,7 @@ public class ReportDetailsController {
      */
     @FXML
     private void onTakeToWork() {
-        updateReportStatus("IN_PROGRESS");
+        updateReportStatus(ReportStatus.IN_PROGRESS);
     }
 
     /**
@@ -92,17 +113,17 @@ public class ReportDetailsController {
      */
     @FXML
     private void onCloseReport() {
-        updateReportStatus("CLOSED");
+        updateReportStatus(ReportStatus.CLOSED);
     }
 
     /**
      * Обновляет статус отчета на сервере.
      *
-     * @param status Новый статус отчета (NEW, IN_PROGRESS, CLOSED)
+     * @param status Новый статус отчета
      */
-    private void updateReportStatus(String status) {
+    private void updateReportStatus(ReportStatus status) {
         try {
-            if ("CLOSED".equals(status)) {
+            if (status == ReportStatus.CLOSED) {
                 onSave();
             }
 
@@ -110,7 +131,7 @@ public class ReportDetailsController {
                     .uri(URI.create(SERVER_URL + "/api/reports/" + report.getId() + "/status")) // Измените на PATCH
                     .header("Content-Type", "application/json")
                     .header("Authorization", "Bearer " + UserSession.getInstance().getToken())
-                    .method("PATCH", HttpRequest.BodyPublishers.ofString("\"" + status + "\"")) // Используйте PATCH
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString("\"" + status.getCode() + "\"")) // Используйте PATCH
                     .build();
 
             HttpsClient.getClient().sendAsync(request, HttpResponse.BodyHandlers.ofString())
@@ -123,7 +144,7 @@ public class ReportDetailsController {
                                     showAlert(Alert.AlertType.INFORMATION, "Успех",
                                             "Статус заявки успешно обновлен");
                                     // Закрыть окно только если статус "CLOSED"
-                                    if ("CLOSED".equals(status)) {
+                                    if (status == ReportStatus.CLOSED) {
                                         stage.close();
                                     }
                                 });
@@ -221,6 +242,36 @@ public class ReportDetailsController {
         }
     }
 
+    /**
+     * Открывает окно связей лиц, упомянутых в заявке.
+     */
+    @FXML
+    private void onShowPersonGraph() {
+        if (personGraph == null) {
+            showAlert(Alert.AlertType.WARNING, "Связи лиц", "Граф связей еще не построен.");
+            return;
+        }
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/org/anticorruption/application/person_graph.fxml"));
+            Parent root = loader.load();
+
+            PersonGraphController controller = loader.getController();
+            Stage graphStage = new Stage();
+            controller.setStage(graphStage);
+            controller.setGraph(personGraph);
+            controller.setReportLookup(reportLookup);
+            controller.setPersons(PersonExtractor.extract(report.getInvolvedPersons()));
+
+            graphStage.setTitle("Связи лиц по заявке #" + report.getId());
+            graphStage.setScene(new Scene(root));
+            graphStage.initModality(Modality.APPLICATION_MODAL);
+            graphStage.showAndWait();
+        } catch (IOException e) {
+            e.printStackTrace(System.err);
+            showAlert(Alert.AlertType.ERROR, "Ошибка", "Ошибка при открытии окна связей: " + e.getMessage());
+        }
+    }
+
     /**
      * Закрывает окно деталей отчета.
      */
@@ -6,12 +6,15 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
+import javafx.scene.image.ImageView;
 import javafx.stage.Stage;
 import lombok.Setter;
 import org.anticorruption.application.ConfigManager;
 import org.anticorruption.application.HttpsClient;
 import org.anticorruption.application.Models.AccessGroup;
+import org.anticorruption.application.Models.Report;
 import org.anticorruption.application.Models.User;
+import org.anticorruption.application.Services.PhotoService;
 import org.anticorruption.application.UserSession;
 
 import java.lang.reflect.Method;
@@ -91,6 +94,8 @@ public class UserDetailsController {
     private DatePicker dateOfBirthPicker;
     @FXML
     private ComboBox<String> genderComboBox;
+    @FXML
+    private ImageView photoImageView;
 
     // Контактная информация
     @FXML
@@ -118,10 +123,24 @@ public class UserDetailsController {
     @FXML
     private ListView<String> groupsListView;
 
+    // Упоминания в заявках
+    @FXML
+    private ListView<Report> mentionsListView;
+
 
     private User user;
     @Setter
     private Stage dialogStage;
+    /**
+     * Сервис фотографий; декодирование выполняется в фоне, а не в потоке JavaFX.
+     */
+    @Setter
+    private PhotoService photoService;
+
+    /**
+     * Размер фотографии в карточке сотрудника.
+     */
+    private static final int PHOTO_SIZE = 160;
     private final HttpClient client = HttpClient.newHttpClient();
     private final ObjectMapper mapper = new ObjectMapper();
 
@@ -172,6 +191,22 @@ public class UserDetailsController {
         }
         tabPane.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
 
+        // Отображение заявок, упоминающих сотрудника
+        mentionsListView.setCellFactory(param -> new ListCell<>() {
+            @Override
+            protected void updateItem(Report report, boolean empty) {
+                super.updateItem(report, empty);
+                if (empty || report == null) {
+                    setText(null);
+                } else {
+                    setText("#" + report.getId()
+                            + (report.getIncidentDate() != null ? " от " + report.getIncidentDate() : "")
+                            + (report.getStatus() != null ? " [" + report.getStatus() + "]" : "")
+                            + " — " + report.getInvolvedPersons());
+                }
+            }
+        });
+
         // Загрузка списка доступных групп
         loadAvailableGroups();
 
@@ -195,6 +230,15 @@ public class UserDetailsController {
         }
     }
 
+    /**
+     * Устанавливает заявки, в которых упоминается сотрудник.
+     *
+     * @param reports Заявки, найденные по полю "Вовлеченные лица"
+     */
+    public void setMentionedReports(List<Report> reports) {
+        mentionsListView.getItems().setAll(reports);
+    }
+
     /**
      * Заполняет поля интерфейса данными из модели пользователя.
      * Использует рефлексию для безопасного получения значений полей.
@@ -216,6 +260,9 @@ public class UserDetailsController {
         // Пол
         genderComboBox.setValue(user.getGender());
 
+        // Фотография
+        loadPhoto();
+
         // Контактная информация
         emailField.setText(user.getEmail());
         phoneNumberField.setText(user.getPhoneNumber());
@@ -283,6 +330,22 @@ public class UserDetailsController {
         }
     }
 
+    /**
+     * Загружает фотографию сотрудника в фоне и отображает её после декодирования.
+     */
+    private void loadPhoto() {
+        photoImageView.setImage(null);
+        if (photoService == null) {
+            return;
+        }
+        User shownUser = user;
+        photoService.getThumbnail(shownUser, PHOTO_SIZE).thenAccept(image -> Platform.runLater(() -> {
+            if (user == shownUser) {
+                photoImageView.setImage(image);
+            }
+        }));
+    }
+
     /**
      * Обработчик события сохранения изменений пользователя.
      * Собирает измененные данные и отправляет запрос на обновление на сервер.
@@ -0,0 +1,167 @@
+package org.anticorruption.application.Indexes;
+
+import org.anticorruption.application.Models.AccessGroup;
+import org.anticorruption.application.Models.UserSummary;
+
+import java.util.*;
+
+/**
+ * Обратный индекс "группа доступа → пользователи", строящийся локально
+ * по данным /api/users.
+ * <p>
+ * Индекс обновляется инкрементально: при каждой загрузке списка пользователей
+ * изменяются только записи тех пользователей, чей набор групп поменялся.
+ * Проверка членства и получение количества участников группы выполняются за O(1).
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class AccessGroupIndex {
+
+    /**
+     * Идентификаторы пользователей по названию группы.
+     */
+    private final Map<String, Set<Long>> usersByGroup = new HashMap<>();
+
+    /**
+     * Названия групп по идентификатору пользователя.
+     * Используется для вычисления разницы при повторной загрузке.
+     */
+    private final Map<Long, Set<String>> groupsByUser = new HashMap<>();
+
+    /**
+     * Приводит индекс в соответствие с полным списком пользователей.
+     * Пользователи, отсутствующие в списке, удаляются из индекса.
+     *
+     * @param users Полный список пользователей
+     * @return Количество пользователей, чьи записи в индексе изменились
+     */
+    public synchronized int replaceAll(Collection<UserSummary> users) {
+        int changed = 0;
+        Set<Long> present = new HashSet<>();
+        for (UserSummary user : users) {
+            if (user.getId() == null) {
+                continue;
+            }
+            present.add(user.getId());
+            if (put(user)) {
+                changed++;
+            }
+        }
+
+        Iterator<Long> iterator = groupsByUser.keySet().iterator();
+        while (iterator.hasNext()) {
+            Long userId = iterator.next();
+            if (!present.contains(userId)) {
+                Set<String> groups = groupsByUser.get(userId);
+                iterator.remove();
+                groups.forEach(group -> unlink(group, userId));
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Добавляет пользователя в индекс или обновляет его набор групп.
+     *
+     * @param user Пользователь
+     * @return true, если набор групп пользователя в индексе изменился
+     */
+    public synchronized boolean put(UserSummary user) {
+        Long userId = user.getId();
+        if (userId == null) {
+            return false;
+        }
+
+        Set<String> newGroups = new HashSet<>();
+        if (user.getGroups() != null) {
+            user.getGroups().stream().map(AccessGroup::getName).filter(Objects::nonNull).forEach(newGroups::add);
+        }
+
+        Set<String> oldGroups = groupsByUser.getOrDefault(userId, Set.of());
+        if (oldGroups.equals(newGroups) && groupsByUser.containsKey(userId)) {
+            return false;
+        }
+
+        for (String group : oldGroups) {
+            if (!newGroups.contains(group)) {
+                unlink(group, userId);
+            }
+        }
+        for (String group : newGroups) {
+            if (!oldGroups.contains(group)) {
+                usersByGroup.computeIfAbsent(group, key -> new HashSet<>()).add(userId);
+            }
+        }
+        groupsByUser.put(userId, newGroups);
+        return true;
+    }
+
+    /**
+     * Удаляет пользователя из индекса.
+     *
+     * @param userId Идентификатор пользователя
+     */
+    public synchronized void remove(Long userId) {
+        Set<String> groups = groupsByUser.remove(userId);
+        if (groups != null) {
+            groups.forEach(group -> unlink(group, userId));
+        }
+    }
+
+    /**
+     * Проверяет, состоит ли пользователь в группе.
+     *
+     * @param groupName Название группы
+     * @param userId    Идентификатор пользователя
+     * @return true, если пользователь состоит в группе
+     */
+    public synchronized boolean contains(String groupName, Long userId) {
+        Set<Long> users = usersByGroup.get(groupName);
+        return users != null && users.contains(userId);
+    }
+
+    /**
+     * Возвращает идентификаторы пользователей, состоящих в группе.
+     *
+     * @param groupName Название группы
+     * @return Копия множества идентификаторов
+     */
+    public synchronized Set<Long> getUserIds(String groupName) {
+        return Set.copyOf(usersByGroup.getOrDefault(groupName, Set.of()));
+    }
+
+    /**
+     * Возвращает количество участников группы.
+     *
+     * @param groupName Название группы
+     * @return Количество пользователей в группе
+     */
+    public synchronized int count(String groupName) {
+        Set<Long> users = usersByGroup.get(groupName);
+        return users != null ? users.size() : 0;
+    }
+
+    /**
+     * Возвращает количество участников по каждой группе, упорядоченное по названию.
+     *
+     * @return Отображение "название группы → количество пользователей"
+     */
+    public synchronized SortedMap<String, Integer> getGroupCounts() {
+        SortedMap<String, Integer> counts = new TreeMap<>();
+        usersByGroup.forEach((group, users) -> counts.put(group, users.size()));
+        return counts;
+    }
+
+    private void unlink(String group, Long userId) {
+        Set<Long> users = usersByGroup.get(group);
+        if (users != null) {
+            users.remove(userId);
+            if (users.isEmpty()) {
+                usersByGroup.remove(group);
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package org.anticorruption.application.Indexes;
+
+import org.anticorruption.application.Models.User;
+
+import java.util.*;
+
+/**
+ * Поиск сотрудника по ФИО и имени пользователя для выбора в списках.
+ * <p>
+ * Строка отображения "ФИО (имя пользователя)" вычисляется один раз при построении.
+ * Точное совпадение строки отображения находится по хеш-таблице. Для поиска при вводе
+ * слова всех строк отображения хранятся в отсортированном словаре: слова, начинающиеся
+ * с введенного, находятся двоичным поиском. Если таких слов нет, ищутся слова с опечаткой
+ * по расстоянию редактирования до начала слова (1 ошибка для слов короче 6 букв,
+ * 2 — для длинных).
+ * Если введено несколько слов, сотрудник должен подходить под каждое.
+ * Объект неизменяем после построения и может использоваться из любого потока.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class AgentLookup {
+
+    private static final int SCORE_EXACT = 3;
+    private static final int SCORE_PREFIX = 2;
+    private static final int SCORE_FUZZY = 1;
+
+    /**
+     * Минимальная длина слова запроса для поиска с опечатками.
+     */
+    private static final int FUZZY_MIN_LENGTH = 3;
+
+    private final User[] agents;
+    private final String[] displays;
+    private final Map<String, Integer> byDisplay = new HashMap<>();
+    private final Map<Long, Integer> byId = new HashMap<>();
+
+    /**
+     * Отсортированные различные слова строк отображения.
+     */
+    private final String[] words;
+
+    /**
+     * Номера сотрудников для каждого слова словаря.
+     */
+    private final int[][] wordAgents;
+
+    /**
+     * Строит индекс по списку сотрудников.
+     *
+     * @param agents Сотрудники
+     */
+    public AgentLookup(List<User> agents) {
+        this.agents = agents.toArray(User[]::new);
+        this.displays = new String[this.agents.length];
+        Map<String, List<Integer>> postings = new TreeMap<>();
+        for (int i = 0; i < this.agents.length; i++) {
+            User agent = this.agents[i];
+            displays[i] = displayName(agent);
+            byDisplay.putIfAbsent(displays[i], i);
+            if (agent.getId() != null) {
+                byId.putIfAbsent(agent.getId(), i);
+            }
+            for (String word : PrefixIndex.normalize(displays[i]).split(" ")) {
+                if (!word.isEmpty()) {
+                    List<Integer> list = postings.computeIfAbsent(word, key -> new ArrayList<>());
+                    if (list.isEmpty() || list.get(list.size() - 1) != i) {
+                        list.add(i);
+                    }
+                }
+            }
+        }
+        this.words = postings.keySet().toArray(String[]::new);
+        this.wordAgents = postings.values().stream()
+                .map(list -> list.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+    }
+
+    /**
+     * Формирует строку отображения сотрудника.
+     *
+     * @param agent Сотрудник
+     * @return Строка "ФИО (имя пользователя)"
+     */
+    public static String displayName(User agent) {
+        return agent.getFullName() + " (" + agent.getUsername() + ")";
+    }
+
+    /**
+     * Возвращает заранее вычисленную строку отображения сотрудника.
+     *
+     * @param agent Сотрудник
+     * @return Строка отображения или пустая строка для null
+     */
+    public String display(User agent) {
+        if (agent == null) {
+            return "";
+        }
+        Integer index = agent.getId() != null ? byId.get(agent.getId()) : null;
+        return index != null && agents[index] == agent ? displays[index] : displayName(agent);
+    }
+
+    /**
+     * Находит сотрудника по точной строке отображения.
+     *
+     * @param display Строка отображения
+     * @return Сотрудник или null
+     */
+    public User findByDisplay(String display) {
+        Integer index = display != null ? byDisplay.get(display) : null;
+        return index != null ? agents[index] : null;
+    }
+
+    /**
+     * Находит сотрудника по идентификатору.
+     *
+     * @param id Идентификатор сотрудника
+     * @return Сотрудник или null
+     */
+    public User findById(Long id) {
+        Integer index = id != null ? byId.get(id) : null;
+        return index != null ? agents[index] : null;
+    }
+
+    /**
+     * Возвращает всех сотрудников в исходном порядке.
+     *
+     * @return Список сотрудников
+     */
+    public List<User> getAll() {
+        return List.of(agents);
+    }
+
+    /**
+     * Ищет сотрудников по введенному тексту.
+     *
+     * @param query Введенный текст (начала слов ФИО или имени пользователя, возможно с опечатками)
+     * @param limit Максимальное количество результатов
+     * @return Подходящие сотрудники по убыванию точности совпадения
+     */
+    public List<User> search(String query, int limit) {
+        String[] queryWords = PrefixIndex.normalize(query).split(" ");
+        if (queryWords.length == 0 || queryWords[0].isEmpty()) {
+            return getAll().subList(0, Math.min(limit, agents.length));
+        }
+
+        int[] scores = new int[agents.length];
+        int[] matched = new int[agents.length];
+        for (int q = 0; q < queryWords.length; q++) {
+            String queryWord = queryWords[q];
+            int[] wordScores = new int[agents.length];
+
+            // Слова, начинающиеся с введенного, образуют непрерывный отрезок словаря
+            int from = lowerBound(queryWord);
+            int to = from;
+            for (int w = from; w < words.length && words[w].startsWith(queryWord); w++, to++) {
+                int score = words[w].length() == queryWord.length() ? SCORE_EXACT : SCORE_PREFIX;
+                for (int agent : wordAgents[w]) {
+                    wordScores[agent] = Math.max(wordScores[agent], score);
+                }
+            }
+
+            // Опечатки ищутся, только если ни одно слово не начинается с введенного
+            if (to == from && queryWord.length() >= FUZZY_MIN_LENGTH) {
+                int maxDistance = queryWord.length() >= 6 ? 2 : 1;
+                for (int w = 0; w < words.length; w++) {
+                    if (words[w].length() + maxDistance >= queryWord.length()
+                            && prefixDistance(queryWord, words[w], maxDistance) <= maxDistance) {
+                        for (int agent : wordAgents[w]) {
+                            wordScores[agent] = Math.max(wordScores[agent], SCORE_FUZZY);
+                        }
+                    }
+                }
+            }
+
+            for (int agent = 0; agent < agents.length; agent++) {
+                if (wordScores[agent] > 0 && matched[agent] == q) {
+                    matched[agent]++;
+                    scores[agent] += wordScores[agent];
+                }
+            }
+        }
+
+        List<Integer> found = new ArrayList<>();
+        for (int agent = 0; agent < agents.length; agent++) {
+            if (matched[agent] == queryWords.length) {
+                found.add(agent);
+            }
+        }
+        found.sort(Comparator.comparingInt((Integer agent) -> -scores[agent]).thenComparing(agent -> displays[agent]));
+        List<User> result = new ArrayList<>(Math.min(limit, found.size()));
+        for (int i = 0; i < found.size() && i < limit; i++) {
+            result.add(agents[found.get(i)]);
+        }
+        return result;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = words.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (words[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Расстояние Левенштейна от запроса до ближайшего начала слова.
+     * Вычисление прекращается, как только расстояние заведомо превышает предел.
+     *
+     * @return Расстояние или maxDistance + 1, если оно больше предела
+     */
+    static int prefixDistance(String query, String word, int maxDistance) {
+        int columns = Math.min(word.length(), query.length() + maxDistance);
+        int[] previous = new int[columns + 1];
+        int[] current = new int[columns + 1];
+        for (int j = 0; j <= columns; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= query.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= columns; j++) {
+                int cost = query.charAt(i - 1) == word.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        // Конец слова не учитывается: берем лучшее начало слова
+        int best = maxDistance + 1;
+        for (int j = 0; j <= columns; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+}
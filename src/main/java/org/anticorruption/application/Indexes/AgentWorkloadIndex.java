@@ -0,0 +1,258 @@
+package org.anticorruption.application.Indexes;
+
+import lombok.Getter;
+import org.anticorruption.application.Models.Report;
+
+import java.util.*;
+
+/**
+ * Статистика нагрузки сотрудников, решающих заявки, для подсказок при назначении.
+ * <p>
+ * По каждому сотруднику (ключ — значение поля {@code assignedTo} отчета) хранятся
+ * количество открытых заявок, количество закрытых и суммарное время их закрытия
+ * (от даты подачи до последнего обновления), а также сколько раз сотрудник уже работал
+ * с тем же местом инцидента и теми же лицами. Вклад каждого отчета запоминается, поэтому
+ * при повторной загрузке статистика изменяется только на разницу, без пересчета всех отчетов.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class AgentWorkloadIndex {
+
+    /**
+     * Штраф за каждую открытую заявку сотрудника.
+     */
+    private static final double LOAD_WEIGHT = 1.0;
+
+    /**
+     * Штраф за каждый день среднего времени закрытия.
+     */
+    private static final double CLOSE_DAY_WEIGHT = 0.1;
+
+    /**
+     * Бонус за каждую прошлую заявку с тем же местом или лицом.
+     */
+    private static final double FAMILIARITY_WEIGHT = 0.5;
+
+    /**
+     * Максимальный учитываемый опыт, чтобы опытный сотрудник не получал все заявки.
+     */
+    private static final int FAMILIARITY_CAP = 10;
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private final Map<String, AgentStats> stats = new HashMap<>();
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+
+    /**
+     * Накопленная статистика сотрудника.
+     */
+    private static class AgentStats {
+        int open;
+        int closed;
+        long totalCloseMillis;
+        final Map<String, Integer> locations = new HashMap<>();
+        final Map<String, Integer> persons = new HashMap<>();
+    }
+
+    /**
+     * Вклад одного отчета в статистику.
+     */
+    private record Contribution(String agent, boolean open, long closeMillis, String location, List<String> persons) {
+    }
+
+    /**
+     * Подсказка для назначения.
+     */
+    @Getter
+    public static class Suggestion {
+        /**
+         * Ключ сотрудника.
+         */
+        private final String agentKey;
+
+        /**
+         * Количество открытых заявок сотрудника.
+         */
+        private final int openLoad;
+
+        /**
+         * Среднее время закрытия заявки в днях или -1, если закрытых заявок нет.
+         */
+        private final double averageCloseDays;
+
+        /**
+         * Количество прошлых заявок с тем же местом или лицами.
+         */
+        private final int familiarity;
+
+        /**
+         * Итоговая оценка: чем больше, тем лучше.
+         */
+        private final double score;
+
+        Suggestion(String agentKey, int openLoad, double averageCloseDays, int familiarity, double score) {
+            this.agentKey = agentKey;
+            this.openLoad = openLoad;
+            this.averageCloseDays = averageCloseDays;
+            this.familiarity = familiarity;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Учитывает отчет или обновляет его вклад.
+     *
+     * @param report Отчет
+     */
+    public synchronized void update(Report report) {
+        if (report.getId() == null) {
+            return;
+        }
+        Contribution previous = contributions.remove(report.getId());
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        String agent = report.getAssignedTo();
+        if (agent == null || agent.isBlank()) {
+            return;
+        }
+
+        boolean open = report.getStatus() == null || report.getStatus().isOpen();
+        long closeMillis = -1;
+        if (!open && report.getDateSubmittedMillis() != Report.NO_TIMESTAMP
+                && report.getLastUpdatedMillis() != Report.NO_TIMESTAMP
+                && report.getLastUpdatedMillis() >= report.getDateSubmittedMillis()) {
+            closeMillis = report.getLastUpdatedMillis() - report.getDateSubmittedMillis();
+        }
+        List<String> persons = PersonExtractor.extract(report.getInvolvedPersons()).stream()
+                .map(PersonExtractor.Person::getKey)
+                .toList();
+        Contribution contribution = new Contribution(agent, open, closeMillis, locationKey(report.getIncidentLocation()), persons);
+        contributions.put(report.getId(), contribution);
+        apply(contribution, 1);
+    }
+
+    /**
+     * Исключает отчет из статистики.
+     *
+     * @param reportId Идентификатор отчета
+     */
+    public synchronized void remove(Long reportId) {
+        Contribution previous = contributions.remove(reportId);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+    }
+
+    /**
+     * Приводит статистику в соответствие с полным списком отчетов.
+     *
+     * @param reports Полный список отчетов
+     */
+    public synchronized void sync(Collection<Report> reports) {
+        Set<Long> present = new HashSet<>();
+        for (Report report : reports) {
+            if (report.getId() != null) {
+                present.add(report.getId());
+                update(report);
+            }
+        }
+        for (Long reportId : new ArrayList<>(contributions.keySet())) {
+            if (!present.contains(reportId)) {
+                remove(reportId);
+            }
+        }
+    }
+
+    /**
+     * Возвращает количество открытых заявок сотрудника.
+     *
+     * @param agentKey Ключ сотрудника
+     * @return Количество открытых заявок
+     */
+    public synchronized int getOpenLoad(String agentKey) {
+        AgentStats agentStats = stats.get(agentKey);
+        return agentStats != null ? agentStats.open : 0;
+    }
+
+    /**
+     * Ранжирует сотрудников для назначения на отчет.
+     * Оценка уменьшается с ростом числа открытых заявок и среднего времени закрытия
+     * и увеличивается за опыт работы с тем же местом и лицами.
+     *
+     * @param agentKeys Ключи сотрудников, которых можно назначить
+     * @param report    Отчет, для которого подбирается сотрудник (может быть null)
+     * @return Подсказки по убыванию оценки
+     */
+    public synchronized List<Suggestion> rank(Collection<String> agentKeys, Report report) {
+        String location = report != null ? locationKey(report.getIncidentLocation()) : null;
+        List<String> persons = report != null
+                ? PersonExtractor.extract(report.getInvolvedPersons()).stream().map(PersonExtractor.Person::getKey).toList()
+                : List.of();
+
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (String agentKey : agentKeys) {
+            AgentStats agentStats = stats.getOrDefault(agentKey, new AgentStats());
+            double averageCloseDays = agentStats.closed > 0
+                    ? (double) agentStats.totalCloseMillis / agentStats.closed / DAY_MILLIS
+                    : -1;
+            int familiarity = location != null ? agentStats.locations.getOrDefault(location, 0) : 0;
+            for (String person : persons) {
+                familiarity += agentStats.persons.getOrDefault(person, 0);
+            }
+            double score = -LOAD_WEIGHT * agentStats.open
+                    - CLOSE_DAY_WEIGHT * Math.max(0, averageCloseDays)
+                    + FAMILIARITY_WEIGHT * Math.min(FAMILIARITY_CAP, familiarity);
+            suggestions.add(new Suggestion(agentKey, agentStats.open, averageCloseDays, familiarity, score));
+        }
+        suggestions.sort(Comparator.comparingDouble(Suggestion::getScore).reversed()
+                .thenComparingInt(Suggestion::getOpenLoad));
+        return suggestions;
+    }
+
+    /**
+     * Возвращает сотрудника с наименьшим количеством открытых заявок.
+     *
+     * @param agentKeys Ключи сотрудников
+     * @param pending   Поправки к нагрузке, еще не учтенные в статистике: положительные — заявки,
+     *                  отправленные на назначение, отрицательные — заявки, снимаемые с сотрудника
+     * @return Ключ сотрудника или null, если список пуст
+     */
+    public synchronized String leastLoaded(Collection<String> agentKeys, Map<String, Integer> pending) {
+        String best = null;
+        int bestLoad = Integer.MAX_VALUE;
+        for (String agentKey : agentKeys) {
+            int load = getOpenLoad(agentKey) + pending.getOrDefault(agentKey, 0);
+            if (load < bestLoad) {
+                best = agentKey;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        AgentStats agentStats = stats.computeIfAbsent(contribution.agent(), key -> new AgentStats());
+        if (contribution.open()) {
+            agentStats.open += sign;
+        } else if (contribution.closeMillis() >= 0) {
+            agentStats.closed += sign;
+            agentStats.totalCloseMillis += sign * contribution.closeMillis();
+        }
+        if (contribution.location() != null) {
+            agentStats.locations.merge(contribution.location(), sign, (a, b) -> a + b == 0 ? null : a + b);
+        }
+        for (String person : contribution.persons()) {
+            agentStats.persons.merge(person, sign, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    private static String locationKey(String location) {
+        if (location == null || location.isBlank()) {
+            return null;
+        }
+        return String.join(" ", TextTokenizer.terms(location));
+    }
+}
@@ -0,0 +1,282 @@
+package org.anticorruption.application.Indexes;
+
+import java.util.*;
+
+/**
+ * Граф совместных упоминаний лиц в отчетах.
+ * <p>
+ * Вершины — лица, выделенные {@link PersonExtractor}; ребро соединяет двух лиц, названных
+ * в одном отчете, а его вес — количество таких отчетов. Смежность хранится списками
+ * соседей с весами, поэтому окрестность радиуса k находится обходом в ширину только
+ * по затронутым вершинам.
+ * <p>
+ * Компоненты связности поддерживаются системой непересекающихся множеств (union-find):
+ * добавление отчета лишь объединяет множества. Удаление ребер union-find не поддерживает,
+ * поэтому после удаления или изменения отчета множества перестраиваются по ребрам
+ * при следующем запросе компоненты.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class CoOccurrenceGraph {
+
+    private final Map<String, Integer> nodeIds = new HashMap<>();
+    private final List<String> keys = new ArrayList<>();
+    private final List<String> displayNames = new ArrayList<>();
+
+    /**
+     * Соседи вершины с количеством общих отчетов.
+     */
+    private final List<Map<Integer, Integer>> adjacency = new ArrayList<>();
+
+    /**
+     * Отчеты, в которых упоминается лицо.
+     */
+    private final List<Set<Long>> reportsByNode = new ArrayList<>();
+
+    /**
+     * Лица, упомянутые в отчете.
+     */
+    private final Map<Long, int[]> nodesByReport = new HashMap<>();
+
+    private int[] parent = new int[0];
+    private int[] rank = new int[0];
+    private boolean componentsStale;
+
+    /**
+     * Устанавливает лиц, упомянутых в отчете, и обновляет ребра графа.
+     *
+     * @param reportId Идентификатор отчета
+     * @param persons  Лица, упомянутые в отчете
+     * @return true, если граф изменился
+     */
+    public synchronized boolean update(Long reportId, List<PersonExtractor.Person> persons) {
+        int[] nodes = new int[persons.size()];
+        for (int i = 0; i < persons.size(); i++) {
+            nodes[i] = node(persons.get(i));
+        }
+        Arrays.sort(nodes);
+
+        int[] previous = nodesByReport.get(reportId);
+        if (previous != null && Arrays.equals(previous, nodes)) {
+            return false;
+        }
+        if (previous != null) {
+            unlinkReport(reportId, previous);
+        }
+        if (nodes.length == 0) {
+            nodesByReport.remove(reportId);
+            return previous != null;
+        }
+
+        nodesByReport.put(reportId, nodes);
+        for (int i = 0; i < nodes.length; i++) {
+            reportsByNode.get(nodes[i]).add(reportId);
+            for (int j = i + 1; j < nodes.length; j++) {
+                adjacency.get(nodes[i]).merge(nodes[j], 1, Integer::sum);
+                adjacency.get(nodes[j]).merge(nodes[i], 1, Integer::sum);
+                if (!componentsStale) {
+                    union(nodes[i], nodes[j]);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Удаляет отчет из графа.
+     *
+     * @param reportId Идентификатор отчета
+     */
+    public synchronized void remove(Long reportId) {
+        int[] previous = nodesByReport.remove(reportId);
+        if (previous != null) {
+            unlinkReport(reportId, previous);
+        }
+    }
+
+    /**
+     * Возвращает идентификаторы всех отчетов, учтенных в графе.
+     *
+     * @return Копия множества идентификаторов
+     */
+    public synchronized Set<Long> getReportIds() {
+        return Set.copyOf(nodesByReport.keySet());
+    }
+
+    /**
+     * Возвращает окрестность лица радиуса {@code hops}.
+     *
+     * @param personKey Ключ лица ({@link PersonExtractor.Person#getKey()})
+     * @param hops      Максимальное количество шагов
+     * @return Ключи лиц с расстоянием до них, без самого лица, в порядке обхода
+     */
+    public synchronized Map<String, Integer> neighbourhood(String personKey, int hops) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        Integer start = nodeIds.get(personKey);
+        if (start == null) {
+            return result;
+        }
+        Map<Integer, Integer> distances = new HashMap<>();
+        distances.put(start, 0);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            int distance = distances.get(node);
+            if (distance == hops) {
+                continue;
+            }
+            for (int next : adjacency.get(node).keySet()) {
+                if (!distances.containsKey(next)) {
+                    distances.put(next, distance + 1);
+                    result.put(keyOf(next), distance + 1);
+                    queue.add(next);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает количество отчетов, в которых два лица названы вместе.
+     *
+     * @param firstKey  Ключ первого лица
+     * @param secondKey Ключ второго лица
+     * @return Вес ребра или 0
+     */
+    public synchronized int getWeight(String firstKey, String secondKey) {
+        Integer first = nodeIds.get(firstKey);
+        Integer second = nodeIds.get(secondKey);
+        if (first == null || second == null) {
+            return 0;
+        }
+        return adjacency.get(first).getOrDefault(second, 0);
+    }
+
+    /**
+     * Возвращает всех лиц, связанных с данным цепочкой совместных упоминаний.
+     *
+     * @param personKey Ключ лица
+     * @return Ключи лиц компоненты связности, включая само лицо
+     */
+    public synchronized Set<String> component(String personKey) {
+        Integer start = nodeIds.get(personKey);
+        if (start == null) {
+            return Set.of();
+        }
+        if (componentsStale) {
+            rebuildComponents();
+        }
+        int root = find(start);
+        Set<String> result = new TreeSet<>();
+        for (int node = 0; node < displayNames.size(); node++) {
+            if (!reportsByNode.get(node).isEmpty() && find(node) == root) {
+                result.add(keyOf(node));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает отчеты, в которых упоминается лицо.
+     *
+     * @param personKey Ключ лица
+     * @return Копия множества идентификаторов отчетов
+     */
+    public synchronized Set<Long> getReports(String personKey) {
+        Integer node = nodeIds.get(personKey);
+        return node != null ? Set.copyOf(reportsByNode.get(node)) : Set.of();
+    }
+
+    /**
+     * Возвращает имя лица для отображения.
+     *
+     * @param personKey Ключ лица
+     * @return Имя или сам ключ, если лицо неизвестно
+     */
+    public synchronized String getDisplayName(String personKey) {
+        Integer node = nodeIds.get(personKey);
+        return node != null ? displayNames.get(node) : personKey;
+    }
+
+    private int node(PersonExtractor.Person person) {
+        Integer id = nodeIds.get(person.getKey());
+        if (id != null) {
+            return id;
+        }
+        id = displayNames.size();
+        nodeIds.put(person.getKey(), id);
+        keys.add(person.getKey());
+        displayNames.add(person.getDisplayName());
+        adjacency.add(new HashMap<>());
+        reportsByNode.add(new HashSet<>());
+        if (id >= parent.length) {
+            int capacity = Math.max(16, parent.length * 2);
+            int oldLength = parent.length;
+            parent = Arrays.copyOf(parent, capacity);
+            rank = Arrays.copyOf(rank, capacity);
+            for (int i = oldLength; i < capacity; i++) {
+                parent[i] = i;
+            }
+        }
+        return id;
+    }
+
+    private void unlinkReport(Long reportId, int[] nodes) {
+        for (int i = 0; i < nodes.length; i++) {
+            reportsByNode.get(nodes[i]).remove(reportId);
+            for (int j = i + 1; j < nodes.length; j++) {
+                decrement(nodes[i], nodes[j]);
+                decrement(nodes[j], nodes[i]);
+            }
+        }
+        componentsStale = true;
+    }
+
+    private void decrement(int from, int to) {
+        adjacency.get(from).computeIfPresent(to, (key, weight) -> weight > 1 ? weight - 1 : null);
+    }
+
+    private void rebuildComponents() {
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+            rank[i] = 0;
+        }
+        for (int node = 0; node < adjacency.size(); node++) {
+            for (int next : adjacency.get(node).keySet()) {
+                union(node, next);
+            }
+        }
+        componentsStale = false;
+    }
+
+    private int find(int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    private void union(int first, int second) {
+        int a = find(first);
+        int b = find(second);
+        if (a == b) {
+            return;
+        }
+        if (rank[a] < rank[b]) {
+            parent[a] = b;
+        } else if (rank[a] > rank[b]) {
+            parent[b] = a;
+        } else {
+            parent[b] = a;
+            rank[a]++;
+        }
+    }
+
+    private String keyOf(int node) {
+        return keys.get(node);
+    }
+}
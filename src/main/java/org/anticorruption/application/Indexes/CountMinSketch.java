@@ -0,0 +1,208 @@
+package org.anticorruption.application.Indexes;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Приближенный подсчет частот строк (count-min) с отбором самых частых значений.
+ * <p>
+ * Таблица из {@code depth} строк по {@code width} счетчиков: значение увеличивает
+ * по одному счетчику в каждой строке, оценка частоты — минимум этих счетчиков.
+ * Оценка никогда не меньше истинной частоты и с вероятностью 1 − e^−depth превышает
+ * ее не более чем на e / width от общего количества. Кандидаты в самые частые значения
+ * хранятся отдельно в ограниченном наборе и вытесняются значениями с большей оценкой.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final long[][] table;
+    private final int candidateCapacity;
+    private final Map<String, Long> candidates = new HashMap<>();
+    private long total;
+
+    /**
+     * Создает пустой скетч.
+     *
+     * @param depth             Количество строк таблицы
+     * @param width             Количество счетчиков в строке
+     * @param candidateCapacity Размер набора кандидатов в самые частые значения
+     */
+    public CountMinSketch(int depth, int width, int candidateCapacity) {
+        if (depth < 1 || width < 1 || candidateCapacity < 1) {
+            throw new IllegalArgumentException("Размеры count-min скетча должны быть положительными");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.table = new long[depth][width];
+        this.candidateCapacity = candidateCapacity;
+    }
+
+    /**
+     * Увеличивает частоту значения.
+     *
+     * @param item  Значение
+     * @param count Приращение
+     */
+    public void add(String item, long count) {
+        long hash = SketchHash.hash64(item);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int column = column(hash, row);
+            table[row][column] += count;
+            estimate = Math.min(estimate, table[row][column]);
+        }
+        total += count;
+        offerCandidate(item, estimate);
+    }
+
+    /**
+     * Возвращает оценку частоты значения.
+     *
+     * @param item Значение
+     * @return Оценка сверху
+     */
+    public long estimate(String item) {
+        long hash = SketchHash.hash64(item);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, table[row][column(hash, row)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Возвращает самые частые значения с оценками частоты.
+     *
+     * @param limit Максимальное количество значений
+     * @return Значения по убыванию оценки
+     */
+    public List<Map.Entry<String, Long>> top(int limit) {
+        List<Map.Entry<String, Long>> result = new ArrayList<>();
+        for (String item : candidates.keySet()) {
+            result.add(Map.entry(item, estimate(item)));
+        }
+        result.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * Возвращает общее количество учтенных значений.
+     *
+     * @return Сумма приращений
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Возвращает верхнюю границу завышения оценки частоты.
+     *
+     * @return Максимальное завышение, выполняющееся с вероятностью {@link #getConfidence()}
+     */
+    public long getErrorBound() {
+        return (long) Math.ceil(Math.E / width * total);
+    }
+
+    /**
+     * Возвращает вероятность, с которой выполняется граница {@link #getErrorBound()}.
+     *
+     * @return Вероятность от 0 до 1
+     */
+    public double getConfidence() {
+        return 1 - Math.exp(-depth);
+    }
+
+    /**
+     * Объединяет с другим скетчем тех же размеров.
+     *
+     * @param other Другой скетч
+     */
+    public void merge(CountMinSketch other) {
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("Нельзя объединить count-min скетчи разных размеров");
+        }
+        for (int row = 0; row < depth; row++) {
+            for (int column = 0; column < width; column++) {
+                table[row][column] += other.table[row][column];
+            }
+        }
+        total += other.total;
+        Set<String> items = new HashSet<>(candidates.keySet());
+        items.addAll(other.candidates.keySet());
+        candidates.clear();
+        items.forEach(item -> offerCandidate(item, estimate(item)));
+    }
+
+    /**
+     * Записывает скетч в поток.
+     *
+     * @param output Поток
+     * @throws IOException при ошибке записи
+     */
+    public void write(DataOutput output) throws IOException {
+        output.writeInt(depth);
+        output.writeInt(width);
+        output.writeInt(candidateCapacity);
+        output.writeLong(total);
+        for (long[] row : table) {
+            for (long counter : row) {
+                output.writeLong(counter);
+            }
+        }
+        output.writeInt(candidates.size());
+        for (String item : candidates.keySet()) {
+            output.writeUTF(item);
+        }
+    }
+
+    /**
+     * Читает скетч из потока.
+     *
+     * @param input Поток
+     * @return Скетч
+     * @throws IOException при ошибке чтения
+     */
+    public static CountMinSketch read(DataInput input) throws IOException {
+        CountMinSketch sketch = new CountMinSketch(input.readInt(), input.readInt(), input.readInt());
+        sketch.total = input.readLong();
+        for (long[] row : sketch.table) {
+            for (int column = 0; column < row.length; column++) {
+                row[column] = input.readLong();
+            }
+        }
+        int candidateCount = input.readInt();
+        for (int i = 0; i < candidateCount; i++) {
+            String item = input.readUTF();
+            sketch.candidates.put(item, sketch.estimate(item));
+        }
+        return sketch;
+    }
+
+    private int column(long hash, int row) {
+        // Двойное хеширование: строки используют разные линейные комбинации половин хеша
+        int combined = (int) hash + row * (int) (hash >>> 32);
+        return Math.floorMod(combined, width);
+    }
+
+    private void offerCandidate(String item, long estimate) {
+        candidates.put(item, estimate);
+        if (candidates.size() > candidateCapacity) {
+            String weakest = null;
+            long weakestEstimate = Long.MAX_VALUE;
+            for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+                if (entry.getValue() < weakestEstimate) {
+                    weakest = entry.getKey();
+                    weakestEstimate = entry.getValue();
+                }
+            }
+            candidates.remove(weakest);
+        }
+    }
+}
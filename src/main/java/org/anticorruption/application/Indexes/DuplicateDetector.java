@@ -0,0 +1,281 @@
+package org.anticorruption.application.Indexes;
+
+import org.anticorruption.application.Models.Report;
+
+import java.util.*;
+
+/**
+ * Поиск почти одинаковых отчетов методом MinHash с локально-чувствительным хешированием (LSH).
+ * <p>
+ * Каждый отчет превращается в множество шинглов: тройки соседних слов описания,
+ * слова места инцидента и вовлеченных лиц, дата инцидента. По множеству строится
+ * MinHash-сигнатура из {@link #SIGNATURE_SIZE} значений, а сигнатура делится на полосы.
+ * Отчеты, совпавшие хотя бы в одной полосе, становятся кандидатами, и только для них
+ * оценивается сходство по доле совпавших значений сигнатуры. Так пары находятся без
+ * сравнения каждого отчета с каждым.
+ * <p>
+ * Пары со сходством не ниже порога связываются ребром; группы возможных дубликатов —
+ * это компоненты связности полученного графа.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class DuplicateDetector {
+
+    /**
+     * Количество хеш-функций в сигнатуре.
+     */
+    private static final int SIGNATURE_SIZE = 64;
+
+    /**
+     * Количество значений сигнатуры в одной полосе LSH.
+     * При 16 полосах по 4 значения кандидатами с высокой вероятностью становятся пары
+     * со сходством выше 0.5.
+     */
+    private static final int ROWS_PER_BAND = 4;
+
+    private static final int BANDS = SIGNATURE_SIZE / ROWS_PER_BAND;
+
+    /**
+     * Минимальное количество шинглов, при котором отчет участвует в поиске.
+     * Почти пустые отчеты иначе совпадали бы друг с другом.
+     */
+    private static final int MIN_SHINGLES = 5;
+
+    /**
+     * Максимальный размер корзины LSH, участники которой сравниваются с новым отчетом.
+     */
+    private static final int MAX_BUCKET_SIZE = 500;
+
+    private static final long[] SEEDS = new long[SIGNATURE_SIZE];
+
+    static {
+        Random random = new Random(0x5EEDL);
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            SEEDS[i] = random.nextLong();
+        }
+    }
+
+    private final double threshold;
+    private final Map<Long, int[]> signatures = new HashMap<>();
+    private final Map<Long, List<Long>> buckets = new HashMap<>();
+    private final Map<Long, Set<Long>> edges = new HashMap<>();
+    private final Map<Long, Integer> contentHashes = new HashMap<>();
+    private Map<Long, Long> clusters;
+
+    /**
+     * Создает детектор.
+     *
+     * @param threshold Минимальная оценка сходства (от 0 до 1), при которой отчеты считаются дубликатами
+     */
+    public DuplicateDetector(double threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Добавляет отчет или пересчитывает его связи, если значимые поля изменились.
+     *
+     * @param report Отчет
+     * @return true, если связи отчета могли измениться
+     */
+    public synchronized boolean update(Report report) {
+        Long reportId = report.getId();
+        if (reportId == null) {
+            return false;
+        }
+        Set<String> shingles = shingles(report);
+        int hash = shingles.hashCode();
+        Integer previous = contentHashes.get(reportId);
+        if (previous != null && previous == hash) {
+            return false;
+        }
+
+        remove(reportId);
+        contentHashes.put(reportId, hash);
+        if (shingles.size() < MIN_SHINGLES) {
+            return previous != null;
+        }
+
+        int[] signature = signature(shingles);
+        signatures.put(reportId, signature);
+        Set<Long> candidates = new HashSet<>();
+        for (int band = 0; band < BANDS; band++) {
+            List<Long> bucket = buckets.computeIfAbsent(bandKey(signature, band), key -> new ArrayList<>());
+            if (bucket.size() < MAX_BUCKET_SIZE) {
+                candidates.addAll(bucket);
+            }
+            bucket.add(reportId);
+        }
+
+        for (Long candidate : candidates) {
+            if (similarity(signature, signatures.get(candidate)) >= threshold) {
+                edges.computeIfAbsent(reportId, key -> new HashSet<>()).add(candidate);
+                edges.computeIfAbsent(candidate, key -> new HashSet<>()).add(reportId);
+            }
+        }
+        clusters = null;
+        return true;
+    }
+
+    /**
+     * Удаляет отчет из детектора.
+     *
+     * @param reportId Идентификатор отчета
+     */
+    public synchronized void remove(Long reportId) {
+        contentHashes.remove(reportId);
+        int[] signature = signatures.remove(reportId);
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(signature, band);
+            List<Long> bucket = buckets.get(key);
+            if (bucket != null) {
+                bucket.remove(reportId);
+                if (bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+        Set<Long> linked = edges.remove(reportId);
+        if (linked != null) {
+            for (Long other : linked) {
+                Set<Long> otherEdges = edges.get(other);
+                if (otherEdges != null) {
+                    otherEdges.remove(reportId);
+                    if (otherEdges.isEmpty()) {
+                        edges.remove(other);
+                    }
+                }
+            }
+        }
+        clusters = null;
+    }
+
+    /**
+     * Приводит детектор в соответствие с полным списком отчетов.
+     *
+     * @param reports Полный список отчетов
+     */
+    public synchronized void sync(Collection<Report> reports) {
+        Set<Long> present = new HashSet<>();
+        for (Report report : reports) {
+            if (report.getId() != null) {
+                present.add(report.getId());
+                update(report);
+            }
+        }
+        for (Long reportId : new ArrayList<>(contentHashes.keySet())) {
+            if (!present.contains(reportId)) {
+                remove(reportId);
+            }
+        }
+    }
+
+    /**
+     * Возвращает группы возможных дубликатов.
+     *
+     * @return Отображение "идентификатор отчета → идентификатор группы" (наименьший идентификатор
+     * отчета в группе); содержит только отчеты, у которых есть хотя бы один дубликат
+     */
+    public synchronized Map<Long, Long> getClusters() {
+        if (clusters == null) {
+            clusters = computeClusters();
+        }
+        return Map.copyOf(clusters);
+    }
+
+    private Map<Long, Long> computeClusters() {
+        Map<Long, Long> result = new HashMap<>();
+        for (Long start : edges.keySet()) {
+            if (result.containsKey(start)) {
+                continue;
+            }
+            List<Long> component = new ArrayList<>();
+            ArrayDeque<Long> queue = new ArrayDeque<>();
+            queue.add(start);
+            result.put(start, start);
+            while (!queue.isEmpty()) {
+                Long current = queue.poll();
+                component.add(current);
+                for (Long next : edges.getOrDefault(current, Set.of())) {
+                    if (!result.containsKey(next)) {
+                        result.put(next, start);
+                        queue.add(next);
+                    }
+                }
+            }
+            Long clusterId = Collections.min(component);
+            component.forEach(reportId -> result.put(reportId, clusterId));
+        }
+        return result;
+    }
+
+    /**
+     * Формирует множество шинглов отчета.
+     */
+    private static Set<String> shingles(Report report) {
+        Set<String> shingles = new HashSet<>();
+        String[] longTexts = report.peekLongTexts();
+        List<String> words = TextTokenizer.terms(longTexts[0]);
+        for (int i = 0; i + 2 < words.size(); i++) {
+            shingles.add(words.get(i) + ' ' + words.get(i + 1) + ' ' + words.get(i + 2));
+        }
+        if (words.size() < 3) {
+            words.forEach(word -> shingles.add("d:" + word));
+        }
+        TextTokenizer.terms(report.getIncidentLocation()).forEach(word -> shingles.add("l:" + word));
+        TextTokenizer.terms(report.getInvolvedPersons()).forEach(word -> shingles.add("p:" + word));
+        if (report.getIncidentEpochDay() != Report.NO_DATE) {
+            shingles.add("t:" + report.getIncidentEpochDay());
+        }
+        return shingles;
+    }
+
+    private static int[] signature(Set<String> shingles) {
+        int[] signature = new int[SIGNATURE_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String shingle : shingles) {
+            long base = shingle.hashCode();
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                int value = (int) (mix(base ^ SEEDS[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int i = band * ROWS_PER_BAND; i < (band + 1) * ROWS_PER_BAND; i++) {
+            key = key * 31 + signature[i];
+        }
+        return mix(key);
+    }
+
+    private static double similarity(int[] first, int[] second) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (first[i] == second[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_SIZE;
+    }
+
+    /**
+     * Перемешивание битов (финализатор MurmurHash3).
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,132 @@
+package org.anticorruption.application.Indexes;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Оценка количества различных значений алгоритмом HyperLogLog.
+ * <p>
+ * Хранит 2^precision однобайтовых регистров независимо от числа значений
+ * (при точности 14 — 16 КБ). Повторное добавление значения оценку не меняет,
+ * два экземпляра одинаковой точности объединяются поэлементным максимумом.
+ * Стандартная относительная погрешность — 1,04 / sqrt(2^precision).
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class HyperLogLog {
+
+    private final int precision;
+    private final byte[] registers;
+
+    /**
+     * Создает пустой счетчик.
+     *
+     * @param precision Количество бит индекса регистра (от 4 до 18)
+     */
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("Точность HyperLogLog должна быть от 4 до 18: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Добавляет значение.
+     *
+     * @param value Значение
+     */
+    public void add(String value) {
+        addHash(SketchHash.hash64(value));
+    }
+
+    /**
+     * Добавляет значение по его 64-битному хешу.
+     *
+     * @param hash Хеш значения
+     */
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // Сигнальный бит ограничивает длину серии нулей, если остаток хеша нулевой
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * Возвращает оценку количества различных значений.
+     *
+     * @return Оценка
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            // Для малых количеств точнее линейный подсчет по пустым регистрам
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Возвращает стандартную относительную погрешность оценки.
+     *
+     * @return Погрешность (например, 0.008 для 0,8%)
+     */
+    public double getRelativeError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    /**
+     * Объединяет с другим счетчиком той же точности.
+     *
+     * @param other Другой счетчик
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Нельзя объединить HyperLogLog разной точности");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Записывает счетчик в поток.
+     *
+     * @param output Поток
+     * @throws IOException при ошибке записи
+     */
+    public void write(DataOutput output) throws IOException {
+        output.writeByte(precision);
+        output.write(registers);
+    }
+
+    /**
+     * Читает счетчик из потока.
+     *
+     * @param input Поток
+     * @return Счетчик
+     * @throws IOException при ошибке чтения
+     */
+    public static HyperLogLog read(DataInput input) throws IOException {
+        HyperLogLog sketch = new HyperLogLog(input.readByte());
+        input.readFully(sketch.registers);
+        return sketch;
+    }
+}
@@ -0,0 +1,149 @@
+package org.anticorruption.application.Indexes;
+
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * Выделение лиц из свободного текста поля "Вовлеченные лица".
+ * <p>
+ * Текст делится на упоминания по запятым, точкам с запятой, переводам строк и союзу "и".
+ * Каждое упоминание приводится к единому ключу "фамилия и.о.", поэтому "Иванов Иван Иванович",
+ * "Иван Иванович Иванов" и "Иванов И.И." считаются одним лицом. Фамилия определяется
+ * по положению отчества (окончания -вич, -вна, -ична) или инициалов; если признаков нет,
+ * первым считается фамилия.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class PersonExtractor {
+
+    /**
+     * Приватный конструктор для предотвращения создания экземпляров.
+     * Класс предназначен только для статического использования.
+     */
+    private PersonExtractor() {
+        throw new IllegalStateException("Утилитарный класс не может быть инстанцирован");
+    }
+
+    /**
+     * Лицо, выделенное из текста.
+     */
+    @Getter
+    public static class Person {
+        /**
+         * Нормализованный ключ "фамилия и.о." в нижнем регистре.
+         */
+        private final String key;
+
+        /**
+         * Имя для отображения, например "Иванов И.И.".
+         */
+        private final String displayName;
+
+        Person(String key, String displayName) {
+            this.key = key;
+            this.displayName = displayName;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    /**
+     * Выделяет лиц из текста.
+     *
+     * @param text Текст поля "Вовлеченные лица"
+     * @return Различные лица в порядке первого упоминания
+     */
+    public static List<Person> extract(String text) {
+        Map<String, Person> persons = new LinkedHashMap<>();
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        for (String mention : text.split("[,;\\n]|\\s+и\\s+")) {
+            Person person = parse(mention);
+            if (person != null) {
+                persons.putIfAbsent(person.getKey(), person);
+            }
+        }
+        return new ArrayList<>(persons.values());
+    }
+
+    private static Person parse(String mention) {
+        List<String> words = new ArrayList<>();
+        List<String> initials = new ArrayList<>();
+        for (String part : mention.split("[^\\p{L}]+")) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            String word = part.toLowerCase().replace('ё', 'е');
+            if (word.length() == 1) {
+                initials.add(word);
+            } else if (word.length() == 2 && Character.isUpperCase(part.charAt(0)) && Character.isUpperCase(part.charAt(1))) {
+                // Инициалы без точек: "Иванов ИИ"
+                initials.add(word.substring(0, 1));
+                initials.add(word.substring(1));
+            } else {
+                words.add(word);
+            }
+        }
+        if (words.isEmpty()) {
+            return null;
+        }
+
+        String surname;
+        List<String> nameInitials = new ArrayList<>();
+        if (!initials.isEmpty()) {
+            surname = words.get(0);
+            nameInitials.addAll(initials);
+        } else if (words.size() >= 3) {
+            int patronymic = findPatronymic(words);
+            if (patronymic == 1) {
+                // "Имя Отчество Фамилия"
+                surname = words.get(2);
+                nameInitials.add(words.get(0).substring(0, 1));
+                nameInitials.add(words.get(1).substring(0, 1));
+            } else {
+                // "Фамилия Имя Отчество"
+                surname = words.get(0);
+                nameInitials.add(words.get(1).substring(0, 1));
+                nameInitials.add(words.get(2).substring(0, 1));
+            }
+        } else {
+            surname = words.get(0);
+            if (words.size() == 2) {
+                nameInitials.add(words.get(1).substring(0, 1));
+            }
+        }
+
+        StringBuilder key = new StringBuilder(surname);
+        StringBuilder display = new StringBuilder(capitalize(surname));
+        if (!nameInitials.isEmpty()) {
+            key.append(' ');
+            display.append(' ');
+            for (String initial : nameInitials.subList(0, Math.min(2, nameInitials.size()))) {
+                key.append(initial).append('.');
+                display.append(initial.toUpperCase()).append('.');
+            }
+        }
+        return new Person(key.toString(), display.toString());
+    }
+
+    private static int findPatronymic(List<String> words) {
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            if (word.endsWith("вич") || word.endsWith("вна") || word.endsWith("ична") || word.endsWith("ич")) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
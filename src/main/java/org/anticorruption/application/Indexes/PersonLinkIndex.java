@@ -0,0 +1,101 @@
+package org.anticorruption.application.Indexes;
+
+import java.util.*;
+
+/**
+ * Таблица связей "отчет ↔ сотрудник", упомянутый в отчете.
+ * <p>
+ * Хранит связи в обе стороны, поэтому и список сотрудников отчета,
+ * и список отчетов, упоминающих сотрудника, получаются за O(1).
+ * Обновление отчета изменяет только те связи, которые действительно поменялись.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class PersonLinkIndex {
+
+    private final Map<Long, Set<Long>> usersByReport = new HashMap<>();
+    private final Map<Long, Set<Long>> reportsByUser = new HashMap<>();
+
+    /**
+     * Устанавливает набор сотрудников, упомянутых в отчете.
+     *
+     * @param reportId Идентификатор отчета
+     * @param userIds  Идентификаторы упомянутых сотрудников
+     * @return true, если связи отчета изменились
+     */
+    public synchronized boolean put(Long reportId, Set<Long> userIds) {
+        Set<Long> previous = usersByReport.getOrDefault(reportId, Set.of());
+        if (previous.equals(userIds)) {
+            return false;
+        }
+        for (Long userId : previous) {
+            if (!userIds.contains(userId)) {
+                unlink(userId, reportId);
+            }
+        }
+        for (Long userId : userIds) {
+            if (!previous.contains(userId)) {
+                reportsByUser.computeIfAbsent(userId, key -> new HashSet<>()).add(reportId);
+            }
+        }
+        if (userIds.isEmpty()) {
+            usersByReport.remove(reportId);
+        } else {
+            usersByReport.put(reportId, new HashSet<>(userIds));
+        }
+        return true;
+    }
+
+    /**
+     * Удаляет все связи отчета.
+     *
+     * @param reportId Идентификатор отчета
+     */
+    public synchronized void remove(Long reportId) {
+        Set<Long> users = usersByReport.remove(reportId);
+        if (users != null) {
+            users.forEach(userId -> unlink(userId, reportId));
+        }
+    }
+
+    /**
+     * Возвращает отчеты, в которых упоминается сотрудник.
+     *
+     * @param userId Идентификатор сотрудника
+     * @return Копия множества идентификаторов отчетов
+     */
+    public synchronized Set<Long> getReportIds(Long userId) {
+        return Set.copyOf(reportsByUser.getOrDefault(userId, Set.of()));
+    }
+
+    /**
+     * Возвращает сотрудников, упомянутых в отчете.
+     *
+     * @param reportId Идентификатор отчета
+     * @return Копия множества идентификаторов сотрудников
+     */
+    public synchronized Set<Long> getUserIds(Long reportId) {
+        return Set.copyOf(usersByReport.getOrDefault(reportId, Set.of()));
+    }
+
+    /**
+     * Возвращает идентификаторы всех отчетов, имеющих связи.
+     *
+     * @return Копия множества идентификаторов отчетов
+     */
+    public synchronized Set<Long> getLinkedReportIds() {
+        return Set.copyOf(usersByReport.keySet());
+    }
+
+    private void unlink(Long userId, Long reportId) {
+        Set<Long> reports = reportsByUser.get(userId);
+        if (reports != null) {
+            reports.remove(reportId);
+            if (reports.isEmpty()) {
+                reportsByUser.remove(userId);
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package org.anticorruption.application.Indexes;
+
+import org.anticorruption.application.Models.UserSummary;
+
+import java.util.*;
+
+/**
+ * Поиск упоминаний сотрудников в произвольном тексте по алгоритму Ахо–Корасик.
+ * <p>
+ * Автомат строится один раз по вариантам написания ФИО всех сотрудников:
+ * "Фамилия Имя Отчество", "Имя Отчество Фамилия", "Фамилия Имя", "Имя Фамилия",
+ * "Фамилия И.О.", "И.О. Фамилия", "Фамилия И.", "И. Фамилия". После этого любой текст
+ * просматривается за один проход, время которого линейно зависит от длины текста
+ * и не зависит от количества сотрудников.
+ * <p>
+ * Текст и образцы нормализуются одинаково: нижний регистр, "ё" → "е", все символы,
+ * кроме букв, заменяются одним пробелом. Образцы ограничены пробелами с обеих сторон,
+ * поэтому совпадают только целые слова ("Иванов" не находится в "Иванова").
+ * Экземпляр неизменяем и может использоваться из нескольких потоков.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class PersonMatcher {
+
+    /**
+     * Символы переходов каждого узла, упорядоченные по возрастанию.
+     */
+    private final char[][] labels;
+
+    /**
+     * Узлы-приемники переходов, в том же порядке, что и {@link #labels}.
+     */
+    private final int[][] targets;
+
+    /**
+     * Суффиксные ссылки.
+     */
+    private final int[] fail;
+
+    /**
+     * Ближайший по суффиксной ссылке узел, в котором заканчивается образец, или -1.
+     */
+    private final int[] outputLink;
+
+    /**
+     * Сотрудники, образцы которых заканчиваются в узле.
+     */
+    private final long[][] outputs;
+
+    private PersonMatcher(char[][] labels, int[][] targets, int[] fail, int[] outputLink, long[][] outputs) {
+        this.labels = labels;
+        this.targets = targets;
+        this.fail = fail;
+        this.outputLink = outputLink;
+        this.outputs = outputs;
+    }
+
+    /**
+     * Строит автомат по справочнику сотрудников.
+     *
+     * @param users Сотрудники
+     * @return Готовый автомат
+     */
+    public static PersonMatcher build(Collection<UserSummary> users) {
+        List<Map<Character, Integer>> children = new ArrayList<>();
+        List<Set<Long>> nodeOutputs = new ArrayList<>();
+        children.add(new HashMap<>());
+        nodeOutputs.add(null);
+
+        for (UserSummary user : users) {
+            if (user.getId() == null) {
+                continue;
+            }
+            for (String variant : nameVariants(user)) {
+                int node = 0;
+                for (int i = 0; i < variant.length(); i++) {
+                    char c = variant.charAt(i);
+                    Integer next = children.get(node).get(c);
+                    if (next == null) {
+                        next = children.size();
+                        children.add(new HashMap<>());
+                        nodeOutputs.add(null);
+                        children.get(node).put(c, next);
+                    }
+                    node = next;
+                }
+                if (nodeOutputs.get(node) == null) {
+                    nodeOutputs.set(node, new HashSet<>());
+                }
+                nodeOutputs.get(node).add(user.getId());
+            }
+        }
+
+        int count = children.size();
+        char[][] labels = new char[count][];
+        int[][] targets = new int[count][];
+        long[][] outputs = new long[count][];
+        for (int node = 0; node < count; node++) {
+            List<Character> keys = new ArrayList<>(children.get(node).keySet());
+            Collections.sort(keys);
+            labels[node] = new char[keys.size()];
+            targets[node] = new int[keys.size()];
+            for (int i = 0; i < keys.size(); i++) {
+                labels[node][i] = keys.get(i);
+                targets[node][i] = children.get(node).get(keys.get(i));
+            }
+            Set<Long> ids = nodeOutputs.get(node);
+            outputs[node] = ids != null ? ids.stream().mapToLong(Long::longValue).toArray() : null;
+        }
+
+        // Суффиксные ссылки строятся обходом в ширину
+        int[] fail = new int[count];
+        int[] outputLink = new int[count];
+        Arrays.fill(outputLink, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            queue.add(child);
+        }
+        PersonMatcher partial = new PersonMatcher(labels, targets, fail, outputLink, outputs);
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < labels[node].length; i++) {
+                char c = labels[node][i];
+                int child = targets[node][i];
+                int state = fail[node];
+                while (state != 0 && partial.transition(state, c) < 0) {
+                    state = fail[state];
+                }
+                int next = partial.transition(state, c);
+                fail[child] = next >= 0 && next != child ? next : 0;
+                outputLink[child] = outputs[fail[child]] != null ? fail[child] : outputLink[fail[child]];
+                queue.add(child);
+            }
+        }
+        return partial;
+    }
+
+    /**
+     * Находит сотрудников, упомянутых в тексте.
+     *
+     * @param text Текст (например, поле "Вовлеченные лица" отчета)
+     * @return Идентификаторы упомянутых сотрудников
+     */
+    public Set<Long> match(String text) {
+        Set<Long> found = new HashSet<>();
+        if (text == null || text.isEmpty()) {
+            return found;
+        }
+
+        int state = 0;
+        String normalized = normalize(text);
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            int next = transition(state, c);
+            while (next < 0 && state != 0) {
+                state = fail[state];
+                next = transition(state, c);
+            }
+            state = next >= 0 ? next : 0;
+
+            for (int node = outputs[state] != null ? state : outputLink[state]; node >= 0; node = outputLink[node]) {
+                for (long userId : outputs[node]) {
+                    found.add(userId);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Нормализует текст для сопоставления: нижний регистр, "ё" → "е",
+     * последовательности не-букв заменяются одним пробелом, по краям добавляются пробелы.
+     *
+     * @param text Исходный текст
+     * @return Нормализованный текст
+     */
+    public static String normalize(String text) {
+        StringBuilder builder = new StringBuilder(text.length() + 2).append(' ');
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (Character.isLetter(c)) {
+                builder.append(c == 'ё' ? 'е' : c);
+            } else if (builder.charAt(builder.length() - 1) != ' ') {
+                builder.append(' ');
+            }
+        }
+        if (builder.charAt(builder.length() - 1) != ' ') {
+            builder.append(' ');
+        }
+        return builder.toString();
+    }
+
+    private int transition(int node, char c) {
+        int index = Arrays.binarySearch(labels[node], c);
+        return index >= 0 ? targets[node][index] : -1;
+    }
+
+    /**
+     * Формирует нормализованные варианты написания ФИО сотрудника.
+     */
+    private static Set<String> nameVariants(UserSummary user) {
+        Set<String> variants = new LinkedHashSet<>();
+        String last = word(user.getLastName());
+        String first = word(user.getFirstName());
+        String middle = word(user.getMiddleName());
+        if (last == null) {
+            return variants;
+        }
+
+        if (first != null) {
+            String firstInitial = first.substring(0, 1);
+            variants.add(join(last, first));
+            variants.add(join(first, last));
+            variants.add(join(last, firstInitial));
+            variants.add(join(firstInitial, last));
+            if (middle != null) {
+                String middleInitial = middle.substring(0, 1);
+                variants.add(join(last, first, middle));
+                variants.add(join(first, middle, last));
+                variants.add(join(last, firstInitial, middleInitial));
+                variants.add(join(firstInitial, middleInitial, last));
+            }
+        }
+        return variants;
+    }
+
+    private static String word(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = normalize(value).trim();
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private static String join(String... words) {
+        return " " + String.join(" ", words) + " ";
+    }
+}
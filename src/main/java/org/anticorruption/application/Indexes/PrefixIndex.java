@@ -0,0 +1,429 @@
+package org.anticorruption.application.Indexes;
+
+import java.util.*;
+
+/**
+ * Префиксное дерево для подсказок при вводе с ранжированием по частоте.
+ * <p>
+ * Значения нормализуются (нижний регистр, "ё" как "е", знаки препинания как пробелы),
+ * поэтому разные написания одного значения считаются одним термином, а в подсказке
+ * показывается самое частое написание. Помимо начала значения в дерево добавляются
+ * начала следующих слов (до заданного количества), чтобы "Ленина" находило
+ * "г. Москва, ул. Ленина".
+ * <p>
+ * Дерево хранится в параллельных массивах без объекта на узел. Узлы глубиной до
+ * {@value #TOP_DEPTH} хранят идентификаторы самых частых терминов своего поддерева,
+ * поэтому подсказка для короткого префикса требует только спуска по дереву.
+ * Увеличение частоты обновляет эти списки на пути термина; уменьшение помечает
+ * затронутые списки устаревшими, и они пересчитываются при следующем запросе.
+ * Класс не потокобезопасен.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public final class PrefixIndex {
+
+    /**
+     * Максимальная глубина узлов с готовым списком лучших терминов.
+     */
+    static final int TOP_DEPTH = 12;
+
+    /**
+     * Длина индексируемой части значения от каждого начала слова.
+     */
+    private static final int MAX_KEY_LENGTH = 48;
+
+    private static final int NO_NODE = -1;
+    private static final int ROOT = 0;
+
+    private final int wordStarts;
+    private final int topSize;
+
+    private int nodeCount;
+    private char[] label;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] postingHead;
+    private int[][] top;
+
+    private int postingCount;
+    private int[] postingTerm;
+    private int[] postingNext;
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<String> termKeys = new ArrayList<>();
+    private final List<String> termDisplay = new ArrayList<>();
+    private final List<Map<String, Integer>> termSpellings = new ArrayList<>();
+    private int[] termWeight = new int[16];
+
+    /**
+     * Создает пустой индекс.
+     *
+     * @param wordStarts Сколько начал слов индексировать для каждого значения (не меньше 1)
+     * @param topSize    Сколько лучших терминов хранить в узле
+     */
+    public PrefixIndex(int wordStarts, int topSize) {
+        this.wordStarts = Math.max(1, wordStarts);
+        this.topSize = Math.max(1, topSize);
+        clear();
+    }
+
+    /**
+     * Удаляет все значения.
+     */
+    public void clear() {
+        nodeCount = 0;
+        label = new char[1024];
+        firstChild = new int[1024];
+        nextSibling = new int[1024];
+        postingHead = new int[1024];
+        top = new int[1024][];
+        postingCount = 0;
+        postingTerm = new int[256];
+        postingNext = new int[256];
+        termIds.clear();
+        termKeys.clear();
+        termDisplay.clear();
+        termSpellings.clear();
+        termWeight = new int[16];
+        newNode('\0');
+    }
+
+    /**
+     * Строит индекс заново по частотам значений. Списки лучших терминов
+     * вычисляются сразу, за один обход дерева.
+     *
+     * @param counts Количество по значению в исходном написании
+     */
+    public void rebuild(Map<String, Integer> counts) {
+        clear();
+        counts.forEach((text, count) -> {
+            if (count > 0) {
+                addWithoutRanking(text, count);
+            }
+        });
+        computeTop(ROOT, 0);
+    }
+
+    /**
+     * Изменяет частоту значения.
+     *
+     * @param text  Значение в исходном написании
+     * @param delta Изменение частоты (может быть отрицательным)
+     */
+    public void add(String text, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        int term = addWithoutRanking(text, delta);
+        if (term < 0) {
+            return;
+        }
+        for (String suffix : suffixes(termKeys.get(term))) {
+            int node = ROOT;
+            updateTop(node, term, delta);
+            for (int depth = 1; depth <= Math.min(suffix.length(), TOP_DEPTH); depth++) {
+                node = findChild(node, suffix.charAt(depth - 1));
+                updateTop(node, term, delta);
+            }
+        }
+    }
+
+    /**
+     * Возвращает самые частые значения, начинающиеся с префикса (или содержащие
+     * слово, начинающееся с него).
+     *
+     * @param prefix Введенный текст
+     * @param limit  Максимальное количество подсказок (не больше размера списка в узле)
+     * @return Значения в самом частом написании по убыванию частоты
+     */
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            key = key.substring(0, MAX_KEY_LENGTH);
+        }
+        int node = ROOT;
+        for (int i = 0; i < key.length() && node != NO_NODE; i++) {
+            node = findChild(node, key.charAt(i));
+        }
+        if (node == NO_NODE) {
+            return List.of();
+        }
+        int[] best = computeTop(node, key.length());
+        List<String> result = new ArrayList<>(Math.min(limit, best.length));
+        for (int i = 0; i < best.length && result.size() < limit; i++) {
+            result.add(termDisplay.get(best[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает количество различных терминов, включая термины с нулевой частотой.
+     *
+     * @return Количество терминов
+     */
+    public int size() {
+        return termDisplay.size();
+    }
+
+    /**
+     * Приводит значение к форме, по которой сравниваются написания.
+     *
+     * @param text Значение
+     * @return Нормализованное значение
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder result = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && !result.isEmpty()) {
+                    result.append(' ');
+                }
+                space = false;
+                c = Character.toLowerCase(c);
+                result.append(c == 'ё' ? 'е' : c);
+            } else {
+                space = true;
+            }
+        }
+        return result.toString();
+    }
+
+    private int addWithoutRanking(String text, int delta) {
+        String key = normalize(text);
+        if (key.isEmpty()) {
+            return -1;
+        }
+        Integer existing = termIds.get(key);
+        int term;
+        if (existing != null) {
+            term = existing;
+        } else {
+            term = termDisplay.size();
+            termIds.put(key, term);
+            termKeys.add(key);
+            termDisplay.add(text.strip());
+            termSpellings.add(new HashMap<>(2));
+            if (term == termWeight.length) {
+                termWeight = Arrays.copyOf(termWeight, term * 2);
+            }
+            for (String suffix : suffixes(key)) {
+                insert(suffix, term);
+            }
+        }
+        termWeight[term] = Math.max(0, termWeight[term] + delta);
+
+        Map<String, Integer> spellings = termSpellings.get(term);
+        String spelling = text.strip();
+        int spellingCount = spellings.merge(spelling, delta, Integer::sum);
+        if (spellingCount <= 0) {
+            spellings.remove(spelling);
+        }
+        String display = termDisplay.get(term);
+        if (!spelling.equals(display) && spellingCount > spellings.getOrDefault(display, 0)) {
+            termDisplay.set(term, spelling);
+        } else if (spelling.equals(display) && spellingCount <= 0 && !spellings.isEmpty()) {
+            termDisplay.set(term, Collections.max(spellings.entrySet(), Map.Entry.comparingByValue()).getKey());
+        }
+        return term;
+    }
+
+    private List<String> suffixes(String key) {
+        List<String> result = new ArrayList<>(wordStarts);
+        int start = 0;
+        while (start >= 0 && result.size() < wordStarts) {
+            result.add(key.length() - start > MAX_KEY_LENGTH ? key.substring(start, start + MAX_KEY_LENGTH) : key.substring(start));
+            int space = key.indexOf(' ', start);
+            start = space >= 0 ? space + 1 : -1;
+        }
+        return result;
+    }
+
+    private void insert(String suffix, int term) {
+        int node = ROOT;
+        for (int i = 0; i < suffix.length(); i++) {
+            char c = suffix.charAt(i);
+            int child = findChild(node, c);
+            if (child == NO_NODE) {
+                child = newNode(c);
+                nextSibling[child] = firstChild[node];
+                firstChild[node] = child;
+            }
+            if (i < TOP_DEPTH) {
+                // Новый термин в поддереве: готовый список пересчитывается при запросе
+                top[node] = null;
+            }
+            node = child;
+        }
+        if (suffix.length() <= TOP_DEPTH) {
+            top[node] = null;
+        }
+        for (int posting = postingHead[node]; posting != NO_NODE; posting = postingNext[posting]) {
+            if (postingTerm[posting] == term) {
+                return;
+            }
+        }
+        if (postingCount == postingTerm.length) {
+            postingTerm = Arrays.copyOf(postingTerm, postingCount * 2);
+            postingNext = Arrays.copyOf(postingNext, postingCount * 2);
+        }
+        postingTerm[postingCount] = term;
+        postingNext[postingCount] = postingHead[node];
+        postingHead[node] = postingCount++;
+    }
+
+    private int newNode(char c) {
+        if (nodeCount == label.length) {
+            int capacity = nodeCount * 2;
+            label = Arrays.copyOf(label, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            postingHead = Arrays.copyOf(postingHead, capacity);
+            top = Arrays.copyOf(top, capacity);
+        }
+        int node = nodeCount++;
+        label[node] = c;
+        firstChild[node] = NO_NODE;
+        nextSibling[node] = NO_NODE;
+        postingHead[node] = NO_NODE;
+        return node;
+    }
+
+    private int findChild(int node, char c) {
+        for (int child = firstChild[node]; child != NO_NODE; child = nextSibling[child]) {
+            if (label[child] == c) {
+                return child;
+            }
+        }
+        return NO_NODE;
+    }
+
+    /**
+     * Обновляет готовый список узла после изменения частоты термина.
+     */
+    private void updateTop(int node, int term, int delta) {
+        int[] best = top[node];
+        if (best == null) {
+            return;
+        }
+        int position = indexOf(best, best.length, term);
+        if (delta < 0) {
+            if (position >= 0) {
+                // Термин мог опуститься ниже термина, которого нет в списке
+                top[node] = null;
+            }
+            return;
+        }
+        if (position < 0) {
+            if (best.length < topSize) {
+                best = Arrays.copyOf(best, best.length + 1);
+            } else if (rank(term, best[best.length - 1]) >= 0) {
+                return;
+            }
+            position = best.length - 1;
+            best[position] = term;
+        }
+        while (position > 0 && rank(best[position], best[position - 1]) < 0) {
+            int swap = best[position];
+            best[position] = best[position - 1];
+            best[position - 1] = swap;
+            position--;
+        }
+        top[node] = best;
+    }
+
+    /**
+     * Возвращает лучшие термины поддерева, вычисляя и запоминая список для неглубоких узлов.
+     * Список узла собирается из списков дочерних узлов: лучшие термины объединения
+     * всегда входят в объединение лучших терминов частей.
+     */
+    private int[] computeTop(int node, int depth) {
+        if (depth <= TOP_DEPTH && top[node] != null) {
+            return top[node];
+        }
+        int[] best = new int[topSize];
+        int size = 0;
+        if (depth < TOP_DEPTH) {
+            for (int posting = postingHead[node]; posting != NO_NODE; posting = postingNext[posting]) {
+                size = offer(best, size, postingTerm[posting]);
+            }
+            for (int child = firstChild[node]; child != NO_NODE; child = nextSibling[child]) {
+                for (int term : computeTop(child, depth + 1)) {
+                    size = offer(best, size, term);
+                }
+            }
+        } else {
+            // Глубокие узлы без списков: обходим поддерево целиком
+            int[] stack = new int[16];
+            int stackSize = 0;
+            stack[stackSize++] = node;
+            while (stackSize > 0) {
+                int current = stack[--stackSize];
+                for (int posting = postingHead[current]; posting != NO_NODE; posting = postingNext[posting]) {
+                    size = offer(best, size, postingTerm[posting]);
+                }
+                for (int child = firstChild[current]; child != NO_NODE; child = nextSibling[child]) {
+                    if (stackSize == stack.length) {
+                        stack = Arrays.copyOf(stack, stackSize * 2);
+                    }
+                    stack[stackSize++] = child;
+                }
+            }
+        }
+        best = Arrays.copyOf(best, size);
+        if (depth <= TOP_DEPTH) {
+            top[node] = best;
+        }
+        return best;
+    }
+
+    /**
+     * Добавляет термин в упорядоченный список лучших, если он туда проходит.
+     *
+     * @return Новый размер списка
+     */
+    private int offer(int[] best, int size, int term) {
+        if (termWeight[term] == 0 || indexOf(best, size, term) >= 0) {
+            return size;
+        }
+        int position;
+        if (size < best.length) {
+            position = size++;
+        } else if (rank(term, best[size - 1]) < 0) {
+            position = size - 1;
+        } else {
+            return size;
+        }
+        best[position] = term;
+        while (position > 0 && rank(best[position], best[position - 1]) < 0) {
+            int swap = best[position];
+            best[position] = best[position - 1];
+            best[position - 1] = swap;
+            position--;
+        }
+        return size;
+    }
+
+    private int rank(int first, int second) {
+        int byWeight = Integer.compare(termWeight[second], termWeight[first]);
+        return byWeight != 0 ? byWeight : Integer.compare(first, second);
+    }
+
+    private static int indexOf(int[] array, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
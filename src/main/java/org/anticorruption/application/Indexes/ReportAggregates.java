@@ -0,0 +1,334 @@
+package org.anticorruption.application.Indexes;
+
+import lombok.Getter;
+import org.anticorruption.application.Models.Report;
+import org.anticorruption.application.Models.ReportStatus;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.regex.Pattern;
+
+/**
+ * Сводные показатели по отчетам: количество по статусам, сотрудникам, местам инцидента
+ * и дням даты инцидента.
+ * <p>
+ * Вклад каждого отчета запоминается, поэтому изменение отчета меняет счетчики только
+ * на разницу между старым и новым вкладом. Полный пересчет по списку отчетов выполняется
+ * параллельно на пуле fork-join: список делится на части, каждая часть считается отдельно,
+ * затем частичные счетчики складываются.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class ReportAggregates {
+
+    /**
+     * Подпись для отчетов без назначенного сотрудника.
+     */
+    public static final String NOT_ASSIGNED = "Не назначен";
+
+    /**
+     * Подпись для отчетов без места инцидента.
+     */
+    public static final String NO_LOCATION = "Не указано";
+
+    /**
+     * Размер части списка, которая считается без дальнейшего деления.
+     */
+    private static final int SPLIT_THRESHOLD = 10_000;
+
+    private static final ReportStatus[] STATUSES = ReportStatus.values();
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s{2,}|[\\t\\n\\r]");
+
+    private Counts counts = new Counts();
+    private Map<Long, Contribution> contributions = new HashMap<>();
+
+    /**
+     * Вклад одного отчета в счетчики.
+     */
+    private record Contribution(int status, String agent, String location, int epochDay) {
+    }
+
+    /**
+     * Набор счетчиков.
+     */
+    private static final class Counts {
+        final int[] byStatus = new int[STATUSES.length];
+        final Map<String, int[]> byAgent = new HashMap<>();
+        final Map<String, int[]> byLocation = new HashMap<>();
+        final Map<Integer, int[]> byDay = new HashMap<>();
+        int total;
+
+        void apply(Contribution contribution, int sign) {
+            total += sign;
+            byStatus[contribution.status()] += sign;
+            add(byAgent, contribution.agent(), sign);
+            add(byLocation, contribution.location(), sign);
+            if (contribution.epochDay() != Report.NO_DATE) {
+                add(byDay, contribution.epochDay(), sign);
+            }
+        }
+
+        void merge(Counts other) {
+            total += other.total;
+            for (int i = 0; i < byStatus.length; i++) {
+                byStatus[i] += other.byStatus[i];
+            }
+            other.byAgent.forEach((key, count) -> add(byAgent, key, count[0]));
+            other.byLocation.forEach((key, count) -> add(byLocation, key, count[0]));
+            other.byDay.forEach((key, count) -> add(byDay, key, count[0]));
+        }
+
+        private static <K> void add(Map<K, int[]> map, K key, int delta) {
+            int[] count = map.computeIfAbsent(key, k -> new int[1]);
+            count[0] += delta;
+            if (count[0] == 0) {
+                map.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Неизменяемый снимок показателей для отображения.
+     */
+    @Getter
+    public static class Snapshot {
+        /**
+         * Общее количество отчетов.
+         */
+        private final int total;
+
+        /**
+         * Количество отчетов по статусам.
+         */
+        private final Map<ReportStatus, Integer> byStatus;
+
+        /**
+         * Сотрудники с наибольшим количеством отчетов, по убыванию.
+         */
+        private final List<Map.Entry<String, Integer>> topAgents;
+
+        /**
+         * Места инцидентов с наибольшим количеством отчетов, по убыванию.
+         */
+        private final List<Map.Entry<String, Integer>> topLocations;
+
+        /**
+         * Количество отчетов по дням даты инцидента.
+         */
+        private final NavigableMap<LocalDate, Integer> byDay;
+
+        /**
+         * Количество отчетов по неделям даты инцидента (ключ — понедельник недели).
+         */
+        private final NavigableMap<LocalDate, Integer> byWeek;
+
+        Snapshot(int total, Map<ReportStatus, Integer> byStatus, List<Map.Entry<String, Integer>> topAgents,
+                 List<Map.Entry<String, Integer>> topLocations, NavigableMap<LocalDate, Integer> byDay,
+                 NavigableMap<LocalDate, Integer> byWeek) {
+            this.total = total;
+            this.byStatus = byStatus;
+            this.topAgents = topAgents;
+            this.topLocations = topLocations;
+            this.byDay = byDay;
+            this.byWeek = byWeek;
+        }
+    }
+
+    /**
+     * Учитывает отчет или обновляет его вклад.
+     *
+     * @param report Отчет
+     */
+    public synchronized void update(Report report) {
+        if (report.getId() == null) {
+            return;
+        }
+        Contribution contribution = contributionOf(report);
+        Contribution previous = contributions.put(report.getId(), contribution);
+        if (contribution.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            counts.apply(previous, -1);
+        }
+        counts.apply(contribution, 1);
+    }
+
+    /**
+     * Исключает отчет из показателей.
+     *
+     * @param reportId Идентификатор отчета
+     */
+    public synchronized void remove(Long reportId) {
+        Contribution previous = contributions.remove(reportId);
+        if (previous != null) {
+            counts.apply(previous, -1);
+        }
+    }
+
+    /**
+     * Приводит показатели в соответствие с полным списком отчетов, применяя только
+     * разницу: неизменившиеся отчеты счетчики не затрагивают.
+     *
+     * @param reports Полный список отчетов
+     */
+    public void sync(Collection<Report> reports) {
+        Set<Long> present = new HashSet<>();
+        for (Report report : reports) {
+            if (report.getId() != null) {
+                present.add(report.getId());
+                update(report);
+            }
+        }
+        List<Long> missing;
+        synchronized (this) {
+            missing = contributions.keySet().stream().filter(id -> !present.contains(id)).toList();
+        }
+        missing.forEach(this::remove);
+    }
+
+    /**
+     * Проверяет, учтен ли хотя бы один отчет.
+     *
+     * @return true, если показатели пусты
+     */
+    public synchronized boolean isEmpty() {
+        return contributions.isEmpty();
+    }
+
+    /**
+     * Пересчитывает показатели по полному списку отчетов параллельно на указанном пуле.
+     *
+     * @param reports Полный список отчетов
+     * @param pool    Пул fork-join для пересчета
+     */
+    public void rebuild(List<Report> reports, ForkJoinPool pool) {
+        Map<Long, Contribution> newContributions = new ConcurrentHashMap<>(Math.max(16, reports.size() * 4 / 3));
+        Counts newCounts = pool.invoke(new CountTask(reports, 0, reports.size(), newContributions));
+        synchronized (this) {
+            counts = newCounts;
+            contributions = newContributions;
+        }
+    }
+
+    /**
+     * Возвращает снимок текущих показателей.
+     *
+     * @param limit Максимальное количество сотрудников и мест в снимке
+     * @return Снимок показателей
+     */
+    public synchronized Snapshot snapshot(int limit) {
+        Map<ReportStatus, Integer> byStatus = new EnumMap<>(ReportStatus.class);
+        for (int i = 0; i < STATUSES.length; i++) {
+            if (counts.byStatus[i] > 0) {
+                byStatus.put(STATUSES[i], counts.byStatus[i]);
+            }
+        }
+        NavigableMap<LocalDate, Integer> byDay = new TreeMap<>();
+        NavigableMap<LocalDate, Integer> byWeek = new TreeMap<>();
+        counts.byDay.forEach((epochDay, count) -> {
+            LocalDate day = LocalDate.ofEpochDay(epochDay);
+            byDay.put(day, count[0]);
+            byWeek.merge(day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)), count[0], Integer::sum);
+        });
+        return new Snapshot(counts.total, byStatus, top(counts.byAgent, limit), top(counts.byLocation, limit), byDay, byWeek);
+    }
+
+    private static List<Map.Entry<String, Integer>> top(Map<String, int[]> map, int limit) {
+        PriorityQueue<Map.Entry<String, Integer>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+        map.forEach((key, count) -> {
+            heap.add(Map.entry(key, count[0]));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        });
+        List<Map.Entry<String, Integer>> result = new ArrayList<>(heap);
+        result.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        return result;
+    }
+
+    private static Contribution contributionOf(Report report) {
+        ReportStatus status = report.getStatus() != null ? report.getStatus() : ReportStatus.UNKNOWN;
+        return new Contribution(status.ordinal(), agentLabel(report), locationLabel(report), report.getIncidentEpochDay());
+    }
+
+    /**
+     * Возвращает подпись назначенного сотрудника для группировки.
+     *
+     * @param report Отчет
+     * @return ФИО, идентификатор или {@link #NOT_ASSIGNED}
+     */
+    public static String agentLabel(Report report) {
+        String agent = report.getAssignedToFullName();
+        if (agent == null || agent.isBlank()) {
+            agent = report.getAssignedTo();
+        }
+        return agent == null || agent.isBlank() ? NOT_ASSIGNED : agent.trim();
+    }
+
+    /**
+     * Возвращает место инцидента для группировки: без крайних и повторяющихся пробелов.
+     *
+     * @param report Отчет
+     * @return Место или {@link #NO_LOCATION}
+     */
+    public static String locationLabel(Report report) {
+        String location = report.getIncidentLocation();
+        return location == null || location.isBlank() ? NO_LOCATION : WHITESPACE.matcher(location.trim()).replaceAll(" ");
+    }
+
+    /**
+     * Подсчет показателей для части списка отчетов.
+     * Задача выполняется только в пуле потоков и никогда не сериализуется.
+     */
+    @SuppressWarnings("serial")
+    private static final class CountTask extends RecursiveTask<Counts> {
+        private final List<Report> reports;
+        private final int from;
+        private final int to;
+        private final Map<Long, Contribution> contributions;
+
+        CountTask(List<Report> reports, int from, int to, Map<Long, Contribution> contributions) {
+            this.reports = reports;
+            this.from = from;
+            this.to = to;
+            this.contributions = contributions;
+        }
+
+        @Override
+        protected Counts compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                Counts result = new Counts();
+                for (int i = from; i < to; i++) {
+                    Report report = reports.get(i);
+                    if (report.getId() == null) {
+                        continue;
+                    }
+                    Contribution contribution = contributionOf(report);
+                    Contribution previous = contributions.put(report.getId(), contribution);
+                    if (previous != null) {
+                        // Повтор идентификатора в списке: учитывается последняя копия
+                        result.apply(previous, -1);
+                    }
+                    result.apply(contribution, 1);
+                }
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            CountTask left = new CountTask(reports, from, middle, contributions);
+            left.fork();
+            Counts right = new CountTask(reports, middle, to, contributions).compute();
+            Counts result = left.join();
+            result.merge(right);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,638 @@
+package org.anticorruption.application.Indexes;
+
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+import org.anticorruption.application.Models.CompressedText;
+import org.anticorruption.application.Models.Report;
+import org.anticorruption.application.Models.ReportStatus;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Колоночное хранилище отчетов для больших выборок.
+ * <p>
+ * Вместо объекта {@link Report} на каждую строку хранилище держит по массиву на поле:
+ * <ul>
+ *     <li>идентификаторы и даты — в примитивных массивах (long, int, short);</li>
+ *     <li>повторяющиеся значения (статус, место инцидента, заявитель, назначенный сотрудник) —
+ *     кодами словаря, каждая уникальная строка хранится один раз; неизвестный код статуса
+ *     сохраняется как есть;</li>
+ *     <li>описание, доказательства и решение — в куче в уже сжатом виде {@link CompressedText},
+ *     без повторного сжатия, или, по выбору, вне кучи в прямых буферах в кодировке UTF-8;</li>
+ *     <li>вовлеченные лица и свидетели — в куче или вне кучи в кодировке UTF-8.</li>
+ * </ul>
+ * Для {@code TableView} хранилище предоставляет представление только для чтения
+ * ({@link #asObservableList()}). Отчет строки создается при первом обращении и запоминается
+ * в небольшом кэше строк, поэтому при прокрутке каждая видимая строка собирается один раз,
+ * а не при каждом чтении ячейки. Даты хранятся только в разобранном виде, поэтому
+ * нестандартная запись даты из исходного JSON при восстановлении отчета приводится к формату ISO.
+ * <p>
+ * Хранилище не потокобезопасно: изменения и чтение должны выполняться в одном потоке,
+ * для представления таблицы — в потоке JavaFX.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class ReportColumnStore {
+
+    /**
+     * Значение идентификатора для отчета без идентификатора.
+     */
+    private static final long NO_ID = Long.MIN_VALUE;
+
+    /**
+     * Код отсутствующего значения в словарных и статусных колонках.
+     */
+    private static final int NO_VALUE = -1;
+
+    /**
+     * Количество строк в кэше представления; больше числа строк, видимых в таблице.
+     */
+    private static final int ROW_CACHE_SIZE = 256;
+
+    private int size;
+    private long[] ids;
+    private long[] dateSubmitted;
+    private long[] lastUpdated;
+    private int[] incidentEpochDays;
+    private short[] incidentMinutes;
+
+    private final DictionaryColumn statusCodes = new DictionaryColumn();
+    private final DictionaryColumn reporterIds = new DictionaryColumn();
+    private final DictionaryColumn incidentLocations = new DictionaryColumn();
+    private final DictionaryColumn assignedTo = new DictionaryColumn();
+    private final DictionaryColumn assignedToFullNames = new DictionaryColumn();
+
+    private final TextColumn involvedPersons;
+    private final TextColumn witnesses;
+    private final CompressedColumn descriptions;
+    private final CompressedColumn evidenceDescriptions;
+    private final CompressedColumn solutions;
+
+    private View view;
+
+    /**
+     * Создает хранилище с длинными текстами в куче.
+     */
+    public ReportColumnStore() {
+        this(false);
+    }
+
+    /**
+     * Создает хранилище.
+     *
+     * @param offHeapText true, чтобы хранить длинные тексты вне кучи в прямых буферах
+     */
+    public ReportColumnStore(boolean offHeapText) {
+        int capacity = 16;
+        ids = new long[capacity];
+        dateSubmitted = new long[capacity];
+        lastUpdated = new long[capacity];
+        incidentEpochDays = new int[capacity];
+        incidentMinutes = new short[capacity];
+
+        involvedPersons = newTextColumn(offHeapText);
+        witnesses = newTextColumn(offHeapText);
+        descriptions = newCompressedColumn(offHeapText);
+        evidenceDescriptions = newCompressedColumn(offHeapText);
+        solutions = newCompressedColumn(offHeapText);
+    }
+
+    /**
+     * Добавляет отчет в конец хранилища.
+     *
+     * @param report Отчет
+     */
+    public void add(Report report) {
+        ensureCapacity(size + 1);
+        write(size, report);
+        size++;
+        if (view != null) {
+            view.fireAdded(size - 1, size);
+        }
+    }
+
+    /**
+     * Добавляет отчеты в конец хранилища одним изменением списка.
+     *
+     * @param reports Отчеты
+     */
+    public void addAll(Collection<Report> reports) {
+        if (reports.isEmpty()) {
+            return;
+        }
+        int from = size;
+        ensureCapacity(size + reports.size());
+        for (Report report : reports) {
+            write(size++, report);
+        }
+        if (view != null) {
+            view.fireAdded(from, size);
+        }
+    }
+
+    /**
+     * Заменяет содержимое хранилища новым набором отчетов.
+     *
+     * @param reports Отчеты
+     */
+    public void setAll(Collection<Report> reports) {
+        int removed = size;
+        resetColumns();
+        ensureCapacity(reports.size());
+        for (Report report : reports) {
+            write(size++, report);
+        }
+        if (view != null) {
+            view.fireReplaced(removed, size);
+        }
+    }
+
+    /**
+     * Удаляет все отчеты и освобождает память колонок.
+     */
+    public void clear() {
+        int removed = size;
+        resetColumns();
+        if (view != null && removed > 0) {
+            view.fireReplaced(removed, 0);
+        }
+    }
+
+    /**
+     * Возвращает количество отчетов в хранилище.
+     *
+     * @return Количество строк
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Восстанавливает отчет из колонок. Каждый вызов создает новый объект;
+     * представление для таблицы запоминает созданные отчеты, см. {@link #asObservableList()}.
+     *
+     * @param row Номер строки
+     * @return Новый объект отчета
+     */
+    public Report get(int row) {
+        Objects.checkIndex(row, size);
+        Report report = new Report();
+        report.setId(ids[row] != NO_ID ? ids[row] : null);
+        report.setDateSubmittedMillis(dateSubmitted[row]);
+        report.setReporterId(reporterIds.get(row));
+        report.setIncidentEpochDay(incidentEpochDays[row]);
+        report.setIncidentMinuteOfDay(incidentMinutes[row]);
+        report.setIncidentLocation(incidentLocations.get(row));
+        report.setInvolvedPersons(involvedPersons.get(row));
+        report.setWitnesses(witnesses.get(row));
+        report.setCompressedLongTexts(descriptions.get(row), evidenceDescriptions.get(row), solutions.get(row));
+        report.setStatusCode(statusCodes.get(row));
+        report.setAssignedTo(assignedTo.get(row));
+        report.setAssignedToFullName(assignedToFullNames.get(row));
+        report.setLastUpdatedMillis(lastUpdated[row]);
+        return report;
+    }
+
+    /**
+     * Возвращает идентификатор отчета без создания объекта отчета.
+     *
+     * @param row Номер строки
+     * @return Идентификатор или null
+     */
+    public Long getId(int row) {
+        Objects.checkIndex(row, size);
+        return ids[row] != NO_ID ? ids[row] : null;
+    }
+
+    /**
+     * Возвращает статус отчета без создания объекта отчета.
+     *
+     * @param row Номер строки
+     * @return Статус или null
+     */
+    public ReportStatus getStatus(int row) {
+        Objects.checkIndex(row, size);
+        String code = statusCodes.get(row);
+        return code != null ? ReportStatus.fromCode(code) : null;
+    }
+
+    /**
+     * Возвращает дату инцидента как номер дня эпохи.
+     *
+     * @param row Номер строки
+     * @return Номер дня эпохи или {@link Report#NO_DATE}
+     */
+    public int getIncidentEpochDay(int row) {
+        Objects.checkIndex(row, size);
+        return incidentEpochDays[row];
+    }
+
+    /**
+     * Возвращает дату подачи отчета в миллисекундах эпохи.
+     *
+     * @param row Номер строки
+     * @return Дата подачи или {@link Report#NO_TIMESTAMP}
+     */
+    public long getDateSubmittedMillis(int row) {
+        Objects.checkIndex(row, size);
+        return dateSubmitted[row];
+    }
+
+    /**
+     * Возвращает место инцидента без создания объекта отчета.
+     *
+     * @param row Номер строки
+     * @return Место инцидента или null
+     */
+    public String getIncidentLocation(int row) {
+        Objects.checkIndex(row, size);
+        return incidentLocations.get(row);
+    }
+
+    /**
+     * Возвращает логин назначенного сотрудника без создания объекта отчета.
+     *
+     * @param row Номер строки
+     * @return Логин сотрудника или null
+     */
+    public String getAssignedTo(int row) {
+        Objects.checkIndex(row, size);
+        return assignedTo.get(row);
+    }
+
+    /**
+     * Возвращает количество уникальных значений в словарных колонках.
+     *
+     * @return Сумма размеров словарей
+     */
+    public int getDictionarySize() {
+        return statusCodes.dictionarySize() + reporterIds.dictionarySize() + incidentLocations.dictionarySize()
+                + assignedTo.dictionarySize() + assignedToFullNames.dictionarySize();
+    }
+
+    /**
+     * Возвращает объем памяти вне кучи, занятый длинными текстами.
+     *
+     * @return Объем в байтах (0, если тексты хранятся в куче)
+     */
+    public long getOffHeapBytes() {
+        return involvedPersons.offHeapBytes() + witnesses.offHeapBytes() + descriptions.offHeapBytes()
+                + evidenceDescriptions.offHeapBytes() + solutions.offHeapBytes();
+    }
+
+    /**
+     * Возвращает представление хранилища только для чтения, пригодное для {@code TableView}.
+     * Представление уведомляет слушателей об изменениях хранилища и возвращает один и тот же
+     * объект отчета при повторных обращениях к строке, пока строка остается в кэше.
+     *
+     * @return Наблюдаемый список отчетов
+     */
+    public ObservableList<Report> asObservableList() {
+        if (view == null) {
+            view = new View();
+        }
+        return view;
+    }
+
+    private void write(int row, Report report) {
+        ids[row] = report.getId() != null ? report.getId() : NO_ID;
+        dateSubmitted[row] = report.getDateSubmittedMillis();
+        lastUpdated[row] = report.getLastUpdatedMillis();
+        incidentEpochDays[row] = report.getIncidentEpochDay();
+        incidentMinutes[row] = report.getIncidentMinuteOfDay();
+
+        statusCodes.set(row, report.getStatusCode());
+        reporterIds.set(row, report.getReporterId());
+        incidentLocations.set(row, report.getIncidentLocation());
+        assignedTo.set(row, report.getAssignedTo());
+        assignedToFullNames.set(row, report.getAssignedToFullName());
+
+        involvedPersons.set(row, report.getInvolvedPersons());
+        witnesses.set(row, report.getWitnesses());
+        CompressedText[] longTexts = report.getCompressedLongTexts();
+        descriptions.set(row, longTexts[0]);
+        evidenceDescriptions.set(row, longTexts[1]);
+        solutions.set(row, longTexts[2]);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        dateSubmitted = Arrays.copyOf(dateSubmitted, capacity);
+        lastUpdated = Arrays.copyOf(lastUpdated, capacity);
+        incidentEpochDays = Arrays.copyOf(incidentEpochDays, capacity);
+        incidentMinutes = Arrays.copyOf(incidentMinutes, capacity);
+    }
+
+    private void resetColumns() {
+        size = 0;
+        int capacity = 16;
+        ids = new long[capacity];
+        dateSubmitted = new long[capacity];
+        lastUpdated = new long[capacity];
+        incidentEpochDays = new int[capacity];
+        incidentMinutes = new short[capacity];
+
+        statusCodes.clear();
+        reporterIds.clear();
+        incidentLocations.clear();
+        assignedTo.clear();
+        assignedToFullNames.clear();
+
+        involvedPersons.clear();
+        witnesses.clear();
+        descriptions.clear();
+        evidenceDescriptions.clear();
+        solutions.clear();
+    }
+
+    private static TextColumn newTextColumn(boolean offHeap) {
+        return offHeap ? new OffHeapTextColumn() : new HeapTextColumn();
+    }
+
+    private static CompressedColumn newCompressedColumn(boolean offHeap) {
+        return offHeap ? new OffHeapCompressedColumn() : new HeapCompressedColumn();
+    }
+
+    /**
+     * Колонка со словарным кодированием: строка хранит код, значение хранится в словаре один раз.
+     */
+    private static class DictionaryColumn {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private int[] rows = new int[16];
+
+        void set(int row, String value) {
+            if (row >= rows.length) {
+                rows = Arrays.copyOf(rows, Math.max(row + 1, rows.length + (rows.length >> 1)));
+            }
+            if (value == null) {
+                rows[row] = NO_VALUE;
+                return;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            rows[row] = code;
+        }
+
+        String get(int row) {
+            int code = rows[row];
+            return code != NO_VALUE ? values.get(code) : null;
+        }
+
+        int dictionarySize() {
+            return values.size();
+        }
+
+        void clear() {
+            codes.clear();
+            values.clear();
+            rows = new int[16];
+        }
+    }
+
+    /**
+     * Колонка длинных текстов.
+     */
+    private interface TextColumn {
+        void set(int row, String value);
+
+        String get(int row);
+
+        long offHeapBytes();
+
+        void clear();
+    }
+
+    /**
+     * Колонка длинных текстов в куче.
+     */
+    private static class HeapTextColumn implements TextColumn {
+        private String[] rows = new String[16];
+
+        @Override
+        public void set(int row, String value) {
+            if (row >= rows.length) {
+                rows = Arrays.copyOf(rows, Math.max(row + 1, rows.length + (rows.length >> 1)));
+            }
+            rows[row] = value;
+        }
+
+        @Override
+        public String get(int row) {
+            return rows[row];
+        }
+
+        @Override
+        public long offHeapBytes() {
+            return 0;
+        }
+
+        @Override
+        public void clear() {
+            rows = new String[16];
+        }
+    }
+
+    /**
+     * Колонка длинных текстов вне кучи.
+     * Тексты в UTF-8 последовательно дописываются в прямые буферы фиксированного размера;
+     * для каждой строки в куче хранятся только номер буфера, смещение и длина.
+     * Значение, изменяемое повторно, дописывается заново, старые байты не переиспользуются
+     * до очистки колонки.
+     */
+    private static class OffHeapTextColumn implements TextColumn {
+        private static final int CHUNK_SIZE = 4 * 1024 * 1024;
+
+        private final List<ByteBuffer> chunks = new ArrayList<>();
+        private long[] positions = new long[16];
+        private int[] lengths = new int[16];
+        private long allocatedBytes;
+
+        @Override
+        public void set(int row, String value) {
+            if (row >= positions.length) {
+                int capacity = Math.max(row + 1, positions.length + (positions.length >> 1));
+                positions = Arrays.copyOf(positions, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            if (value == null) {
+                lengths[row] = NO_VALUE;
+                return;
+            }
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+            if (chunk == null || chunk.remaining() < bytes.length) {
+                chunk = ByteBuffer.allocateDirect(Math.max(CHUNK_SIZE, bytes.length));
+                chunks.add(chunk);
+                allocatedBytes += chunk.capacity();
+            }
+            positions[row] = ((long) (chunks.size() - 1) << 32) | chunk.position();
+            lengths[row] = bytes.length;
+            chunk.put(bytes);
+        }
+
+        @Override
+        public String get(int row) {
+            int length = lengths[row];
+            if (length == NO_VALUE) {
+                return null;
+            }
+            ByteBuffer chunk = chunks.get((int) (positions[row] >>> 32));
+            byte[] bytes = new byte[length];
+            chunk.get((int) positions[row], bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public long offHeapBytes() {
+            return allocatedBytes;
+        }
+
+        @Override
+        public void clear() {
+            chunks.clear();
+            allocatedBytes = 0;
+            positions = new long[16];
+            lengths = new int[16];
+        }
+    }
+
+    /**
+     * Колонка длинных текстов, хранящихся в отчете в сжатом виде.
+     */
+    private interface CompressedColumn {
+        void set(int row, CompressedText value);
+
+        CompressedText get(int row);
+
+        long offHeapBytes();
+
+        void clear();
+    }
+
+    /**
+     * Колонка сжатых текстов в куче: хранит те же неизменяемые объекты, что и отчет,
+     * поэтому ни запись, ни чтение не сжимают текст заново.
+     */
+    private static class HeapCompressedColumn implements CompressedColumn {
+        private CompressedText[] rows = new CompressedText[16];
+
+        @Override
+        public void set(int row, CompressedText value) {
+            if (row >= rows.length) {
+                rows = Arrays.copyOf(rows, Math.max(row + 1, rows.length + (rows.length >> 1)));
+            }
+            rows[row] = value;
+        }
+
+        @Override
+        public CompressedText get(int row) {
+            return rows[row];
+        }
+
+        @Override
+        public long offHeapBytes() {
+            return 0;
+        }
+
+        @Override
+        public void clear() {
+            rows = new CompressedText[16];
+        }
+    }
+
+    /**
+     * Колонка сжатых текстов вне кучи: текст хранится в UTF-8 и сжимается заново
+     * при восстановлении отчета строки.
+     */
+    private static class OffHeapCompressedColumn implements CompressedColumn {
+        private final OffHeapTextColumn texts = new OffHeapTextColumn();
+
+        @Override
+        public void set(int row, CompressedText value) {
+            texts.set(row, value != null ? value.peek() : null);
+        }
+
+        @Override
+        public CompressedText get(int row) {
+            return CompressedText.of(texts.get(row));
+        }
+
+        @Override
+        public long offHeapBytes() {
+            return texts.offHeapBytes();
+        }
+
+        @Override
+        public void clear() {
+            texts.clear();
+        }
+    }
+
+    /**
+     * Представление хранилища для {@code TableView}: список только для чтения.
+     * Созданные отчеты запоминаются в кэше с прямым отображением номера строки на ячейку;
+     * замена содержимого хранилища очищает кэш, добавление строк в конец его сохраняет.
+     */
+    private class View extends ObservableListBase<Report> {
+        private final Report[] cachedReports = new Report[ROW_CACHE_SIZE];
+        private final int[] cachedRows = new int[ROW_CACHE_SIZE];
+
+        View() {
+            Arrays.fill(cachedRows, NO_VALUE);
+        }
+
+        @Override
+        public Report get(int index) {
+            int slot = index % ROW_CACHE_SIZE;
+            if (cachedRows[slot] == index) {
+                return cachedReports[slot];
+            }
+            Report report = ReportColumnStore.this.get(index);
+            cachedReports[slot] = report;
+            cachedRows[slot] = index;
+            return report;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        void fireAdded(int from, int to) {
+            beginChange();
+            nextAdd(from, to);
+            endChange();
+        }
+
+        void fireReplaced(int removedCount, int addedCount) {
+            invalidateCache();
+            beginChange();
+            if (removedCount > 0) {
+                nextRemove(0, Collections.nCopies(removedCount, (Report) null));
+            }
+            if (addedCount > 0) {
+                nextAdd(0, addedCount);
+            }
+            endChange();
+        }
+
+        private void invalidateCache() {
+            Arrays.fill(cachedReports, null);
+            Arrays.fill(cachedRows, NO_VALUE);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package org.anticorruption.application.Indexes;
+
+import lombok.Getter;
+import org.anticorruption.application.Models.Report;
+import org.anticorruption.application.Models.ReportStatus;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Приближенные показатели по большому количеству отчетов с ограниченным объемом памяти.
+ * <p>
+ * Содержит:
+ * <ul>
+ *     <li>{@link HyperLogLog} — количество различных вовлеченных лиц и мест инцидента;</li>
+ *     <li>{@link CountMinSketch} — самые частые места инцидента;</li>
+ *     <li>{@link KllSketch} — процентили времени закрытия в часах, общие и по сотрудникам.</li>
+ * </ul>
+ * Скетчи пополняются при загрузке отчетов. Чтобы повторная загрузка не учитывала отчет
+ * дважды, учтенные отчеты отмечаются в битовых множествах по идентификатору:
+ * место и лица учитываются при первой загрузке отчета, время закрытия — при первой
+ * загрузке в статусе "Закрыт". Скетчи одинаковых размеров объединяются.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class ReportSketches {
+
+    private static final int FILE_MAGIC = 0x41435348;
+    private static final int FILE_VERSION = 1;
+
+    private static final int HLL_PRECISION = 14;
+    private static final int CMS_DEPTH = 5;
+    private static final int CMS_WIDTH = 2048;
+    private static final int CMS_CANDIDATES = 64;
+    private static final int KLL_K = 200;
+
+    private static final long HOUR_MILLIS = 60L * 60 * 1000;
+
+    private HyperLogLog persons = new HyperLogLog(HLL_PRECISION);
+    private HyperLogLog locations = new HyperLogLog(HLL_PRECISION);
+    private CountMinSketch locationCounts = new CountMinSketch(CMS_DEPTH, CMS_WIDTH, CMS_CANDIDATES);
+    private KllSketch closeHours = new KllSketch(KLL_K);
+    private final Map<String, KllSketch> closeHoursByAgent = new HashMap<>();
+    private BitSet ingested = new BitSet();
+    private BitSet ingestedClosed = new BitSet();
+
+    /**
+     * Процентили времени закрытия для одного сотрудника.
+     */
+    @Getter
+    public static class CloseTime {
+        /**
+         * Сотрудник (пустая строка — все сотрудники).
+         */
+        private final String agent;
+
+        /**
+         * Количество закрытых отчетов.
+         */
+        private final long count;
+
+        /**
+         * Медиана времени закрытия в часах.
+         */
+        private final double median;
+
+        /**
+         * 90-й процентиль времени закрытия в часах.
+         */
+        private final double p90;
+
+        /**
+         * 99-й процентиль времени закрытия в часах.
+         */
+        private final double p99;
+
+        CloseTime(String agent, KllSketch sketch) {
+            this.agent = agent;
+            this.count = sketch.getCount();
+            this.median = sketch.quantile(0.5);
+            this.p90 = sketch.quantile(0.9);
+            this.p99 = sketch.quantile(0.99);
+        }
+    }
+
+    /**
+     * Снимок приближенных показателей с границами погрешности.
+     */
+    @Getter
+    public static class Summary {
+        private final long distinctPersons;
+        private final long distinctLocations;
+
+        /**
+         * Относительная погрешность количества различных значений.
+         */
+        private final double distinctError;
+
+        /**
+         * Самые частые места с оценкой сверху количества отчетов.
+         */
+        private final List<Map.Entry<String, Long>> topLocations;
+
+        /**
+         * Максимальное завышение частоты места.
+         */
+        private final long locationErrorBound;
+
+        /**
+         * Вероятность, с которой выполняется граница завышения.
+         */
+        private final double locationConfidence;
+
+        /**
+         * Время закрытия: первая строка — по всем сотрудникам.
+         */
+        private final List<CloseTime> closeTimes;
+
+        /**
+         * Погрешность процентилей по рангу.
+         */
+        private final double rankError;
+
+        Summary(long distinctPersons, long distinctLocations, double distinctError,
+                List<Map.Entry<String, Long>> topLocations, long locationErrorBound, double locationConfidence,
+                List<CloseTime> closeTimes, double rankError) {
+            this.distinctPersons = distinctPersons;
+            this.distinctLocations = distinctLocations;
+            this.distinctError = distinctError;
+            this.topLocations = topLocations;
+            this.locationErrorBound = locationErrorBound;
+            this.locationConfidence = locationConfidence;
+            this.closeTimes = closeTimes;
+            this.rankError = rankError;
+        }
+    }
+
+    /**
+     * Учитывает отчет в скетчах, если он еще не был учтен.
+     *
+     * @param report Отчет
+     * @return true, если скетчи изменились
+     */
+    public synchronized boolean ingest(Report report) {
+        Long reportId = report.getId();
+        if (reportId == null || reportId < 0 || reportId > Integer.MAX_VALUE) {
+            return false;
+        }
+        int bit = reportId.intValue();
+        boolean changed = false;
+
+        if (!ingested.get(bit)) {
+            ingested.set(bit);
+            for (PersonExtractor.Person person : PersonExtractor.extract(report.getInvolvedPersons())) {
+                persons.add(person.getKey());
+            }
+            String location = ReportAggregates.locationLabel(report);
+            if (!ReportAggregates.NO_LOCATION.equals(location)) {
+                locations.add(location);
+                locationCounts.add(location, 1);
+            }
+            changed = true;
+        }
+
+        if (report.getStatus() == ReportStatus.CLOSED && !ingestedClosed.get(bit)
+                && report.getDateSubmittedMillis() != Report.NO_TIMESTAMP
+                && report.getLastUpdatedMillis() != Report.NO_TIMESTAMP
+                && report.getLastUpdatedMillis() >= report.getDateSubmittedMillis()) {
+            ingestedClosed.set(bit);
+            double hours = (double) (report.getLastUpdatedMillis() - report.getDateSubmittedMillis()) / HOUR_MILLIS;
+            closeHours.update(hours);
+            closeHoursByAgent.computeIfAbsent(ReportAggregates.agentLabel(report), key -> new KllSketch(KLL_K)).update(hours);
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Объединяет с другими скетчами, например построенными на другом компьютере.
+     *
+     * @param other Другие скетчи
+     */
+    public synchronized void merge(ReportSketches other) {
+        persons.merge(other.persons);
+        locations.merge(other.locations);
+        locationCounts.merge(other.locationCounts);
+        closeHours.merge(other.closeHours);
+        other.closeHoursByAgent.forEach((agent, sketch) ->
+                closeHoursByAgent.computeIfAbsent(agent, key -> new KllSketch(KLL_K)).merge(sketch));
+        ingested.or(other.ingested);
+        ingestedClosed.or(other.ingestedClosed);
+    }
+
+    /**
+     * Возвращает снимок показателей.
+     *
+     * @param limit Максимальное количество мест и сотрудников
+     * @return Снимок показателей
+     */
+    public synchronized Summary summary(int limit) {
+        List<CloseTime> closeTimes = new ArrayList<>();
+        closeTimes.add(new CloseTime("", closeHours));
+        closeHoursByAgent.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, KllSketch> entry) -> entry.getValue().getCount()).reversed())
+                .limit(limit)
+                .forEach(entry -> closeTimes.add(new CloseTime(entry.getKey(), entry.getValue())));
+        return new Summary(persons.estimate(), locations.estimate(), persons.getRelativeError(),
+                locationCounts.top(limit), locationCounts.getErrorBound(), locationCounts.getConfidence(),
+                closeTimes, closeHours.getRankError());
+    }
+
+    /**
+     * Сохраняет скетчи в файл атомарной заменой.
+     *
+     * @param file Путь к файлу
+     * @throws IOException при ошибке записи
+     */
+    public synchronized void save(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            output.writeInt(FILE_MAGIC);
+            output.writeInt(FILE_VERSION);
+            persons.write(output);
+            locations.write(output);
+            locationCounts.write(output);
+            closeHours.write(output);
+            output.writeInt(closeHoursByAgent.size());
+            for (Map.Entry<String, KllSketch> entry : closeHoursByAgent.entrySet()) {
+                output.writeUTF(entry.getKey());
+                entry.getValue().write(output);
+            }
+            writeBits(output, ingested);
+            writeBits(output, ingestedClosed);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Загружает скетчи из файла.
+     *
+     * @param file Путь к файлу
+     * @return Загруженные скетчи или пустые, если файла нет или он поврежден
+     */
+    public static ReportSketches load(Path file) {
+        ReportSketches sketches = new ReportSketches();
+        if (!Files.exists(file)) {
+            return sketches;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != FILE_MAGIC || input.readInt() != FILE_VERSION) {
+                return sketches;
+            }
+            sketches.persons = HyperLogLog.read(input);
+            sketches.locations = HyperLogLog.read(input);
+            sketches.locationCounts = CountMinSketch.read(input);
+            sketches.closeHours = KllSketch.read(input);
+            int agents = input.readInt();
+            for (int i = 0; i < agents; i++) {
+                sketches.closeHoursByAgent.put(input.readUTF(), KllSketch.read(input));
+            }
+            sketches.ingested = readBits(input);
+            sketches.ingestedClosed = readBits(input);
+            return sketches;
+        } catch (Exception e) {
+            System.err.println("Не удалось загрузить статистические скетчи, они будут построены заново: " + e.getMessage());
+            return new ReportSketches();
+        }
+    }
+
+    private static void writeBits(DataOutput output, BitSet bits) throws IOException {
+        byte[] bytes = bits.toByteArray();
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static BitSet readBits(DataInput input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return BitSet.valueOf(bytes);
+    }
+}
@@ -0,0 +1,579 @@
+package org.anticorruption.application.Indexes;
+
+import lombok.Getter;
+import org.anticorruption.application.Models.Report;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Локальный полнотекстовый индекс по текстам отчетов.
+ * <p>
+ * Индексируются описание, описание доказательств, свидетели и решение. Для каждого терма
+ * хранится позиционный список вхождений (номера документов по возрастанию, частоты и позиции),
+ * что позволяет выполнять ранжированный поиск по BM25 и поиск фраз в кавычках.
+ * <p>
+ * Индекс обновляется инкрементально: отчет переиндексируется только при изменении
+ * его текстов. Старая версия документа помечается удаленной, и при накоплении удаленных
+ * документов списки вхождений уплотняются. Индекс сохраняется в файл и загружается
+ * при следующем входе, чтобы не строить его заново.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class ReportTextIndex {
+
+    private static final int FILE_MAGIC = 0x41435449;
+    private static final int FILE_VERSION = 2;
+
+    /**
+     * Промежуток позиций между полями отчета, чтобы фразы не склеивали соседние поля.
+     */
+    private static final int FIELD_GAP = 100;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    /**
+     * Списки вхождений по термам.
+     */
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    /**
+     * Внутренний номер документа по идентификатору отчета.
+     */
+    private final Map<Long, Integer> docByReport = new HashMap<>();
+
+    private long[] reportIds = new long[64];
+    private int[] docLengths = new int[64];
+    private int[] contentHashes = new int[64];
+    private final BitSet deleted = new BitSet();
+    private int docCount;
+    private int liveDocs;
+    private long totalLength;
+
+    /**
+     * Результат поиска.
+     */
+    @Getter
+    public static class Hit {
+        /**
+         * Идентификатор отчета.
+         */
+        private final long reportId;
+
+        /**
+         * Релевантность по BM25.
+         */
+        private final double score;
+
+        Hit(long reportId, double score) {
+            this.reportId = reportId;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Добавляет отчет в индекс или переиндексирует его, если тексты изменились.
+     *
+     * @param report Отчет
+     * @return true, если индекс изменился
+     */
+    public boolean update(Report report) {
+        if (report.getId() == null) {
+            return false;
+        }
+        String[] longTexts = report.peekLongTexts();
+        String[] fields = {longTexts[0], longTexts[1], report.getWitnesses(), longTexts[2]};
+        int hash = Arrays.hashCode(fields);
+
+        synchronized (this) {
+            Integer existing = docByReport.get(report.getId());
+            if (existing != null && contentHashes[existing] == hash) {
+                return false;
+            }
+        }
+
+        // Разбор текста выполняется вне блокировки, чтобы не задерживать поиск
+        Map<String, List<Integer>> termPositions = new LinkedHashMap<>();
+        int offset = 0;
+        int length = 0;
+        for (String field : fields) {
+            int last = -1;
+            for (TextTokenizer.Token token : TextTokenizer.tokenize(field)) {
+                termPositions.computeIfAbsent(token.term(), key -> new ArrayList<>()).add(offset + token.position());
+                last = token.position();
+                length++;
+            }
+            offset += last + 1 + FIELD_GAP;
+        }
+
+        synchronized (this) {
+            Integer existing = docByReport.get(report.getId());
+            if (existing != null) {
+                markDeleted(existing);
+            }
+            int doc = appendDocument(report.getId(), length, hash);
+            termPositions.forEach((term, positions) -> postings.computeIfAbsent(term, key -> new Postings()).add(doc, positions));
+            compactIfNeeded();
+        }
+        return true;
+    }
+
+    /**
+     * Удаляет отчет из индекса.
+     *
+     * @param reportId Идентификатор отчета
+     * @return true, если отчет был в индексе
+     */
+    public synchronized boolean remove(Long reportId) {
+        Integer doc = docByReport.get(reportId);
+        if (doc == null) {
+            return false;
+        }
+        markDeleted(doc);
+        compactIfNeeded();
+        return true;
+    }
+
+    /**
+     * Приводит индекс в соответствие с полным списком отчетов:
+     * изменившиеся отчеты переиндексируются, отсутствующие удаляются.
+     *
+     * @param reports Полный список отчетов
+     * @return Количество изменившихся документов
+     */
+    public int sync(Collection<Report> reports) {
+        int changed = 0;
+        Set<Long> present = new HashSet<>();
+        for (Report report : reports) {
+            if (report.getId() != null) {
+                present.add(report.getId());
+            }
+            if (update(report)) {
+                changed++;
+            }
+        }
+
+        List<Long> missing;
+        synchronized (this) {
+            missing = docByReport.keySet().stream().filter(id -> !present.contains(id)).toList();
+        }
+        for (Long reportId : missing) {
+            if (remove(reportId)) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Проверяет, есть ли отчет в индексе.
+     *
+     * @param reportId Идентификатор отчета
+     * @return true, если отчет проиндексирован
+     */
+    public synchronized boolean contains(Long reportId) {
+        return docByReport.containsKey(reportId);
+    }
+
+    /**
+     * Возвращает количество проиндексированных отчетов.
+     *
+     * @return Количество отчетов
+     */
+    public synchronized int size() {
+        return liveDocs;
+    }
+
+    /**
+     * Выполняет поиск по индексу.
+     * <p>
+     * Слова запроса объединяются по "И"; фразы, заключенные в двойные кавычки,
+     * должны встречаться в отчете подряд. Результаты упорядочены по убыванию релевантности.
+     *
+     * @param query Строка запроса
+     * @param limit Максимальное количество результатов
+     * @return Найденные отчеты
+     */
+    public synchronized List<Hit> search(String query, int limit) {
+        List<List<TextTokenizer.Token>> phrases = new ArrayList<>();
+        Set<String> terms = new LinkedHashSet<>();
+        parseQuery(query, phrases, terms);
+        if (terms.isEmpty() || liveDocs == 0) {
+            return List.of();
+        }
+
+        List<String> orderedTerms = new ArrayList<>(terms);
+        for (String term : orderedTerms) {
+            if (!postings.containsKey(term)) {
+                return List.of();
+            }
+        }
+        orderedTerms.sort(Comparator.comparingInt(term -> postings.get(term).size));
+        Postings[] lists = new Postings[orderedTerms.size()];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(orderedTerms.get(i));
+        }
+        int[][] phraseLists = new int[phrases.size()][];
+        for (int i = 0; i < phrases.size(); i++) {
+            List<TextTokenizer.Token> phrase = phrases.get(i);
+            phraseLists[i] = new int[phrase.size()];
+            for (int j = 0; j < phrase.size(); j++) {
+                phraseLists[i][j] = orderedTerms.indexOf(phrase.get(j).term());
+            }
+        }
+
+        double averageLength = (double) totalLength / liveDocs;
+        double[] idf = new double[lists.length];
+        for (int i = 0; i < lists.length; i++) {
+            int df = lists[i].size;
+            idf[i] = Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+        }
+
+        PriorityQueue<Hit> top = new PriorityQueue<>(Comparator.comparingDouble(Hit::getScore));
+        Postings rarest = lists[0];
+        // Курсоры списков двигаются только вперед, так как номера документов возрастают
+        int[] entries = new int[lists.length];
+        for (int i = 0; i < rarest.size; i++) {
+            int doc = rarest.docs[i];
+            if (deleted.get(doc)) {
+                continue;
+            }
+            entries[0] = i;
+            boolean matches = true;
+            for (int j = 1; j < lists.length && matches; j++) {
+                entries[j] = lists[j].advance(entries[j], doc);
+                matches = entries[j] < lists[j].size && lists[j].docs[entries[j]] == doc;
+            }
+            if (!matches || !matchesPhrases(lists, entries, phrases, phraseLists)) {
+                continue;
+            }
+
+            double score = 0;
+            double norm = K1 * (1 - B + B * docLengths[doc] / averageLength);
+            for (int j = 0; j < lists.length; j++) {
+                int tf = lists[j].freqs[entries[j]];
+                score += idf[j] * tf * (K1 + 1) / (tf + norm);
+            }
+            if (top.size() < limit) {
+                top.add(new Hit(reportIds[doc], score));
+            } else if (score > top.peek().getScore()) {
+                top.poll();
+                top.add(new Hit(reportIds[doc], score));
+            }
+        }
+
+        List<Hit> result = new ArrayList<>(top);
+        result.sort(Comparator.comparingDouble(Hit::getScore).reversed());
+        return result;
+    }
+
+    /**
+     * Сохраняет индекс в файл атомарной заменой.
+     *
+     * @param file Путь к файлу индекса
+     * @throws IOException при ошибке записи
+     */
+    public synchronized void save(Path file) throws IOException {
+        compact();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            output.writeInt(FILE_MAGIC);
+            output.writeInt(FILE_VERSION);
+            output.writeInt(docCount);
+            for (int doc = 0; doc < docCount; doc++) {
+                output.writeLong(reportIds[doc]);
+                output.writeInt(docLengths[doc]);
+                output.writeInt(contentHashes[doc]);
+            }
+            output.writeInt(postings.size());
+            for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+                output.writeUTF(entry.getKey());
+                entry.getValue().write(output);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Загружает индекс из файла.
+     *
+     * @param file Путь к файлу индекса
+     * @return Загруженный индекс или пустой индекс, если файла нет или он поврежден
+     */
+    public static ReportTextIndex load(Path file) {
+        ReportTextIndex index = new ReportTextIndex();
+        if (!Files.exists(file)) {
+            return index;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != FILE_MAGIC || input.readInt() != FILE_VERSION) {
+                return index;
+            }
+            int documents = input.readInt();
+            for (int doc = 0; doc < documents; doc++) {
+                index.appendDocument(input.readLong(), input.readInt(), input.readInt());
+            }
+            int terms = input.readInt();
+            for (int i = 0; i < terms; i++) {
+                index.postings.put(input.readUTF(), Postings.read(input));
+            }
+            return index;
+        } catch (Exception e) {
+            System.err.println("Не удалось загрузить поисковый индекс, он будет построен заново: " + e.getMessage());
+            return new ReportTextIndex();
+        }
+    }
+
+    private void parseQuery(String query, List<List<TextTokenizer.Token>> phrases, Set<String> terms) {
+        if (query == null) {
+            return;
+        }
+        String[] parts = query.split("\"", -1);
+        for (int i = 0; i < parts.length; i++) {
+            List<TextTokenizer.Token> tokens = TextTokenizer.tokenize(parts[i]);
+            tokens.forEach(token -> terms.add(token.term()));
+            // Нечетные части находятся внутри кавычек
+            if (i % 2 == 1 && tokens.size() > 1) {
+                phrases.add(tokens);
+            }
+        }
+    }
+
+    private boolean matchesPhrases(Postings[] lists, int[] entries,
+                                   List<List<TextTokenizer.Token>> phrases, int[][] phraseLists) {
+        for (int i = 0; i < phrases.size(); i++) {
+            if (!matchesPhrase(lists, entries, phrases.get(i), phraseLists[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matchesPhrase(Postings[] lists, int[] entries, List<TextTokenizer.Token> phrase, int[] phraseList) {
+        Postings first = lists[phraseList[0]];
+        int firstEntry = entries[phraseList[0]];
+        int base = phrase.get(0).position();
+        for (int p = first.posStart[firstEntry]; p < first.posStart[firstEntry] + first.freqs[firstEntry]; p++) {
+            int start = first.positions[p];
+            boolean all = true;
+            for (int i = 1; i < phrase.size() && all; i++) {
+                Postings list = lists[phraseList[i]];
+                int entry = entries[phraseList[i]];
+                int expected = start + phrase.get(i).position() - base;
+                all = Arrays.binarySearch(list.positions, list.posStart[entry], list.posStart[entry] + list.freqs[entry], expected) >= 0;
+            }
+            if (all) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int appendDocument(long reportId, int length, int hash) {
+        if (docCount == reportIds.length) {
+            int capacity = reportIds.length * 2;
+            reportIds = Arrays.copyOf(reportIds, capacity);
+            docLengths = Arrays.copyOf(docLengths, capacity);
+            contentHashes = Arrays.copyOf(contentHashes, capacity);
+        }
+        int doc = docCount++;
+        reportIds[doc] = reportId;
+        docLengths[doc] = length;
+        contentHashes[doc] = hash;
+        docByReport.put(reportId, doc);
+        liveDocs++;
+        totalLength += length;
+        return doc;
+    }
+
+    private void markDeleted(int doc) {
+        deleted.set(doc);
+        docByReport.remove(reportIds[doc]);
+        liveDocs--;
+        totalLength -= docLengths[doc];
+    }
+
+    private void compactIfNeeded() {
+        int deletedCount = docCount - liveDocs;
+        if (deletedCount > 1000 && deletedCount > liveDocs / 4) {
+            compact();
+        }
+    }
+
+    /**
+     * Удаляет помеченные документы и перенумеровывает оставшиеся.
+     */
+    private void compact() {
+        if (deleted.isEmpty()) {
+            return;
+        }
+        int[] remap = new int[docCount];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+                continue;
+            }
+            remap[doc] = next;
+            reportIds[next] = reportIds[doc];
+            docLengths[next] = docLengths[doc];
+            contentHashes[next] = contentHashes[doc];
+            next++;
+        }
+        docCount = next;
+        deleted.clear();
+        docByReport.clear();
+        for (int doc = 0; doc < docCount; doc++) {
+            docByReport.put(reportIds[doc], doc);
+        }
+
+        Iterator<Postings> iterator = postings.values().iterator();
+        while (iterator.hasNext()) {
+            Postings list = iterator.next();
+            list.remap(remap);
+            if (list.size == 0) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Позиционный список вхождений терма.
+     */
+    private static class Postings {
+        int size;
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int[] posStart = new int[4];
+        int positionCount;
+        int[] positions = new int[4];
+
+        void add(int doc, List<Integer> docPositions) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+                posStart = Arrays.copyOf(posStart, size * 2);
+            }
+            if (positionCount + docPositions.size() > positions.length) {
+                positions = Arrays.copyOf(positions, Math.max(positions.length * 2, positionCount + docPositions.size()));
+            }
+            docs[size] = doc;
+            freqs[size] = docPositions.size();
+            posStart[size] = positionCount;
+            for (int position : docPositions) {
+                positions[positionCount++] = position;
+            }
+            size++;
+        }
+
+        /**
+         * Возвращает первую запись, начиная с from, с номером документа не меньше doc.
+         * Использует экспоненциальный поиск, так как курсор обычно сдвигается недалеко.
+         */
+        int advance(int from, int doc) {
+            if (from >= size || docs[from] >= doc) {
+                return from;
+            }
+            int step = 1;
+            int low = from;
+            int high = from + 1;
+            while (high < size && docs[high] < doc) {
+                low = high;
+                step <<= 1;
+                high = from + step;
+            }
+            int entry = Arrays.binarySearch(docs, low + 1, Math.min(high + 1, size), doc);
+            return entry >= 0 ? entry : -entry - 1;
+        }
+
+        void remap(int[] remap) {
+            int next = 0;
+            int nextPosition = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc < 0) {
+                    continue;
+                }
+                System.arraycopy(positions, posStart[i], positions, nextPosition, freqs[i]);
+                docs[next] = doc;
+                freqs[next] = freqs[i];
+                posStart[next] = nextPosition;
+                nextPosition += freqs[i];
+                next++;
+            }
+            size = next;
+            positionCount = nextPosition;
+        }
+
+        /**
+         * Записывает список в компактном виде: номера документов и позиции
+         * хранятся разностями с предыдущим значением в кодировке переменной длины.
+         */
+        void write(DataOutputStream output) throws IOException {
+            writeVarInt(output, size);
+            int previousDoc = 0;
+            for (int i = 0; i < size; i++) {
+                writeVarInt(output, docs[i] - previousDoc);
+                previousDoc = docs[i];
+                writeVarInt(output, freqs[i]);
+                int previousPosition = 0;
+                for (int p = posStart[i]; p < posStart[i] + freqs[i]; p++) {
+                    writeVarInt(output, positions[p] - previousPosition);
+                    previousPosition = positions[p];
+                }
+            }
+        }
+
+        static Postings read(DataInputStream input) throws IOException {
+            Postings list = new Postings();
+            int size = readVarInt(input);
+            list.docs = new int[Math.max(4, size)];
+            list.freqs = new int[Math.max(4, size)];
+            list.posStart = new int[Math.max(4, size)];
+            int doc = 0;
+            for (int i = 0; i < size; i++) {
+                doc += readVarInt(input);
+                int freq = readVarInt(input);
+                if (list.positionCount + freq > list.positions.length) {
+                    list.positions = Arrays.copyOf(list.positions, Math.max(list.positions.length * 2, list.positionCount + freq));
+                }
+                list.docs[i] = doc;
+                list.freqs[i] = freq;
+                list.posStart[i] = list.positionCount;
+                int position = 0;
+                for (int p = 0; p < freq; p++) {
+                    position += readVarInt(input);
+                    list.positions[list.positionCount++] = position;
+                }
+            }
+            list.size = size;
+            return list;
+        }
+
+        private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                output.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            output.writeByte(value);
+        }
+
+        private static int readVarInt(DataInputStream input) throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = input.readUnsignedByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Поврежден файл поискового индекса");
+        }
+    }
+}
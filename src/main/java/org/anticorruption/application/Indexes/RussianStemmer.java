@@ -0,0 +1,203 @@
+package org.anticorruption.application.Indexes;
+
+/**
+ * Стеммер русского языка по алгоритму Snowball (Портера).
+ * <p>
+ * Отсекает окончания, суффиксы причастий, возвратные и превосходные формы,
+ * приводя разные словоформы к общей основе: "взятки", "взяткой", "взятку" → "взятк".
+ * Слово должно быть передано в нижнем регистре с заменой "ё" на "е".
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class RussianStemmer {
+
+    private static final String VOWELS = "аеиоуыэюя";
+
+    private static final String[] PERFECTIVE_GERUND_1 = {"вшись", "вши", "в"};
+    private static final String[] PERFECTIVE_GERUND_2 = {"ившись", "ывшись", "ивши", "ывши", "ив", "ыв"};
+    private static final String[] ADJECTIVE = {
+            "ими", "ыми", "его", "ого", "ему", "ому",
+            "ее", "ие", "ые", "ое", "ей", "ий", "ый", "ой", "ем", "им", "ым", "ом",
+            "их", "ых", "ую", "юю", "ая", "яя", "ою", "ею"
+    };
+    private static final String[] PARTICIPLE_1 = {"ем", "нн", "вш", "ющ", "щ"};
+    private static final String[] PARTICIPLE_2 = {"ивш", "ывш", "ующ"};
+    private static final String[] REFLEXIVE = {"ся", "сь"};
+    private static final String[] VERB_1 = {
+            "ете", "йте", "ешь", "нно",
+            "ла", "на", "ли", "ем", "ло", "но", "ет", "ют", "ны", "ть",
+            "й", "л", "н"
+    };
+    private static final String[] VERB_2 = {
+            "ейте", "уйте",
+            "ила", "ыла", "ена", "ите", "или", "ыли", "ило", "ыло", "ено", "ует", "уют", "ены", "ить", "ыть", "ишь",
+            "ей", "уй", "ил", "ыл", "им", "ым", "ен", "ят", "ит", "ыт", "ую",
+            "ю"
+    };
+    private static final String[] NOUN = {
+            "иями",
+            "ями", "ами", "ией", "иям", "ием", "иях",
+            "ев", "ов", "ие", "ье", "еи", "ии", "ей", "ой", "ий", "ям", "ем", "ам", "ом", "ах", "ях", "ию", "ью", "ия", "ья",
+            "а", "е", "и", "й", "о", "у", "ы", "ь", "ю", "я"
+    };
+    private static final String[] SUPERLATIVE = {"ейше", "ейш"};
+    private static final String[] DERIVATIONAL = {"ость", "ост"};
+
+    /**
+     * Приватный конструктор для предотвращения создания экземпляров.
+     * Класс предназначен только для статического использования.
+     */
+    private RussianStemmer() {
+        throw new IllegalStateException("Утилитарный класс не может быть инстанцирован");
+    }
+
+    /**
+     * Возвращает основу слова.
+     *
+     * @param word Слово в нижнем регистре
+     * @return Основа слова
+     */
+    public static String stem(String word) {
+        int rv = findRv(word);
+        if (rv >= word.length()) {
+            return word;
+        }
+        int r2 = findR2(word);
+        StringBuilder buffer = new StringBuilder(word);
+
+        // Шаг 1: деепричастия, иначе возвратные формы и затем прилагательные, глаголы, существительные
+        if (!removeGrouped(buffer, rv, PERFECTIVE_GERUND_1, PERFECTIVE_GERUND_2)) {
+            remove(buffer, rv, REFLEXIVE);
+            if (!removeAdjectival(buffer, rv)
+                    && !removeGrouped(buffer, rv, VERB_1, VERB_2)) {
+                remove(buffer, rv, NOUN);
+            }
+        }
+
+        // Шаг 2: конечная "и"
+        if (buffer.length() > rv && buffer.charAt(buffer.length() - 1) == 'и') {
+            buffer.setLength(buffer.length() - 1);
+        }
+
+        // Шаг 3: словообразовательный суффикс "ость" в R2
+        remove(buffer, Math.max(rv, r2), DERIVATIONAL);
+
+        // Шаг 4: двойное "н", превосходная степень, мягкий знак
+        if (endsWith(buffer, rv, "нн")) {
+            buffer.setLength(buffer.length() - 1);
+        } else if (remove(buffer, rv, SUPERLATIVE)) {
+            if (endsWith(buffer, rv, "нн")) {
+                buffer.setLength(buffer.length() - 1);
+            }
+        } else if (endsWith(buffer, rv, "ь")) {
+            buffer.setLength(buffer.length() - 1);
+        }
+        return buffer.toString();
+    }
+
+    private static boolean removeAdjectival(StringBuilder buffer, int rv) {
+        if (!remove(buffer, rv, ADJECTIVE)) {
+            return false;
+        }
+        removeGrouped(buffer, rv, PARTICIPLE_1, PARTICIPLE_2);
+        return true;
+    }
+
+    /**
+     * Удаляет самое длинное окончание из двух групп. Окончания первой группы
+     * удаляются только после "а" или "я", которые остаются в слове.
+     */
+    private static boolean removeGrouped(StringBuilder buffer, int rv, String[] afterAYa, String[] plain) {
+        String first = longestAfterAYa(buffer, rv, afterAYa);
+        String second = longest(buffer, rv, plain);
+        String ending = first == null ? second
+                : second == null ? first
+                : first.length() >= second.length() ? first : second;
+        if (ending == null) {
+            return false;
+        }
+        buffer.setLength(buffer.length() - ending.length());
+        return true;
+    }
+
+    private static boolean remove(StringBuilder buffer, int limit, String[] endings) {
+        String ending = longest(buffer, limit, endings);
+        if (ending == null) {
+            return false;
+        }
+        buffer.setLength(buffer.length() - ending.length());
+        return true;
+    }
+
+    private static String longest(StringBuilder buffer, int limit, String[] endings) {
+        String best = null;
+        for (String ending : endings) {
+            if ((best == null || ending.length() > best.length()) && endsWith(buffer, limit, ending)) {
+                best = ending;
+            }
+        }
+        return best;
+    }
+
+    private static String longestAfterAYa(StringBuilder buffer, int limit, String[] endings) {
+        String best = null;
+        for (String ending : endings) {
+            if ((best == null || ending.length() > best.length()) && endsWith(buffer, limit, ending)) {
+                int before = buffer.length() - ending.length() - 1;
+                if (before >= limit && (buffer.charAt(before) == 'а' || buffer.charAt(before) == 'я')) {
+                    best = ending;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static boolean endsWith(StringBuilder buffer, int limit, String ending) {
+        int start = buffer.length() - ending.length();
+        if (start < limit) {
+            return false;
+        }
+        for (int i = 0; i < ending.length(); i++) {
+            if (buffer.charAt(start + i) != ending.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Область RV начинается после первой гласной.
+     */
+    private static int findRv(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (isVowel(word.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return word.length();
+    }
+
+    /**
+     * Область R1 начинается после первой согласной, следующей за гласной;
+     * R2 — та же область, найденная внутри R1.
+     */
+    private static int findR2(String word) {
+        int r1 = findRegion(word, 0);
+        return findRegion(word, r1);
+    }
+
+    private static int findRegion(String word, int from) {
+        for (int i = from + 1; i < word.length(); i++) {
+            if (!isVowel(word.charAt(i)) && isVowel(word.charAt(i - 1))) {
+                return i + 1;
+            }
+        }
+        return word.length();
+    }
+
+    private static boolean isVowel(char c) {
+        return VOWELS.indexOf(c) >= 0;
+    }
+}
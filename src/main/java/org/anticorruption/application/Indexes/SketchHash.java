@@ -0,0 +1,52 @@
+package org.anticorruption.application.Indexes;
+
+/**
+ * 64-битное хеширование строк для вероятностных структур.
+ * <p>
+ * Строка хешируется по FNV-1a, затем результат перемешивается финализатором MurmurHash3,
+ * чтобы старшие и младшие биты были распределены равномерно.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+final class SketchHash {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private SketchHash() {
+        throw new IllegalStateException("Утилитарный класс");
+    }
+
+    /**
+     * Вычисляет 64-битный хеш строки.
+     *
+     * @param value Строка
+     * @return Хеш
+     */
+    static long hash64(String value) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Финализатор MurmurHash3 (fmix64).
+     *
+     * @param hash Исходное значение
+     * @return Перемешанное значение
+     */
+    static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
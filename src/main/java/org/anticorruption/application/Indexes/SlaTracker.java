@@ -0,0 +1,302 @@
+package org.anticorruption.application.Indexes;
+
+import org.anticorruption.application.Models.Report;
+import org.anticorruption.application.Models.ReportStatus;
+
+import java.util.*;
+
+/**
+ * Контроль сроков обработки открытых отчетов.
+ * <p>
+ * Срок отчета в статусе "Новый" отсчитывается от даты подачи, в статусе "В работе" —
+ * от последнего обновления (или от даты подачи, если обновлений не было). За
+ * {@code warningMillis} до срока отчет переходит в состояние предупреждения, после срока —
+ * в состояние нарушения.
+ * <p>
+ * Открытые отчеты хранятся в индексированной двоичной куче по времени ближайшего события
+ * (предупреждения или нарушения). Позиция каждого отчета в куче известна, поэтому
+ * добавление, изменение и удаление отчета выполняются за O(log n), а проверка по таймеру
+ * извлекает только наступившие события, не просматривая остальные отчеты.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class SlaTracker {
+
+    /**
+     * Состояние срока отчета.
+     */
+    public enum Level {
+        /**
+         * Отчет закрыт или срок не определен.
+         */
+        NONE,
+        /**
+         * Срок не нарушен.
+         */
+        OK,
+        /**
+         * До срока осталось меньше порога предупреждения.
+         */
+        WARNING,
+        /**
+         * Срок нарушен.
+         */
+        BREACHED
+    }
+
+    /**
+     * Переход отчета в новое состояние, обнаруженный при проверке.
+     *
+     * @param reportId Идентификатор отчета
+     * @param level    Новое состояние ({@link Level#WARNING} или {@link Level#BREACHED})
+     * @param deadline Срок в миллисекундах эпохи
+     */
+    public record Transition(Long reportId, Level level, long deadline) {
+    }
+
+    /**
+     * Элемент кучи.
+     */
+    private static final class Entry {
+        final Long reportId;
+        long deadline;
+        boolean warned;
+        int heapIndex;
+
+        Entry(Long reportId, long deadline) {
+            this.reportId = reportId;
+            this.deadline = deadline;
+        }
+    }
+
+    private final long newLimitMillis;
+    private final long inProgressLimitMillis;
+    private final long warningMillis;
+
+    private final List<Entry> heap = new ArrayList<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    /**
+     * Отчеты с уже обнаруженным нарушением: идентификатор → срок.
+     */
+    private final Map<Long, Long> breached = new HashMap<>();
+
+    /**
+     * Создает трекер сроков.
+     *
+     * @param newLimitMillis        Срок для новых отчетов
+     * @param inProgressLimitMillis Срок для отчетов в работе
+     * @param warningMillis         За сколько до срока выдавать предупреждение
+     */
+    public SlaTracker(long newLimitMillis, long inProgressLimitMillis, long warningMillis) {
+        this.newLimitMillis = newLimitMillis;
+        this.inProgressLimitMillis = inProgressLimitMillis;
+        this.warningMillis = Math.max(0, warningMillis);
+    }
+
+    /**
+     * Учитывает отчет или пересчитывает его срок.
+     * Если срок не изменился, уже обнаруженные предупреждение и нарушение сохраняются.
+     *
+     * @param report Отчет
+     */
+    public synchronized void update(Report report) {
+        Long reportId = report.getId();
+        if (reportId == null) {
+            return;
+        }
+        long deadline = deadlineOf(report);
+        if (deadline == Report.NO_TIMESTAMP) {
+            remove(reportId);
+            return;
+        }
+
+        Long breachedDeadline = breached.get(reportId);
+        if (breachedDeadline != null) {
+            if (breachedDeadline == deadline) {
+                return;
+            }
+            breached.remove(reportId);
+        }
+
+        Entry entry = entries.get(reportId);
+        if (entry == null) {
+            entry = new Entry(reportId, deadline);
+            entries.put(reportId, entry);
+            entry.heapIndex = heap.size();
+            heap.add(entry);
+            siftUp(entry.heapIndex);
+        } else if (entry.deadline != deadline) {
+            entry.deadline = deadline;
+            entry.warned = false;
+            siftUp(entry.heapIndex);
+            siftDown(entry.heapIndex);
+        }
+    }
+
+    /**
+     * Исключает отчет из контроля сроков.
+     *
+     * @param reportId Идентификатор отчета
+     */
+    public synchronized void remove(Long reportId) {
+        breached.remove(reportId);
+        Entry entry = entries.remove(reportId);
+        if (entry == null) {
+            return;
+        }
+        int index = entry.heapIndex;
+        Entry last = heap.remove(heap.size() - 1);
+        if (last != entry) {
+            heap.set(index, last);
+            last.heapIndex = index;
+            siftUp(index);
+            siftDown(last.heapIndex);
+        }
+    }
+
+    /**
+     * Приводит трекер в соответствие с полным списком отчетов.
+     * Блокировка берется на каждый отчет отдельно, чтобы запросы состояния
+     * из потока интерфейса не ждали окончания полной синхронизации.
+     *
+     * @param reports Полный список отчетов
+     */
+    public void sync(Collection<Report> reports) {
+        Set<Long> present = new HashSet<>();
+        for (Report report : reports) {
+            if (report.getId() != null) {
+                present.add(report.getId());
+                update(report);
+            }
+        }
+        for (Long reportId : getTrackedIds()) {
+            if (!present.contains(reportId)) {
+                remove(reportId);
+            }
+        }
+    }
+
+    /**
+     * Извлекает все наступившие к моменту {@code now} события.
+     *
+     * @param now Текущее время в миллисекундах эпохи
+     * @return Переходы в порядке наступления
+     */
+    public synchronized List<Transition> poll(long now) {
+        List<Transition> transitions = new ArrayList<>();
+        while (!heap.isEmpty() && eventTime(heap.get(0)) <= now) {
+            Entry entry = heap.get(0);
+            if (!entry.warned && entry.deadline > now) {
+                entry.warned = true;
+                siftDown(0);
+                transitions.add(new Transition(entry.reportId, Level.WARNING, entry.deadline));
+            } else {
+                remove(entry.reportId);
+                breached.put(entry.reportId, entry.deadline);
+                transitions.add(new Transition(entry.reportId, Level.BREACHED, entry.deadline));
+            }
+        }
+        return transitions;
+    }
+
+    /**
+     * Возвращает состояние срока отчета на момент {@code now}.
+     *
+     * @param reportId Идентификатор отчета
+     * @param now      Текущее время в миллисекундах эпохи
+     * @return Состояние срока
+     */
+    public synchronized Level getLevel(Long reportId, long now) {
+        if (breached.containsKey(reportId)) {
+            return Level.BREACHED;
+        }
+        Entry entry = entries.get(reportId);
+        if (entry == null) {
+            return Level.NONE;
+        }
+        if (entry.deadline <= now) {
+            return Level.BREACHED;
+        }
+        return entry.deadline - warningMillis <= now ? Level.WARNING : Level.OK;
+    }
+
+    /**
+     * Возвращает срок отчета.
+     *
+     * @param reportId Идентификатор отчета
+     * @return Срок в миллисекундах эпохи или {@link Report#NO_TIMESTAMP}
+     */
+    public synchronized long getDeadline(Long reportId) {
+        Long breachedDeadline = breached.get(reportId);
+        if (breachedDeadline != null) {
+            return breachedDeadline;
+        }
+        Entry entry = entries.get(reportId);
+        return entry != null ? entry.deadline : Report.NO_TIMESTAMP;
+    }
+
+    private synchronized Set<Long> getTrackedIds() {
+        Set<Long> ids = new HashSet<>(entries.keySet());
+        ids.addAll(breached.keySet());
+        return ids;
+    }
+
+    private long deadlineOf(Report report) {
+        ReportStatus status = report.getStatus();
+        if (status == null || !status.isOpen()) {
+            return Report.NO_TIMESTAMP;
+        }
+        long submitted = report.getDateSubmittedMillis();
+        if (status == ReportStatus.NEW) {
+            return submitted != Report.NO_TIMESTAMP ? submitted + newLimitMillis : Report.NO_TIMESTAMP;
+        }
+        long start = report.getLastUpdatedMillis() != Report.NO_TIMESTAMP ? report.getLastUpdatedMillis() : submitted;
+        return start != Report.NO_TIMESTAMP ? start + inProgressLimitMillis : Report.NO_TIMESTAMP;
+    }
+
+    private long eventTime(Entry entry) {
+        return entry.warned ? entry.deadline : entry.deadline - warningMillis;
+    }
+
+    private void siftUp(int index) {
+        Entry entry = heap.get(index);
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            Entry parent = heap.get(parentIndex);
+            if (eventTime(parent) <= eventTime(entry)) {
+                break;
+            }
+            heap.set(index, parent);
+            parent.heapIndex = index;
+            index = parentIndex;
+        }
+        heap.set(index, entry);
+        entry.heapIndex = index;
+    }
+
+    private void siftDown(int index) {
+        Entry entry = heap.get(index);
+        int size = heap.size();
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && eventTime(heap.get(child + 1)) < eventTime(heap.get(child))) {
+                child++;
+            }
+            Entry smallest = heap.get(child);
+            if (eventTime(entry) <= eventTime(smallest)) {
+                break;
+            }
+            heap.set(index, smallest);
+            smallest.heapIndex = index;
+            index = child;
+        }
+        heap.set(index, entry);
+        entry.heapIndex = index;
+    }
+}
@@ -0,0 +1,142 @@
+package org.anticorruption.application.Indexes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Разбиение русского текста на нормализованные термы для полнотекстового поиска.
+ * <p>
+ * Текст приводится к нижнему регистру, "ё" заменяется на "е", слова выделяются
+ * по буквам и цифрам, русские слова приводятся к основе {@link RussianStemmer}.
+ * Служебные слова пропускаются, но позиция при этом увеличивается, чтобы
+ * поиск фраз учитывал исходное расстояние между словами.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class TextTokenizer {
+
+    /**
+     * Служебные слова, не несущие смысла для поиска.
+     */
+    private static final Set<String> STOP_WORDS = Set.of(
+            "и", "в", "во", "не", "что", "он", "на", "я", "с", "со", "как", "а", "то", "все", "она",
+            "так", "его", "но", "да", "ты", "к", "у", "же", "вы", "за", "бы", "по", "только", "ее",
+            "мне", "было", "вот", "от", "меня", "еще", "нет", "о", "из", "ему", "когда", "даже", "ну",
+            "ли", "если", "уже", "или", "ни", "быть", "был", "него", "до", "вас", "для", "мы", "их",
+            "при", "была", "это", "об", "без", "под", "над", "чтобы", "этот", "также", "тоже"
+    );
+
+    /**
+     * Максимальный размер кэша основ слов.
+     */
+    private static final int STEM_CACHE_LIMIT = 200_000;
+
+    private static final Map<String, String> STEM_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Приватный конструктор для предотвращения создания экземпляров.
+     * Класс предназначен только для статического использования.
+     */
+    private TextTokenizer() {
+        throw new IllegalStateException("Утилитарный класс не может быть инстанцирован");
+    }
+
+    /**
+     * Терм с позицией в тексте.
+     *
+     * @param term     Нормализованный терм
+     * @param position Номер слова в тексте с учетом пропущенных служебных слов
+     */
+    public record Token(String term, int position) {
+    }
+
+    /**
+     * Разбивает текст на термы.
+     *
+     * @param text Исходный текст (может быть null)
+     * @return Список термов с позициями
+     */
+    public static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        int position = 0;
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(normalizeChar(c));
+                continue;
+            }
+            if (word.length() > 0) {
+                String term = normalizeWord(word.toString());
+                if (term != null) {
+                    tokens.add(new Token(term, position));
+                }
+                position++;
+                word.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Возвращает список термов текста без позиций.
+     *
+     * @param text Исходный текст
+     * @return Термы в порядке следования
+     */
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        for (Token token : tokenize(text)) {
+            terms.add(token.term());
+        }
+        return terms;
+    }
+
+    /**
+     * Нормализует отдельное слово: пропускает служебные слова и приводит русские слова к основе.
+     *
+     * @param word Слово в нижнем регистре
+     * @return Терм или null, если слово служебное
+     */
+    private static String normalizeWord(String word) {
+        if (STOP_WORDS.contains(word)) {
+            return null;
+        }
+        if (!isCyrillic(word)) {
+            return word;
+        }
+        String stem = STEM_CACHE.get(word);
+        if (stem == null) {
+            stem = RussianStemmer.stem(word);
+            if (STEM_CACHE.size() >= STEM_CACHE_LIMIT) {
+                STEM_CACHE.clear();
+            }
+            STEM_CACHE.put(word, stem);
+        }
+        return stem;
+    }
+
+    private static char normalizeChar(char c) {
+        char lower = Character.toLowerCase(c);
+        return lower == 'ё' ? 'е' : lower;
+    }
+
+    private static boolean isCyrillic(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c >= 'а' && c <= 'я') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,279 @@
+package org.anticorruption.application.Indexes;
+
+import org.anticorruption.application.Models.UserSummary;
+
+import java.util.*;
+
+/**
+ * Локальный индекс поиска по справочнику пользователей.
+ * <p>
+ * Индексируются имя пользователя, ФИО, отдел, должность, табельный номер, электронная почта,
+ * телефон и навыки. Слова приводятся к нижнему регистру, а кириллица переводится в латиницу,
+ * поэтому запрос "ivanov" находит "Иванов", а "петр" — "petrov". Из телефона дополнительно
+ * индексируются все цифры подряд, чтобы номер находился без учета форматирования.
+ * <p>
+ * Слова хранятся в отсортированном словаре со списками внутренних номеров пользователей.
+ * Слово запроса совпадает с любым словом, начинающимся с него; пользователь найден,
+ * если совпали все слова запроса. Индекс обновляется инкрементально: при повторной загрузке
+ * переиндексируются только пользователи, чьи индексируемые поля изменились.
+ * Методы не синхронизированы: индекс используется из одного потока.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class UserSearchIndex {
+
+    private static final String[] TRANSLITERATION = {
+            "a", "b", "v", "g", "d", "e", "zh", "z", "i", "y", "k", "l", "m", "n", "o", "p",
+            "r", "s", "t", "u", "f", "kh", "ts", "ch", "sh", "shch", "", "y", "", "e", "yu", "ya"
+    };
+
+    /**
+     * Списки внутренних номеров пользователей по словам.
+     */
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+
+    /**
+     * Внутренний номер по идентификатору пользователя.
+     */
+    private final Map<Long, Integer> docByUser = new HashMap<>();
+
+    /**
+     * Освободившиеся внутренние номера для повторного использования.
+     */
+    private final Deque<Integer> freeDocs = new ArrayDeque<>();
+
+    private long[] userIds = new long[64];
+    private String[][] docWords = new String[64][];
+
+    /**
+     * Исходные тексты индексируемых полей для быстрой проверки изменений.
+     */
+    private String[] docSources = new String[64];
+    private int docCount;
+
+    /**
+     * Отсортированный по возрастанию список внутренних номеров.
+     */
+    private static class Postings {
+        private int[] docs = new int[2];
+        private int size;
+
+        void add(int doc) {
+            int position = Arrays.binarySearch(docs, 0, size, doc);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            System.arraycopy(docs, position, docs, position + 1, size - position);
+            docs[position] = doc;
+            size++;
+        }
+
+        void remove(int doc) {
+            int position = Arrays.binarySearch(docs, 0, size, doc);
+            if (position >= 0) {
+                System.arraycopy(docs, position + 1, docs, position, size - position - 1);
+                size--;
+            }
+        }
+    }
+
+    /**
+     * Приводит индекс в соответствие с полным списком пользователей.
+     * Пользователи, отсутствующие в списке, удаляются из индекса.
+     *
+     * @param users Полный список пользователей
+     * @return Количество пользователей, чьи записи в индексе изменились
+     */
+    public int replaceAll(Collection<UserSummary> users) {
+        int changed = 0;
+        Set<Long> present = new HashSet<>();
+        for (UserSummary user : users) {
+            if (user.getId() == null) {
+                continue;
+            }
+            present.add(user.getId());
+            if (put(user)) {
+                changed++;
+            }
+        }
+
+        Iterator<Map.Entry<Long, Integer>> iterator = docByUser.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Integer> entry = iterator.next();
+            if (!present.contains(entry.getKey())) {
+                int doc = entry.getValue();
+                iterator.remove();
+                unlink(doc, docWords[doc]);
+                docWords[doc] = null;
+                docSources[doc] = null;
+                freeDocs.push(doc);
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Добавляет пользователя или обновляет его слова в индексе.
+     *
+     * @param user Пользователь
+     * @return true, если запись в индексе изменилась
+     */
+    public boolean put(UserSummary user) {
+        String source = source(user);
+        Integer existing = docByUser.get(user.getId());
+        if (existing != null) {
+            if (source.equals(docSources[existing])) {
+                return false;
+            }
+            unlink(existing, docWords[existing]);
+        }
+        int doc = existing != null ? existing : allocate(user.getId());
+        String[] words = words(source);
+        docSources[doc] = source;
+        docWords[doc] = words;
+        for (String word : words) {
+            postings.computeIfAbsent(word, key -> new Postings()).add(doc);
+        }
+        return true;
+    }
+
+    /**
+     * Находит пользователей, у которых каждое слово запроса является началом
+     * какого-либо проиндексированного слова.
+     *
+     * @param query Текст запроса на кириллице или латинице
+     * @return Идентификаторы найденных пользователей; для пустого запроса — null
+     */
+    public Set<Long> search(String query) {
+        String[] queryWords = PrefixIndex.normalize(query).split(" ");
+        if (queryWords[0].isEmpty()) {
+            return null;
+        }
+
+        BitSet result = null;
+        for (String queryWord : queryWords) {
+            String prefix = transliterate(queryWord);
+            BitSet matched = new BitSet(docCount);
+            for (Postings list : postings.subMap(prefix, prefix + Character.MAX_VALUE).values()) {
+                for (int i = 0; i < list.size; i++) {
+                    matched.set(list.docs[i]);
+                }
+            }
+            if (result == null) {
+                result = matched;
+            } else {
+                result.and(matched);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+
+        Set<Long> found = new HashSet<>(Math.max(16, result.cardinality() * 4 / 3 + 1));
+        for (int doc = result.nextSetBit(0); doc >= 0; doc = result.nextSetBit(doc + 1)) {
+            found.add(userIds[doc]);
+        }
+        return found;
+    }
+
+    /**
+     * Возвращает количество пользователей в индексе.
+     *
+     * @return Количество пользователей
+     */
+    public int size() {
+        return docByUser.size();
+    }
+
+    /**
+     * Переводит кириллицу в латиницу, остальные символы оставляет без изменений.
+     *
+     * @param word Слово в нижнем регистре
+     * @return Слово латиницей
+     */
+    public static String transliterate(String word) {
+        StringBuilder result = null;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c >= 'а' && c <= 'я') {
+                if (result == null) {
+                    result = new StringBuilder(word.length() + 4).append(word, 0, i);
+                }
+                result.append(TRANSLITERATION[c - 'а']);
+            } else if (result != null) {
+                result.append(c == 'ё' ? 'e' : c);
+            }
+        }
+        return result != null ? result.toString() : word;
+    }
+
+    /**
+     * Склеивает индексируемые поля пользователя; телефон идет последним.
+     */
+    private static String source(UserSummary user) {
+        StringBuilder source = new StringBuilder(128);
+        for (String field : new String[]{user.getUsername(), user.getFullName(), user.getDepartment(),
+                user.getPosition(), user.getEmployeeId(), user.getEmail(), user.getSkills(), user.getPhoneNumber()}) {
+            source.append(field != null ? field : "").append('\n');
+        }
+        return source.toString();
+    }
+
+    private static String[] words(String source) {
+        Set<String> words = new HashSet<>();
+        for (String word : PrefixIndex.normalize(source).split(" ")) {
+            if (!word.isEmpty()) {
+                words.add(transliterate(word));
+            }
+        }
+
+        // Все цифры телефона подряд, без скобок, пробелов и дефисов
+        String phone = source.substring(source.lastIndexOf('\n', source.length() - 2) + 1);
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            if (Character.isDigit(phone.charAt(i))) {
+                digits.append(phone.charAt(i));
+            }
+        }
+        if (!digits.isEmpty()) {
+            words.add(digits.toString());
+        }
+        return words.toArray(String[]::new);
+    }
+
+    private int allocate(long userId) {
+        int doc;
+        if (!freeDocs.isEmpty()) {
+            doc = freeDocs.pop();
+        } else {
+            doc = docCount++;
+            if (doc == userIds.length) {
+                userIds = Arrays.copyOf(userIds, doc * 2);
+                docWords = Arrays.copyOf(docWords, doc * 2);
+                docSources = Arrays.copyOf(docSources, doc * 2);
+            }
+        }
+        userIds[doc] = userId;
+        docByUser.put(userId, doc);
+        return doc;
+    }
+
+    private void unlink(int doc, String[] words) {
+        for (String word : words) {
+            Postings list = postings.get(word);
+            if (list != null) {
+                list.remove(doc);
+                if (list.size == 0) {
+                    postings.remove(word);
+                }
+            }
+        }
+    }
+}
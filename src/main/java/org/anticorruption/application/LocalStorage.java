@@ -0,0 +1,81 @@
+package org.anticorruption.application;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Утилитарный класс для доступа к локальному каталогу данных клиента.
+ * <p>
+ * Корневой каталог задается параметром storage.dir в config.properties,
+ * по умолчанию используется ~/.anticorruption. Данные, относящиеся к конкретному
+ * пользователю, хранятся в отдельном подкаталоге, имя которого — SHA-256 имени
+ * пользователя в шестнадцатеричной записи: разные имена, в том числе кириллические,
+ * никогда не попадают в один каталог.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class LocalStorage {
+
+    /**
+     * Приватный конструктор для предотвращения создания экземпляров.
+     * Класс предназначен только для статического использования.
+     */
+    private LocalStorage() {
+        throw new IllegalStateException("Утилитарный класс не может быть инстанцирован");
+    }
+
+    /**
+     * Возвращает корневой каталог локальных данных, создавая его при необходимости.
+     *
+     * @return Путь к корневому каталогу
+     * @throws UncheckedIOException если каталог не удалось создать
+     */
+    public static Path getBaseDirectory() {
+        String configured = ConfigManager.getProperty("storage.dir");
+        Path base = configured != null && !configured.isBlank()
+                ? Paths.get(configured)
+                : Paths.get(System.getProperty("user.home"), ".anticorruption");
+        return createDirectories(base);
+    }
+
+    /**
+     * Возвращает подкаталог текущего пользователя, создавая его при необходимости.
+     *
+     * @param name Название подкаталога (например, "photos")
+     * @return Путь к подкаталогу
+     * @throws UncheckedIOException если каталог не удалось создать
+     */
+    public static Path getUserDirectory(String name) {
+        String username = UserSession.getInstance().getUsername();
+        String userFolder = username != null && !username.isBlank()
+                ? "user-" + sha256Hex(username)
+                : "anonymous";
+        return createDirectories(getBaseDirectory().resolve(userFolder).resolve(name));
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Алгоритм SHA-256 недоступен", e);
+        }
+    }
+
+    private static Path createDirectories(Path path) {
+        try {
+            return Files.createDirectories(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось создать каталог " + path, e);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package org.anticorruption.application.Models;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Неизменяемый длинный текст, хранящийся в сжатом виде.
+ * <p>
+ * Короткие тексты хранятся как есть: сжатие для них не дает выигрыша. Длинные
+ * тексты сжимаются алгоритмом Deflate и распаковываются только по запросу.
+ * Распакованная строка удерживается мягкой ссылкой, поэтому недавно открытые
+ * отчеты остаются развернутыми, пока сборщику мусора не понадобится память.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public final class CompressedText {
+
+    /**
+     * Минимальная длина текста (в символах), начиная с которой текст сжимается.
+     */
+    private static final int COMPRESSION_THRESHOLD = 256;
+
+    /**
+     * Текст, хранящийся без сжатия (для коротких текстов), иначе null.
+     */
+    private final String plain;
+
+    /**
+     * Сжатые байты UTF-8, иначе null.
+     */
+    private final byte[] compressed;
+
+    /**
+     * Длина текста в байтах UTF-8 до сжатия.
+     */
+    private final int length;
+
+    /**
+     * Распакованный текст, удерживаемый до нехватки памяти.
+     */
+    private volatile SoftReference<String> expanded;
+
+    private CompressedText(String plain, byte[] compressed, int length) {
+        this.plain = plain;
+        this.compressed = compressed;
+        this.length = length;
+    }
+
+    /**
+     * Создает сжатое представление текста.
+     *
+     * @param text Исходный текст
+     * @return Сжатый текст или null, если текст равен null
+     */
+    public static CompressedText of(String text) {
+        if (text == null) {
+            return null;
+        }
+        if (text.length() < COMPRESSION_THRESHOLD) {
+            return new CompressedText(text, null, text.length());
+        }
+
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(buffer);
+                output.write(buffer, 0, written);
+            }
+            byte[] result = output.toByteArray();
+            if (result.length >= bytes.length) {
+                return new CompressedText(text, null, text.length());
+            }
+            return new CompressedText(null, result, bytes.length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Возвращает текст, распаковывая его при необходимости и сохраняя
+     * результат в мягком кэше.
+     *
+     * @return Исходный текст
+     */
+    public String get() {
+        if (plain != null) {
+            return plain;
+        }
+        SoftReference<String> reference = expanded;
+        String text = reference != null ? reference.get() : null;
+        if (text == null) {
+            text = inflate();
+            expanded = new SoftReference<>(text);
+        }
+        return text;
+    }
+
+    /**
+     * Возвращает текст без сохранения в кэше.
+     * Используется при массовом чтении (например, индексации), чтобы
+     * не разворачивать в памяти тексты всех отчетов.
+     *
+     * @return Исходный текст
+     */
+    public String peek() {
+        if (plain != null) {
+            return plain;
+        }
+        SoftReference<String> reference = expanded;
+        String text = reference != null ? reference.get() : null;
+        return text != null ? text : inflate();
+    }
+
+    /**
+     * Проверяет, хранится ли текст в сжатом виде.
+     *
+     * @return true, если текст сжат
+     */
+    public boolean isCompressed() {
+        return compressed != null;
+    }
+
+    /**
+     * Возвращает объем, занимаемый текстом в памяти без учета кэша.
+     *
+     * @return Приблизительный размер в байтах
+     */
+    public int getStoredSize() {
+        return compressed != null ? compressed.length : plain.length() * 2;
+    }
+
+    private String inflate() {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed);
+            byte[] bytes = new byte[length];
+            int offset = 0;
+            while (offset < length && !inflater.finished()) {
+                offset += inflater.inflate(bytes, offset, length - offset);
+            }
+            return new String(bytes, 0, offset, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Поврежден сжатый текст отчета", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Возвращает исходный текст.
+     *
+     * @return Исходный текст
+     */
+    @Override
+    public String toString() {
+        return get();
+    }
+}
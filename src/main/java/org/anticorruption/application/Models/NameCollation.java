@@ -0,0 +1,86 @@
+package org.anticorruption.application.Models;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сравнение ФИО по правилам русского алфавита.
+ * <p>
+ * Для каждой строки один раз вычисляется {@link CollationKey}; ключи сравниваются
+ * побайтно, без повторного разбора строк при каждом сравнении. Ключи одинаковых имен
+ * (например, ФИО сотрудника, назначенного на много отчетов) берутся из общего кэша.
+ * Регистр букв при сравнении не учитывается.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class NameCollation {
+
+    /**
+     * Максимальный размер кэша ключей; при превышении кэш очищается.
+     */
+    private static final int CACHE_LIMIT = 100_000;
+
+    private static final Collator COLLATOR = createCollator();
+    private static final Map<String, CollationKey> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Порядок ключей; отсутствующие ключи располагаются в конце.
+     */
+    public static final Comparator<CollationKey> ORDER = Comparator.nullsLast(Comparator.naturalOrder());
+
+    /**
+     * Приватный конструктор для предотвращения создания экземпляров утилитарного класса.
+     */
+    private NameCollation() {
+        throw new IllegalStateException("Утилитарный класс");
+    }
+
+    /**
+     * Возвращает ключ сортировки строки.
+     *
+     * @param name Строка (может быть null)
+     * @return Ключ или null для пустой строки
+     */
+    public static CollationKey key(String name) {
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+        if (CACHE.size() > CACHE_LIMIT) {
+            CACHE.clear();
+        }
+        return CACHE.computeIfAbsent(name, COLLATOR::getCollationKey);
+    }
+
+    /**
+     * Собирает ФИО из частей, пропуская незаполненные.
+     *
+     * @param lastName   Фамилия
+     * @param firstName  Имя
+     * @param middleName Отчество
+     * @return Строка "Фамилия Имя Отчество" или пустая строка
+     */
+    public static String joinName(String lastName, String firstName, String middleName) {
+        StringBuilder result = new StringBuilder();
+        for (String part : new String[]{lastName, firstName, middleName}) {
+            if (part != null && !part.isBlank() && !"null".equals(part)) {
+                if (!result.isEmpty()) {
+                    result.append(' ');
+                }
+                result.append(part.strip());
+            }
+        }
+        return result.toString();
+    }
+
+    private static Collator createCollator() {
+        Collator collator = Collator.getInstance(Locale.forLanguageTag("ru-RU"));
+        collator.setStrength(Collator.SECONDARY);
+        return collator;
+    }
+}
@@ -1,13 +1,32 @@
 package org.anticorruption.application.Models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.text.CollationKey;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Objects;
 
 /**
  * Модель отчета о коррупционном инциденте в антикоррупционной информационной системе.
  * Содержит детальную информацию о зарегистрированном сообщении о нарушении.
+ * <p>
+ * Даты, время и статус преобразуются в компактные типы один раз при разборе JSON:
+ * дата инцидента хранится как номер дня эпохи (int), время — как минута суток (short),
+ * даты подачи и обновления — в миллисекундах эпохи (long), статус — как {@link ReportStatus}.
+ * Сортировка и проверки диапазонов выполняются по этим значениям без повторного
+ * разбора строк. В JSON поля по-прежнему читаются и записываются строками; если строка
+ * не восстанавливается из компактного значения в точности, исходный текст сохраняется.
+ * Так же сохраняется неизвестный клиенту код статуса: в приложении он виден как
+ * {@link ReportStatus#UNKNOWN}, а на сервер возвращается без изменений.
+ * <p>
+ * Длинные тексты (описание, доказательства, решение) хранятся сжатыми и распаковываются
+ * только при обращении, например при открытии карточки отчета.
  *
  * @author Гордейчик Е.А.
  * @version 1.0
@@ -22,9 +41,40 @@ public class Report {
     private Long id;
 
     /**
-     * Дата подачи отчета в формате даты.
+     * Значение даты, отсутствующей или не распознанной при разборе.
      */
-    private String dateSubmitted;
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
+    /**
+     * Значение времени, отсутствующего или не распознанного при разборе.
+     */
+    public static final short NO_TIME = -1;
+
+    /**
+     * Значение отметки времени, отсутствующей или не распознанной при разборе.
+     */
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private static final int RAW_DATE_SUBMITTED = 0;
+    private static final int RAW_INCIDENT_DATE = 1;
+    private static final int RAW_INCIDENT_TIME = 2;
+    private static final int RAW_LAST_UPDATED = 3;
+    private static final int RAW_STATUS = 4;
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    /**
+     * Формат разбора времени: час может быть записан одной цифрой ("9:05"),
+     * как допускает {@code ReportValidator}, секунды необязательны.
+     */
+    private static final DateTimeFormatter TIME_INPUT_FORMAT = DateTimeFormatter.ofPattern("H:mm[:ss]");
+
+    /**
+     * Дата подачи отчета в миллисекундах эпохи.
+     */
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private long dateSubmittedMillis = NO_TIMESTAMP;
 
     /**
      * Идентификатор лица, подавшего отчет.
@@ -32,14 +82,18 @@ public class Report {
     private String reporterId;
 
     /**
-     * Дата совершения инцидента.
+     * Дата совершения инцидента как номер дня эпохи ({@link LocalDate#toEpochDay()}).
      */
-    private String incidentDate;
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private int incidentEpochDay = NO_DATE;
 
     /**
-     * Время совершения инцидента.
+     * Время совершения инцидента как номер минуты суток.
      */
-    private String incidentTime;
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private short incidentMinuteOfDay = NO_TIME;
 
     /**
      * Место совершения инцидента.
@@ -53,13 +107,21 @@ public class Report {
 
     /**
      * Подробное описание инцидента.
+     * Хранится в сжатом виде, см. {@link CompressedText}.
      */
-    private String description;
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private CompressedText description;
 
     /**
      * Описание доказательств инцидента.
+     * Хранится в сжатом виде, см. {@link CompressedText}.
      */
-    private String evidenceDescription;
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private CompressedText evidenceDescription;
 
     /**
      * Свидетели инцидента.
@@ -69,7 +131,9 @@ public class Report {
     /**
      * Текущий статус отчета (например, "Новый", "В работе", "Закрыт").
      */
-    private String status;
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private ReportStatus status;
 
     /**
      * Идентификатор сотрудника, которому назначен отчет.
@@ -79,17 +143,41 @@ public class Report {
     /**
      * Полное имя сотрудника, которому назначен отчет.
      */
+    @Setter(AccessLevel.NONE)
     private String assignedToFullName;
 
     /**
-     * Дата последнего обновления отчета.
+     * Ключ сортировки имени назначенного сотрудника; вычисляется при первом обращении.
+     */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private CollationKey assignedToSortKey;
+
+    /**
+     * Дата последнего обновления отчета в миллисекундах эпохи.
      */
-    private String lastUpdated;
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private long lastUpdatedMillis = NO_TIMESTAMP;
 
     /**
      * Решение или резолюция по инциденту.
+     * Хранится в сжатом виде, см. {@link CompressedText}.
      */
-    private String solution;
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private CompressedText solution;
+
+    /**
+     * Исходные строки дат, времени и статуса, которые не восстанавливаются из компактных значений.
+     * Создается только при необходимости, у большинства отчетов равно null.
+     */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String[] rawValues;
 
     /**
      * Конструктор по умолчанию для создания пустого отчета.
@@ -104,10 +192,10 @@ public class Report {
      */
     public Report(Report other) {
         this.id = other.id;
-        this.dateSubmitted = other.dateSubmitted;
+        this.dateSubmittedMillis = other.dateSubmittedMillis;
         this.reporterId = other.reporterId;
-        this.incidentDate = other.incidentDate;
-        this.incidentTime = other.incidentTime;
+        this.incidentEpochDay = other.incidentEpochDay;
+        this.incidentMinuteOfDay = other.incidentMinuteOfDay;
         this.incidentLocation = other.incidentLocation;
         this.involvedPersons = other.involvedPersons;
         this.description = other.description;
@@ -116,17 +204,410 @@ public class Report {
         this.status = other.status;
         this.assignedTo = other.assignedTo;
         this.assignedToFullName = other.assignedToFullName;
-        this.lastUpdated = other.lastUpdated;
+        this.assignedToSortKey = other.assignedToSortKey;
+        this.lastUpdatedMillis = other.lastUpdatedMillis;
         this.solution = other.solution;
+        this.rawValues = other.rawValues != null ? other.rawValues.clone() : null;
+    }
+
+    /**
+     * Возвращает описание инцидента, распаковывая его при необходимости.
+     *
+     * @return Описание или null
+     */
+    @JsonProperty("description")
+    public String getDescription() {
+        return description != null ? description.get() : null;
+    }
+
+    /**
+     * Устанавливает описание инцидента.
+     *
+     * @param description Описание
+     */
+    @JsonProperty("description")
+    public void setDescription(String description) {
+        this.description = CompressedText.of(description);
+    }
+
+    /**
+     * Возвращает описание доказательств, распаковывая его при необходимости.
+     *
+     * @return Описание доказательств или null
+     */
+    @JsonProperty("evidenceDescription")
+    public String getEvidenceDescription() {
+        return evidenceDescription != null ? evidenceDescription.get() : null;
+    }
+
+    /**
+     * Устанавливает описание доказательств.
+     *
+     * @param evidenceDescription Описание доказательств
+     */
+    @JsonProperty("evidenceDescription")
+    public void setEvidenceDescription(String evidenceDescription) {
+        this.evidenceDescription = CompressedText.of(evidenceDescription);
+    }
+
+    /**
+     * Возвращает решение по инциденту, распаковывая его при необходимости.
+     *
+     * @return Решение или null
+     */
+    @JsonProperty("solution")
+    public String getSolution() {
+        return solution != null ? solution.get() : null;
+    }
+
+    /**
+     * Устанавливает решение по инциденту.
+     *
+     * @param solution Решение
+     */
+    @JsonProperty("solution")
+    public void setSolution(String solution) {
+        this.solution = CompressedText.of(solution);
+    }
+
+    /**
+     * Возвращает длинные тексты отчета без сохранения распакованных строк в кэше.
+     * Используется при массовой обработке, например при индексации.
+     *
+     * @return Описание, описание доказательств и решение (элементы могут быть null)
+     */
+    @JsonIgnore
+    public String[] peekLongTexts() {
+        return new String[]{
+                description != null ? description.peek() : null,
+                evidenceDescription != null ? evidenceDescription.peek() : null,
+                solution != null ? solution.peek() : null
+        };
+    }
+
+    /**
+     * Возвращает длинные тексты отчета в хранимом виде, без распаковки.
+     *
+     * @return Описание, описание доказательств и решение (элементы могут быть null)
+     */
+    @JsonIgnore
+    public CompressedText[] getCompressedLongTexts() {
+        return new CompressedText[]{description, evidenceDescription, solution};
+    }
+
+    /**
+     * Устанавливает длинные тексты в уже сжатом виде, без повторного сжатия.
+     *
+     * @param description         Описание
+     * @param evidenceDescription Описание доказательств
+     * @param solution            Решение
+     */
+    public void setCompressedLongTexts(CompressedText description, CompressedText evidenceDescription,
+                                       CompressedText solution) {
+        this.description = description;
+        this.evidenceDescription = evidenceDescription;
+        this.solution = solution;
+    }
+
+    /**
+     * Возвращает дату подачи отчета в формате JSON.
+     *
+     * @return Дата подачи или null
+     */
+    @JsonProperty("dateSubmitted")
+    public String getDateSubmitted() {
+        return formatTimestamp(dateSubmittedMillis, RAW_DATE_SUBMITTED);
+    }
+
+    /**
+     * Устанавливает дату подачи отчета из строки JSON.
+     *
+     * @param dateSubmitted Дата подачи в формате ISO
+     */
+    @JsonProperty("dateSubmitted")
+    public void setDateSubmitted(String dateSubmitted) {
+        dateSubmittedMillis = parseTimestamp(dateSubmitted, RAW_DATE_SUBMITTED);
+    }
+
+    /**
+     * Устанавливает дату подачи отчета в миллисекундах эпохи.
+     *
+     * @param dateSubmittedMillis Дата подачи или {@link #NO_TIMESTAMP}
+     */
+    public void setDateSubmittedMillis(long dateSubmittedMillis) {
+        this.dateSubmittedMillis = dateSubmittedMillis;
+        setRaw(RAW_DATE_SUBMITTED, null);
+    }
+
+    /**
+     * Возвращает дату инцидента в формате JSON (ГГГГ-ММ-ДД).
+     *
+     * @return Дата инцидента или null
+     */
+    @JsonProperty("incidentDate")
+    public String getIncidentDate() {
+        String raw = getRaw(RAW_INCIDENT_DATE);
+        if (raw != null || incidentEpochDay == NO_DATE) {
+            return raw;
+        }
+        return LocalDate.ofEpochDay(incidentEpochDay).toString();
+    }
+
+    /**
+     * Устанавливает дату инцидента из строки JSON.
+     *
+     * @param incidentDate Дата инцидента в формате ГГГГ-ММ-ДД
+     */
+    @JsonProperty("incidentDate")
+    public void setIncidentDate(String incidentDate) {
+        setRaw(RAW_INCIDENT_DATE, null);
+        incidentEpochDay = NO_DATE;
+        if (incidentDate == null) {
+            return;
+        }
+        try {
+            LocalDate date = LocalDate.parse(incidentDate);
+            incidentEpochDay = (int) date.toEpochDay();
+            if (!date.toString().equals(incidentDate)) {
+                setRaw(RAW_INCIDENT_DATE, incidentDate);
+            }
+        } catch (DateTimeParseException e) {
+            setRaw(RAW_INCIDENT_DATE, incidentDate);
+        }
+    }
+
+    /**
+     * Устанавливает дату инцидента как номер дня эпохи.
+     *
+     * @param incidentEpochDay Номер дня эпохи или {@link #NO_DATE}
+     */
+    public void setIncidentEpochDay(int incidentEpochDay) {
+        this.incidentEpochDay = incidentEpochDay;
+        setRaw(RAW_INCIDENT_DATE, null);
+    }
+
+    /**
+     * Возвращает время инцидента в формате JSON (ЧЧ:ММ).
+     *
+     * @return Время инцидента или null
+     */
+    @JsonProperty("incidentTime")
+    public String getIncidentTime() {
+        String raw = getRaw(RAW_INCIDENT_TIME);
+        if (raw != null || incidentMinuteOfDay == NO_TIME) {
+            return raw;
+        }
+        return LocalTime.ofSecondOfDay(incidentMinuteOfDay * 60L).format(TIME_FORMAT);
+    }
+
+    /**
+     * Устанавливает время инцидента из строки JSON.
+     *
+     * @param incidentTime Время инцидента в формате Ч:ММ или ЧЧ:ММ
+     */
+    @JsonProperty("incidentTime")
+    public void setIncidentTime(String incidentTime) {
+        setRaw(RAW_INCIDENT_TIME, null);
+        incidentMinuteOfDay = NO_TIME;
+        if (incidentTime == null) {
+            return;
+        }
+        try {
+            LocalTime time = LocalTime.parse(incidentTime, TIME_INPUT_FORMAT);
+            incidentMinuteOfDay = (short) (time.getHour() * 60 + time.getMinute());
+            if (!time.format(TIME_FORMAT).equals(incidentTime)) {
+                setRaw(RAW_INCIDENT_TIME, incidentTime);
+            }
+        } catch (DateTimeParseException e) {
+            setRaw(RAW_INCIDENT_TIME, incidentTime);
+        }
+    }
+
+    /**
+     * Устанавливает время инцидента как номер минуты суток.
+     *
+     * @param incidentMinuteOfDay Минута суток или {@link #NO_TIME}
+     */
+    public void setIncidentMinuteOfDay(short incidentMinuteOfDay) {
+        this.incidentMinuteOfDay = incidentMinuteOfDay;
+        setRaw(RAW_INCIDENT_TIME, null);
+    }
+
+    /**
+     * Возвращает дату последнего обновления в формате JSON.
+     *
+     * @return Дата обновления или null
+     */
+    @JsonProperty("lastUpdated")
+    public String getLastUpdated() {
+        return formatTimestamp(lastUpdatedMillis, RAW_LAST_UPDATED);
+    }
+
+    /**
+     * Устанавливает дату последнего обновления из строки JSON.
+     *
+     * @param lastUpdated Дата обновления в формате ISO
+     */
+    @JsonProperty("lastUpdated")
+    public void setLastUpdated(String lastUpdated) {
+        lastUpdatedMillis = parseTimestamp(lastUpdated, RAW_LAST_UPDATED);
+    }
+
+    /**
+     * Устанавливает дату последнего обновления в миллисекундах эпохи.
+     *
+     * @param lastUpdatedMillis Дата обновления или {@link #NO_TIMESTAMP}
+     */
+    public void setLastUpdatedMillis(long lastUpdatedMillis) {
+        this.lastUpdatedMillis = lastUpdatedMillis;
+        setRaw(RAW_LAST_UPDATED, null);
+    }
+
+    /**
+     * Возвращает код статуса в формате JSON.
+     *
+     * @return Код статуса, исходный код для неизвестного статуса или null
+     */
+    @JsonProperty("status")
+    public String getStatusCode() {
+        String raw = getRaw(RAW_STATUS);
+        if (raw != null || status == null) {
+            return raw;
+        }
+        return status.getCode();
+    }
+
+    /**
+     * Устанавливает статус по коду из JSON. Неизвестный код сохраняется как есть.
+     *
+     * @param statusCode Код статуса
+     */
+    @JsonProperty("status")
+    public void setStatusCode(String statusCode) {
+        status = ReportStatus.fromCode(statusCode);
+        setRaw(RAW_STATUS, status == ReportStatus.UNKNOWN ? statusCode : null);
+    }
+
+    /**
+     * Устанавливает статус отчета.
+     *
+     * @param status Статус отчета
+     */
+    public void setStatus(ReportStatus status) {
+        this.status = status;
+        setRaw(RAW_STATUS, null);
+    }
+
+    /**
+     * Проверяет, попадает ли дата инцидента в диапазон дней эпохи (включительно).
+     *
+     * @param fromEpochDay Начало диапазона или {@link #NO_DATE}, если не ограничено
+     * @param toEpochDay   Конец диапазона или {@link #NO_DATE}, если не ограничено
+     * @return true, если дата инцидента известна и попадает в диапазон
+     */
+    public boolean isIncidentWithin(int fromEpochDay, int toEpochDay) {
+        if (incidentEpochDay == NO_DATE) {
+            return false;
+        }
+        return (fromEpochDay == NO_DATE || incidentEpochDay >= fromEpochDay)
+                && (toEpochDay == NO_DATE || incidentEpochDay <= toEpochDay);
+    }
+
+    /**
+     * Разбирает отметку времени в миллисекунды эпохи.
+     * Дата-время без часового пояса трактуется в часовом поясе системы.
+     */
+    private long parseTimestamp(String text, int rawIndex) {
+        setRaw(rawIndex, null);
+        if (text == null) {
+            return NO_TIMESTAMP;
+        }
+
+        long millis;
+        try {
+            millis = LocalDateTime.parse(text).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            try {
+                millis = OffsetDateTime.parse(text).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e2) {
+                try {
+                    millis = LocalDate.parse(text).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                } catch (DateTimeParseException e3) {
+                    setRaw(rawIndex, text);
+                    return NO_TIMESTAMP;
+                }
+            }
+        }
+
+        if (!formatTimestamp(millis).equals(text)) {
+            setRaw(rawIndex, text);
+        }
+        return millis;
+    }
+
+    private String formatTimestamp(long millis, int rawIndex) {
+        String raw = getRaw(rawIndex);
+        if (raw != null || millis == NO_TIMESTAMP) {
+            return raw;
+        }
+        return formatTimestamp(millis);
+    }
+
+    private static String formatTimestamp(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault())
+                .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    private String getRaw(int index) {
+        return rawValues != null ? rawValues[index] : null;
+    }
+
+    private void setRaw(int index, String value) {
+        if (value == null) {
+            if (rawValues != null) {
+                rawValues[index] = null;
+            }
+            return;
+        }
+        if (rawValues == null) {
+            rawValues = new String[5];
+        }
+        rawValues[index] = value;
     }
 
     /**
      * Проверяет, является ли отчет актуальным.
+     * <p>
+     * Признак передается в JSON, но при разборе пропускается: он вычисляется из статуса.
      *
      * @return true, если отчет не закрыт и не устарел
      */
+    @JsonProperty(value = "active", access = JsonProperty.Access.READ_ONLY)
     public boolean isActive() {
-        return !"Закрыт".equals(status);
+        return status != ReportStatus.CLOSED;
+    }
+
+    /**
+     * Устанавливает полное имя назначенного сотрудника.
+     *
+     * @param assignedToFullName Полное имя сотрудника
+     */
+    public void setAssignedToFullName(String assignedToFullName) {
+        this.assignedToFullName = assignedToFullName;
+        this.assignedToSortKey = null;
+    }
+
+    /**
+     * Возвращает ключ сортировки имени назначенного сотрудника по правилам русского алфавита.
+     *
+     * @return Ключ или null, если сотрудник не назначен
+     */
+    @JsonIgnore
+    public CollationKey getAssignedToSortKey() {
+        if (assignedToSortKey == null && assignedToFullName != null) {
+            assignedToSortKey = NameCollation.key(assignedToFullName);
+        }
+        return assignedToSortKey;
     }
 
     /**
@@ -138,7 +619,7 @@ public class Report {
     public String toString() {
         return "Report{" +
                 "id=" + id +
-                ", incidentDate='" + incidentDate + '\'' +
+                ", incidentDate='" + getIncidentDate() + '\'' +
                 ", status='" + status + '\'' +
                 ", assignedToFullName='" + assignedToFullName + '\'' +
                 '}';
@@ -0,0 +1,269 @@
+package org.anticorruption.application.Models;
+
+import lombok.Getter;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Нормализованные условия фильтра отчетов для /api/reports/filter.
+ * <p>
+ * Текстовые условия очищаются от пробелов по краям и повторяющихся пробелов внутри,
+ * пустые условия отбрасываются. Параметры всегда перечисляются в порядке названий,
+ * поэтому одинаковые по смыслу фильтры дают одну и ту же строку запроса и один
+ * ключ кэша независимо от порядка заполнения полей. Объект неизменяем.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+@Getter
+public class ReportQuery {
+
+    private static final String REPORTER_ID = "reporterId";
+    private static final String START_INCIDENT_DATE = "startIncidentDate";
+    private static final String END_INCIDENT_DATE = "endIncidentDate";
+    private static final String INCIDENT_LOCATION = "incidentLocation";
+    private static final String INVOLVED_PERSONS = "involvedPersons";
+    private static final String STATUS = "status";
+    private static final String ASSIGNED_TO = "assignedTo";
+
+    /**
+     * Идентификатор заявителя.
+     */
+    private final String reporterId;
+
+    /**
+     * Начало диапазона дат инцидента (включительно).
+     */
+    private final LocalDate startIncidentDate;
+
+    /**
+     * Конец диапазона дат инцидента (включительно).
+     */
+    private final LocalDate endIncidentDate;
+
+    /**
+     * Место инцидента.
+     */
+    private final String incidentLocation;
+
+    /**
+     * Вовлеченные лица.
+     */
+    private final String involvedPersons;
+
+    /**
+     * Статус отчета.
+     */
+    private final ReportStatus status;
+
+    /**
+     * Идентификатор назначенного сотрудника.
+     */
+    private final Long assignedTo;
+
+    /**
+     * Параметры запроса в порядке названий.
+     */
+    private final SortedMap<String, String> parameters;
+
+    /**
+     * Ключ кэша результатов: параметры в каноническом порядке.
+     */
+    private final String key;
+
+    /**
+     * Создает условия фильтра, нормализуя значения.
+     * Пустые и состоящие из пробелов значения означают отсутствие условия.
+     *
+     * @param reporterId        Идентификатор заявителя
+     * @param startIncidentDate Начало диапазона дат инцидента
+     * @param endIncidentDate   Конец диапазона дат инцидента
+     * @param incidentLocation  Место инцидента
+     * @param involvedPersons   Вовлеченные лица
+     * @param status            Статус отчета
+     * @param assignedTo        Идентификатор назначенного сотрудника
+     */
+    public ReportQuery(String reporterId, LocalDate startIncidentDate, LocalDate endIncidentDate,
+                       String incidentLocation, String involvedPersons, ReportStatus status, Long assignedTo) {
+        this.reporterId = normalizeText(reporterId);
+        this.startIncidentDate = startIncidentDate;
+        this.endIncidentDate = endIncidentDate;
+        this.incidentLocation = normalizeText(incidentLocation);
+        this.involvedPersons = normalizeText(involvedPersons);
+        this.status = status;
+        this.assignedTo = assignedTo;
+
+        SortedMap<String, String> params = new TreeMap<>();
+        putIfPresent(params, REPORTER_ID, this.reporterId);
+        putIfPresent(params, START_INCIDENT_DATE, startIncidentDate);
+        putIfPresent(params, END_INCIDENT_DATE, endIncidentDate);
+        putIfPresent(params, INCIDENT_LOCATION, this.incidentLocation);
+        putIfPresent(params, INVOLVED_PERSONS, this.involvedPersons);
+        putIfPresent(params, STATUS, status != null ? status.getCode() : null);
+        putIfPresent(params, ASSIGNED_TO, assignedTo);
+        this.parameters = Collections.unmodifiableSortedMap(params);
+        this.key = params.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining("&"));
+    }
+
+    /**
+     * Восстанавливает условия фильтра из параметров, например сохраненного фильтра.
+     * Неизвестные и некорректные параметры пропускаются.
+     *
+     * @param parameters Параметры запроса
+     * @return Условия фильтра
+     */
+    public static ReportQuery fromParameters(Map<String, String> parameters) {
+        return new ReportQuery(
+                parameters.get(REPORTER_ID),
+                parseDate(parameters.get(START_INCIDENT_DATE)),
+                parseDate(parameters.get(END_INCIDENT_DATE)),
+                parameters.get(INCIDENT_LOCATION),
+                parameters.get(INVOLVED_PERSONS),
+                ReportStatus.fromCode(parameters.get(STATUS)),
+                parseLong(parameters.get(ASSIGNED_TO)));
+    }
+
+    /**
+     * Формирует строку параметров запроса в каноническом порядке.
+     *
+     * @return Строка вида "name=value&amp;..." с кодированием значений
+     */
+    public String toQueryString() {
+        return parameters.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+    }
+
+    /**
+     * Проверяет, что условия не заданы.
+     *
+     * @return true, если фильтр пустой
+     */
+    public boolean isEmpty() {
+        return parameters.isEmpty();
+    }
+
+    /**
+     * Проверяет, входит ли отчет в результат фильтра при локальном выполнении.
+     * Текстовые условия выполняются, если текст отчета содержит искомый без учета регистра;
+     * при условии на даты отчет с неизвестной датой инцидента не входит в результат.
+     *
+     * @param report Отчет
+     * @return true, если отчет удовлетворяет всем условиям
+     */
+    public boolean matches(Report report) {
+        return matches(report, false);
+    }
+
+    /**
+     * Проверяет, может ли отчет входить в результат фильтра.
+     * Проверка нестрогая: в отличие от {@link #matches(Report)} отчет с неизвестной датой
+     * инцидента не отсекается условием на даты, поэтому ложных отказов не бывает,
+     * а ложные совпадения допустимы. Используется для сброса кэша результатов.
+     *
+     * @param report Отчет
+     * @return false, если отчет заведомо не входит в результат
+     */
+    public boolean mayMatch(Report report) {
+        return matches(report, true);
+    }
+
+    private boolean matches(Report report, boolean unknownDateMatches) {
+        if (reporterId != null && !reporterId.equals(report.getReporterId())) {
+            return false;
+        }
+        if (status != null && status != report.getStatus()) {
+            return false;
+        }
+        if (assignedTo != null && !String.valueOf(assignedTo).equals(report.getAssignedTo())) {
+            return false;
+        }
+        if ((startIncidentDate != null || endIncidentDate != null)
+                && !(unknownDateMatches && report.getIncidentEpochDay() == Report.NO_DATE)
+                && !report.isIncidentWithin(getStartEpochDay(), getEndEpochDay())) {
+            return false;
+        }
+        return containsIgnoreCase(report.getIncidentLocation(), incidentLocation)
+                && containsIgnoreCase(report.getInvolvedPersons(), involvedPersons);
+    }
+
+    /**
+     * Возвращает начало диапазона дат инцидента в днях эпохи.
+     *
+     * @return День эпохи или {@link Report#NO_DATE}, если начало не ограничено
+     */
+    public int getStartEpochDay() {
+        return startIncidentDate != null ? (int) startIncidentDate.toEpochDay() : Report.NO_DATE;
+    }
+
+    /**
+     * Возвращает конец диапазона дат инцидента в днях эпохи.
+     *
+     * @return День эпохи или {@link Report#NO_DATE}, если конец не ограничен
+     */
+    public int getEndEpochDay() {
+        return endIncidentDate != null ? (int) endIncidentDate.toEpochDay() : Report.NO_DATE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return key.equals(((ReportQuery) o).key);
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    private static boolean containsIgnoreCase(String text, String part) {
+        if (part == null) {
+            return true;
+        }
+        return text != null && text.toLowerCase(Locale.ROOT).contains(part.toLowerCase(Locale.ROOT));
+    }
+
+    private static String normalizeText(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = value.strip().replaceAll("\\s+", " ");
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private static void putIfPresent(Map<String, String> params, String name, Object value) {
+        if (value != null) {
+            params.put(name, value.toString());
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return value != null ? LocalDate.parse(value) : null;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static Long parseLong(String value) {
+        try {
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.anticorruption.application.Models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import lombok.Getter;
+
+/**
+ * Статус отчета о коррупционном инциденте.
+ * <p>
+ * В JSON статус передается строковым кодом ("NEW", "IN_PROGRESS", "CLOSED"),
+ * поэтому формат обмена с сервером не меняется, а в приложении статус
+ * сравнивается как значение перечисления, без сравнения строк.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+@Getter
+public enum ReportStatus {
+    /**
+     * Новый отчет, еще не взятый в работу.
+     */
+    NEW("NEW", "Новый"),
+
+    /**
+     * Отчет находится в работе у сотрудника.
+     */
+    IN_PROGRESS("IN_PROGRESS", "В работе"),
+
+    /**
+     * Отчет закрыт.
+     */
+    CLOSED("CLOSED", "Закрыт"),
+
+    /**
+     * Статус, неизвестный клиенту. Исходный код такого статуса хранится в отчете
+     * и возвращается на сервер без изменений, см. {@link Report#getStatusCode()}.
+     */
+    UNKNOWN("UNKNOWN", "Неизвестен");
+
+    /**
+     * Код статуса в API сервера.
+     */
+    private final String code;
+
+    /**
+     * Название статуса для отображения пользователю.
+     */
+    private final String displayName;
+
+    ReportStatus(String code, String displayName) {
+        this.code = code;
+        this.displayName = displayName;
+    }
+
+    /**
+     * Возвращает код статуса для сериализации в JSON.
+     *
+     * @return Код статуса
+     */
+    @JsonValue
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * Определяет статус по коду из JSON.
+     *
+     * @param code Код статуса
+     * @return Статус, {@link #UNKNOWN} для неизвестного кода или null, если код отсутствует
+     */
+    @JsonCreator
+    public static ReportStatus fromCode(String code) {
+        if (code == null || code.isEmpty()) {
+            return null;
+        }
+        for (ReportStatus status : values()) {
+            if (status.code.equals(code)) {
+                return status;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Проверяет, требует ли отчет в этом статусе дальнейшей работы.
+     *
+     * @return true для статусов NEW и IN_PROGRESS
+     */
+    public boolean isOpen() {
+        return this == NEW || this == IN_PROGRESS;
+    }
+
+    /**
+     * Возвращает название статуса для отображения в таблицах и списках.
+     *
+     * @return Название статуса
+     */
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -262,7 +262,7 @@ public class User {
      * @return Полное имя сотрудника
      */
     public String getFullName() {
-        return lastName + " " + firstName + " " + middleName;
+        return NameCollation.joinName(lastName, firstName, middleName);
     }
 
     /**
@@ -0,0 +1,201 @@
+package org.anticorruption.application.Models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.IOException;
+import java.text.CollationKey;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Краткое представление пользователя для списков и таблиц.
+ * <p>
+ * Содержит только поля, необходимые для отображения списка сотрудников,
+ * проверки групп доступа и поиска по справочнику. Остальные поля ответа /api/users (фотография,
+ * банковские реквизиты, медицинские сведения и т.д.) пропускаются при разборе
+ * и не занимают память; о фотографии запоминается только признак её наличия.
+ * Полная карточка сотрудника ({@link User})
+ * загружается по требованию при открытии формы редактирования.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+@Getter
+@Setter
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserSummary {
+    /**
+     * Уникальный идентификатор пользователя в базе данных.
+     */
+    private Long id;
+
+    /**
+     * Логин пользователя для входа в систему.
+     */
+    private String username;
+
+    /**
+     * Группы доступа, к которым принадлежит пользователь.
+     */
+    private Set<AccessGroup> groups = new HashSet<>();
+
+    /**
+     * Фамилия сотрудника.
+     */
+    private String lastName;
+
+    /**
+     * Имя сотрудника.
+     */
+    private String firstName;
+
+    /**
+     * Отчество сотрудника.
+     */
+    private String middleName;
+
+    /**
+     * Полное имя сотрудника.
+     */
+    private String fullName;
+
+    /**
+     * Табельный номер сотрудника.
+     */
+    private String employeeId;
+
+    /**
+     * Отдел или подразделение организации.
+     */
+    private String department;
+
+    /**
+     * Должность сотрудника в организации.
+     */
+    private String position;
+
+    /**
+     * Электронная почта сотрудника.
+     */
+    private String email;
+
+    /**
+     * Контактный телефонный номер.
+     */
+    private String phoneNumber;
+
+    /**
+     * Профессиональные навыки и квалификации.
+     */
+    private String skills;
+
+    /**
+     * Признак увольнения сотрудника.
+     */
+    private Boolean isFired;
+
+    /**
+     * Признак наличия фотографии. Содержимое фотографии при разборе не читается.
+     */
+    @JsonProperty(value = "photo", access = JsonProperty.Access.WRITE_ONLY)
+    @JsonDeserialize(using = PresenceDeserializer.class)
+    private boolean photoPresent;
+
+    /**
+     * Ключ сортировки полного имени по правилам русского алфавита.
+     */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private CollationKey fullNameSortKey;
+
+    /**
+     * Собирает полное имя "Фамилия Имя Отчество" из заполненных частей и вычисляет
+     * ключ сортировки. Вызывается один раз после разбора ответа сервера.
+     * Если части имени не заданы, используется полное имя из ответа, иначе пустая строка.
+     */
+    public void normalizeNames() {
+        String joined = NameCollation.joinName(lastName, firstName, middleName);
+        if (!joined.isEmpty()) {
+            fullName = joined;
+        } else {
+            fullName = fullName != null && !fullName.isBlank() && !"null null null".equals(fullName) ? fullName.strip() : "";
+        }
+        fullNameSortKey = NameCollation.key(fullName);
+    }
+
+    /**
+     * Возвращает полное имя сотрудника в формате "Фамилия Имя Отчество".
+     *
+     * @return Полное имя сотрудника
+     */
+    public String getFullName() {
+        if (fullNameSortKey == null) {
+            normalizeNames();
+        }
+        return fullName;
+    }
+
+    /**
+     * Возвращает ключ сортировки полного имени.
+     *
+     * @return Ключ или null, если имя не заполнено
+     */
+    @JsonIgnore
+    public CollationKey getFullNameSortKey() {
+        if (fullNameSortKey == null) {
+            normalizeNames();
+        }
+        return fullNameSortKey;
+    }
+
+    /**
+     * Проверяет наличие доступа к определенной группе.
+     *
+     * @param groupName Название группы доступа
+     * @return true, если пользователь состоит в указанной группе
+     */
+    public boolean hasAccessGroup(String groupName) {
+        return groups.stream()
+                .anyMatch(group -> group.getName().equals(groupName));
+    }
+
+    /**
+     * Определяет наличие значения поля, пропуская само значение без декодирования.
+     * Строка фотографии в Base64 не собирается в памяти: парсер пропускает её содержимое.
+     */
+    public static final class PresenceDeserializer extends JsonDeserializer<Boolean> {
+        @Override
+        public Boolean deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            boolean present = parser.currentToken() == JsonToken.VALUE_STRING || parser.currentToken() == JsonToken.START_ARRAY;
+            parser.skipChildren();
+            return present;
+        }
+
+        @Override
+        public Boolean getNullValue(DeserializationContext context) {
+            return false;
+        }
+    }
+
+    /**
+     * Преобразует объект пользователя в строковое представление.
+     *
+     * @return Полное имя пользователя
+     */
+    @Override
+    public String toString() {
+        return this.getFullName();
+    }
+}
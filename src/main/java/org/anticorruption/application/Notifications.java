@@ -0,0 +1,82 @@
+package org.anticorruption.application;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+import javafx.stage.Popup;
+import javafx.stage.Window;
+import javafx.util.Duration;
+
+import java.util.Objects;
+
+/**
+ * Утилитарный класс для отображения немодальных всплывающих уведомлений.
+ * <p>
+ * В отличие от {@link AlertUtils}, уведомление не блокирует работу: оно появляется
+ * в правом нижнем углу окна, закрывается щелчком или само через несколько секунд.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class Notifications {
+
+    private static final Duration DISPLAY_DURATION =
+            Duration.seconds(ConfigManager.getIntProperty("notifications.duration.seconds", 8));
+
+    private static final double MARGIN = 20;
+
+    /**
+     * Приватный конструктор для предотвращения создания экземпляров утилитарного класса.
+     */
+    private Notifications() {
+        throw new IllegalStateException("Утилитарный класс");
+    }
+
+    /**
+     * Показывает уведомление над указанным окном.
+     * Метод можно вызывать из любого потока.
+     *
+     * @param owner   Окно, над которым показывается уведомление
+     * @param title   Заголовок уведомления
+     * @param message Текст уведомления
+     */
+    public static void show(Window owner, String title, String message) {
+        Platform.runLater(() -> {
+            if (owner == null || !owner.isShowing()) {
+                System.err.println(title + ": " + message);
+                return;
+            }
+
+            Label titleLabel = new Label(title);
+            titleLabel.getStyleClass().add("notification-title");
+            Label messageLabel = new Label(message);
+            messageLabel.getStyleClass().add("notification-message");
+            messageLabel.setWrapText(true);
+            messageLabel.setMaxWidth(320);
+
+            VBox content = new VBox(5, titleLabel, messageLabel);
+            content.getStyleClass().add("notification");
+            content.getStylesheets().add(
+                    Objects.requireNonNull(
+                            Notifications.class.getResource("/org/anticorruption/application/styles.css")
+                    ).toExternalForm()
+            );
+
+            Popup popup = new Popup();
+            popup.getContent().add(content);
+            popup.setAutoHide(false);
+            content.setOnMouseClicked(event -> popup.hide());
+            popup.setOnShown(event -> {
+                popup.setX(owner.getX() + owner.getWidth() - popup.getWidth() - MARGIN);
+                popup.setY(owner.getY() + owner.getHeight() - popup.getHeight() - MARGIN);
+            });
+            popup.show(owner);
+
+            PauseTransition delay = new PauseTransition(DISPLAY_DURATION);
+            delay.setOnFinished(event -> popup.hide());
+            delay.play();
+        });
+    }
+}
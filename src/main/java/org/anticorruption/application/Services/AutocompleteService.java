@@ -0,0 +1,197 @@
+package org.anticorruption.application.Services;
+
+import org.anticorruption.application.BackgroundExecutors;
+import org.anticorruption.application.ConfigManager;
+import org.anticorruption.application.Indexes.PersonExtractor;
+import org.anticorruption.application.Indexes.PrefixIndex;
+import org.anticorruption.application.Models.Report;
+import org.anticorruption.application.Models.UserSummary;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Сервис подсказок при вводе места инцидента и вовлеченных лиц.
+ * <p>
+ * Подсказки берутся из {@link PrefixIndex}, построенных по загруженным отчетам
+ * и справочнику сотрудников. Индексы изменяются и опрашиваются только в отдельном потоке
+ * сервиса. Вклад каждого отчета запоминается, поэтому при повторной загрузке в индексы
+ * вносится только разница; при первой загрузке или большом количестве изменений
+ * (больше autocomplete.rebuild.threshold, по умолчанию 1000) индексы строятся заново.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class AutocompleteService {
+
+    /**
+     * Поле, для которого запрашиваются подсказки.
+     */
+    public enum Field {
+        LOCATION,
+        PERSON
+    }
+
+    private static final int TOP_SIZE = 10;
+    private static final int LOCATION_WORD_STARTS = 6;
+
+    private final ExecutorService executor = BackgroundExecutors.newSingleThread("autocomplete");
+    private final PrefixIndex locations = new PrefixIndex(LOCATION_WORD_STARTS, TOP_SIZE);
+    private final PrefixIndex persons = new PrefixIndex(1, TOP_SIZE);
+    private final int rebuildThreshold = ConfigManager.getIntProperty("autocomplete.rebuild.threshold", 1000);
+
+    /**
+     * Вклад отчетов в индексы по идентификатору. Используется только в потоке сервиса.
+     */
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+
+    /**
+     * Имена сотрудников, добавленные в индекс лиц.
+     */
+    private List<String> employeeNames = List.of();
+
+    /**
+     * Индексы уже построены по полному списку отчетов.
+     */
+    private boolean built;
+
+    /**
+     * Вклад одного отчета: исходные тексты для сравнения и выделенные из них значения.
+     */
+    private record Contribution(String locationText, String personsText, String location, List<String> persons) {
+
+        static Contribution of(Report report) {
+            String location = report.getIncidentLocation() != null ? report.getIncidentLocation().strip() : "";
+            List<String> names = PersonExtractor.extract(report.getInvolvedPersons()).stream()
+                    .map(PersonExtractor.Person::getDisplayName)
+                    .toList();
+            return new Contribution(report.getIncidentLocation(), report.getInvolvedPersons(), location, names);
+        }
+
+        boolean sameTexts(Report report) {
+            return Objects.equals(locationText, report.getIncidentLocation())
+                    && Objects.equals(personsText, report.getInvolvedPersons());
+        }
+    }
+
+    /**
+     * Приводит индексы в соответствие с полным списком отчетов.
+     *
+     * @param reports Полный список отчетов
+     */
+    public void syncReports(Collection<Report> reports) {
+        List<Report> snapshot = List.copyOf(reports);
+        executor.execute(() -> {
+            Map<Long, Contribution> previous = new HashMap<>(contributions);
+            List<Contribution[]> changes = new ArrayList<>();
+            for (Report report : snapshot) {
+                if (report.getId() == null) {
+                    continue;
+                }
+                Contribution old = previous.remove(report.getId());
+                if (old == null || !old.sameTexts(report)) {
+                    Contribution contribution = Contribution.of(report);
+                    contributions.put(report.getId(), contribution);
+                    changes.add(new Contribution[]{old, contribution});
+                }
+            }
+            for (Map.Entry<Long, Contribution> removed : previous.entrySet()) {
+                contributions.remove(removed.getKey());
+                changes.add(new Contribution[]{removed.getValue(), null});
+            }
+
+            if (!built || changes.size() > rebuildThreshold) {
+                rebuild();
+                built = true;
+            } else {
+                changes.forEach(change -> apply(change[0], change[1]));
+            }
+        });
+    }
+
+    /**
+     * Обновляет вклад переданных отчетов, не затрагивая остальные.
+     *
+     * @param reports Новые или измененные отчеты
+     */
+    public void upsertReports(Collection<Report> reports) {
+        List<Report> snapshot = List.copyOf(reports);
+        executor.execute(() -> {
+            for (Report report : snapshot) {
+                if (report.getId() == null) {
+                    continue;
+                }
+                Contribution old = contributions.get(report.getId());
+                if (old == null || !old.sameTexts(report)) {
+                    Contribution contribution = Contribution.of(report);
+                    contributions.put(report.getId(), contribution);
+                    apply(old, contribution);
+                }
+            }
+        });
+    }
+
+    /**
+     * Обновляет справочник сотрудников, чьи ФИО предлагаются при вводе вовлеченных лиц.
+     *
+     * @param users Полный список сотрудников
+     */
+    public void setEmployees(Collection<UserSummary> users) {
+        List<String> names = users.stream()
+                .map(UserSummary::getFullName)
+                .filter(Objects::nonNull)
+                .flatMap(fullName -> PersonExtractor.extract(fullName).stream().limit(1))
+                .map(PersonExtractor.Person::getDisplayName)
+                .toList();
+        executor.execute(() -> {
+            employeeNames.forEach(name -> persons.add(name, -1));
+            employeeNames = names;
+            employeeNames.forEach(name -> persons.add(name, 1));
+        });
+    }
+
+    /**
+     * Возвращает подсказки для введенного текста.
+     *
+     * @param field  Поле ввода
+     * @param prefix Введенный текст
+     * @param limit  Максимальное количество подсказок
+     * @return Будущий список подсказок по убыванию частоты
+     */
+    public CompletableFuture<List<String>> suggest(Field field, String prefix, int limit) {
+        return CompletableFuture.supplyAsync(() -> (field == Field.LOCATION ? locations : persons)
+                .suggest(prefix, Math.min(limit, TOP_SIZE)), executor);
+    }
+
+    private void apply(Contribution old, Contribution contribution) {
+        if (old != null) {
+            locations.add(old.location(), -1);
+            old.persons().forEach(name -> persons.add(name, -1));
+        }
+        if (contribution != null) {
+            locations.add(contribution.location(), 1);
+            contribution.persons().forEach(name -> persons.add(name, 1));
+        }
+    }
+
+    private void rebuild() {
+        Map<String, Integer> locationCounts = new HashMap<>();
+        Map<String, Integer> personCounts = new HashMap<>();
+        for (Contribution contribution : contributions.values()) {
+            locationCounts.merge(contribution.location(), 1, Integer::sum);
+            contribution.persons().forEach(name -> personCounts.merge(name, 1, Integer::sum));
+        }
+        employeeNames.forEach(name -> personCounts.merge(name, 1, Integer::sum));
+        locations.rebuild(locationCounts);
+        persons.rebuild(personCounts);
+    }
+
+    /**
+     * Останавливает поток построения подсказок при выходе из системы.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
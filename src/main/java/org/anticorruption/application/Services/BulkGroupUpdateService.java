@@ -0,0 +1,280 @@
+package org.anticorruption.application.Services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Getter;
+import org.anticorruption.application.ConfigManager;
+import org.anticorruption.application.HttpsClient;
+import org.anticorruption.application.Models.AccessGroup;
+import org.anticorruption.application.Models.UserSummary;
+import org.anticorruption.application.UserSession;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Сервис массового изменения групп доступа у нескольких пользователей.
+ * <p>
+ * Изменения вычисляются локально: на сервер отправляются только те пользователи,
+ * у которых набор групп действительно меняется. Запросы выполняются параллельно,
+ * но одновременно в работе находится не более заданного числа запросов.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class BulkGroupUpdateService {
+
+    /**
+     * Операция над группой доступа.
+     */
+    public enum Operation {
+        /**
+         * Добавить группу пользователям, у которых её нет.
+         */
+        ADD,
+        /**
+         * Убрать группу у пользователей, у которых она есть.
+         */
+        REMOVE
+    }
+
+    private final String SERVER_URL = ConfigManager.getProperty("server.url");
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Максимальное количество одновременно выполняемых запросов.
+     */
+    private final int maxConcurrency;
+
+    /**
+     * Создает сервис с ограничением параллельности из параметра bulk.update.concurrency (по умолчанию 4).
+     */
+    public BulkGroupUpdateService() {
+        this(ConfigManager.getIntProperty("bulk.update.concurrency", 4));
+    }
+
+    /**
+     * Создает сервис с явным ограничением параллельности.
+     *
+     * @param maxConcurrency Максимальное количество одновременных запросов
+     */
+    public BulkGroupUpdateService(int maxConcurrency) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+    }
+
+    /**
+     * Загружает список доступных групп доступа с сервера.
+     *
+     * @return Будущий список групп доступа
+     */
+    public CompletableFuture<List<AccessGroup>> loadAccessGroups() {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(SERVER_URL + "/api/access-groups"))
+                .header("Authorization", "Bearer " + UserSession.getInstance().getToken())
+                .GET()
+                .build();
+
+        return HttpsClient.getClient().sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Код ответа: " + response.statusCode());
+                    }
+                    try {
+                        List<AccessGroup> groups = new ArrayList<>();
+                        JsonNode groupsNode = mapper.readTree(response.body()).get("data");
+                        if (groupsNode != null) {
+                            for (JsonNode groupNode : groupsNode) {
+                                groups.add(new AccessGroup(groupNode.get("id").asLong(), groupNode.get("name").asText()));
+                            }
+                        }
+                        return groups;
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Некорректный ответ сервера: " + e.getMessage(), e);
+                    }
+                });
+    }
+
+    /**
+     * Вычисляет новые наборы групп для пользователей, которых затрагивает операция.
+     * Пользователи, у которых набор групп не меняется, в результат не попадают.
+     *
+     * @param users     Выбранные пользователи
+     * @param group     Группа доступа
+     * @param operation Операция над группой
+     * @return Новые наборы групп в порядке следования пользователей
+     */
+    public static Map<UserSummary, Set<AccessGroup>> computeChanges(Collection<UserSummary> users, AccessGroup group, Operation operation) {
+        Map<UserSummary, Set<AccessGroup>> changes = new LinkedHashMap<>();
+        for (UserSummary user : users) {
+            Set<AccessGroup> current = user.getGroups() != null ? user.getGroups() : Set.of();
+            boolean hasGroup = current.stream().anyMatch(g -> group.getName().equals(g.getName()));
+
+            if (operation == Operation.ADD && !hasGroup) {
+                Set<AccessGroup> updated = new LinkedHashSet<>(current);
+                updated.add(group);
+                changes.put(user, updated);
+            } else if (operation == Operation.REMOVE && hasGroup) {
+                Set<AccessGroup> updated = new LinkedHashSet<>();
+                current.stream().filter(g -> !group.getName().equals(g.getName())).forEach(updated::add);
+                changes.put(user, updated);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Применяет операцию к выбранным пользователям.
+     * <p>
+     * Отправляет PUT /api/users/update/{id} с полным массивом групп только для
+     * изменившихся пользователей. У успешно обновленных пользователей локальный
+     * набор групп заменяется новым.
+     *
+     * @param users     Выбранные пользователи
+     * @param group     Группа доступа
+     * @param operation Операция над группой
+     * @return Будущий сводный результат операции
+     */
+    public CompletableFuture<Result> apply(Collection<UserSummary> users, AccessGroup group, Operation operation) {
+        Map<UserSummary, Set<AccessGroup>> changes = computeChanges(users, group, operation);
+        int unchanged = users.size() - changes.size();
+
+        Queue<Map.Entry<UserSummary, Set<AccessGroup>>> pending = new ConcurrentLinkedQueue<>(changes.entrySet());
+        List<UserSummary> updated = Collections.synchronizedList(new ArrayList<>());
+        Map<UserSummary, String> failed = new ConcurrentHashMap<>();
+
+        CompletableFuture<Result> result = new CompletableFuture<>();
+        if (pending.isEmpty()) {
+            result.complete(new Result(users.size(), unchanged, List.of(), Map.of()));
+            return result;
+        }
+
+        AtomicInteger activeWorkers = new AtomicInteger(Math.min(maxConcurrency, pending.size()));
+        Runnable onWorkerDone = () -> {
+            if (activeWorkers.decrementAndGet() == 0) {
+                result.complete(new Result(users.size(), unchanged, List.copyOf(updated), Map.copyOf(failed)));
+            }
+        };
+
+        for (int i = activeWorkers.get(); i > 0; i--) {
+            sendNext(pending, updated, failed, onWorkerDone);
+        }
+        return result;
+    }
+
+    /**
+     * Берет следующего пользователя из очереди и отправляет запрос.
+     * После завершения запроса рекурсивно переходит к следующему, пока очередь не опустеет.
+     */
+    private void sendNext(Queue<Map.Entry<UserSummary, Set<AccessGroup>>> pending, List<UserSummary> updated,
+                          Map<UserSummary, String> failed, Runnable onWorkerDone) {
+        Map.Entry<UserSummary, Set<AccessGroup>> next = pending.poll();
+        if (next == null) {
+            onWorkerDone.run();
+            return;
+        }
+
+        UserSummary user = next.getKey();
+        Set<AccessGroup> groups = next.getValue();
+
+        sendGroups(user, groups).whenComplete((statusCode, error) -> {
+            if (error != null) {
+                failed.put(user, error.getMessage());
+            } else if (statusCode == 200) {
+                user.setGroups(new HashSet<>(groups));
+                updated.add(user);
+            } else {
+                failed.put(user, "код ответа " + statusCode);
+            }
+            sendNext(pending, updated, failed, onWorkerDone);
+        });
+    }
+
+    /**
+     * Отправляет на сервер полный массив групп пользователя.
+     *
+     * @return Будущий HTTP-код ответа
+     */
+    private CompletableFuture<Integer> sendGroups(UserSummary user, Set<AccessGroup> groups) {
+        ObjectNode requestBody = mapper.createObjectNode();
+        ArrayNode groupsNode = requestBody.putArray("groups");
+        for (AccessGroup group : groups) {
+            ObjectNode groupNode = groupsNode.addObject();
+            if (group.getId() != null) {
+                groupNode.put("id", group.getId());
+            }
+            groupNode.put("name", group.getName());
+        }
+
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(SERVER_URL + "/api/users/update/" + user.getId()))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + UserSession.getInstance().getToken())
+                    .PUT(HttpRequest.BodyPublishers.ofString(requestBody.toString()))
+                    .build();
+
+            return HttpsClient.getClient().sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .thenApply(HttpResponse::statusCode);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Сводный результат массовой операции.
+     */
+    @Getter
+    public static final class Result {
+        /**
+         * Количество выбранных пользователей.
+         */
+        private final int requested;
+
+        /**
+         * Количество пользователей, у которых набор групп не изменился.
+         */
+        private final int unchanged;
+
+        /**
+         * Успешно обновленные пользователи.
+         */
+        private final List<UserSummary> updated;
+
+        /**
+         * Пользователи, обновить которых не удалось, с причиной ошибки.
+         */
+        private final Map<UserSummary, String> failed;
+
+        Result(int requested, int unchanged, List<UserSummary> updated, Map<UserSummary, String> failed) {
+            this.requested = requested;
+            this.unchanged = unchanged;
+            this.updated = updated;
+            this.failed = failed;
+        }
+
+        /**
+         * Формирует текстовую сводку для отображения пользователю.
+         *
+         * @return Сводка результата операции
+         */
+        public String toSummary() {
+            StringBuilder summary = new StringBuilder()
+                    .append("Выбрано пользователей: ").append(requested).append('\n')
+                    .append("Обновлено: ").append(updated.size()).append('\n')
+                    .append("Без изменений: ").append(unchanged).append('\n')
+                    .append("Ошибок: ").append(failed.size());
+            failed.forEach((user, reason) ->
+                    summary.append('\n').append(" - ").append(user.getUsername()).append(": ").append(reason));
+            return summary.toString();
+        }
+    }
+}
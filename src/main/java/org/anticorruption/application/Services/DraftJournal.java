@@ -0,0 +1,140 @@
+package org.anticorruption.application.Services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.anticorruption.application.BackgroundExecutors;
+import org.anticorruption.application.ConfigManager;
+import org.anticorruption.application.LocalStorage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Автосохранение черновика формы создания отчета.
+ * <p>
+ * Поток интерфейса только запоминает последний снимок полей; запись выполняется
+ * в отдельном потоке через draft.save.delay.millis (по умолчанию 1000) после первого
+ * изменения, поэтому серия нажатий клавиш дает одну запись последнего состояния.
+ * Файл записывается во временный файл с принудительным сбросом на диск и атомарно
+ * заменяет предыдущий, так что после сбоя остается либо старый, либо новый черновик.
+ * Черновик с пустыми полями удаляется.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class DraftJournal {
+
+    private final ScheduledExecutorService executor = BackgroundExecutors.newScheduled("draft-journal");
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final long saveDelayMillis = ConfigManager.getIntProperty("draft.save.delay.millis", 1000);
+
+    /**
+     * Последний несохраненный снимок полей; null, если запись не требуется.
+     */
+    private final AtomicReference<Map<String, String>> pending = new AtomicReference<>();
+    private Path draftFile;
+
+    /**
+     * Запоминает состояние формы и планирует запись, если она еще не запланирована.
+     *
+     * @param fields Значения полей формы по ключам запроса создания отчета
+     */
+    public void update(Map<String, String> fields) {
+        if (pending.getAndSet(fields) == null) {
+            executor.schedule(this::flush, saveDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Удаляет черновик, например после успешной отправки отчета.
+     */
+    public void discard() {
+        // Запланированная ранее запись не найдет снимка и ничего не запишет
+        pending.set(null);
+        executor.execute(() -> write(Map.of()));
+    }
+
+    /**
+     * Загружает сохраненный черновик.
+     *
+     * @return Будущие значения полей или пустой словарь, если черновика нет
+     */
+    public CompletableFuture<Map<String, String>> load() {
+        return CompletableFuture.supplyAsync(() -> {
+            Path file = getDraftFile();
+            Map<String, String> fields = new LinkedHashMap<>();
+            if (!Files.exists(file)) {
+                return fields;
+            }
+            try {
+                JsonNode node = mapper.readTree(file.toFile());
+                for (Iterator<Map.Entry<String, JsonNode>> iterator = node.fields(); iterator.hasNext(); ) {
+                    Map.Entry<String, JsonNode> field = iterator.next();
+                    fields.put(field.getKey(), field.getValue().asText());
+                }
+            } catch (IOException e) {
+                System.err.println("Не удалось прочитать черновик отчета: " + e.getMessage());
+            }
+            return fields;
+        }, executor);
+    }
+
+    private void flush() {
+        Map<String, String> fields = pending.getAndSet(null);
+        if (fields != null) {
+            write(fields);
+        }
+    }
+
+    private void write(Map<String, String> fields) {
+        Path file = getDraftFile();
+        try {
+            if (fields.values().stream().allMatch(value -> value == null || value.isEmpty())) {
+                Files.deleteIfExists(file);
+                return;
+            }
+            ObjectNode node = mapper.createObjectNode();
+            fields.forEach(node::put);
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(mapper.writeValueAsBytes(node));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Ошибка при сохранении черновика отчета: " + e.getMessage());
+        }
+    }
+
+    private Path getDraftFile() {
+        if (draftFile == null) {
+            draftFile = LocalStorage.getUserDirectory("drafts").resolve("report.json");
+        }
+        return draftFile;
+    }
+
+    /**
+     * Останавливает поток журнала. Уже запланированная запись черновика выполняется.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
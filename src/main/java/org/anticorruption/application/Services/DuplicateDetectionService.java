@@ -0,0 +1,65 @@
+package org.anticorruption.application.Services;
+
+import org.anticorruption.application.BackgroundExecutors;
+import org.anticorruption.application.ConfigManager;
+import org.anticorruption.application.Indexes.DuplicateDetector;
+import org.anticorruption.application.Models.Report;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Фоновый поиск возможных дубликатов отчетов.
+ * <p>
+ * Обновляет {@link DuplicateDetector} в отдельном потоке и возвращает актуальные группы
+ * дубликатов. Порог сходства задается параметром duplicates.similarity.percent
+ * (по умолчанию 60).
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class DuplicateDetectionService {
+
+    private final ExecutorService executor = BackgroundExecutors.newSingleThread("duplicate-detector");
+    private final DuplicateDetector detector =
+            new DuplicateDetector(ConfigManager.getIntProperty("duplicates.similarity.percent", 60) / 100.0);
+
+    /**
+     * Обновляет детектор по полному списку отчетов.
+     *
+     * @param reports Полный список отчетов
+     * @return Будущие группы дубликатов: "идентификатор отчета → идентификатор группы"
+     */
+    public CompletableFuture<Map<Long, Long>> sync(Collection<Report> reports) {
+        List<Report> snapshot = List.copyOf(reports);
+        return CompletableFuture.supplyAsync(() -> {
+            detector.sync(snapshot);
+            return detector.getClusters();
+        }, executor);
+    }
+
+    /**
+     * Добавляет или обновляет отчеты, не удаляя остальные.
+     *
+     * @param reports Отчеты
+     * @return Будущие группы дубликатов: "идентификатор отчета → идентификатор группы"
+     */
+    public CompletableFuture<Map<Long, Long>> upsert(Collection<Report> reports) {
+        List<Report> snapshot = List.copyOf(reports);
+        return CompletableFuture.supplyAsync(() -> {
+            snapshot.forEach(detector::update);
+            return detector.getClusters();
+        }, executor);
+    }
+
+    /**
+     * Останавливает поток поиска дубликатов.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
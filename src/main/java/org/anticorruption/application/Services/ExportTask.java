@@ -0,0 +1,124 @@
+package org.anticorruption.application.Services;
+
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Фоновая задача экспорта строк таблицы в файл с отображением прогресса и отменой.
+ * <p>
+ * Задача не копирует список строк таблицы: она читает его порциями по {@value #CHUNK_SIZE}
+ * строк в потоке JavaFX и преобразует каждую строку в значения колонок непосредственно
+ * перед записью, поэтому объем памяти не зависит от количества строк. Если список
+ * изменится во время экспорта (перезагрузка, сортировка, фильтр), экспорт прерывается
+ * с ошибкой, чтобы файл не содержал пропущенных или повторенных строк.
+ * При отмене или ошибке частично записанный файл удаляется.
+ *
+ * @param <T> Тип экспортируемых объектов
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class ExportTask<T> extends Task<Long> {
+
+    /**
+     * Через сколько строк обновлять прогресс.
+     */
+    private static final int PROGRESS_STEP = 1000;
+
+    /**
+     * Количество строк, читаемых из таблицы за одно обращение к потоку JavaFX.
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    private final ObservableList<T> rows;
+    private final TableExporter<T> exporter;
+    private final Path file;
+    private final TableExporter.Format format;
+
+    /**
+     * Создает задачу экспорта.
+     *
+     * @param rows     Строки таблицы; читаются и отслеживаются в потоке JavaFX
+     * @param exporter Описание колонок
+     * @param file     Файл назначения
+     * @param format   Формат файла
+     */
+    public ExportTask(ObservableList<T> rows, TableExporter<T> exporter, Path file, TableExporter.Format format) {
+        this.rows = rows;
+        this.exporter = exporter;
+        this.file = file;
+        this.format = format;
+    }
+
+    @Override
+    protected Long call() throws Exception {
+        boolean[] modified = new boolean[1];
+        ListChangeListener<T> listener = change -> modified[0] = true;
+        long total = onFxThread(() -> {
+            rows.addListener(listener);
+            return rows.size();
+        });
+        long written = 0;
+        updateMessage("Экспорт в " + file.getFileName());
+        try (TableExporter.RowWriter writer = exporter.open(file, format)) {
+            while (written < total && !isCancelled()) {
+                int from = (int) written;
+                List<T> chunk = onFxThread(() -> modified[0]
+                        ? null
+                        : List.copyOf(rows.subList(from, (int) Math.min(total, from + CHUNK_SIZE))));
+                if (chunk == null) {
+                    throw new IOException("Таблица изменилась во время экспорта, повторите экспорт");
+                }
+                for (T row : chunk) {
+                    if (isCancelled()) {
+                        break;
+                    }
+                    writer.write(exporter.values(row));
+                    written++;
+                    if (written % PROGRESS_STEP == 0) {
+                        updateProgress(written, total);
+                        updateMessage("Записано строк: " + written + " из " + total);
+                    }
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            deletePartialFile();
+            throw e;
+        } finally {
+            Platform.runLater(() -> rows.removeListener(listener));
+        }
+        if (isCancelled()) {
+            deletePartialFile();
+            return written;
+        }
+        updateProgress(total, total);
+        updateMessage("Записано строк: " + written);
+        return written;
+    }
+
+    /**
+     * Выполняет действие в потоке JavaFX и ожидает результат.
+     */
+    private static <V> V onFxThread(Callable<V> action) throws Exception {
+        FutureTask<V> task = new FutureTask<>(action);
+        Platform.runLater(task);
+        return task.get();
+    }
+
+    private void deletePartialFile() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Не удалось удалить незавершенный файл экспорта: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.anticorruption.application.Services;
+
+import org.anticorruption.application.ConfigManager;
+import org.anticorruption.application.Models.Report;
+import org.anticorruption.application.Models.ReportQuery;
+
+import java.util.*;
+
+/**
+ * Кэш результатов фильтра отчетов с вытеснением давно не использованных записей.
+ * <p>
+ * Ключом служит нормализованный {@link ReportQuery}, размер задается параметром
+ * filters.cache.size (по умолчанию 20). Кэш запоминает отпечаток каждого увиденного отчета
+ * (дата обновления, статус, назначение, место, лица, дата инцидента); при полной или частичной
+ * загрузке отчетов сбрасываются только те результаты, которые содержат изменившийся
+ * или удаленный отчет либо в которые изменившийся отчет может войти.
+ * Методы синхронизированы: кэш обновляется из потоков HTTP-клиента и читается в потоке интерфейса.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class FilterResultCache {
+
+    /**
+     * Результат фильтра и идентификаторы входящих в него отчетов.
+     */
+    private record Entry(List<Report> reports, Set<Long> ids) {
+    }
+
+    private final int capacity = Math.max(1, ConfigManager.getIntProperty("filters.cache.size", 20));
+
+    private final LinkedHashMap<ReportQuery, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ReportQuery, Entry> eldest) {
+            return size() > capacity;
+        }
+    };
+
+    /**
+     * Отпечатки отчетов по идентификатору на момент последней загрузки.
+     */
+    private final Map<Long, Integer> fingerprints = new HashMap<>();
+
+    /**
+     * Возвращает сохраненный результат фильтра.
+     *
+     * @param query Условия фильтра
+     * @return Копия списка отчетов или null, если результата нет в кэше
+     */
+    public synchronized List<Report> get(ReportQuery query) {
+        Entry entry = entries.get(query);
+        return entry != null ? new ArrayList<>(entry.reports()) : null;
+    }
+
+    /**
+     * Сохраняет результат фильтра. Отчеты результата должны быть предварительно
+     * переданы в {@link #upsert(Collection)}, чтобы их изменения не сбросили этот же результат.
+     *
+     * @param query   Условия фильтра
+     * @param reports Найденные отчеты
+     */
+    public synchronized void put(ReportQuery query, List<Report> reports) {
+        Set<Long> ids = new HashSet<>();
+        for (Report report : reports) {
+            ids.add(report.getId());
+        }
+        entries.put(query, new Entry(List.copyOf(reports), ids));
+    }
+
+    /**
+     * Сверяет кэш с полным списком отчетов: изменившиеся, новые и удаленные отчеты
+     * сбрасывают затронутые результаты.
+     *
+     * @param reports Полный список отчетов
+     * @return Количество сброшенных результатов
+     */
+    public synchronized int sync(Collection<Report> reports) {
+        Set<Long> removed = new HashSet<>(fingerprints.keySet());
+        List<Report> changed = new ArrayList<>();
+        for (Report report : reports) {
+            if (report.getId() == null) {
+                continue;
+            }
+            removed.remove(report.getId());
+            if (remember(report)) {
+                changed.add(report);
+            }
+        }
+        removed.forEach(fingerprints::remove);
+        return invalidate(changed, removed);
+    }
+
+    /**
+     * Учитывает новые или измененные отчеты, не считая остальные удаленными.
+     *
+     * @param reports Новые или измененные отчеты
+     * @return Количество сброшенных результатов
+     */
+    public synchronized int upsert(Collection<Report> reports) {
+        List<Report> changed = new ArrayList<>();
+        for (Report report : reports) {
+            if (report.getId() != null && remember(report)) {
+                changed.add(report);
+            }
+        }
+        return invalidate(changed, Set.of());
+    }
+
+    /**
+     * Очищает кэш, например при выходе из системы.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        fingerprints.clear();
+    }
+
+    private boolean remember(Report report) {
+        Integer fingerprint = Objects.hash(report.getLastUpdatedMillis(), report.getStatus(), report.getAssignedTo(),
+                report.getReporterId(), report.getIncidentLocation(), report.getInvolvedPersons(),
+                report.getIncidentEpochDay());
+        return !fingerprint.equals(fingerprints.put(report.getId(), fingerprint));
+    }
+
+    private int invalidate(List<Report> changed, Set<Long> removed) {
+        if (changed.isEmpty() && removed.isEmpty()) {
+            return 0;
+        }
+        int invalidated = 0;
+        Iterator<Map.Entry<ReportQuery, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<ReportQuery, Entry> entry = iterator.next();
+            if (isAffected(entry.getKey(), entry.getValue(), changed, removed)) {
+                iterator.remove();
+                invalidated++;
+            }
+        }
+        return invalidated;
+    }
+
+    private static boolean isAffected(ReportQuery query, Entry entry, List<Report> changed, Set<Long> removed) {
+        for (Long id : removed) {
+            if (entry.ids().contains(id)) {
+                return true;
+            }
+        }
+        for (Report report : changed) {
+            if (entry.ids().contains(report.getId()) || query.mayMatch(report)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,49 @@
+package org.anticorruption.application.Services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.anticorruption.application.ConfigManager;
+import org.anticorruption.application.HttpsClient;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Отправка отчета на сервер запросом POST /api/reports.
+ * Отчет считается созданным, если сервер вернул статус CREATED.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class HttpReportSubmitter implements ReportSubmitter {
+    private final String serverUrl = ConfigManager.getProperty("server.url");
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Override
+    public CompletableFuture<String> submit(ObjectNode body, String token) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(serverUrl + "/api/reports"))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+        return HttpsClient.getClient().sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    try {
+                        JsonNode responseNode = mapper.readTree(response.body());
+                        JsonNode statusNode = responseNode.get("status");
+                        if (statusNode != null && "CREATED".equals(statusNode.asText())) {
+                            return null;
+                        }
+                        JsonNode messageNode = responseNode.get("message");
+                        return messageNode != null ? messageNode.asText() : "код ответа " + response.statusCode();
+                    } catch (Exception e) {
+                        return "некорректный ответ сервера, код " + response.statusCode();
+                    }
+                });
+    }
+}
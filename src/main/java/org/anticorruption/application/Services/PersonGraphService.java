@@ -0,0 +1,87 @@
+package org.anticorruption.application.Services;
+
+import lombok.Getter;
+import org.anticorruption.application.BackgroundExecutors;
+import org.anticorruption.application.Indexes.CoOccurrenceGraph;
+import org.anticorruption.application.Indexes.PersonExtractor;
+import org.anticorruption.application.Models.Report;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Фоновое построение графа совместных упоминаний лиц по загруженным отчетам.
+ * <p>
+ * Лица выделяются из поля "Вовлеченные лица" в отдельном потоке; граф обновляется
+ * только для отчетов, текст которых изменился. Запросы к графу выполняются
+ * напрямую, граф синхронизирован.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class PersonGraphService {
+
+    private final ExecutorService executor = BackgroundExecutors.newSingleThread("person-graph");
+
+    /**
+     * Граф совместных упоминаний.
+     */
+    @Getter
+    private final CoOccurrenceGraph graph = new CoOccurrenceGraph();
+
+    /**
+     * Обработанные тексты по идентификатору отчета. Используются только в фоновом потоке.
+     */
+    private final Map<Long, String> processedTexts = new HashMap<>();
+
+    /**
+     * Приводит граф в соответствие с полным списком отчетов.
+     *
+     * @param reports Полный список отчетов
+     */
+    public void syncReports(Collection<Report> reports) {
+        List<Report> snapshot = List.copyOf(reports);
+        executor.execute(() -> {
+            Set<Long> present = new HashSet<>();
+            for (Report report : snapshot) {
+                if (report.getId() != null) {
+                    present.add(report.getId());
+                    process(report);
+                }
+            }
+            Iterator<Long> iterator = processedTexts.keySet().iterator();
+            while (iterator.hasNext()) {
+                Long reportId = iterator.next();
+                if (!present.contains(reportId)) {
+                    iterator.remove();
+                    graph.remove(reportId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Обновляет граф по переданным отчетам, не удаляя остальные.
+     *
+     * @param reports Отчеты
+     */
+    public void upsertReports(Collection<Report> reports) {
+        List<Report> snapshot = List.copyOf(reports);
+        executor.execute(() -> snapshot.stream().filter(report -> report.getId() != null).forEach(this::process));
+    }
+
+    private void process(Report report) {
+        String text = report.getInvolvedPersons() != null ? report.getInvolvedPersons() : "";
+        if (!text.equals(processedTexts.put(report.getId(), text))) {
+            graph.update(report.getId(), PersonExtractor.extract(text));
+        }
+    }
+
+    /**
+     * Останавливает поток обновления графа.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,123 @@
+package org.anticorruption.application.Services;
+
+import org.anticorruption.application.BackgroundExecutors;
+import org.anticorruption.application.Indexes.PersonLinkIndex;
+import org.anticorruption.application.Indexes.PersonMatcher;
+import org.anticorruption.application.Models.Report;
+import org.anticorruption.application.Models.UserSummary;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Сервис связывания отчетов с сотрудниками, упомянутыми в поле "Вовлеченные лица".
+ * <p>
+ * По справочнику сотрудников строится {@link PersonMatcher}, которым в фоновом потоке
+ * просматриваются тексты отчетов; результаты хранятся в {@link PersonLinkIndex}.
+ * При повторной загрузке отчетов просматриваются только отчеты с изменившимся текстом,
+ * а при обновлении справочника — все отчеты заново, за один линейный проход.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class PersonLinkService {
+
+    private final ExecutorService executor = BackgroundExecutors.newSingleThread("person-links");
+    private final PersonLinkIndex index = new PersonLinkIndex();
+
+    /**
+     * Просмотренные тексты "Вовлеченные лица" по идентификатору отчета.
+     * Используются только в фоновом потоке сервиса.
+     */
+    private final Map<Long, String> scannedTexts = new HashMap<>();
+
+    /**
+     * Автомат по текущему справочнику сотрудников; null, пока справочник не загружен.
+     */
+    private PersonMatcher matcher;
+
+    /**
+     * Обновляет справочник сотрудников и пересчитывает связи всех отчетов.
+     *
+     * @param users Полный список сотрудников
+     */
+    public void setEmployees(Collection<UserSummary> users) {
+        List<UserSummary> snapshot = List.copyOf(users);
+        executor.execute(() -> {
+            matcher = PersonMatcher.build(snapshot);
+            scannedTexts.forEach((reportId, text) -> index.put(reportId, matcher.match(text)));
+        });
+    }
+
+    /**
+     * Приводит связи в соответствие с полным списком отчетов.
+     *
+     * @param reports Полный список отчетов
+     */
+    public void syncReports(Collection<Report> reports) {
+        List<Report> snapshot = List.copyOf(reports);
+        executor.execute(() -> {
+            Set<Long> present = new HashSet<>();
+            for (Report report : snapshot) {
+                if (report.getId() != null) {
+                    present.add(report.getId());
+                    scan(report);
+                }
+            }
+            Iterator<Long> iterator = scannedTexts.keySet().iterator();
+            while (iterator.hasNext()) {
+                Long reportId = iterator.next();
+                if (!present.contains(reportId)) {
+                    iterator.remove();
+                    index.remove(reportId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Обновляет связи переданных отчетов, не затрагивая остальные.
+     *
+     * @param reports Отчеты
+     */
+    public void upsertReports(Collection<Report> reports) {
+        List<Report> snapshot = List.copyOf(reports);
+        executor.execute(() -> snapshot.stream().filter(report -> report.getId() != null).forEach(this::scan));
+    }
+
+    /**
+     * Возвращает отчеты, в которых упоминается сотрудник.
+     *
+     * @param userId Идентификатор сотрудника
+     * @return Идентификаторы отчетов
+     */
+    public Set<Long> getReportIds(Long userId) {
+        return index.getReportIds(userId);
+    }
+
+    /**
+     * Возвращает сотрудников, упомянутых в отчете.
+     *
+     * @param reportId Идентификатор отчета
+     * @return Идентификаторы сотрудников
+     */
+    public Set<Long> getUserIds(Long reportId) {
+        return index.getUserIds(reportId);
+    }
+
+    private void scan(Report report) {
+        String text = report.getInvolvedPersons() != null ? report.getInvolvedPersons() : "";
+        String previous = scannedTexts.put(report.getId(), text);
+        if (matcher != null && !text.equals(previous)) {
+            index.put(report.getId(), matcher.match(text));
+        }
+    }
+
+    /**
+     * Останавливает поток поиска сотрудников в текстах отчетов при выходе из системы.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,493 @@
+package org.anticorruption.application.Services;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import org.anticorruption.application.BackgroundExecutors;
+import org.anticorruption.application.ConfigManager;
+import org.anticorruption.application.LocalStorage;
+import org.anticorruption.application.Models.User;
+import org.anticorruption.application.Models.UserSummary;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Сервис фотографий сотрудников.
+ * <p>
+ * Фотография загружается лениво, декодируется в фоновом пуле потоков сразу в уменьшенном
+ * размере и сохраняется в двухуровневом кэше миниатюр:
+ * <ul>
+ *     <li>в памяти — LRU с ограничением по объему пикселей (photos.cache.memory.mb, по умолчанию 32);</li>
+ *     <li>на диске — файлы с пикселями миниатюр (photos.cache.disk.mb, по умолчанию 64).</li>
+ * </ul>
+ * Фотографии, которых нет в кэше, запрашиваются пачкой: запросы, поступившие в течение
+ * photos.batch.delay.ms (по умолчанию 50), объединяются в один проход по GET /api/users,
+ * из которого читаются только идентификаторы и фотографии ({@link UsersPayloadReader}).
+ * В пачку попадают только сотрудники с фотографией: признак её наличия известен из списка
+ * пользователей ({@link #syncUsers}), а сотрудники, у которых фотографии не оказалось,
+ * запоминаются, чтобы не читать список пользователей повторно ради них.
+ * После ошибки загрузки фотографии сотрудника не запрашиваются повторно в течение
+ * photos.failure.ttl.seconds (по умолчанию 60).
+ * Поток JavaFX не выполняет ни декодирования, ни файловых операций.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class PhotoService {
+
+    /**
+     * Признак формата файла миниатюры в дисковом кэше.
+     */
+    private static final int THUMBNAIL_FILE_MAGIC = 0x41435448;
+
+    /**
+     * Заглушка для сотрудников без фотографии, чтобы не запрашивать их повторно.
+     */
+    private static final Image NO_PHOTO = new WritableImage(1, 1);
+
+    private final UsersPayloadReader payloadReader = new UsersPayloadReader();
+    private final ScheduledExecutorService batchExecutor = BackgroundExecutors.newScheduled("photo-batch");
+    private final ExecutorService decodePool;
+    private final long memoryLimitBytes;
+    private final long diskLimitBytes;
+    private final long batchDelayMillis;
+    private final long failureTtlNanos;
+
+    /**
+     * Миниатюры в памяти в порядке последнего обращения.
+     */
+    private final LinkedHashMap<String, Image> memoryCache = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+
+    /**
+     * Незавершенные загрузки миниатюр по ключу кэша.
+     */
+    private final Map<String, CompletableFuture<Image>> inFlight = new HashMap<>();
+
+    /**
+     * Фотографии, ожидающие отправки очередной пачки запросов, по идентификатору пользователя.
+     */
+    private Map<Long, CompletableFuture<byte[]>> pendingPhotos = new HashMap<>();
+
+    /**
+     * Момент (System.nanoTime), до которого не запрашивается фотография после ошибки.
+     */
+    private final Map<Long, Long> failedUntil = new HashMap<>();
+
+    /**
+     * Сотрудники, у которых нет фотографии, по данным списка пользователей и загруженных пачек.
+     */
+    private Set<Long> withoutPhoto = new HashSet<>();
+
+    /**
+     * Объем файлов дискового кэша в байтах или -1, пока каталог не просмотрен.
+     * Обновляется при каждой записи, поэтому каталог просматривается только при превышении лимита.
+     */
+    private long diskBytes = -1;
+    private Path diskBytesDirectory;
+    private final Object diskLock = new Object();
+
+    /**
+     * Создает сервис с параметрами из config.properties.
+     */
+    public PhotoService() {
+        this.decodePool = BackgroundExecutors.newFixedPool("photo-decoder", ConfigManager.getIntProperty("photos.decode.threads", 2));
+        this.memoryLimitBytes = ConfigManager.getIntProperty("photos.cache.memory.mb", 32) * 1024L * 1024L;
+        this.diskLimitBytes = ConfigManager.getIntProperty("photos.cache.disk.mb", 64) * 1024L * 1024L;
+        this.batchDelayMillis = Math.max(0, ConfigManager.getIntProperty("photos.batch.delay.ms", 50));
+        this.failureTtlNanos = TimeUnit.SECONDS.toNanos(ConfigManager.getIntProperty("photos.failure.ttl.seconds", 60));
+    }
+
+    /**
+     * Возвращает миниатюру фотографии сотрудника, при необходимости загружая фотографию с сервера.
+     *
+     * @param userId Идентификатор пользователя
+     * @param size   Максимальная сторона миниатюры в пикселях
+     * @return Будущая миниатюра или null, если фотографии нет
+     */
+    public CompletableFuture<Image> getThumbnail(Long userId, int size) {
+        return getThumbnail(userId, size, null);
+    }
+
+    /**
+     * Возвращает миниатюру фотографии уже загруженной полной карточки сотрудника.
+     *
+     * @param user Полная карточка сотрудника
+     * @param size Максимальная сторона миниатюры в пикселях
+     * @return Будущая миниатюра или null, если фотографии нет
+     */
+    public CompletableFuture<Image> getThumbnail(User user, int size) {
+        return getThumbnail(user.getId(), size, user.getPhoto() != null ? user.getPhoto() : new byte[0]);
+    }
+
+    /**
+     * Возвращает миниатюру из кэша в памяти без обращения к диску и серверу.
+     *
+     * @param userId Идентификатор пользователя
+     * @param size   Максимальная сторона миниатюры в пикселях
+     * @return Миниатюра или null, если её нет в памяти или фотография отсутствует
+     */
+    public synchronized Image getCachedThumbnail(Long userId, int size) {
+        Image image = memoryCache.get(key(userId, size));
+        return image == NO_PHOTO ? null : image;
+    }
+
+    /**
+     * Запоминает, у каких сотрудников нет фотографии, по загруженному списку пользователей.
+     * Миниатюры таких сотрудников возвращаются сразу, без запроса к серверу.
+     *
+     * @param users Полный список пользователей
+     */
+    public void syncUsers(Collection<UserSummary> users) {
+        Set<Long> ids = new HashSet<>();
+        for (UserSummary user : users) {
+            if (!user.isPhotoPresent() && user.getId() != null) {
+                ids.add(user.getId());
+            }
+        }
+        synchronized (this) {
+            withoutPhoto = ids;
+        }
+    }
+
+    /**
+     * Удаляет все миниатюры сотрудника из кэшей, например после смены фотографии.
+     *
+     * @param userId Идентификатор пользователя
+     */
+    public void invalidate(Long userId) {
+        String prefix = userId + "_";
+        synchronized (this) {
+            failedUntil.remove(userId);
+            withoutPhoto.remove(userId);
+            Iterator<Map.Entry<String, Image>> iterator = memoryCache.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Image> entry = iterator.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    memoryBytes -= imageBytes(entry.getValue());
+                    iterator.remove();
+                }
+            }
+        }
+        decodePool.execute(() -> {
+            try (Stream<Path> files = Files.list(getDiskDirectory())) {
+                files.filter(file -> file.getFileName().toString().startsWith(prefix)).forEach(this::deleteQuietly);
+            } catch (Exception e) {
+                System.err.println("Ошибка при очистке кэша фотографий: " + e.getMessage());
+            }
+            synchronized (diskLock) {
+                diskBytes = -1;
+            }
+        });
+    }
+
+    private CompletableFuture<Image> getThumbnail(Long userId, int size, byte[] knownPhoto) {
+        String key = key(userId, size);
+        CompletableFuture<Image> result = new CompletableFuture<>();
+        synchronized (this) {
+            Image cached = memoryCache.get(key);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached == NO_PHOTO ? null : cached);
+            }
+            CompletableFuture<Image> pending = inFlight.get(key);
+            if (pending != null) {
+                return pending;
+            }
+            if (knownPhoto == null && (isFailed(userId) || withoutPhoto.contains(userId))) {
+                return CompletableFuture.completedFuture(null);
+            }
+            inFlight.put(key, result);
+        }
+
+        CompletableFuture<Image> loading = CompletableFuture.supplyAsync(() -> readFromDisk(key), decodePool)
+                .thenCompose(fromDisk -> {
+                    if (fromDisk != null) {
+                        return CompletableFuture.completedFuture(fromDisk);
+                    }
+                    CompletableFuture<byte[]> photo = knownPhoto != null
+                            ? CompletableFuture.completedFuture(knownPhoto)
+                            : requestPhoto(userId);
+                    return photo.thenApplyAsync(bytes -> {
+                        Image thumbnail = decode(bytes, size);
+                        writeToDisk(key, thumbnail);
+                        return thumbnail;
+                    }, decodePool);
+                });
+
+        loading.whenComplete((image, error) -> {
+            boolean batchFailed;
+            synchronized (this) {
+                inFlight.remove(key);
+                if (error == null) {
+                    putInMemory(key, image);
+                }
+                batchFailed = failedUntil.containsKey(userId);
+            }
+            if (error != null) {
+                if (!batchFailed) {
+                    System.err.println("Ошибка при загрузке фотографии пользователя " + userId + ": " + error.getMessage());
+                }
+                result.complete(null);
+            } else {
+                result.complete(image == NO_PHOTO ? null : image);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Ставит фотографию в очередную пачку запросов. Первая фотография пачки
+     * планирует её отправку через photos.batch.delay.ms.
+     */
+    private synchronized CompletableFuture<byte[]> requestPhoto(Long userId) {
+        CompletableFuture<byte[]> pending = pendingPhotos.get(userId);
+        if (pending != null) {
+            return pending;
+        }
+        CompletableFuture<byte[]> photo = new CompletableFuture<>();
+        pendingPhotos.put(userId, photo);
+        if (pendingPhotos.size() == 1) {
+            batchExecutor.schedule(this::sendPhotoBatch, batchDelayMillis, TimeUnit.MILLISECONDS);
+        }
+        return photo;
+    }
+
+    /**
+     * Загружает фотографии накопленной пачки одним проходом по списку пользователей.
+     * При ошибке она записывается в журнал один раз на пачку, а сотрудники пачки
+     * не запрашиваются повторно до истечения photos.failure.ttl.seconds.
+     */
+    private void sendPhotoBatch() {
+        Map<Long, CompletableFuture<byte[]>> batch;
+        synchronized (this) {
+            batch = pendingPhotos;
+            pendingPhotos = new HashMap<>();
+        }
+        payloadReader.fetchPhotos(batch.keySet()).whenComplete((photos, error) -> {
+            if (error != null) {
+                System.err.println("Ошибка при загрузке фотографий (" + batch.size() + " сотрудников): " + error.getMessage());
+                long retryAt = System.nanoTime() + failureTtlNanos;
+                synchronized (this) {
+                    batch.keySet().forEach(userId -> failedUntil.put(userId, retryAt));
+                }
+                batch.values().forEach(photo -> photo.completeExceptionally(error));
+            } else {
+                synchronized (this) {
+                    photos.forEach((userId, bytes) -> {
+                        if (bytes.length == 0) {
+                            withoutPhoto.add(userId);
+                        }
+                    });
+                }
+                batch.forEach((userId, photo) -> photo.complete(photos.get(userId)));
+            }
+        });
+    }
+
+    private boolean isFailed(Long userId) {
+        Long retryAt = failedUntil.get(userId);
+        if (retryAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - retryAt >= 0) {
+            failedUntil.remove(userId);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Декодирует фотографию сразу в уменьшенном размере.
+     * Выполняется в фоновом пуле, поток JavaFX не блокируется.
+     */
+    private Image decode(byte[] bytes, int size) {
+        if (bytes == null || bytes.length == 0) {
+            return NO_PHOTO;
+        }
+        Image image = new Image(new ByteArrayInputStream(bytes), size, size, true, true);
+        return image.isError() ? NO_PHOTO : image;
+    }
+
+    private void putInMemory(String key, Image image) {
+        Image previous = memoryCache.put(key, image);
+        if (previous != null) {
+            memoryBytes -= imageBytes(previous);
+        }
+        memoryBytes += imageBytes(image);
+
+        Iterator<Map.Entry<String, Image>> iterator = memoryCache.entrySet().iterator();
+        while (memoryBytes > memoryLimitBytes && iterator.hasNext()) {
+            Map.Entry<String, Image> eldest = iterator.next();
+            if (eldest.getKey().equals(key)) {
+                continue;
+            }
+            memoryBytes -= imageBytes(eldest.getValue());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Читает миниатюру из дискового кэша.
+     *
+     * @return Миниатюра, заглушка при отсутствии фотографии или null, если файла нет
+     */
+    private Image readFromDisk(String key) {
+        Path file = getDiskDirectory().resolve(key + ".thumb");
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != THUMBNAIL_FILE_MAGIC) {
+                deleteQuietly(file);
+                return null;
+            }
+            int width = input.readInt();
+            int height = input.readInt();
+            file.toFile().setLastModified(System.currentTimeMillis());
+            if (width == 0 || height == 0) {
+                return NO_PHOTO;
+            }
+
+            int[] pixels = new int[width * height];
+            for (int i = 0; i < pixels.length; i++) {
+                pixels[i] = input.readInt();
+            }
+            WritableImage image = new WritableImage(width, height);
+            image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+            return image;
+        } catch (Exception e) {
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    /**
+     * Сохраняет пиксели миниатюры в дисковый кэш и вытесняет самые старые файлы при превышении лимита.
+     */
+    private void writeToDisk(String key, Image image) {
+        Path directory = getDiskDirectory();
+        Path file = directory.resolve(key + ".thumb");
+        Path temp = directory.resolve(key + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            output.writeInt(THUMBNAIL_FILE_MAGIC);
+            if (image == NO_PHOTO) {
+                output.writeInt(0);
+                output.writeInt(0);
+            } else {
+                int width = (int) image.getWidth();
+                int height = (int) image.getHeight();
+                int[] pixels = new int[width * height];
+                image.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+                output.writeInt(width);
+                output.writeInt(height);
+                for (int pixel : pixels) {
+                    output.writeInt(pixel);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Ошибка при сохранении миниатюры: " + e.getMessage());
+            deleteQuietly(temp);
+            return;
+        }
+
+        try {
+            long added = temp.toFile().length() - file.toFile().length();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            addToDiskCache(directory, added);
+        } catch (IOException e) {
+            System.err.println("Ошибка при сохранении миниатюры: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Учитывает записанный файл в объеме дискового кэша. Каталог просматривается только
+     * при превышении лимита или если объем еще не известен.
+     */
+    private void addToDiskCache(Path directory, long added) throws IOException {
+        synchronized (diskLock) {
+            if (diskBytes >= 0 && directory.equals(diskBytesDirectory)) {
+                diskBytes += added;
+                if (diskBytes <= diskLimitBytes) {
+                    return;
+                }
+            }
+            diskBytesDirectory = directory;
+            diskBytes = trimDiskCache(directory);
+        }
+    }
+
+    /**
+     * Вытесняет самые старые файлы, если объем кэша превышает лимит. Кэш сокращается
+     * до 90% лимита, чтобы следующие записи не приводили сразу к новому просмотру каталога.
+     *
+     * @return Объем оставшихся файлов в байтах
+     */
+    private long trimDiskCache(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(path -> path.getFileName().toString().endsWith(".thumb")).toList();
+        }
+
+        long total = 0;
+        Map<Path, long[]> attributes = new HashMap<>();
+        for (Path path : files) {
+            File file = path.toFile();
+            long[] sizeAndTime = {file.length(), file.lastModified()};
+            attributes.put(path, sizeAndTime);
+            total += sizeAndTime[0];
+        }
+        if (total <= diskLimitBytes) {
+            return total;
+        }
+
+        long target = diskLimitBytes - diskLimitBytes / 10;
+        List<Path> oldestFirst = new ArrayList<>(files);
+        oldestFirst.sort(Comparator.comparingLong(path -> attributes.get(path)[1]));
+        for (Path path : oldestFirst) {
+            if (total <= target) {
+                break;
+            }
+            total -= attributes.get(path)[0];
+            deleteQuietly(path);
+        }
+        return total;
+    }
+
+    private Path getDiskDirectory() {
+        return LocalStorage.getUserDirectory("photos");
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Файл будет перезаписан при следующем сохранении
+        }
+    }
+
+    private static long imageBytes(Image image) {
+        return (long) image.getWidth() * (long) image.getHeight() * 4L;
+    }
+
+    private static String key(Long userId, int size) {
+        return userId + "_" + size;
+    }
+
+    /**
+     * Останавливает поток пакетных запросов и потоки декодирования фотографий.
+     */
+    public void shutdown() {
+        batchExecutor.shutdown();
+        decodePool.shutdown();
+    }
+}
@@ -0,0 +1,379 @@
+package org.anticorruption.application.Services;
+
+import lombok.Getter;
+import org.anticorruption.application.BackgroundExecutors;
+import org.anticorruption.application.ConfigManager;
+import org.anticorruption.application.Models.Report;
+import org.anticorruption.application.Models.ReportQuery;
+import org.anticorruption.application.Models.ReportStatus;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Планировщик выполнения фильтра отчетов: локально по загруженным отчетам,
+ * на сервере через /api/reports/filter или совместно.
+ * <p>
+ * Локальная копия — отчеты последней полной загрузки и изменения, пришедшие после нее
+ * (результаты фильтров, назначения). По полной загрузке собирается статистика: количество
+ * отчетов по статусам, заявителям и исполнителям и отсортированные даты инцидентов.
+ * По ней оценивается число отчетов в результате (условия считаются независимыми,
+ * для текстовых условий берется доля planner.text.selectivity.percent, по умолчанию 10).
+ * <ul>
+ *     <li>LOCAL — локальная копия свежее planner.local.max.age.seconds (по умолчанию 120)
+ *     и просмотр всех отчетов дешевле запроса с передачей оценочного числа отчетов;</li>
+ *     <li>HYBRID — копия устарела, но после полной загрузки есть локальные изменения:
+ *     результат сервера дополняется более новыми локальными версиями отчетов;</li>
+ *     <li>REMOTE — локальной копии нет, или она устарела без локальных изменений,
+ *     или запрос дешевле просмотра.</li>
+ * </ul>
+ * Стоимость запроса и просмотра уточняется по измеренной длительности выполненных планов
+ * (скользящее среднее). Локальная копия и статистика используются только в потоке планировщика.
+ * Планировщик хранит собственные копии отчетов, снятые в момент передачи, и отдает наружу
+ * тоже копии, поэтому изменения отчетов в потоке интерфейса (например, назначение сотрудника)
+ * не пересекаются с чтением в потоке планировщика.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class QueryPlanner {
+
+    /**
+     * Способ выполнения фильтра.
+     */
+    public enum Strategy {
+        LOCAL("локально"),
+        REMOTE("на сервере"),
+        HYBRID("сервер + локальные изменения");
+
+        private final String title;
+
+        Strategy(String title) {
+            this.title = title;
+        }
+
+        @Override
+        public String toString() {
+            return title;
+        }
+    }
+
+    /**
+     * Выбранный план выполнения фильтра.
+     */
+    @Getter
+    public static class Plan {
+        /**
+         * Условия фильтра.
+         */
+        private final ReportQuery query;
+
+        /**
+         * Способ выполнения.
+         */
+        private final Strategy strategy;
+
+        /**
+         * Оценка количества отчетов в результате.
+         */
+        private final long estimatedRows;
+
+        /**
+         * Причина выбора.
+         */
+        private final String reason;
+
+        /**
+         * Момент построения плана для измерения длительности, нс.
+         */
+        private final long startedNanos = System.nanoTime();
+
+        Plan(ReportQuery query, Strategy strategy, long estimatedRows, String reason) {
+            this.query = query;
+            this.strategy = strategy;
+            this.estimatedRows = estimatedRows;
+            this.reason = reason;
+        }
+
+        /**
+         * Возвращает время, прошедшее с построения плана.
+         *
+         * @return Длительность в миллисекундах
+         */
+        public long getElapsedMillis() {
+            return (System.nanoTime() - startedNanos) / 1_000_000;
+        }
+
+        @Override
+        public String toString() {
+            return strategy.name() + " [" + query + "] оценка " + estimatedRows + " отч.: " + reason;
+        }
+    }
+
+    /**
+     * Вес нового измерения в скользящих средних стоимости.
+     */
+    private static final double SMOOTHING = 0.3;
+
+    private final ExecutorService executor = BackgroundExecutors.newSingleThread("query-planner");
+    private final long maxAgeMillis = ConfigManager.getIntProperty("planner.local.max.age.seconds", 120) * 1000L;
+    private final double textSelectivity = ConfigManager.getIntProperty("planner.text.selectivity.percent", 10) / 100.0;
+
+    /**
+     * Локальная копия отчетов по идентификатору.
+     */
+    private final Map<Long, Report> reports = new HashMap<>();
+
+    /**
+     * Идентификаторы отчетов, измененных после полной загрузки.
+     */
+    private final Set<Long> deltas = new HashSet<>();
+
+    private final Map<ReportStatus, Integer> statusCounts = new EnumMap<>(ReportStatus.class);
+    private final Map<String, Integer> reporterCounts = new HashMap<>();
+    private final Map<String, Integer> assigneeCounts = new HashMap<>();
+    private int[] incidentDays = new int[0];
+    private int loadedCount;
+    private long loadedAtMillis;
+
+    /**
+     * Средняя задержка ответа сервера, мс.
+     */
+    private double remoteLatencyMillis = 300;
+
+    /**
+     * Средняя стоимость передачи и разбора одного отчета с сервера, мс.
+     */
+    private double remoteMillisPerRow = 0.05;
+
+    /**
+     * Средняя стоимость локальной проверки одного отчета, мс.
+     */
+    private double localMillisPerRow = 0.0005;
+
+    /**
+     * Заменяет локальную копию полным списком отчетов и пересчитывает статистику.
+     *
+     * @param loaded Полный список отчетов
+     */
+    public void sync(Collection<Report> loaded) {
+        List<Report> snapshot = copyOf(loaded);
+        long loadedAt = System.currentTimeMillis();
+        executor.execute(() -> {
+            reports.clear();
+            deltas.clear();
+            statusCounts.clear();
+            reporterCounts.clear();
+            assigneeCounts.clear();
+            int[] days = new int[snapshot.size()];
+            int dayCount = 0;
+            for (Report report : snapshot) {
+                if (report.getId() == null) {
+                    continue;
+                }
+                reports.put(report.getId(), report);
+                if (report.getStatus() != null) {
+                    statusCounts.merge(report.getStatus(), 1, Integer::sum);
+                }
+                if (report.getReporterId() != null) {
+                    reporterCounts.merge(report.getReporterId(), 1, Integer::sum);
+                }
+                if (report.getAssignedTo() != null) {
+                    assigneeCounts.merge(report.getAssignedTo(), 1, Integer::sum);
+                }
+                if (report.getIncidentEpochDay() != Report.NO_DATE) {
+                    days[dayCount++] = report.getIncidentEpochDay();
+                }
+            }
+            incidentDays = Arrays.copyOf(days, dayCount);
+            Arrays.sort(incidentDays);
+            loadedCount = reports.size();
+            loadedAtMillis = loadedAt;
+        });
+    }
+
+    /**
+     * Учитывает отчеты, полученные или измененные после полной загрузки.
+     * Статистика не пересчитывается: для оценки достаточно данных полной загрузки.
+     *
+     * @param changed Новые или измененные отчеты
+     */
+    public void upsert(Collection<Report> changed) {
+        List<Report> snapshot = copyOf(changed);
+        executor.execute(() -> {
+            for (Report report : snapshot) {
+                if (report.getId() != null) {
+                    reports.put(report.getId(), report);
+                    deltas.add(report.getId());
+                }
+            }
+        });
+    }
+
+    /**
+     * Выбирает способ выполнения фильтра.
+     *
+     * @param query Условия фильтра
+     * @return Будущий план
+     */
+    public CompletableFuture<Plan> plan(ReportQuery query) {
+        return CompletableFuture.supplyAsync(() -> choose(query), executor);
+    }
+
+    /**
+     * Выполняет фильтр по локальной копии.
+     *
+     * @param plan План с выбранным способом {@link Strategy#LOCAL}
+     * @return Будущие копии найденных отчетов
+     */
+    public CompletableFuture<List<Report>> executeLocal(Plan plan) {
+        return CompletableFuture.supplyAsync(() -> {
+            long started = System.nanoTime();
+            List<Report> found = new ArrayList<>();
+            for (Report report : reports.values()) {
+                if (plan.getQuery().matches(report)) {
+                    found.add(new Report(report));
+                }
+            }
+            found.sort(Comparator.comparing(Report::getId));
+            if (!reports.isEmpty()) {
+                localMillisPerRow = smooth(localMillisPerRow, (System.nanoTime() - started) / 1e6 / reports.size());
+            }
+            return found;
+        }, executor);
+    }
+
+    /**
+     * Дополняет результат сервера локальными изменениями: отчеты, измененные локально позже,
+     * чем их версия на сервере, заменяются локальной версией, удаляются из результата,
+     * если больше ему не соответствуют, и добавляются, если стали соответствовать.
+     *
+     * @param plan   План с выбранным способом {@link Strategy#HYBRID}
+     * @param remote Результат сервера
+     * @return Будущий объединенный результат
+     */
+    public CompletableFuture<List<Report>> mergeHybrid(Plan plan, List<Report> remote) {
+        return CompletableFuture.supplyAsync(() -> {
+            Map<Long, Report> merged = new LinkedHashMap<>();
+            remote.forEach(report -> merged.put(report.getId(), report));
+            for (Long id : deltas) {
+                Report local = reports.get(id);
+                Report fromServer = merged.get(id);
+                if (local == null || fromServer == local
+                        || (fromServer != null && fromServer.getLastUpdatedMillis() >= local.getLastUpdatedMillis())) {
+                    continue;
+                }
+                if (plan.getQuery().matches(local)) {
+                    merged.put(id, new Report(local));
+                } else if (fromServer != null) {
+                    merged.remove(id);
+                }
+            }
+            return new ArrayList<>(merged.values());
+        }, executor);
+    }
+
+    /**
+     * Учитывает измеренную длительность выполнения фильтра на сервере.
+     *
+     * @param plan Выполненный план
+     * @param rows Количество полученных отчетов
+     */
+    public void recordRemote(Plan plan, int rows) {
+        long elapsed = plan.getElapsedMillis();
+        executor.execute(() -> {
+            double transfer = rows * remoteMillisPerRow;
+            remoteLatencyMillis = smooth(remoteLatencyMillis, Math.max(0, elapsed - transfer));
+            if (rows > 0 && elapsed > remoteLatencyMillis) {
+                remoteMillisPerRow = smooth(remoteMillisPerRow, (elapsed - remoteLatencyMillis) / rows);
+            }
+        });
+    }
+
+    private Plan choose(ReportQuery query) {
+        if (loadedAtMillis == 0) {
+            return new Plan(query, Strategy.REMOTE, -1, "нет локальной копии");
+        }
+
+        long estimated = estimateRows(query);
+        long ageSeconds = (System.currentTimeMillis() - loadedAtMillis) / 1000;
+        if (ageSeconds * 1000 > maxAgeMillis) {
+            return deltas.isEmpty()
+                    ? new Plan(query, Strategy.REMOTE, estimated, "копия устарела (" + ageSeconds + " с)")
+                    : new Plan(query, Strategy.HYBRID, estimated, "копия устарела (" + ageSeconds + " с), локальных изменений: " + deltas.size());
+        }
+
+        double localCost = reports.size() * localMillisPerRow;
+        double remoteCost = remoteLatencyMillis + estimated * remoteMillisPerRow;
+        String costs = String.format(Locale.ROOT, "локально ~%.1f мс, сервер ~%.1f мс", localCost, remoteCost);
+        return localCost <= remoteCost
+                ? new Plan(query, Strategy.LOCAL, estimated, costs)
+                : new Plan(query, Strategy.REMOTE, estimated, costs);
+    }
+
+    /**
+     * Оценивает количество отчетов в результате по статистике полной загрузки.
+     */
+    private long estimateRows(ReportQuery query) {
+        if (loadedCount == 0) {
+            return 0;
+        }
+        double selectivity = 1;
+        if (query.getStatus() != null) {
+            selectivity *= (double) statusCounts.getOrDefault(query.getStatus(), 0) / loadedCount;
+        }
+        if (query.getReporterId() != null) {
+            selectivity *= (double) reporterCounts.getOrDefault(query.getReporterId(), 0) / loadedCount;
+        }
+        if (query.getAssignedTo() != null) {
+            selectivity *= (double) assigneeCounts.getOrDefault(String.valueOf(query.getAssignedTo()), 0) / loadedCount;
+        }
+        if (query.getStartIncidentDate() != null || query.getEndIncidentDate() != null) {
+            int from = query.getStartEpochDay() != Report.NO_DATE ? lowerBound(query.getStartEpochDay()) : 0;
+            int to = query.getEndEpochDay() != Report.NO_DATE ? lowerBound(query.getEndEpochDay() + 1) : incidentDays.length;
+            selectivity *= (double) Math.max(0, to - from) / loadedCount;
+        }
+        if (query.getIncidentLocation() != null) {
+            selectivity *= textSelectivity;
+        }
+        if (query.getInvolvedPersons() != null) {
+            selectivity *= textSelectivity;
+        }
+        return Math.round(selectivity * loadedCount);
+    }
+
+    private int lowerBound(int day) {
+        int low = 0;
+        int high = incidentDays.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (incidentDays[middle] < day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static List<Report> copyOf(Collection<Report> source) {
+        List<Report> copies = new ArrayList<>(source.size());
+        for (Report report : source) {
+            copies.add(new Report(report));
+        }
+        return copies;
+    }
+
+    private static double smooth(double average, double sample) {
+        return average + SMOOTHING * (sample - average);
+    }
+
+    /**
+     * Останавливает поток планировщика.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
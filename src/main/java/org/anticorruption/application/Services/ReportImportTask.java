@@ -0,0 +1,485 @@
+package org.anticorruption.application.Services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import javafx.concurrent.Task;
+import lombok.Getter;
+import org.anticorruption.application.ConfigManager;
+import org.anticorruption.application.UserSession;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Фоновый импорт отчетов из файла JSON Lines или CSV.
+ * <p>
+ * Строки файла читаются по одной, проверяются правилами {@link ReportValidator}
+ * и отправляются на сервер; одновременно выполняется не более заданного числа
+ * запросов, чтение следующей строки ждет освобождения места. Результат каждой строки
+ * сразу дописывается в файл результатов, который одновременно служит контрольной
+ * точкой: при повторном запуске строки с результатом OK или INVALID пропускаются,
+ * а строки с ошибкой отправки повторяются.
+ * <p>
+ * Отмена не прерывает поток задачи: новые строки перестают отправляться, а уже
+ * начатые отправки дожидаются ответа и записывают свой результат, чтобы принятые
+ * сервером отчеты не были отправлены повторно при следующем запуске.
+ * <p>
+ * Ключи JSON и заголовки CSV совпадают с полями запроса создания отчета:
+ * incidentDate (ГГГГ-ММ-ДД), incidentTime, incidentLocation, involvedPersons,
+ * description, evidenceDescription, witnesses.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class ReportImportTask extends Task<ReportImportTask.Summary> {
+
+    /**
+     * Поля отчета, которые читаются из файла.
+     */
+    public static final List<String> FIELDS = List.of("incidentDate", "incidentTime", "incidentLocation",
+            "involvedPersons", "description", "evidenceDescription", "witnesses");
+
+    private static final String RESULT_OK = "OK";
+    private static final String RESULT_INVALID = "INVALID";
+    private static final String RESULT_FAILED = "FAILED";
+
+    /**
+     * Итог импорта.
+     */
+    @Getter
+    public static class Summary {
+        /**
+         * Количество строк в файле.
+         */
+        private final int total;
+
+        /**
+         * Строки, успешно отправленные в этом запуске.
+         */
+        private final int submitted;
+
+        /**
+         * Строки, не прошедшие проверку в этом запуске.
+         */
+        private final int invalid;
+
+        /**
+         * Строки, которые не удалось отправить.
+         */
+        private final int failed;
+
+        /**
+         * Строки, обработанные в предыдущих запусках.
+         */
+        private final int skipped;
+
+        /**
+         * Импорт прерван пользователем.
+         */
+        private final boolean cancelled;
+
+        /**
+         * Файл с результатом по каждой строке.
+         */
+        private final Path resultFile;
+
+        Summary(int total, int submitted, int invalid, int failed, int skipped, boolean cancelled, Path resultFile) {
+            this.total = total;
+            this.submitted = submitted;
+            this.invalid = invalid;
+            this.failed = failed;
+            this.skipped = skipped;
+            this.cancelled = cancelled;
+            this.resultFile = resultFile;
+        }
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Path input;
+    private final Path resultFile;
+    private final ReportSubmitter submitter;
+    private final int concurrency;
+
+    /**
+     * Токен пользователя, запустившего импорт.
+     */
+    private final String token = UserSession.getInstance().getToken();
+
+    /**
+     * Поток задачи был прерван во время ожидания места для отправки.
+     */
+    private boolean interrupted;
+
+    /**
+     * Создает задачу импорта с отправкой на сервер и параллельностью из параметра
+     * import.concurrency (по умолчанию 4).
+     *
+     * @param input Файл .jsonl или .csv
+     */
+    public ReportImportTask(Path input) {
+        this(input, new HttpReportSubmitter(), ConfigManager.getIntProperty("import.concurrency", 4));
+    }
+
+    /**
+     * Создает задачу импорта с заданным способом отправки.
+     *
+     * @param input       Файл .jsonl или .csv
+     * @param submitter   Отправка отчетов
+     * @param concurrency Максимальное количество одновременных отправок
+     */
+    public ReportImportTask(Path input, ReportSubmitter submitter, int concurrency) {
+        this.input = input;
+        this.resultFile = input.resolveSibling(input.getFileName() + ".result.csv");
+        this.submitter = submitter;
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    /**
+     * Отменяет импорт без прерывания потока задачи. Прерывание закрыло бы файл результатов,
+     * пока отправки еще выполняются, и их результаты были бы потеряны.
+     *
+     * @param mayInterruptIfRunning Не используется
+     * @return true, если задача отменена
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return super.cancel(false);
+    }
+
+    @Override
+    protected Summary call() throws Exception {
+        BitSet completed = readCompletedRows();
+        int total = countRows();
+        int skipped = 0;
+        AtomicInteger submitted = new AtomicInteger();
+        AtomicInteger invalid = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger processed = new AtomicInteger();
+        Semaphore permits = new Semaphore(concurrency);
+
+        boolean newResultFile = !Files.exists(resultFile);
+        try (RowReader reader = openReader();
+             Writer results = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(resultFile,
+                     StandardOpenOption.CREATE, StandardOpenOption.APPEND), StandardCharsets.UTF_8))) {
+            if (newResultFile) {
+                writeResult(results, "Строка", "Результат", "Сообщение");
+            }
+
+            Map<String, String> row;
+            int rowNumber = 0;
+            while ((row = reader.next()) != null && !isCancelled()) {
+                rowNumber++;
+                if (completed.get(rowNumber)) {
+                    skipped++;
+                    updateProgress(processed.incrementAndGet(), total);
+                    continue;
+                }
+
+                String error = row.containsKey(RowReader.PARSE_ERROR) ? row.get(RowReader.PARSE_ERROR) : validate(row);
+                if (error != null) {
+                    invalid.incrementAndGet();
+                    writeResult(results, String.valueOf(rowNumber), RESULT_INVALID, error);
+                    updateProgress(processed.incrementAndGet(), total);
+                    continue;
+                }
+
+                if (!acquirePermit(permits)) {
+                    break;
+                }
+                String number = String.valueOf(rowNumber);
+                CompletableFuture<String> future;
+                try {
+                    future = submitter.submit(toRequestBody(row), token);
+                } catch (Exception e) {
+                    future = CompletableFuture.failedFuture(e);
+                }
+                future.whenComplete((message, exception) -> {
+                    try {
+                        if (exception == null && message == null) {
+                            submitted.incrementAndGet();
+                            writeResult(results, number, RESULT_OK, "");
+                        } else {
+                            failed.incrementAndGet();
+                            writeResult(results, number, RESULT_FAILED, exception != null ? exception.getMessage() : message);
+                        }
+                    } catch (IOException e) {
+                        System.err.println("Ошибка при записи результата импорта: " + e.getMessage());
+                    } finally {
+                        permits.release();
+                        int done = processed.incrementAndGet();
+                        updateProgress(done, total);
+                        updateMessage("Обработано строк: " + done + " из " + total);
+                    }
+                });
+            }
+
+            // Ждем завершения отправок, которые уже в работе, до закрытия файла результатов
+            permits.acquireUninterruptibly(concurrency);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return new Summary(total, submitted.get(), invalid.get(), failed.get(), skipped, isCancelled(), resultFile);
+    }
+
+    /**
+     * Ждет свободного места для отправки.
+     *
+     * @return false, если импорт отменен или поток прерван до получения места
+     */
+    private boolean acquirePermit(Semaphore permits) {
+        try {
+            while (!permits.tryAcquire(200, TimeUnit.MILLISECONDS)) {
+                if (isCancelled()) {
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            // Флаг прерывания восстанавливается после закрытия файлов: операции с файлами
+            // в прерванном потоке закрывают их каналы
+            interrupted = true;
+            return false;
+        }
+        if (isCancelled()) {
+            permits.release();
+            return false;
+        }
+        return true;
+    }
+
+    private String validate(Map<String, String> row) {
+        LocalDate date = ReportValidator.parseDate(row.get("incidentDate"));
+        if (date == null && row.get("incidentDate") != null && !row.get("incidentDate").isBlank()) {
+            return "Некорректная дата инцидента, ожидается ГГГГ-ММ-ДД";
+        }
+        return ReportValidator.validate(date, row.get("incidentTime"), row.get("incidentLocation"),
+                row.get("involvedPersons"), row.get("description"));
+    }
+
+    private ObjectNode toRequestBody(Map<String, String> row) {
+        ObjectNode body = mapper.createObjectNode();
+        for (String field : FIELDS) {
+            body.put(field, row.getOrDefault(field, ""));
+        }
+        body.put("incidentDate", ReportValidator.parseDate(row.get("incidentDate")).toString());
+        return body;
+    }
+
+    private synchronized void writeResult(Writer results, String row, String result, String message) throws IOException {
+        results.write(row + ";" + result + ";" + quote(message) + "\r\n");
+        results.flush();
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(';') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    /**
+     * Читает номера строк, обработанных в предыдущих запусках.
+     */
+    private BitSet readCompletedRows() throws IOException {
+        BitSet completed = new BitSet();
+        if (!Files.exists(resultFile)) {
+            return completed;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(resultFile, StandardCharsets.UTF_8)) {
+            List<String> record;
+            while ((record = CsvRowReader.readRecord(reader, ';')) != null) {
+                if (record.size() >= 2 && (RESULT_OK.equals(record.get(1)) || RESULT_INVALID.equals(record.get(1)))) {
+                    try {
+                        completed.set(Integer.parseInt(record.get(0)));
+                    } catch (NumberFormatException e) {
+                        // Строка заголовка или поврежденная запись
+                    }
+                }
+            }
+        }
+        return completed;
+    }
+
+    private int countRows() throws IOException {
+        int count = 0;
+        try (RowReader reader = openReader()) {
+            while (reader.next() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private RowReader openReader() throws IOException {
+        BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+        String name = input.getFileName().toString().toLowerCase();
+        return name.endsWith(".csv") ? new CsvRowReader(reader) : new JsonLinesRowReader(reader, mapper);
+    }
+
+    /**
+     * Последовательное чтение строк файла импорта.
+     */
+    private interface RowReader extends Closeable {
+        /**
+         * Ключ, под которым возвращается ошибка разбора строки.
+         */
+        String PARSE_ERROR = "#error";
+
+        /**
+         * Читает следующую строку.
+         *
+         * @return Значения полей или null в конце файла
+         * @throws IOException при ошибке чтения
+         */
+        Map<String, String> next() throws IOException;
+    }
+
+    /**
+     * Чтение JSON Lines: по одному объекту на строку, пустые строки пропускаются.
+     */
+    private static final class JsonLinesRowReader implements RowReader {
+        private final BufferedReader reader;
+        private final ObjectMapper mapper;
+
+        JsonLinesRowReader(BufferedReader reader, ObjectMapper mapper) {
+            this.reader = reader;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+
+            Map<String, String> row = new HashMap<>();
+            try {
+                JsonNode node = mapper.readTree(line);
+                for (String field : FIELDS) {
+                    JsonNode value = node.get(field);
+                    if (value != null && !value.isNull()) {
+                        row.put(field, value.asText());
+                    }
+                }
+            } catch (Exception e) {
+                row.put(PARSE_ERROR, "Некорректный JSON: " + e.getMessage());
+            }
+            return row;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * Чтение CSV с заголовком; разделитель ";" или "," определяется по заголовку.
+     */
+    private static final class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private List<String> header;
+        private char delimiter;
+
+        CsvRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            if (header == null) {
+                reader.mark(1 << 16);
+                String firstLine = reader.readLine();
+                if (firstLine == null) {
+                    return null;
+                }
+                delimiter = firstLine.indexOf(';') >= 0 ? ';' : ',';
+                reader.reset();
+                header = readRecord(reader, delimiter);
+                if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+                    header.set(0, header.get(0).substring(1));
+                }
+            }
+            List<String> record;
+            do {
+                record = readRecord(reader, delimiter);
+                if (record == null) {
+                    return null;
+                }
+            } while (record.size() == 1 && record.get(0).isBlank());
+
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < header.size() && i < record.size(); i++) {
+                row.put(header.get(i).trim(), record.get(i));
+            }
+            return row;
+        }
+
+        /**
+         * Читает одну запись CSV; значения в кавычках могут содержать разделители и переводы строк.
+         */
+        static List<String> readRecord(BufferedReader reader, char delimiter) throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> values = new ArrayList<>();
+            StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            while (c != -1) {
+                char ch = (char) c;
+                if (quoted) {
+                    if (ch == '"') {
+                        reader.mark(1);
+                        int following = reader.read();
+                        if (following == '"') {
+                            value.append('"');
+                        } else {
+                            quoted = false;
+                            if (following != -1) {
+                                reader.reset();
+                            }
+                        }
+                    } else {
+                        value.append(ch);
+                    }
+                } else if (ch == '"') {
+                    quoted = true;
+                } else if (ch == delimiter) {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else if (ch == '\n') {
+                    break;
+                } else if (ch != '\r') {
+                    value.append(ch);
+                }
+                c = reader.read();
+            }
+            values.add(value.toString());
+            return values;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
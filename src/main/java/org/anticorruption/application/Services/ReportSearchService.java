@@ -0,0 +1,133 @@
+package org.anticorruption.application.Services;
+
+import org.anticorruption.application.BackgroundExecutors;
+import org.anticorruption.application.ConfigManager;
+import org.anticorruption.application.Indexes.ReportTextIndex;
+import org.anticorruption.application.LocalStorage;
+import org.anticorruption.application.Models.Report;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Сервис локального полнотекстового поиска по отчетам.
+ * <p>
+ * Владеет индексом {@link ReportTextIndex}: загружает его из локального каталога
+ * пользователя при создании, обновляет в фоновом потоке по мере поступления отчетов
+ * и сохраняет на диск с задержкой (reports.search.save.delay.seconds, по умолчанию 5),
+ * объединяя частые изменения в одну запись. Поиск выполняется в отдельном потоке
+ * и не ждет завершения индексации.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class ReportSearchService {
+
+    private final ScheduledExecutorService indexExecutor = BackgroundExecutors.newScheduled("report-index");
+    private final ExecutorService searchExecutor = BackgroundExecutors.newSingleThread("report-search");
+    private final CompletableFuture<ReportTextIndex> index;
+    private final int saveDelaySeconds;
+    private ScheduledFuture<?> pendingSave;
+
+    /**
+     * Создает сервис и начинает загрузку сохраненного индекса в фоне.
+     */
+    public ReportSearchService() {
+        this.saveDelaySeconds = ConfigManager.getIntProperty("reports.search.save.delay.seconds", 5);
+        this.index = CompletableFuture.supplyAsync(() -> ReportTextIndex.load(getIndexFile()), indexExecutor);
+    }
+
+    /**
+     * Обновляет индекс по полному списку отчетов: удаляет отсутствующие отчеты
+     * и переиндексирует изменившиеся.
+     *
+     * @param reports Полный список отчетов, доступных пользователю
+     */
+    public void syncAll(Collection<Report> reports) {
+        List<Report> snapshot = List.copyOf(reports);
+        index.thenAcceptAsync(loaded -> {
+            if (loaded.sync(snapshot) > 0) {
+                scheduleSave(loaded);
+            }
+        }, indexExecutor).exceptionally(this::logError);
+    }
+
+    /**
+     * Добавляет или обновляет отчеты в индексе, не удаляя остальные.
+     * Используется для частичных выборок, например результатов фильтра.
+     *
+     * @param reports Отчеты
+     */
+    public void upsert(Collection<Report> reports) {
+        List<Report> snapshot = List.copyOf(reports);
+        index.thenAcceptAsync(loaded -> {
+            int changed = 0;
+            for (Report report : snapshot) {
+                if (loaded.update(report)) {
+                    changed++;
+                }
+            }
+            if (changed > 0) {
+                scheduleSave(loaded);
+            }
+        }, indexExecutor).exceptionally(this::logError);
+    }
+
+    /**
+     * Удаляет отчет из индекса.
+     *
+     * @param reportId Идентификатор отчета
+     */
+    public void remove(Long reportId) {
+        index.thenAcceptAsync(loaded -> {
+            if (loaded.remove(reportId)) {
+                scheduleSave(loaded);
+            }
+        }, indexExecutor).exceptionally(this::logError);
+    }
+
+    /**
+     * Выполняет поиск по индексу.
+     *
+     * @param query Строка запроса (слова и фразы в двойных кавычках)
+     * @param limit Максимальное количество результатов
+     * @return Будущий список результатов по убыванию релевантности
+     */
+    public CompletableFuture<List<ReportTextIndex.Hit>> search(String query, int limit) {
+        return index.thenApplyAsync(loaded -> loaded.search(query, limit), searchExecutor);
+    }
+
+    private void scheduleSave(ReportTextIndex loaded) {
+        if (pendingSave != null && !pendingSave.isDone()) {
+            return;
+        }
+        pendingSave = indexExecutor.schedule(() -> {
+            try {
+                loaded.save(getIndexFile());
+            } catch (Exception e) {
+                System.err.println("Ошибка при сохранении поискового индекса: " + e.getMessage());
+            }
+        }, saveDelaySeconds, TimeUnit.SECONDS);
+    }
+
+    private Void logError(Throwable error) {
+        System.err.println("Ошибка при обновлении поискового индекса: " + error.getMessage());
+        return null;
+    }
+
+    private static Path getIndexFile() {
+        return LocalStorage.getUserDirectory("search").resolve("reports.idx");
+    }
+
+    /**
+     * Останавливает потоки индекса и поиска. Отложенное сохранение индекса
+     * выполняется до завершения потока.
+     */
+    public void shutdown() {
+        indexExecutor.shutdown();
+        searchExecutor.shutdown();
+    }
+}
@@ -0,0 +1,91 @@
+package org.anticorruption.application.Services;
+
+import org.anticorruption.application.BackgroundExecutors;
+import org.anticorruption.application.ConfigManager;
+import org.anticorruption.application.Indexes.ReportSketches;
+import org.anticorruption.application.LocalStorage;
+import org.anticorruption.application.Models.Report;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервис приближенной статистики по отчетам.
+ * <p>
+ * Владеет {@link ReportSketches}: загружает их из локального каталога пользователя при
+ * создании, пополняет в фоновом потоке при загрузке отчетов и сохраняет рядом с поисковым
+ * индексом с задержкой (statistics.sketch.save.delay.seconds, по умолчанию 5).
+ * Количество мест и сотрудников в снимке задается параметром statistics.top.limit.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class ReportSketchService {
+
+    private static final int TOP_LIMIT = ConfigManager.getIntProperty("statistics.top.limit", 15);
+
+    private final ScheduledExecutorService executor = BackgroundExecutors.newScheduled("report-sketches");
+    private final CompletableFuture<ReportSketches> sketches;
+    private final int saveDelaySeconds;
+    private ScheduledFuture<?> pendingSave;
+
+    /**
+     * Создает сервис и начинает загрузку сохраненных скетчей в фоне.
+     */
+    public ReportSketchService() {
+        this.saveDelaySeconds = ConfigManager.getIntProperty("statistics.sketch.save.delay.seconds", 5);
+        this.sketches = CompletableFuture.supplyAsync(() -> ReportSketches.load(getSketchFile()), executor);
+    }
+
+    /**
+     * Учитывает загруженные отчеты в скетчах.
+     *
+     * @param reports Отчеты
+     * @return Будущий снимок показателей
+     */
+    public CompletableFuture<ReportSketches.Summary> ingest(Collection<Report> reports) {
+        List<Report> snapshot = List.copyOf(reports);
+        return sketches.thenApplyAsync(loaded -> {
+            int changed = 0;
+            for (Report report : snapshot) {
+                if (loaded.ingest(report)) {
+                    changed++;
+                }
+            }
+            if (changed > 0) {
+                scheduleSave(loaded);
+            }
+            return loaded.summary(TOP_LIMIT);
+        }, executor);
+    }
+
+    private void scheduleSave(ReportSketches loaded) {
+        if (pendingSave != null && !pendingSave.isDone()) {
+            return;
+        }
+        pendingSave = executor.schedule(() -> {
+            try {
+                loaded.save(getSketchFile());
+            } catch (Exception e) {
+                System.err.println("Ошибка при сохранении статистических скетчей: " + e.getMessage());
+            }
+        }, saveDelaySeconds, TimeUnit.SECONDS);
+    }
+
+    private static Path getSketchFile() {
+        return LocalStorage.getUserDirectory("search").resolve("reports.sketch");
+    }
+
+    /**
+     * Останавливает поток скетчей; отложенное сохранение на диск выполняется.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,75 @@
+package org.anticorruption.application.Services;
+
+import org.anticorruption.application.BackgroundExecutors;
+import org.anticorruption.application.ConfigManager;
+import org.anticorruption.application.Indexes.ReportAggregates;
+import org.anticorruption.application.Models.Report;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Фоновое обновление сводных показателей по отчетам для вкладки статистики.
+ * <p>
+ * Обновления выполняются по очереди в отдельном потоке. Первая загрузка пересчитывает
+ * показатели параллельно на собственном пуле fork-join; последующие загрузки и изменения
+ * отдельных отчетов применяются как разница. Параллелизм задается параметром statistics.parallelism
+ * (по умолчанию — число процессоров), количество сотрудников и мест в снимке —
+ * statistics.top.limit (по умолчанию 15).
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class ReportStatisticsService {
+
+    private static final int TOP_LIMIT = ConfigManager.getIntProperty("statistics.top.limit", 15);
+
+    private final ExecutorService executor = BackgroundExecutors.newSingleThread("report-statistics");
+    private final ForkJoinPool pool = new ForkJoinPool(Math.max(1,
+            ConfigManager.getIntProperty("statistics.parallelism", Runtime.getRuntime().availableProcessors())));
+    private final ReportAggregates aggregates = new ReportAggregates();
+
+    /**
+     * Приводит показатели в соответствие с полным списком отчетов.
+     *
+     * @param reports Полный список отчетов
+     * @return Будущий снимок показателей
+     */
+    public CompletableFuture<ReportAggregates.Snapshot> sync(Collection<Report> reports) {
+        List<Report> snapshot = List.copyOf(reports);
+        return CompletableFuture.supplyAsync(() -> {
+            if (aggregates.isEmpty()) {
+                aggregates.rebuild(snapshot, pool);
+            } else {
+                aggregates.sync(snapshot);
+            }
+            return aggregates.snapshot(TOP_LIMIT);
+        }, executor);
+    }
+
+    /**
+     * Обновляет показатели по переданным отчетам, не удаляя остальные.
+     *
+     * @param reports Измененные отчеты
+     * @return Будущий снимок показателей
+     */
+    public CompletableFuture<ReportAggregates.Snapshot> upsert(Collection<Report> reports) {
+        List<Report> snapshot = List.copyOf(reports);
+        return CompletableFuture.supplyAsync(() -> {
+            snapshot.forEach(aggregates::update);
+            return aggregates.snapshot(TOP_LIMIT);
+        }, executor);
+    }
+
+    /**
+     * Останавливает поток статистики и пул параллельного пересчета.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,28 @@
+package org.anticorruption.application.Services;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Отправка одного нового отчета.
+ * <p>
+ * Используется импортом из файла и очередью быстрого ввода; реализация по умолчанию —
+ * {@link HttpReportSubmitter}. Токен доступа передается вызывающим: он запоминается
+ * в момент постановки отчета в очередь или запуска импорта, поэтому отчет не уходит
+ * без токена после выхода из системы или от имени следующего пользователя.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public interface ReportSubmitter {
+    /**
+     * Отправляет отчет.
+     *
+     * @param body  Тело запроса создания отчета
+     * @param token Токен доступа пользователя, создающего отчет
+     * @return Будущее сообщение об ошибке или null при успехе
+     */
+    CompletableFuture<String> submit(ObjectNode body, String token);
+}
@@ -0,0 +1,92 @@
+package org.anticorruption.application.Services;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.regex.Pattern;
+
+/**
+ * Правила проверки нового отчета.
+ * <p>
+ * Используются и формой создания отчета, и импортом из файла, поэтому сообщения
+ * об ошибках одинаковы в обоих случаях. Методы не обращаются к элементам интерфейса
+ * и могут вызываться из любого потока.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class ReportValidator {
+
+    /**
+     * Формат времени инцидента ЧЧ:ММ.
+     */
+    public static final Pattern TIME_PATTERN = Pattern.compile("^([01]?[0-9]|2[0-3]):[0-5][0-9]$");
+
+    /**
+     * Приватный конструктор для предотвращения создания экземпляров утилитарного класса.
+     */
+    private ReportValidator() {
+        throw new IllegalStateException("Утилитарный класс");
+    }
+
+    /**
+     * Проверяет поля нового отчета.
+     *
+     * @param incidentDate     Дата инцидента
+     * @param incidentTime     Время инцидента
+     * @param incidentLocation Место инцидента
+     * @param involvedPersons  Вовлеченные лица
+     * @param description      Описание инцидента
+     * @return Сообщение о первой найденной ошибке или null, если отчет корректен
+     */
+    public static String validate(LocalDate incidentDate, String incidentTime, String incidentLocation,
+                                  String involvedPersons, String description) {
+        if (incidentDate == null) {
+            return "Выберите дату инцидента";
+        }
+        if (!isValidTime(incidentTime)) {
+            return "Введите корректное время в формате ЧЧ:ММ";
+        }
+        if (isEmpty(incidentLocation)) {
+            return "Укажите место инцидента";
+        }
+        if (isEmpty(involvedPersons)) {
+            return "Укажите вовлеченных лиц";
+        }
+        if (isEmpty(description)) {
+            return "Добавьте описание инцидента";
+        }
+        return null;
+    }
+
+    /**
+     * Проверяет формат времени инцидента.
+     *
+     * @param time Время
+     * @return true, если время задано в формате ЧЧ:ММ
+     */
+    public static boolean isValidTime(String time) {
+        return time != null && !time.isEmpty() && TIME_PATTERN.matcher(time).matches();
+    }
+
+    /**
+     * Разбирает дату инцидента в формате ГГГГ-ММ-ДД.
+     *
+     * @param date Строка даты
+     * @return Дата или null, если строка пуста или некорректна
+     */
+    public static LocalDate parseDate(String date) {
+        if (isEmpty(date)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date.trim());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+}
@@ -0,0 +1,131 @@
+package org.anticorruption.application.Services;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.anticorruption.application.BackgroundExecutors;
+import org.anticorruption.application.LocalStorage;
+import org.anticorruption.application.Models.ReportQuery;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Именованные фильтры отчетов, сохраненные в локальном каталоге пользователя.
+ * <p>
+ * Фильтры хранятся в файле filters/saved.json как параметры нормализованного
+ * {@link ReportQuery} по названию. Чтение и запись выполняются в отдельном потоке;
+ * файл записывается во временный файл и атомарно заменяет предыдущий.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class SavedFilterStore {
+
+    private final ExecutorService executor = BackgroundExecutors.newSingleThread("saved-filters");
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Фильтры по названию. Используется только в потоке хранилища.
+     */
+    private Map<String, Map<String, String>> filters;
+
+    /**
+     * Загружает сохраненные фильтры.
+     *
+     * @return Будущие фильтры по названию в алфавитном порядке
+     */
+    public CompletableFuture<Map<String, ReportQuery>> load() {
+        return CompletableFuture.supplyAsync(this::snapshot, executor);
+    }
+
+    /**
+     * Сохраняет фильтр под указанным названием, заменяя одноименный.
+     *
+     * @param name  Название фильтра
+     * @param query Условия фильтра
+     * @return Будущие фильтры по названию после сохранения
+     */
+    public CompletableFuture<Map<String, ReportQuery>> save(String name, ReportQuery query) {
+        return CompletableFuture.supplyAsync(() -> {
+            getFilters().put(name, new TreeMap<>(query.getParameters()));
+            write();
+            return snapshot();
+        }, executor);
+    }
+
+    /**
+     * Удаляет фильтр.
+     *
+     * @param name Название фильтра
+     * @return Будущие фильтры по названию после удаления
+     */
+    public CompletableFuture<Map<String, ReportQuery>> delete(String name) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (getFilters().remove(name) != null) {
+                write();
+            }
+            return snapshot();
+        }, executor);
+    }
+
+    private Map<String, ReportQuery> snapshot() {
+        Map<String, ReportQuery> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        getFilters().forEach((name, parameters) -> result.put(name, ReportQuery.fromParameters(parameters)));
+        return result;
+    }
+
+    private Map<String, Map<String, String>> getFilters() {
+        if (filters == null) {
+            filters = new TreeMap<>();
+            Path file = getFile();
+            if (Files.exists(file)) {
+                try {
+                    filters.putAll(mapper.readValue(file.toFile(), new TypeReference<Map<String, Map<String, String>>>() {
+                    }));
+                } catch (IOException e) {
+                    System.err.println("Не удалось прочитать сохраненные фильтры: " + e.getMessage());
+                }
+            }
+        }
+        return filters;
+    }
+
+    private void write() {
+        Path file = getFile();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(filters));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Ошибка при сохранении фильтров: " + e.getMessage());
+        }
+    }
+
+    private Path getFile() {
+        return LocalStorage.getUserDirectory("filters").resolve("saved.json");
+    }
+
+    /**
+     * Останавливает поток сохранения фильтров после записи уже переданных изменений.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
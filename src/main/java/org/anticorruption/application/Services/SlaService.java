@@ -0,0 +1,119 @@
+package org.anticorruption.application.Services;
+
+import lombok.Setter;
+import org.anticorruption.application.BackgroundExecutors;
+import org.anticorruption.application.ConfigManager;
+import org.anticorruption.application.Indexes.SlaTracker;
+import org.anticorruption.application.Models.Report;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Фоновый контроль сроков обработки отчетов.
+ * <p>
+ * Синхронизация с загруженными отчетами и периодическая проверка сроков выполняются
+ * в отдельном потоке; поток интерфейса только запрашивает состояние отдельных отчетов.
+ * Сроки задаются параметрами sla.new.hours (по умолчанию 24), sla.in_progress.hours (72)
+ * и sla.warning.hours (4), период проверки — sla.check.interval.seconds (60).
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class SlaService {
+
+    private static final long HOUR_MILLIS = 60L * 60 * 1000;
+
+    private final ScheduledExecutorService executor = BackgroundExecutors.newScheduled("sla-tracker");
+    private final SlaTracker tracker = new SlaTracker(
+            ConfigManager.getIntProperty("sla.new.hours", 24) * HOUR_MILLIS,
+            ConfigManager.getIntProperty("sla.in_progress.hours", 72) * HOUR_MILLIS,
+            ConfigManager.getIntProperty("sla.warning.hours", 4) * HOUR_MILLIS);
+
+    /**
+     * Обработчик обнаруженных переходов. Вызывается в фоновом потоке.
+     */
+    @Setter
+    private volatile Consumer<List<SlaTracker.Transition>> listener = transitions -> {
+    };
+
+    /**
+     * Запускает периодическую проверку сроков.
+     */
+    public SlaService() {
+        long interval = Math.max(1, ConfigManager.getIntProperty("sla.check.interval.seconds", 60));
+        executor.scheduleWithFixedDelay(this::check, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Приводит контроль сроков в соответствие с полным списком отчетов.
+     *
+     * @param reports Полный список отчетов
+     */
+    public void sync(Collection<Report> reports) {
+        List<Report> snapshot = List.copyOf(reports);
+        executor.execute(() -> {
+            tracker.sync(snapshot);
+            check();
+        });
+    }
+
+    /**
+     * Обновляет сроки переданных отчетов, не удаляя остальные.
+     *
+     * @param reports Отчеты
+     */
+    public void upsert(Collection<Report> reports) {
+        List<Report> snapshot = List.copyOf(reports);
+        executor.execute(() -> {
+            snapshot.forEach(tracker::update);
+            check();
+        });
+    }
+
+    /**
+     * Возвращает текущее состояние срока отчета.
+     *
+     * @param reportId Идентификатор отчета
+     * @return Состояние срока
+     */
+    public SlaTracker.Level getLevel(Long reportId) {
+        return reportId != null ? tracker.getLevel(reportId, System.currentTimeMillis()) : SlaTracker.Level.NONE;
+    }
+
+    /**
+     * Возвращает срок отчета.
+     *
+     * @param reportId Идентификатор отчета
+     * @return Срок в миллисекундах эпохи или {@link Report#NO_TIMESTAMP}
+     */
+    public long getDeadline(Long reportId) {
+        return reportId != null ? tracker.getDeadline(reportId) : Report.NO_TIMESTAMP;
+    }
+
+    /**
+     * Останавливает периодическую проверку сроков и отключает обработчик переходов,
+     * чтобы проверка, уже выполняющаяся в момент выхода из системы, не обращалась
+     * к закрытому окну.
+     */
+    public void shutdown() {
+        listener = transitions -> {
+        };
+        executor.shutdown();
+    }
+
+    private void check() {
+        try {
+            List<SlaTracker.Transition> transitions = tracker.poll(System.currentTimeMillis());
+            if (!transitions.isEmpty()) {
+                listener.accept(transitions);
+            }
+        } catch (Exception e) {
+            System.err.println("Ошибка при проверке сроков отчетов: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package org.anticorruption.application.Services;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import javafx.application.Platform;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import org.anticorruption.application.ConfigManager;
+import org.anticorruption.application.UserSession;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Очередь отправки отчетов для режима быстрого ввода.
+ * <p>
+ * Отчеты отправляются в порядке постановки в очередь; одновременно выполняется
+ * не более submission.concurrency запросов (по умолчанию 2), остальные ждут.
+ * Форма не блокируется на время отправки: об изменении состояния каждой записи
+ * сообщает обработчик, который вызывается в потоке JavaFX. Токен доступа запоминается
+ * при постановке в очередь, а при выходе из системы ожидающие отчеты снимаются
+ * с отправки ({@link #cancelPending()}).
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class SubmissionQueue {
+
+    /**
+     * Состояние записи очереди.
+     */
+    public enum Status {
+        QUEUED("В очереди"),
+        SENDING("Отправляется"),
+        SENT("Отправлен"),
+        FAILED("Ошибка");
+
+        private final String displayName;
+
+        Status(String displayName) {
+            this.displayName = displayName;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    /**
+     * Отчет в очереди отправки.
+     */
+    @Getter
+    public static class Entry {
+        /**
+         * Тело запроса создания отчета.
+         */
+        private final ObjectNode body;
+
+        /**
+         * Токен пользователя, поставившего отчет в очередь.
+         */
+        @Getter(AccessLevel.NONE)
+        private final String token;
+
+        /**
+         * Текущее состояние.
+         */
+        private volatile Status status = Status.QUEUED;
+
+        /**
+         * Сообщение об ошибке для состояния FAILED.
+         */
+        private volatile String message;
+
+        Entry(ObjectNode body, String token) {
+            this.body = body;
+            this.token = token;
+        }
+
+        /**
+         * Возвращает краткое описание отчета для списка.
+         *
+         * @return Дата, время и место инцидента
+         */
+        public String getTitle() {
+            return body.path("incidentDate").asText() + " " + body.path("incidentTime").asText()
+                    + ", " + body.path("incidentLocation").asText();
+        }
+    }
+
+    private final ReportSubmitter submitter;
+    private final int maxInFlight;
+    private final Deque<Entry> pending = new ArrayDeque<>();
+    private int inFlight;
+
+    /**
+     * Обработчик изменения состояния записи. Вызывается в потоке JavaFX.
+     */
+    @Setter
+    private Consumer<Entry> listener = entry -> {
+    };
+
+    /**
+     * Создает очередь с отправкой на сервер.
+     */
+    public SubmissionQueue() {
+        this(new HttpReportSubmitter(), ConfigManager.getIntProperty("submission.concurrency", 2));
+    }
+
+    /**
+     * Создает очередь с заданным способом отправки.
+     *
+     * @param submitter   Отправка отчетов
+     * @param maxInFlight Максимальное количество одновременных запросов
+     */
+    public SubmissionQueue(ReportSubmitter submitter, int maxInFlight) {
+        this.submitter = submitter;
+        this.maxInFlight = Math.max(1, maxInFlight);
+    }
+
+    /**
+     * Ставит отчет в очередь отправки.
+     *
+     * @param body Тело запроса создания отчета
+     * @return Запись очереди
+     */
+    public Entry enqueue(ObjectNode body) {
+        Entry entry = new Entry(body, UserSession.getInstance().getToken());
+        synchronized (this) {
+            pending.addLast(entry);
+        }
+        notifyListener(entry);
+        dispatch();
+        return entry;
+    }
+
+    /**
+     * Снимает с отправки отчеты, ожидающие в очереди, например при выходе из системы.
+     * Снятые записи получают состояние FAILED; уже отправляемые запросы завершаются
+     * с токеном, с которым отчет был поставлен в очередь.
+     *
+     * @return Количество снятых отчетов
+     */
+    public int cancelPending() {
+        List<Entry> cancelled;
+        synchronized (this) {
+            cancelled = new ArrayList<>(pending);
+            pending.clear();
+        }
+        for (Entry entry : cancelled) {
+            entry.message = "Отправка прервана при выходе из системы";
+            entry.status = Status.FAILED;
+            notifyListener(entry);
+        }
+        return cancelled.size();
+    }
+
+    /**
+     * Возвращает количество отчетов, еще не получивших ответ сервера.
+     *
+     * @return Количество ожидающих и отправляемых отчетов
+     */
+    public synchronized int getUnfinishedCount() {
+        return pending.size() + inFlight;
+    }
+
+    private void dispatch() {
+        while (true) {
+            Entry entry;
+            synchronized (this) {
+                if (inFlight >= maxInFlight || pending.isEmpty()) {
+                    return;
+                }
+                entry = pending.pollFirst();
+                inFlight++;
+            }
+            entry.status = Status.SENDING;
+            notifyListener(entry);
+            try {
+                submitter.submit(entry.body, entry.token).whenComplete((error, exception) -> complete(entry, error, exception));
+            } catch (Exception e) {
+                complete(entry, null, e);
+            }
+        }
+    }
+
+    private void complete(Entry entry, String error, Throwable exception) {
+        if (exception != null) {
+            Throwable cause = exception instanceof CompletionException && exception.getCause() != null
+                    ? exception.getCause() : exception;
+            System.err.println("Ошибка при отправке доноса: " + cause.getMessage());
+            entry.message = "Сервер недоступен: " + cause.getMessage();
+            entry.status = Status.FAILED;
+        } else if (error != null) {
+            entry.message = error;
+            entry.status = Status.FAILED;
+        } else {
+            entry.status = Status.SENT;
+        }
+        synchronized (this) {
+            inFlight--;
+        }
+        notifyListener(entry);
+        dispatch();
+    }
+
+    private void notifyListener(Entry entry) {
+        if (Platform.isFxApplicationThread()) {
+            listener.accept(entry);
+        } else {
+            Platform.runLater(() -> listener.accept(entry));
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package org.anticorruption.application.Services;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Потоковая запись табличных данных в CSV, XLSX и JSON Lines.
+ * <p>
+ * Строки записываются по одной в буферизованный канал файла, поэтому объем памяти
+ * не зависит от количества строк. Файл XLSX формируется без сторонних библиотек:
+ * это ZIP-архив с минимальным набором частей Office Open XML, а строки листа
+ * пишутся как встроенные строки (inlineStr) без общей таблицы строк.
+ *
+ * @param <T> Тип экспортируемых объектов
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class TableExporter<T> {
+
+    /**
+     * Формат файла экспорта.
+     */
+    public enum Format {
+        CSV("CSV", "*.csv"),
+        XLSX("Excel", "*.xlsx"),
+        JSONL("JSON Lines", "*.jsonl");
+
+        private final String description;
+        private final String extension;
+
+        Format(String description, String extension) {
+            this.description = description;
+            this.extension = extension;
+        }
+
+        /**
+         * Возвращает название формата для диалога выбора файла.
+         *
+         * @return Название формата
+         */
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * Возвращает шаблон расширения файла.
+         *
+         * @return Шаблон вида "*.csv"
+         */
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Определяет формат по имени файла.
+         *
+         * @param fileName Имя файла
+         * @return Формат; CSV, если расширение не распознано
+         */
+        public static Format fromFileName(String fileName) {
+            String lower = fileName.toLowerCase();
+            for (Format format : values()) {
+                if (lower.endsWith(format.extension.substring(1))) {
+                    return format;
+                }
+            }
+            return CSV;
+        }
+    }
+
+    /**
+     * Запись строк в конкретном формате.
+     */
+    public interface RowWriter extends Closeable {
+        /**
+         * Записывает строку значений.
+         *
+         * @param values Значения (элементы могут быть null)
+         * @throws IOException при ошибке записи
+         */
+        void write(String[] values) throws IOException;
+    }
+
+    private final String[] titles;
+    private final Function<T, String[]> rowMapper;
+
+    /**
+     * Создает экспорт с заданными колонками.
+     *
+     * @param titles    Заголовки колонок в порядке вывода
+     * @param rowMapper Значения колонок для объекта в том же порядке (элементы могут быть null)
+     */
+    public TableExporter(List<String> titles, Function<T, String[]> rowMapper) {
+        this.titles = titles.toArray(String[]::new);
+        this.rowMapper = rowMapper;
+    }
+
+    /**
+     * Открывает файл для записи и записывает заголовок.
+     *
+     * @param file   Путь к файлу
+     * @param format Формат файла
+     * @return Объект для записи строк
+     * @throws IOException при ошибке записи
+     */
+    public RowWriter open(Path file, Format format) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        OutputStream output = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+        RowWriter writer = switch (format) {
+            case CSV -> new CsvWriter(output);
+            case XLSX -> new XlsxWriter(output);
+            case JSONL -> new JsonLinesWriter(output, titles);
+        };
+        if (format != Format.JSONL) {
+            writer.write(titles);
+        }
+        return writer;
+    }
+
+    /**
+     * Возвращает значения колонок для объекта.
+     *
+     * @param item Объект
+     * @return Значения колонок
+     */
+    public String[] values(T item) {
+        return rowMapper.apply(item);
+    }
+
+    /**
+     * CSV с разделителем ";" и меткой порядка байтов, чтобы Excel распознал UTF-8.
+     */
+    private static final class CsvWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvWriter(OutputStream output) throws IOException {
+            this.writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+            writer.write('\uFEFF');
+        }
+
+        @Override
+        public void write(String[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(';');
+                }
+                String value = values[i] != null ? values[i] : "";
+                if (value.indexOf(';') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                    writer.write('"');
+                    writer.write(value.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(value);
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    /**
+     * JSON Lines: по одному объекту на строку, ключи — заголовки колонок.
+     */
+    private static final class JsonLinesWriter implements RowWriter {
+        private final Writer writer;
+        private final String[] keys;
+
+        JsonLinesWriter(OutputStream output, String[] titles) {
+            this.writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+            this.keys = titles;
+        }
+
+        @Override
+        public void write(String[] values) throws IOException {
+            writer.write('{');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeJsonString(keys[i]);
+                writer.write(':');
+                if (values[i] == null) {
+                    writer.write("null");
+                } else {
+                    writeJsonString(values[i]);
+                }
+            }
+            writer.write("}\n");
+        }
+
+        private void writeJsonString(String value) throws IOException {
+            writer.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"' -> writer.write("\\\"");
+                    case '\\' -> writer.write("\\\\");
+                    case '\n' -> writer.write("\\n");
+                    case '\r' -> writer.write("\\r");
+                    case '\t' -> writer.write("\\t");
+                    default -> {
+                        if (c < 0x20) {
+                            writer.write(String.format("\\u%04x", (int) c));
+                        } else {
+                            writer.write(c);
+                        }
+                    }
+                }
+            }
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    /**
+     * Минимальная книга XLSX с одним листом.
+     */
+    private static final class XlsxWriter implements RowWriter {
+        /**
+         * Максимальная длина текста ячейки в Excel.
+         */
+        private static final int MAX_CELL_LENGTH = 32_767;
+
+        /**
+         * Максимальное количество строк листа Excel.
+         */
+        private static final int MAX_ROWS = 1_048_576;
+
+        private final ZipOutputStream zip;
+        private final Writer writer;
+        private int rowNumber;
+
+        XlsxWriter(OutputStream output) throws IOException {
+            this.zip = new ZipOutputStream(output, StandardCharsets.UTF_8);
+            this.writer = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+            writeEntry("[Content_Types].xml", """
+                    <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                    <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">\
+                    <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>\
+                    <Default Extension="xml" ContentType="application/xml"/>\
+                    <Override PartName="/xl/workbook.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>\
+                    <Override PartName="/xl/worksheets/sheet1.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml"/>\
+                    </Types>""");
+            writeEntry("_rels/.rels", """
+                    <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                    <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+                    <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="xl/workbook.xml"/>\
+                    </Relationships>""");
+            writeEntry("xl/workbook.xml", """
+                    <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                    <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" \
+                    xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">\
+                    <sheets><sheet name="Экспорт" sheetId="1" r:id="rId1"/></sheets></workbook>""");
+            writeEntry("xl/_rels/workbook.xml.rels", """
+                    <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                    <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+                    <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet" Target="worksheets/sheet1.xml"/>\
+                    </Relationships>""");
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                    + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+        }
+
+        @Override
+        public void write(String[] values) throws IOException {
+            if (rowNumber == MAX_ROWS) {
+                throw new IOException("Лист Excel вмещает не более " + MAX_ROWS + " строк, используйте CSV или JSON Lines");
+            }
+            rowNumber++;
+            writer.write("<row r=\"" + rowNumber + "\">");
+            for (String value : values) {
+                if (value == null || value.isEmpty()) {
+                    writer.write("<c/>");
+                    continue;
+                }
+                writer.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                writeXml(truncate(value));
+                writer.write("</t></is></c>");
+            }
+            writer.write("</row>");
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.write("</sheetData></worksheet>");
+            writer.flush();
+            zip.closeEntry();
+            zip.close();
+        }
+
+        private void writeEntry(String name, String content) throws IOException {
+            zip.putNextEntry(new ZipEntry(name));
+            writer.write(content);
+            writer.flush();
+            zip.closeEntry();
+        }
+
+        /**
+         * Обрезает текст до максимальной длины ячейки, не разрывая суррогатную пару:
+         * половина пары дала бы некорректный символ в XML листа.
+         */
+        private static String truncate(String value) {
+            if (value.length() <= MAX_CELL_LENGTH) {
+                return value;
+            }
+            int end = MAX_CELL_LENGTH;
+            if (Character.isHighSurrogate(value.charAt(end - 1)) && Character.isLowSurrogate(value.charAt(end))) {
+                end--;
+            }
+            return value.substring(0, end);
+        }
+
+        private void writeXml(String value) throws IOException {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '<' -> writer.write("&lt;");
+                    case '>' -> writer.write("&gt;");
+                    case '&' -> writer.write("&amp;");
+                    case '"' -> writer.write("&quot;");
+                    default -> {
+                        // Управляющие символы, кроме табуляции и переводов строк, в XML 1.0 недопустимы
+                        if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                            writer.write(c);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
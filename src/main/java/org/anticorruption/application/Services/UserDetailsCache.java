@@ -0,0 +1,121 @@
+package org.anticorruption.application.Services;
+
+import org.anticorruption.application.ConfigManager;
+import org.anticorruption.application.Models.User;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * LRU-кэш полных карточек сотрудников.
+ * <p>
+ * Таблица пользователей работает с краткими записями, а полная карточка
+ * ({@link User}) нужна только при открытии формы редактирования. Отдельного запроса
+ * карточки у сервера нет, поэтому она выбирается из ответа GET /api/users
+ * ({@link UsersPayloadReader}) без загрузки остальных записей в память.
+ * Последние открытые карточки хранятся в кэше
+ * ограниченного размера (параметр users.details.cache.size, по умолчанию 64).
+ * Одновременные запросы одной и той же карточки объединяются в один.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class UserDetailsCache {
+    private final UsersPayloadReader payloadReader = new UsersPayloadReader();
+
+    /**
+     * Кэш карточек в порядке последнего обращения.
+     */
+    private final LinkedHashMap<Long, User> cache;
+
+    /**
+     * Незавершенные запросы карточек по идентификатору пользователя.
+     */
+    private final Map<Long, CompletableFuture<User>> inFlight = new HashMap<>();
+
+    /**
+     * Создает кэш с емкостью из параметра users.details.cache.size.
+     */
+    public UserDetailsCache() {
+        this(ConfigManager.getIntProperty("users.details.cache.size", 64));
+    }
+
+    /**
+     * Создает кэш заданной емкости.
+     *
+     * @param capacity Максимальное количество хранимых карточек
+     */
+    public UserDetailsCache(int capacity) {
+        int maxEntries = Math.max(1, capacity);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, User> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Возвращает полную карточку сотрудника из кэша или загружает её с сервера.
+     *
+     * @param userId Идентификатор пользователя
+     * @return Будущая полная карточка сотрудника
+     */
+    public synchronized CompletableFuture<User> get(Long userId) {
+        User cached = cache.get(userId);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<User> pending = inFlight.get(userId);
+        if (pending != null) {
+            return pending;
+        }
+
+        CompletableFuture<User> request = fetch(userId).whenComplete((user, error) -> {
+            synchronized (this) {
+                inFlight.remove(userId);
+                if (user != null) {
+                    cache.put(userId, user);
+                }
+            }
+        });
+        if (!request.isDone()) {
+            inFlight.put(userId, request);
+        }
+        return request;
+    }
+
+    /**
+     * Возвращает карточку только если она уже есть в кэше, не выполняя запрос.
+     *
+     * @param userId Идентификатор пользователя
+     * @return Карточка сотрудника или null
+     */
+    public synchronized User getIfPresent(Long userId) {
+        return cache.get(userId);
+    }
+
+    /**
+     * Удаляет карточку из кэша, например после её изменения на сервере.
+     *
+     * @param userId Идентификатор пользователя
+     */
+    public synchronized void invalidate(Long userId) {
+        cache.remove(userId);
+    }
+
+    /**
+     * Полностью очищает кэш.
+     */
+    public synchronized void clear() {
+        cache.clear();
+    }
+
+    private CompletableFuture<User> fetch(Long userId) {
+        return payloadReader.fetchUser(userId);
+    }
+}
@@ -0,0 +1,61 @@
+package org.anticorruption.application.Services;
+
+import org.anticorruption.application.BackgroundExecutors;
+import org.anticorruption.application.Indexes.UserSearchIndex;
+import org.anticorruption.application.Models.UserSummary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Сервис поиска по справочнику пользователей.
+ * <p>
+ * Владеет индексом {@link UserSearchIndex}. Обновление индекса и поиск выполняются
+ * в отдельном потоке сервиса по очереди, поэтому поиск, запрошенный после загрузки
+ * списка пользователей, видит уже обновленный индекс.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class UserSearchService {
+
+    private final ExecutorService executor = BackgroundExecutors.newSingleThread("user-search");
+    private final UserSearchIndex index = new UserSearchIndex();
+
+    /**
+     * Приводит индекс в соответствие с полным списком пользователей.
+     *
+     * @param users Полный список пользователей
+     */
+    public void sync(Collection<UserSummary> users) {
+        List<UserSummary> snapshot = List.copyOf(users);
+        executor.execute(() -> {
+            try {
+                index.replaceAll(snapshot);
+            } catch (RuntimeException e) {
+                System.err.println("Ошибка при индексации пользователей: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Ищет пользователей по всем индексируемым полям.
+     *
+     * @param query Текст запроса
+     * @return Будущее множество идентификаторов найденных пользователей; null для пустого запроса
+     */
+    public CompletableFuture<Set<Long>> search(String query) {
+        return CompletableFuture.supplyAsync(() -> index.search(query), executor);
+    }
+
+    /**
+     * Останавливает поток индексации справочника.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
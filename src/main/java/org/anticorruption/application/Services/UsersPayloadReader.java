@@ -0,0 +1,165 @@
+package org.anticorruption.application.Services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.anticorruption.application.ConfigManager;
+import org.anticorruption.application.HttpsClient;
+import org.anticorruption.application.Models.User;
+import org.anticorruption.application.UserSession;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Выборочное чтение ответа GET /api/users.
+ * <p>
+ * Сервер отдает полные карточки сотрудников только в общем списке, поэтому отдельные
+ * карточки берутся из него же: ответ разбирается потоково, и в память попадают только
+ * нужные записи и поля, остальные пропускаются парсером без построения дерева JSON.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+public class UsersPayloadReader {
+    private final String SERVER_URL = ConfigManager.getProperty("server.url");
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Обработчик одной записи массива data. Парсер стоит на START_OBJECT записи;
+     * обработчик должен прочитать или пропустить запись целиком.
+     */
+    @FunctionalInterface
+    interface RecordHandler {
+        /**
+         * Обрабатывает запись.
+         *
+         * @param parser Парсер, установленный на начало записи
+         * @return false, чтобы прекратить чтение ответа
+         * @throws IOException при ошибке разбора
+         */
+        boolean handle(JsonParser parser) throws IOException;
+    }
+
+    /**
+     * Находит полную карточку сотрудника в списке пользователей.
+     *
+     * @param userId Идентификатор пользователя
+     * @return Будущая карточка сотрудника; завершается ошибкой, если сотрудник не найден
+     */
+    public CompletableFuture<User> fetchUser(Long userId) {
+        User[] found = new User[1];
+        return read(parser -> {
+            JsonNode node = mapper.readTree(parser);
+            if (node.path("id").asLong(Long.MIN_VALUE) == userId) {
+                found[0] = mapper.treeToValue(node, User.class);
+                return false;
+            }
+            return true;
+        }).thenApply(ignored -> {
+            if (found[0] == null) {
+                throw new IllegalStateException("Пользователь " + userId + " не найден");
+            }
+            return found[0];
+        });
+    }
+
+    /**
+     * Выбирает из списка пользователей только фотографии указанных сотрудников.
+     * Остальные поля и записи пропускаются без декодирования, чтение прекращается,
+     * как только найдены все запрошенные сотрудники.
+     *
+     * @param userIds Идентификаторы пользователей
+     * @return Будущие фотографии по идентификатору; пустой массив, если фотографии нет
+     *         или сотрудник отсутствует в списке
+     */
+    public CompletableFuture<Map<Long, byte[]>> fetchPhotos(Set<Long> userIds) {
+        Map<Long, byte[]> photos = new HashMap<>();
+        return read(parser -> {
+            Long id = null;
+            byte[] photo = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                JsonToken valueToken = parser.nextToken();
+                if ("id".equals(fieldName) && valueToken == JsonToken.VALUE_NUMBER_INT) {
+                    id = parser.getLongValue();
+                } else if ("photo".equals(fieldName) && valueToken != JsonToken.VALUE_NULL
+                        && (id == null || userIds.contains(id))) {
+                    photo = mapper.readValue(parser, byte[].class);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (id != null && userIds.contains(id)) {
+                photos.put(id, photo != null ? photo : new byte[0]);
+            }
+            return photos.size() < userIds.size();
+        }).thenApply(ignored -> {
+            for (Long userId : userIds) {
+                photos.putIfAbsent(userId, new byte[0]);
+            }
+            return photos;
+        });
+    }
+
+    /**
+     * Запрашивает список пользователей и передает обработчику каждую запись массива data.
+     *
+     * @param handler Обработчик записей
+     * @return Будущее завершение чтения
+     */
+    CompletableFuture<Void> read(RecordHandler handler) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(SERVER_URL + "/api/users"))
+                    .header("Authorization", "Bearer " + UserSession.getInstance().getToken())
+                    .GET()
+                    .build();
+
+            return HttpsClient.getClient().sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                    .thenApply(response -> {
+                        try (InputStream body = response.body()) {
+                            if (response.statusCode() != 200) {
+                                throw new IllegalStateException("Код ответа: " + response.statusCode());
+                            }
+                            parse(body, handler);
+                            return null;
+                        } catch (IOException e) {
+                            throw new IllegalStateException("Ошибка при обработке данных: " + e.getMessage(), e);
+                        }
+                    });
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void parse(InputStream body, RecordHandler handler) throws IOException {
+        try (JsonParser parser = mapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalStateException("Некорректный ответ сервера");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                JsonToken valueToken = parser.nextToken();
+                if ("data".equals(fieldName) && valueToken == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        if (!handler.handle(parser)) {
+                            return;
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.anticorruption.application.Indexes;
+
+import org.anticorruption.application.Models.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты поиска сотрудников по ФИО с опечатками.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+class AgentLookupTest {
+
+    private static User agent(long id, String username, String lastName, String firstName, String middleName) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setLastName(lastName);
+        user.setFirstName(firstName);
+        user.setMiddleName(middleName);
+        return user;
+    }
+
+    private final User ivanov = agent(1, "ivanov", "Иванов", "Петр", "Сергеевич");
+    private final User ivanova = agent(2, "ivanova", "Иванова", "Анна", "Петровна");
+    private final User konstantinov = agent(3, "kost", "Константинопольский", "Олег", null);
+    private final AgentLookup lookup = new AgentLookup(List.of(ivanov, ivanova, konstantinov));
+
+    @Test
+    void prefixDistanceIgnoresWordTail() {
+        assertEquals(0, AgentLookup.prefixDistance("иван", "иванова", 1));
+        assertEquals(1, AgentLookup.prefixDistance("ивнов", "иванова", 1));
+        assertEquals(1, AgentLookup.prefixDistance("иваноф", "иванова", 2));
+        assertEquals(2, AgentLookup.prefixDistance("кнстантинпольский", "константинопольский", 2));
+        assertEquals(3, AgentLookup.prefixDistance("петров", "сидоров", 2), "превышение предела дает maxDistance + 1");
+    }
+
+    @Test
+    void ranksExactWordsAbovePrefixes() {
+        assertEquals(List.of(ivanov, ivanova), lookup.search("Иванов", 10));
+        assertEquals(List.of(ivanova), lookup.search("иванова анна", 10));
+        assertEquals(List.of(ivanova), lookup.search("ив анна", 10), "каждое слово должно совпасть");
+        assertEquals(List.of(ivanov), lookup.search("Иванов", 1));
+    }
+
+    @Test
+    void toleratesTyposOnlyWhenNoPrefixMatches() {
+        assertEquals(List.of(konstantinov), lookup.search("Кнстантинпольский", 10));
+        assertEquals(List.of(ivanov, ivanova), lookup.search("ивнов", 10));
+        assertEquals(List.of(ivanova), lookup.search("ивнов анна", 10));
+        assertTrue(lookup.search("Сидоров", 10).isEmpty());
+        assertTrue(lookup.search("ивнв", 10).isEmpty(), "в коротком слове допустима одна ошибка");
+    }
+
+    @Test
+    void findsByIdAndDisplay() {
+        assertSame(ivanova, lookup.findById(2L));
+        assertNull(lookup.findById(99L));
+        assertNull(lookup.findById(null));
+        String display = lookup.display(ivanov);
+        assertEquals(AgentLookup.displayName(ivanov), display);
+        assertSame(ivanov, lookup.findByDisplay(display));
+        assertEquals(List.of(ivanov, ivanova), lookup.search("", 2));
+    }
+}
@@ -0,0 +1,80 @@
+package org.anticorruption.application.Indexes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты выделения лиц и графа их совместных упоминаний.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+class CoOccurrenceGraphTest {
+
+    private static List<PersonExtractor.Person> persons(String text) {
+        return PersonExtractor.extract(text);
+    }
+
+    @Test
+    void extractorNormalizesNameForms() {
+        List<PersonExtractor.Person> extracted = persons(
+                "Иванов Иван Иванович, Иван Иванович Иванов; Иванов И.И. и Петров ПС\nСемёнов Олег");
+        assertEquals(List.of("иванов и.и.", "петров п.с.", "семенов о."),
+                extracted.stream().map(PersonExtractor.Person::getKey).toList());
+        assertEquals("Иванов И.И.", extracted.get(0).getDisplayName());
+        assertTrue(persons("  ").isEmpty());
+        assertTrue(persons(null).isEmpty());
+    }
+
+    @Test
+    void countsEdgeWeightsAndNeighbourhood() {
+        CoOccurrenceGraph graph = new CoOccurrenceGraph();
+        graph.update(1L, persons("Иванов И.И., Петров П.П."));
+        graph.update(2L, persons("Иванов И.И., Петров П.П., Сидоров С.С."));
+        graph.update(3L, persons("Сидоров С.С., Кузнецов К.К."));
+
+        assertEquals(2, graph.getWeight("иванов и.и.", "петров п.п."));
+        assertEquals(1, graph.getWeight("петров п.п.", "сидоров с.с."));
+        assertEquals(0, graph.getWeight("иванов и.и.", "кузнецов к.к."));
+        assertEquals(Set.of(1L, 2L), graph.getReports("петров п.п."));
+
+        assertEquals(Map.of("петров п.п.", 1, "сидоров с.с.", 1),
+                graph.neighbourhood("иванов и.и.", 1));
+        assertEquals(Map.of("петров п.п.", 1, "сидоров с.с.", 1, "кузнецов к.к.", 2),
+                graph.neighbourhood("иванов и.и.", 2));
+    }
+
+    @Test
+    void mergesComponentsAndSplitsThemAfterRemoval() {
+        CoOccurrenceGraph graph = new CoOccurrenceGraph();
+        graph.update(1L, persons("Иванов И.И., Петров П.П."));
+        graph.update(2L, persons("Сидоров С.С., Кузнецов К.К."));
+        assertEquals(Set.of("иванов и.и.", "петров п.п."), graph.component("петров п.п."));
+
+        graph.update(3L, persons("Петров П.П., Сидоров С.С."));
+        assertEquals(Set.of("иванов и.и.", "петров п.п.", "сидоров с.с.", "кузнецов к.к."),
+                graph.component("иванов и.и."));
+
+        graph.remove(3L);
+        assertEquals(Set.of("сидоров с.с.", "кузнецов к.к."), graph.component("кузнецов к.к."));
+        assertEquals(0, graph.getWeight("петров п.п.", "сидоров с.с."));
+        assertEquals(Set.of(1L, 2L), graph.getReportIds());
+    }
+
+    @Test
+    void updateReportsOnlyRealChanges() {
+        CoOccurrenceGraph graph = new CoOccurrenceGraph();
+        assertTrue(graph.update(1L, persons("Иванов И.И., Петров П.П.")));
+        assertFalse(graph.update(1L, persons("Петров П.П., Иванов Иван Иванович")));
+        assertTrue(graph.update(1L, persons("Иванов И.И.")));
+        assertEquals(0, graph.getWeight("иванов и.и.", "петров п.п."));
+        assertTrue(graph.getReports("петров п.п.").isEmpty());
+        assertEquals(Set.of("иванов и.и."), graph.component("иванов и.и."));
+    }
+}
@@ -0,0 +1,85 @@
+package org.anticorruption.application.Indexes;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты оценки частот count-min и выбора самых частых значений.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+class CountMinSketchTest {
+
+    @Test
+    void estimatesNeverUndercountAndStayWithinBound() {
+        CountMinSketch sketch = new CountMinSketch(5, 2048, 16);
+        Map<String, Long> exact = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            String item = "place-" + (int) Math.abs(random.nextGaussian() * 500);
+            sketch.add(item, 1);
+            exact.merge(item, 1L, Long::sum);
+        }
+        assertEquals(100_000, sketch.getTotal());
+        int violations = 0;
+        for (Map.Entry<String, Long> entry : exact.entrySet()) {
+            long estimate = sketch.estimate(entry.getKey());
+            assertTrue(estimate >= entry.getValue(), entry.getKey());
+            if (estimate - entry.getValue() > sketch.getErrorBound()) {
+                violations++;
+            }
+        }
+        assertTrue(violations <= (1 - sketch.getConfidence()) * exact.size() + 1, "нарушений: " + violations);
+    }
+
+    @Test
+    void topReturnsHeavyHitters() {
+        CountMinSketch sketch = new CountMinSketch(4, 512, 8);
+        for (int i = 0; i < 2000; i++) {
+            sketch.add("rare-" + i, 1);
+            if (i % 2 == 0) {
+                sketch.add("Москва", 1);
+            }
+            if (i % 4 == 0) {
+                sketch.add("Казань", 1);
+            }
+        }
+        List<Map.Entry<String, Long>> top = sketch.top(2);
+        assertEquals(List.of("Москва", "Казань"), top.stream().map(Map.Entry::getKey).toList());
+        assertTrue(top.get(0).getValue() >= 1000);
+    }
+
+    @Test
+    void mergeAddsCounts() {
+        CountMinSketch first = new CountMinSketch(4, 256, 4);
+        CountMinSketch second = new CountMinSketch(4, 256, 4);
+        first.add("a", 10);
+        second.add("a", 5);
+        second.add("b", 3);
+        first.merge(second);
+        assertTrue(first.estimate("a") >= 15);
+        assertEquals(18, first.getTotal());
+        assertThrows(IllegalArgumentException.class, () -> first.merge(new CountMinSketch(4, 128, 4)));
+    }
+
+    @Test
+    void survivesSerialization() throws IOException {
+        CountMinSketch sketch = new CountMinSketch(3, 64, 4);
+        sketch.add("Москва", 42);
+        sketch.add("Казань", 7);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.write(new DataOutputStream(bytes));
+        CountMinSketch restored = CountMinSketch.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(sketch.estimate("Москва"), restored.estimate("Москва"));
+        assertEquals(sketch.top(2), restored.top(2));
+    }
+}
@@ -0,0 +1,87 @@
+package org.anticorruption.application.Indexes;
+
+import org.anticorruption.application.Models.Report;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты поиска почти одинаковых отчетов (MinHash, LSH и группы дубликатов).
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+class DuplicateDetectorTest {
+
+    private static final String BASE = "начальник отдела закупок потребовал от поставщика денежное вознаграждение "
+            + "за подписание акта приемки работ по ремонту кровли здания администрации района "
+            + "передача денег состоялась в служебном кабинете после окончания рабочего дня";
+
+    private static Report report(long id, String description) {
+        Report report = new Report();
+        report.setId(id);
+        report.setDescription(description);
+        report.setIncidentLocation("Москва, улица Ленина, 1");
+        report.setInvolvedPersons("Иванов П.С.");
+        return report;
+    }
+
+    @Test
+    void groupsNearDuplicatesUnderSmallestId() {
+        DuplicateDetector detector = new DuplicateDetector(0.6);
+        detector.sync(List.of(
+                report(7, BASE),
+                report(3, BASE.replace("кровли", "крыши")),
+                report(5, "сотрудник полиции предложил водителю не составлять протокол о нарушении "
+                        + "правил дорожного движения в обмен на перевод на банковскую карту родственника")));
+
+        Map<Long, Long> clusters = detector.getClusters();
+        assertEquals(Map.of(3L, 3L, 7L, 3L), clusters);
+    }
+
+    @Test
+    void joinsChainsTransitivelyAndSplitsOnRemoval() {
+        DuplicateDetector detector = new DuplicateDetector(0.6);
+        String middle = BASE.replace("кровли", "крыши");
+        detector.update(report(1, BASE));
+        detector.update(report(2, middle));
+        detector.update(report(3, middle.replace("рабочего дня", "рабочей смены")));
+        assertEquals(Map.of(1L, 1L, 2L, 1L, 3L, 1L), detector.getClusters());
+
+        detector.remove(2L);
+        detector.remove(1L);
+        assertTrue(detector.getClusters().isEmpty());
+    }
+
+    @Test
+    void dropsLinksWhenContentChanges() {
+        DuplicateDetector detector = new DuplicateDetector(0.6);
+        detector.update(report(1, BASE));
+        assertTrue(detector.update(report(2, BASE)));
+        assertFalse(detector.update(report(2, BASE)), "неизменный отчет не пересчитывается");
+        assertEquals(2, detector.getClusters().size());
+
+        Report changed = report(2, "жалоба на затягивание сроков рассмотрения обращения гражданина "
+                + "о выделении земельного участка под строительство частного дома");
+        changed.setIncidentLocation("Казань");
+        changed.setInvolvedPersons("Петров");
+        detector.update(changed);
+        assertTrue(detector.getClusters().isEmpty());
+    }
+
+    @Test
+    void ignoresAlmostEmptyReports() {
+        DuplicateDetector detector = new DuplicateDetector(0.5);
+        Report first = new Report();
+        first.setId(1L);
+        first.setDescription("взятка");
+        Report second = new Report(first);
+        second.setId(2L);
+        detector.sync(List.of(first, second));
+        assertTrue(detector.getClusters().isEmpty());
+    }
+}
@@ -0,0 +1,64 @@
+package org.anticorruption.application.Indexes;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты оценки количества различных значений HyperLogLog.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+class HyperLogLogTest {
+
+    private static HyperLogLog filled(int precision, int from, int to) {
+        HyperLogLog counter = new HyperLogLog(precision);
+        for (int i = from; i < to; i++) {
+            counter.add("reporter-" + i);
+        }
+        return counter;
+    }
+
+    @Test
+    void estimateStaysWithinThreeStandardErrors() {
+        for (int distinct : new int[]{100, 10_000, 200_000}) {
+            HyperLogLog counter = filled(14, 0, distinct);
+            double error = Math.abs(counter.estimate() - distinct) / (double) distinct;
+            assertTrue(error <= 3 * counter.getRelativeError(),
+                    "n=" + distinct + ", оценка=" + counter.estimate());
+        }
+    }
+
+    @Test
+    void repeatedValuesDoNotIncreaseEstimate() {
+        HyperLogLog counter = filled(12, 0, 1000);
+        long before = counter.estimate();
+        for (int i = 0; i < 1000; i++) {
+            counter.add("reporter-" + i);
+        }
+        assertEquals(before, counter.estimate());
+    }
+
+    @Test
+    void mergeEstimatesUnion() {
+        HyperLogLog first = filled(14, 0, 30_000);
+        HyperLogLog second = filled(14, 20_000, 50_000);
+        first.merge(second);
+        double error = Math.abs(first.estimate() - 50_000) / 50_000.0;
+        assertTrue(error <= 3 * first.getRelativeError(), "оценка=" + first.estimate());
+        assertThrows(IllegalArgumentException.class, () -> first.merge(new HyperLogLog(10)));
+    }
+
+    @Test
+    void survivesSerialization() throws IOException {
+        HyperLogLog counter = filled(12, 0, 5000);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        counter.write(new DataOutputStream(bytes));
+        HyperLogLog restored = HyperLogLog.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(counter.estimate(), restored.estimate());
+    }
+}
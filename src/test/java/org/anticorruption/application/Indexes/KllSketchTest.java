@@ -0,0 +1,89 @@
+package org.anticorruption.application.Indexes;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты приближенных квантилей KLL.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+class KllSketchTest {
+
+    private static final int N = 100_000;
+
+    /**
+     * Заполняет скетч перестановкой чисел 0..N-1, поэтому точный ранг значения равен ему самому.
+     */
+    private static KllSketch shuffled(int k, long seed) {
+        int[] values = new int[N];
+        for (int i = 0; i < N; i++) {
+            values[i] = i;
+        }
+        Random random = new Random(seed);
+        for (int i = N - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+        KllSketch sketch = new KllSketch(k);
+        for (int value : values) {
+            sketch.update(value);
+        }
+        return sketch;
+    }
+
+    private static void assertRankError(KllSketch sketch, double fraction) {
+        double rankError = Math.abs(sketch.quantile(fraction) / N - fraction);
+        assertTrue(rankError <= 3 * sketch.getRankError(),
+                "q=" + fraction + ", значение=" + sketch.quantile(fraction));
+    }
+
+    @Test
+    void quantilesStayWithinRankError() {
+        KllSketch sketch = shuffled(200, 1);
+        assertEquals(N, sketch.getCount());
+        for (double fraction : new double[]{0.1, 0.5, 0.9, 0.99}) {
+            assertRankError(sketch, fraction);
+        }
+        assertEquals(0, sketch.quantile(0));
+        assertEquals(N - 1, sketch.quantile(1));
+    }
+
+    @Test
+    void emptySketchAndNaN() {
+        KllSketch sketch = new KllSketch(50);
+        sketch.update(Double.NaN);
+        assertEquals(0, sketch.getCount());
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+        assertThrows(IllegalArgumentException.class, () -> new KllSketch(4));
+    }
+
+    @Test
+    void mergeKeepsRankError() {
+        KllSketch first = shuffled(200, 2);
+        KllSketch second = shuffled(200, 3);
+        first.merge(second);
+        assertEquals(2L * N, first.getCount());
+        for (double fraction : new double[]{0.25, 0.5, 0.75}) {
+            assertRankError(first, fraction);
+        }
+    }
+
+    @Test
+    void survivesSerialization() throws IOException {
+        KllSketch sketch = shuffled(100, 4);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.write(new DataOutputStream(bytes));
+        KllSketch restored = KllSketch.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals(sketch.getCount(), restored.getCount());
+        assertEquals(sketch.quantile(0.5), restored.quantile(0.5));
+    }
+}
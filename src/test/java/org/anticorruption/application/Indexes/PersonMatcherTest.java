@@ -0,0 +1,67 @@
+package org.anticorruption.application.Indexes;
+
+import org.anticorruption.application.Models.UserSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты автомата Ахо–Корасик для поиска сотрудников в тексте.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+class PersonMatcherTest {
+
+    private static UserSummary user(long id, String lastName, String firstName, String middleName) {
+        UserSummary user = new UserSummary();
+        user.setId(id);
+        user.setLastName(lastName);
+        user.setFirstName(firstName);
+        user.setMiddleName(middleName);
+        return user;
+    }
+
+    private final PersonMatcher matcher = PersonMatcher.build(List.of(
+            user(1, "Иванов", "Петр", "Сергеевич"),
+            user(2, "Иванова", "Анна", "Петровна"),
+            user(3, "Семёнов", "Олег", null)));
+
+    @Test
+    void findsAllNameVariants() {
+        assertEquals(Set.of(1L), matcher.match("Иванов Петр Сергеевич"));
+        assertEquals(Set.of(1L), matcher.match("Петр Сергеевич Иванов"));
+        assertEquals(Set.of(1L), matcher.match("со слов Иванов П.С."));
+        assertEquals(Set.of(1L), matcher.match("П. С. Иванов"));
+        assertEquals(Set.of(3L), matcher.match("Олег Семенов"));
+    }
+
+    @Test
+    void matchesWholeWordsOnly() {
+        assertEquals(Set.of(2L), matcher.match("Иванова А.П."));
+        assertTrue(matcher.match("Ивановский Петр").isEmpty());
+    }
+
+    @Test
+    void findsOverlappingAndRepeatedMentions() {
+        assertEquals(Set.of(1L, 2L, 3L),
+                matcher.match("Иванов П.С., Иванова Анна; свидетель — СЕМЁНОВ О."));
+    }
+
+    @Test
+    void ignoresEmptyTextAndUsersWithoutLastName() {
+        PersonMatcher withoutNames = PersonMatcher.build(List.of(user(4, null, "Иван", null)));
+        assertTrue(withoutNames.match("Иван").isEmpty());
+        assertTrue(matcher.match(null).isEmpty());
+        assertTrue(matcher.match("").isEmpty());
+    }
+
+    @Test
+    void normalizesPunctuationAndCase() {
+        assertEquals(" иванов п с ", PersonMatcher.normalize("ИВАНОВ, П.С."));
+    }
+}
@@ -0,0 +1,111 @@
+package org.anticorruption.application.Indexes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты префиксного дерева подсказок и поддержания списков лучших терминов.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+class PrefixIndexTest {
+
+    private static final List<String> VALUES = List.of(
+            "г. Москва, ул. Ленина", "г. Москва, ул. Мира", "Московская область", "Мурманск",
+            "Ленинск-Кузнецкий", "Казань, ул. Ленина", "Калуга", "Каменск-Уральский",
+            "Лениногорск", "Мирный");
+
+    private static final List<String> PREFIXES = List.of(
+            "м", "мо", "моск", "л", "лен", "ленина", "к", "ка", "кал", "ул", "мир", "г м");
+
+    @Test
+    void suggestsByFrequencyAndWordStarts() {
+        PrefixIndex index = new PrefixIndex(4, 5);
+        index.add("г. Москва, ул. Ленина", 5);
+        index.add("Ленинск-Кузнецкий", 2);
+        index.add("Лениногорск", 9);
+
+        assertEquals(List.of("Лениногорск", "г. Москва, ул. Ленина", "Ленинск-Кузнецкий"),
+                index.suggest("Лен", 5));
+        assertEquals(List.of("Лениногорск"), index.suggest("лен", 1));
+        assertEquals(List.of("г. Москва, ул. Ленина"), index.suggest("ЛЕНИНА", 5));
+        assertTrue(index.suggest("Самара", 5).isEmpty());
+        assertTrue(index.suggest(" , ", 5).isEmpty());
+    }
+
+    @Test
+    void showsMostFrequentSpelling() {
+        PrefixIndex index = new PrefixIndex(1, 5);
+        index.add("г. Москва", 1);
+        index.add("Г Москва", 3);
+        assertEquals(List.of("Г Москва"), index.suggest("г м", 5));
+        index.add("Г Москва", -3);
+        assertEquals(List.of("г. Москва"), index.suggest("г м", 5));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void incrementalUpdatesMatchFullRecount() {
+        Random random = new Random(11);
+        PrefixIndex index = new PrefixIndex(2, 3);
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int step = 0; step < 2000; step++) {
+            String value = VALUES.get(random.nextInt(VALUES.size()));
+            int current = counts.getOrDefault(value, 0);
+            int delta = random.nextInt(4) == 0 ? -Math.min(current, 1 + random.nextInt(3)) : 1 + random.nextInt(3);
+            index.add(value, delta);
+            counts.merge(value, delta, Integer::sum);
+            if (step % 50 == 0) {
+                for (String prefix : PREFIXES) {
+                    assertEquals(expected(counts, prefix, 2, 3), index.suggest(prefix, 3),
+                            "шаг " + step + ", префикс " + prefix);
+                }
+            }
+        }
+
+        PrefixIndex rebuilt = new PrefixIndex(2, 3);
+        rebuilt.rebuild(counts);
+        for (String prefix : PREFIXES) {
+            assertEquals(expected(counts, prefix, 2, 3), rebuilt.suggest(prefix, 3), prefix);
+        }
+    }
+
+    @Test
+    void normalizesSpellings() {
+        assertEquals("г москва ул ленина", PrefixIndex.normalize(" г.Москва,  ул. Ленина "));
+        assertEquals("ежик", PrefixIndex.normalize("Ёжик"));
+        assertEquals("", PrefixIndex.normalize(null));
+    }
+
+    /**
+     * Ранжирование перебором: термины с положительной частотой, одно из первых
+     * {@code wordStarts} слов которых начинается с префикса, по убыванию частоты,
+     * при равенстве — в порядке первого появления.
+     */
+    private static List<String> expected(Map<String, Integer> counts, String prefix, int wordStarts, int limit) {
+        String key = PrefixIndex.normalize(prefix);
+        List<String> order = new ArrayList<>(counts.keySet());
+        return counts.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .filter(entry -> {
+                    String[] words = PrefixIndex.normalize(entry.getKey()).split(" ");
+                    for (int i = 0; i < Math.min(wordStarts, words.length); i++) {
+                        String suffix = String.join(" ", Arrays.copyOfRange(words, i, words.length));
+                        if (suffix.startsWith(key)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                })
+                .sorted(Comparator.comparing((Map.Entry<String, Integer> entry) -> -entry.getValue())
+                        .thenComparing(entry -> order.indexOf(entry.getKey())))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
@@ -0,0 +1,120 @@
+package org.anticorruption.application.Indexes;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.anticorruption.application.Models.Report;
+import org.anticorruption.application.Models.ReportStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Замер занимаемой памяти для выборки отчетов в трех вариантах хранения:
+ * {@code ObservableList<Report>}, {@link ReportColumnStore} с текстами в куче
+ * и {@link ReportColumnStore} с текстами вне кучи.
+ * <p>
+ * Замер не входит в набор тестов и запускается вручную из тестовых классов:
+ * {@code java -Xmx4g -cp <классы приложения и тестов> org.anticorruption.application.Indexes.ReportColumnStoreBenchmark [количество отчетов]},
+ * по умолчанию 1 000 000. Для миллиона строк нужна куча около 4 ГБ.
+ * Данные синтетические: повторяющиеся места, сотрудники и статусы, как в реальных
+ * выборках, и уникальные тексты описаний. Каждая строка создается отдельным объектом,
+ * как это происходит при разборе JSON.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+class ReportColumnStoreBenchmark {
+
+    private static final int LOCATIONS = 200;
+    private static final int AGENTS = 50;
+    private static final int REPORTERS = 5000;
+
+    /**
+     * Точка входа замера.
+     *
+     * @param args Необязательное количество отчетов
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        System.out.printf("Отчетов: %,d%n", count);
+
+        long baseline = usedHeap();
+        ObservableList<Report> list = FXCollections.observableArrayList();
+        fill(count, list);
+        long listBytes = usedHeap() - baseline;
+        System.out.printf("ObservableList<Report>:          куча %,d КБ (%,d байт на отчет)%n",
+                listBytes / 1024, listBytes / count);
+        list = null;
+
+        measureStore(count, false);
+        measureStore(count, true);
+    }
+
+    private static void measureStore(int count, boolean offHeap) {
+        long baseline = usedHeap();
+        ReportColumnStore store = new ReportColumnStore(offHeap);
+        List<Report> batch = new ArrayList<>(10_000);
+        for (int from = 0; from < count; from += 10_000) {
+            batch.clear();
+            fill(Math.min(10_000, count - from), batch, from);
+            store.addAll(batch);
+        }
+        batch.clear();
+        long storeBytes = usedHeap() - baseline;
+        System.out.printf("ReportColumnStore (%s): куча %,d КБ (%,d байт на отчет), вне кучи %,d КБ, словарь %,d значений%n",
+                offHeap ? "вне кучи" : "в куче  ", storeBytes / 1024, storeBytes / count,
+                store.getOffHeapBytes() / 1024, store.getDictionarySize());
+        if (store.size() != count) {
+            throw new IllegalStateException("Неверное количество строк: " + store.size());
+        }
+    }
+
+    private static void fill(int count, List<Report> target) {
+        fill(count, target, 0);
+    }
+
+    private static void fill(int count, List<Report> target, int firstId) {
+        Random random = new Random(firstId);
+        ReportStatus[] statuses = {ReportStatus.NEW, ReportStatus.IN_PROGRESS, ReportStatus.CLOSED};
+        int baseDay = 19_000;
+        long baseMillis = 1_700_000_000_000L;
+        for (int i = 0; i < count; i++) {
+            int id = firstId + i;
+            Report report = new Report();
+            report.setId((long) id);
+            report.setIncidentEpochDay(baseDay + random.nextInt(365));
+            report.setIncidentMinuteOfDay((short) random.nextInt(24 * 60));
+            report.setDateSubmittedMillis(baseMillis + random.nextInt(1_000_000_000));
+            report.setLastUpdatedMillis(baseMillis + random.nextInt(1_000_000_000));
+            report.setStatus(statuses[random.nextInt(statuses.length)]);
+            report.setReporterId(new String("reporter" + random.nextInt(REPORTERS)));
+            report.setIncidentLocation(new String("г. Минск, подразделение №" + random.nextInt(LOCATIONS)));
+            int agent = random.nextInt(AGENTS);
+            report.setAssignedTo(new String("agent" + agent));
+            report.setAssignedToFullName(new String("Сотрудник " + agent + " Иванович"));
+            report.setInvolvedPersons("Петров П.П., Сидоров С.С. (" + id + ")");
+            report.setDescription("Описание инцидента №" + id + ": получение денежного вознаграждения "
+                    + "за ускорение рассмотрения документов, сумма " + random.nextInt(100_000) + " руб.");
+            report.setEvidenceDescription(random.nextBoolean() ? "Аудиозапись разговора, выписка по счету " + id : null);
+            report.setWitnesses(random.nextInt(4) == 0 ? "Кузнецов К.К." + id : null);
+            report.setSolution(report.getStatus() == ReportStatus.CLOSED ? "Материалы переданы в прокуратуру " + id : null);
+            target.add(report);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
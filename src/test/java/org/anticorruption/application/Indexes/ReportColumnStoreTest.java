@@ -0,0 +1,127 @@
+package org.anticorruption.application.Indexes;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.anticorruption.application.Models.Report;
+import org.anticorruption.application.Models.ReportStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты колоночного хранилища отчетов и его представления для таблицы.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+class ReportColumnStoreTest {
+
+    private static Report report(long id) {
+        Report report = new Report();
+        report.setId(id);
+        report.setDateSubmitted("2024-03-01T10:15:00");
+        report.setLastUpdatedMillis(1_700_000_000_000L + id);
+        report.setReporterId("reporter" + id % 3);
+        report.setIncidentDate("2024-02-" + (10 + id % 10));
+        report.setIncidentTime("09:05");
+        report.setIncidentLocation("г. Москва, ул. Ленина, " + id % 2);
+        report.setInvolvedPersons("Иванов И.И.");
+        report.setWitnesses(id % 2 == 0 ? "Петров П.П." : null);
+        report.setDescription("Описание " + id + ": " + "получение вознаграждения ".repeat(20));
+        report.setEvidenceDescription("Аудиозапись");
+        report.setSolution(null);
+        report.setStatus(id % 2 == 0 ? ReportStatus.NEW : ReportStatus.CLOSED);
+        report.setAssignedTo("agent" + id % 2);
+        report.setAssignedToFullName("Сидоров С.С.");
+        return report;
+    }
+
+    private static void assertSameContent(Report expected, Report actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getDateSubmittedMillis(), actual.getDateSubmittedMillis());
+        assertEquals(expected.getLastUpdatedMillis(), actual.getLastUpdatedMillis());
+        assertEquals(expected.getReporterId(), actual.getReporterId());
+        assertEquals(expected.getIncidentDate(), actual.getIncidentDate());
+        assertEquals(expected.getIncidentTime(), actual.getIncidentTime());
+        assertEquals(expected.getIncidentLocation(), actual.getIncidentLocation());
+        assertEquals(expected.getInvolvedPersons(), actual.getInvolvedPersons());
+        assertEquals(expected.getWitnesses(), actual.getWitnesses());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getEvidenceDescription(), actual.getEvidenceDescription());
+        assertEquals(expected.getSolution(), actual.getSolution());
+        assertEquals(expected.getStatusCode(), actual.getStatusCode());
+        assertEquals(expected.getAssignedTo(), actual.getAssignedTo());
+        assertEquals(expected.getAssignedToFullName(), actual.getAssignedToFullName());
+    }
+
+    @Test
+    void restoresReportsFromColumns() {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            ReportColumnStore store = new ReportColumnStore(offHeap);
+            List<Report> reports = new ArrayList<>();
+            for (long id = 0; id < 100; id++) {
+                reports.add(report(id));
+            }
+            store.addAll(reports);
+            assertEquals(100, store.size());
+            for (int row = 0; row < reports.size(); row++) {
+                assertSameContent(reports.get(row), store.get(row));
+            }
+            assertEquals(ReportStatus.CLOSED, store.getStatus(1));
+            assertEquals(offHeap, store.getOffHeapBytes() > 0);
+        }
+    }
+
+    @Test
+    void deduplicatesRepeatedValues() {
+        ReportColumnStore store = new ReportColumnStore();
+        for (long id = 0; id < 1000; id++) {
+            store.add(report(id));
+        }
+        // статусы 2, заявители 3, места 2, сотрудники 2, ФИО 1
+        assertEquals(10, store.getDictionarySize());
+    }
+
+    @Test
+    void keepsUnknownStatusCodeAndMissingId() {
+        ReportColumnStore store = new ReportColumnStore();
+        Report report = new Report();
+        report.setStatusCode("ESCALATED");
+        store.add(report);
+        assertNull(store.getId(0));
+        assertEquals(ReportStatus.UNKNOWN, store.getStatus(0));
+        assertEquals("ESCALATED", store.get(0).getStatusCode());
+    }
+
+    @Test
+    void viewIsReadOnlyCachesRowsAndReportsChanges() {
+        ReportColumnStore store = new ReportColumnStore();
+        ObservableList<Report> view = store.asObservableList();
+        List<String> changes = new ArrayList<>();
+        view.addListener((ListChangeListener<Report>) change -> {
+            while (change.next()) {
+                changes.add((change.wasRemoved() ? "-" + change.getRemovedSize() : "")
+                        + (change.wasAdded() ? "+" + change.getAddedSize() : ""));
+            }
+        });
+
+        store.addAll(List.of(report(1), report(2)));
+        Report first = view.get(0);
+        assertSame(first, view.get(0), "строка не собирается заново при повторном чтении");
+        store.add(report(3));
+        assertSame(first, view.get(0));
+        assertEquals(3L, view.get(2).getId());
+
+        store.setAll(List.of(report(7)));
+        assertEquals(1, view.size());
+        assertEquals(7L, view.get(0).getId());
+        store.clear();
+        assertEquals(List.of("+2", "+1", "-3+1", "-1"), changes);
+
+        assertThrows(UnsupportedOperationException.class, () -> view.add(report(9)));
+    }
+}
@@ -0,0 +1,101 @@
+package org.anticorruption.application.Indexes;
+
+import org.anticorruption.application.Models.Report;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты полнотекстового индекса отчетов: словоформы, фразы, ранжирование и обновление.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+class ReportTextIndexTest {
+
+    private static Report report(long id, String description) {
+        Report report = new Report();
+        report.setId(id);
+        report.setDescription(description);
+        return report;
+    }
+
+    private static List<Long> ids(List<ReportTextIndex.Hit> hits) {
+        return hits.stream().map(ReportTextIndex.Hit::getReportId).toList();
+    }
+
+    @Test
+    void findsOtherWordForms() {
+        ReportTextIndex index = new ReportTextIndex();
+        index.update(report(1, "Инспектор получил взятку от подрядчика"));
+        index.update(report(2, "Жалоба на задержку выплат"));
+
+        assertEquals(List.of(1L), ids(index.search("взятки", 10)));
+        assertEquals(List.of(1L), ids(index.search("подрядчиков взяткой", 10)));
+        assertTrue(index.search("подрядчик выплаты", 10).isEmpty());
+    }
+
+    @Test
+    void phraseRequiresAdjacentWords() {
+        ReportTextIndex index = new ReportTextIndex();
+        index.update(report(1, "Передал конверт с деньгами главному врачу"));
+        index.update(report(2, "Главному инженеру передал деньги, врачу ничего"));
+
+        assertEquals(List.of(1L), ids(index.search("\"главному врачу\"", 10)));
+        assertEquals(2, index.search("главному врачу", 10).size());
+    }
+
+    @Test
+    void phraseDoesNotSpanFields() {
+        ReportTextIndex index = new ReportTextIndex();
+        Report report = report(1, "Нарушение выявлено у главного");
+        report.setWitnesses("врача нет");
+        index.update(report);
+
+        assertTrue(index.search("\"главного врача\"", 10).isEmpty());
+    }
+
+    @Test
+    void ranksMoreFrequentTermHigher() {
+        ReportTextIndex index = new ReportTextIndex();
+        index.update(report(1, "откат при закупке"));
+        index.update(report(2, "откат, снова откат, и еще раз откат при закупке"));
+        index.update(report(3, "закупка без нарушений"));
+
+        assertEquals(List.of(2L, 1L), ids(index.search("откат", 10)));
+        assertEquals(1, index.search("откат", 1).size());
+    }
+
+    @Test
+    void reindexesChangedTextsAndRemovesMissingReports() {
+        ReportTextIndex index = new ReportTextIndex();
+        index.update(report(1, "старый текст про взятку"));
+        index.update(report(2, "другой отчет"));
+
+        assertFalse(index.update(report(1, "старый текст про взятку")));
+        assertTrue(index.update(report(1, "новый текст про откат")));
+        assertTrue(index.search("взятка", 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("откат", 10)));
+
+        index.sync(List.of(report(1, "новый текст про откат")));
+        assertFalse(index.contains(2L));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void survivesSaveAndLoad(@TempDir Path directory) throws Exception {
+        ReportTextIndex index = new ReportTextIndex();
+        index.update(report(7, "Подарок от поставщика"));
+        Path file = directory.resolve("index.bin");
+        index.save(file);
+
+        ReportTextIndex loaded = ReportTextIndex.load(file);
+        assertNotNull(loaded);
+        assertEquals(List.of(7L), ids(loaded.search("подарок поставщикам", 10)));
+    }
+}
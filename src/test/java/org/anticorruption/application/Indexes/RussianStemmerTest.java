@@ -0,0 +1,54 @@
+package org.anticorruption.application.Indexes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты стеммера и разбиения текста на термы.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+class RussianStemmerTest {
+
+    @Test
+    void reducesWordFormsToCommonStem() {
+        String stem = RussianStemmer.stem("взятки");
+        assertEquals("взятк", stem);
+        assertEquals(stem, RussianStemmer.stem("взяткой"));
+        assertEquals(stem, RussianStemmer.stem("взятку"));
+        assertEquals(stem, RussianStemmer.stem("взятками"));
+    }
+
+    @Test
+    void keepsShortWordsWithoutVowelRegion() {
+        assertEquals("мрт", RussianStemmer.stem("мрт"));
+    }
+
+    @Test
+    void tokenizerNormalizesCaseAndYo() {
+        assertEquals(TextTokenizer.terms("ЕЩЁ ПОЛУЧИЛ"), TextTokenizer.terms("еще получил"));
+        assertEquals(List.of("abc", "123"), TextTokenizer.terms("ABC, 123!"));
+    }
+
+    @Test
+    void tokenizerSkipsStopWordsButKeepsPositions() {
+        List<TextTokenizer.Token> tokens = TextTokenizer.tokenize("передал взятку в администрации");
+
+        assertEquals(3, tokens.size());
+        assertEquals(0, tokens.get(0).position());
+        assertEquals(1, tokens.get(1).position());
+        // Служебное слово "в" пропущено, но занимает позицию 2
+        assertEquals(3, tokens.get(2).position());
+    }
+
+    @Test
+    void tokenizerHandlesEmptyText() {
+        assertTrue(TextTokenizer.tokenize(null).isEmpty());
+        assertTrue(TextTokenizer.tokenize("").isEmpty());
+    }
+}
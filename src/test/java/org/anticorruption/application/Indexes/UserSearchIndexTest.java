@@ -0,0 +1,75 @@
+package org.anticorruption.application.Indexes;
+
+import org.anticorruption.application.Models.UserSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты локального поиска по справочнику пользователей с транслитерацией.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+class UserSearchIndexTest {
+
+    private static UserSummary user(long id, String username, String lastName, String firstName,
+                                    String department, String phone) {
+        UserSummary user = new UserSummary();
+        user.setId(id);
+        user.setUsername(username);
+        user.setLastName(lastName);
+        user.setFirstName(firstName);
+        user.setDepartment(department);
+        user.setPhoneNumber(phone);
+        return user;
+    }
+
+    private final UserSummary ivanov = user(1, "ivan", "Иванов", "Пётр", "Отдел закупок", "+7 (912) 345-67-89");
+    private final UserSummary petrov = user(2, "petrov", "Щукин", "Юрий", "Служба безопасности", null);
+
+    @Test
+    void transliteratesCyrillic() {
+        assertEquals("shchukin", UserSearchIndex.transliterate("щукин"));
+        assertEquals("yuriy", UserSearchIndex.transliterate("юрий"));
+        assertEquals("obekt", UserSearchIndex.transliterate("объект"));
+        assertEquals("ivanov-2", UserSearchIndex.transliterate("иванов-2"));
+        String latin = "petrov";
+        assertSame(latin, UserSearchIndex.transliterate(latin));
+    }
+
+    @Test
+    void findsAcrossAlphabetsAndPhoneFormats() {
+        UserSearchIndex index = new UserSearchIndex();
+        index.replaceAll(List.of(ivanov, petrov));
+
+        assertEquals(Set.of(1L), index.search("ivanov"));
+        assertEquals(Set.of(1L, 2L), index.search("петр"), "имя Пётр и имя пользователя petrov");
+        assertEquals(Set.of(1L), index.search("Петр Иван"));
+        assertEquals(Set.of(1L), index.search("79123456789"));
+        assertEquals(Set.of(2L), index.search("Служба без"));
+        assertTrue(index.search("иванов щукин").isEmpty());
+        assertNull(index.search("  "));
+    }
+
+    @Test
+    void reindexesOnlyChangedUsersAndRemovesMissing() {
+        UserSearchIndex index = new UserSearchIndex();
+        assertEquals(2, index.replaceAll(List.of(ivanov, petrov)));
+        assertEquals(0, index.replaceAll(List.of(ivanov, petrov)));
+
+        UserSummary moved = user(1, "ivan", "Иванов", "Пётр", "Бухгалтерия", null);
+        assertEquals(2, index.replaceAll(List.of(moved)));
+        assertEquals(1, index.size());
+        assertTrue(index.search("закуп").isEmpty());
+        assertEquals(Set.of(1L), index.search("бухг"));
+        assertTrue(index.search("щукин").isEmpty());
+
+        assertTrue(index.put(petrov));
+        assertEquals(Set.of(2L), index.search("shchukin"));
+    }
+}
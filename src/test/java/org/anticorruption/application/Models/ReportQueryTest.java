@@ -0,0 +1,83 @@
+package org.anticorruption.application.Models;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты нормализации условий фильтра отчетов и их проверки на отчетах.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+class ReportQueryTest {
+
+    private static Report report(String reporterId, String incidentDate, String location, ReportStatus status) {
+        Report report = new Report();
+        report.setId(1L);
+        report.setReporterId(reporterId);
+        report.setIncidentDate(incidentDate);
+        report.setIncidentLocation(location);
+        report.setInvolvedPersons("Иванов И.И.");
+        report.setStatus(status);
+        report.setAssignedTo("7");
+        return report;
+    }
+
+    @Test
+    void normalizesTextAndDropsEmptyConditions() {
+        ReportQuery query = new ReportQuery("  ", null, null, "  г. Москва,\t ул.   Ленина ", "", null, null);
+        assertNull(query.getReporterId());
+        assertNull(query.getInvolvedPersons());
+        assertEquals("г. Москва, ул. Ленина", query.getIncidentLocation());
+        assertEquals("incidentLocation=г. Москва, ул. Ленина", query.getKey());
+        assertTrue(new ReportQuery(null, null, null, " ", "\n", null, null).isEmpty());
+    }
+
+    @Test
+    void keyUsesCanonicalParameterOrder() {
+        ReportQuery query = new ReportQuery("42", LocalDate.of(2024, 1, 1), null,
+                "Москва", null, ReportStatus.NEW, 7L);
+        assertEquals("assignedTo=7&incidentLocation=Москва&reporterId=42&startIncidentDate=2024-01-01&status=NEW",
+                query.getKey());
+        assertEquals("assignedTo=7&incidentLocation=%D0%9C%D0%BE%D1%81%D0%BA%D0%B2%D0%B0&reporterId=42"
+                + "&startIncidentDate=2024-01-01&status=NEW", query.toQueryString());
+
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("status", "NEW");
+        parameters.put("assignedTo", "7");
+        parameters.put("incidentLocation", " Москва ");
+        parameters.put("startIncidentDate", "2024-01-01");
+        parameters.put("reporterId", "42");
+        parameters.put("endIncidentDate", "не дата");
+        ReportQuery restored = ReportQuery.fromParameters(parameters);
+        assertEquals(query, restored);
+        assertEquals(query.hashCode(), restored.hashCode());
+    }
+
+    @Test
+    void matchesAllConditions() {
+        ReportQuery query = new ReportQuery("42", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31),
+                "москва", "иванов", ReportStatus.NEW, 7L);
+        assertTrue(query.matches(report("42", "2024-01-15", "г. Москва", ReportStatus.NEW)));
+        assertTrue(query.matches(report("42", "2024-01-31", "Москва", ReportStatus.NEW)), "границы включаются");
+        assertFalse(query.matches(report("43", "2024-01-15", "Москва", ReportStatus.NEW)));
+        assertFalse(query.matches(report("42", "2024-02-01", "Москва", ReportStatus.NEW)));
+        assertFalse(query.matches(report("42", "2024-01-15", "Казань", ReportStatus.NEW)));
+        assertFalse(query.matches(report("42", "2024-01-15", "Москва", ReportStatus.CLOSED)));
+    }
+
+    @Test
+    void mayMatchKeepsReportsWithUnknownDate() {
+        ReportQuery query = new ReportQuery(null, LocalDate.of(2024, 1, 1), null, null, null, null, null);
+        Report undated = report("42", "вчера", "Москва", ReportStatus.NEW);
+        assertFalse(query.matches(undated));
+        assertTrue(query.mayMatch(undated));
+        assertFalse(query.mayMatch(report("42", "2023-12-31", "Москва", ReportStatus.NEW)));
+    }
+}
@@ -0,0 +1,86 @@
+package org.anticorruption.application.Models;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты разбора и записи отчета в JSON: компактные значения дат, времени и статуса
+ * и сохранение исходных строк, которые из них не восстанавливаются.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+class ReportTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private Report roundTrip(String json) throws Exception {
+        Report report = mapper.readValue(json, Report.class);
+        return mapper.readValue(mapper.writeValueAsString(report), Report.class);
+    }
+
+    @Test
+    void standardValuesAreStoredCompactly() throws Exception {
+        Report report = mapper.readValue("{\"id\":1,\"incidentDate\":\"2024-10-10\",\"incidentTime\":\"14:30\","
+                + "\"dateSubmitted\":\"2024-10-11T09:15:00\",\"status\":\"NEW\"}", Report.class);
+
+        assertEquals((int) LocalDate.of(2024, 10, 10).toEpochDay(), report.getIncidentEpochDay());
+        assertEquals(14 * 60 + 30, report.getIncidentMinuteOfDay());
+        assertEquals(ReportStatus.NEW, report.getStatus());
+
+        JsonNode written = mapper.readTree(mapper.writeValueAsString(report));
+        assertEquals("2024-10-10", written.get("incidentDate").asText());
+        assertEquals("14:30", written.get("incidentTime").asText());
+        assertEquals("2024-10-11T09:15:00", written.get("dateSubmitted").asText());
+        assertEquals("NEW", written.get("status").asText());
+    }
+
+    @Test
+    void singleDigitHourIsParsedAndWrittenBackUnchanged() throws Exception {
+        Report morning = mapper.readValue("{\"incidentDate\":\"2024-10-10\",\"incidentTime\":\"9:05\"}", Report.class);
+        Report noon = mapper.readValue("{\"incidentDate\":\"2024-10-10\",\"incidentTime\":\"10:00\"}", Report.class);
+
+        assertEquals(9 * 60 + 5, morning.getIncidentMinuteOfDay());
+        assertTrue(morning.getIncidentMinuteOfDay() < noon.getIncidentMinuteOfDay());
+        assertEquals("9:05", morning.getIncidentTime());
+        assertEquals("9:05", roundTrip(mapper.writeValueAsString(morning)).getIncidentTime());
+    }
+
+    @Test
+    void unparsedDateAndTimeAreKeptAsRawStrings() throws Exception {
+        Report report = roundTrip("{\"incidentDate\":\"10.10.2024\",\"incidentTime\":\"около полудня\","
+                + "\"lastUpdated\":\"вчера\"}");
+
+        assertEquals(Report.NO_DATE, report.getIncidentEpochDay());
+        assertEquals(Report.NO_TIME, report.getIncidentMinuteOfDay());
+        assertEquals(Report.NO_TIMESTAMP, report.getLastUpdatedMillis());
+        assertEquals("10.10.2024", report.getIncidentDate());
+        assertEquals("около полудня", report.getIncidentTime());
+        assertEquals("вчера", report.getLastUpdated());
+    }
+
+    @Test
+    void unknownStatusCodeIsReturnedToServer() throws Exception {
+        Report report = roundTrip("{\"id\":2,\"status\":\"ESCALATED\"}");
+
+        assertEquals(ReportStatus.UNKNOWN, report.getStatus());
+        assertEquals("ESCALATED", report.getStatusCode());
+        assertEquals("ESCALATED", mapper.readTree(mapper.writeValueAsString(report)).get("status").asText());
+    }
+
+    @Test
+    void copyKeepsRawValuesIndependent() throws Exception {
+        Report original = mapper.readValue("{\"incidentTime\":\"9:05\",\"status\":\"ESCALATED\"}", Report.class);
+        Report copy = new Report(original);
+        copy.setIncidentTime("11:00");
+
+        assertEquals("9:05", original.getIncidentTime());
+        assertEquals("ESCALATED", copy.getStatusCode());
+    }
+}
@@ -0,0 +1,34 @@
+package org.anticorruption.application.Models;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты разбора краткой записи пользователя из ответа /api/users.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+class UserSummaryTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void readsPhotoPresenceWithoutKeepingPhoto() throws Exception {
+        List<UserSummary> users = mapper.readerForListOf(UserSummary.class).readValue("["
+                + "{\"id\":1,\"photo\":\"iVBORw0KGgo=\",\"lastName\":\"Иванов\"},"
+                + "{\"id\":2,\"photo\":null,\"lastName\":\"Петров\"},"
+                + "{\"id\":3,\"lastName\":\"Сидоров\",\"bankDetails\":{\"bik\":\"044525225\"}}]");
+
+        assertTrue(users.get(0).isPhotoPresent());
+        assertFalse(users.get(1).isPhotoPresent());
+        assertFalse(users.get(2).isPhotoPresent());
+        assertEquals("Сидоров", users.get(2).getLastName(), "поля после пропущенных значений читаются");
+        assertFalse(mapper.writeValueAsString(users.get(0)).contains("photo"));
+    }
+}
@@ -0,0 +1,74 @@
+package org.anticorruption.application.Services;
+
+import org.anticorruption.application.Models.Report;
+import org.anticorruption.application.Models.ReportQuery;
+import org.anticorruption.application.Models.ReportStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты выборочного сброса кэша результатов фильтра.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+class FilterResultCacheTest {
+
+    private static final ReportQuery NEW_REPORTS = new ReportQuery(null, null, null, null, null, ReportStatus.NEW, null);
+    private static final ReportQuery IN_KAZAN = new ReportQuery(null, null, null, "Казань", null, null, null);
+
+    private static Report report(long id, ReportStatus status, String location) {
+        Report report = new Report();
+        report.setId(id);
+        report.setStatus(status);
+        report.setIncidentLocation(location);
+        return report;
+    }
+
+    private final Report first = report(1, ReportStatus.NEW, "Москва");
+    private final Report second = report(2, ReportStatus.CLOSED, "Москва");
+
+    private FilterResultCache filled() {
+        FilterResultCache cache = new FilterResultCache();
+        cache.sync(List.of(first, second));
+        cache.put(NEW_REPORTS, List.of(first));
+        cache.put(IN_KAZAN, List.of());
+        return cache;
+    }
+
+    @Test
+    void returnsResultForEquivalentQuery() {
+        FilterResultCache cache = filled();
+        ReportQuery sameQuery = new ReportQuery(" ", null, null, " Казань ", null, null, null);
+        assertEquals(List.of(), cache.get(sameQuery));
+        assertEquals(List.of(first), cache.get(NEW_REPORTS));
+        assertEquals(0, cache.sync(List.of(first, second)), "без изменений кэш не сбрасывается");
+    }
+
+    @Test
+    void invalidatesOnlyAffectedResults() {
+        FilterResultCache cache = filled();
+        Report reopened = new Report(second);
+        reopened.setStatus(ReportStatus.NEW);
+        assertEquals(1, cache.upsert(List.of(reopened)), "отчет может войти в фильтр по статусу");
+        assertNull(cache.get(NEW_REPORTS));
+        assertNotNull(cache.get(IN_KAZAN));
+
+        Report moved = new Report(second);
+        moved.setIncidentLocation("г. Казань");
+        assertEquals(1, cache.upsert(List.of(moved)));
+        assertNull(cache.get(IN_KAZAN));
+    }
+
+    @Test
+    void removedReportInvalidatesResultsContainingIt() {
+        FilterResultCache cache = filled();
+        assertEquals(1, cache.sync(List.of(second)));
+        assertNull(cache.get(NEW_REPORTS));
+        assertNotNull(cache.get(IN_KAZAN));
+    }
+}
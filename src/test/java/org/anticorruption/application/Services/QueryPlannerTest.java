@@ -0,0 +1,116 @@
+package org.anticorruption.application.Services;
+
+import org.anticorruption.application.Models.Report;
+import org.anticorruption.application.Models.ReportQuery;
+import org.anticorruption.application.Models.ReportStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты оценки размера результата и выбора плана выполнения фильтра.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+class QueryPlannerTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+    /**
+     * 1000 отчетов: каждый четвертый новый, 10 заявителей, 4 исполнителя, 100 дней по 10 отчетов.
+     */
+    private static List<Report> reports() {
+        List<Report> reports = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Report report = new Report();
+            report.setId((long) i);
+            report.setStatus(i % 4 == 0 ? ReportStatus.NEW : ReportStatus.CLOSED);
+            report.setReporterId("r" + i % 10);
+            report.setAssignedTo(String.valueOf(i % 4));
+            report.setIncidentDate(FIRST_DAY.plusDays(i % 100).toString());
+            report.setIncidentLocation(i % 2 == 0 ? "Москва" : "Казань");
+            reports.add(report);
+        }
+        return reports;
+    }
+
+    private static ReportQuery query(String reporterId, LocalDate start, LocalDate end, String location,
+                                     ReportStatus status, Long assignedTo) {
+        return new ReportQuery(reporterId, start, end, location, null, status, assignedTo);
+    }
+
+    private static QueryPlanner.Plan plan(QueryPlanner planner, ReportQuery query) throws Exception {
+        return planner.plan(query).get();
+    }
+
+    @Test
+    void plansRemoteWithoutLocalCopy() throws Exception {
+        QueryPlanner.Plan plan = plan(new QueryPlanner(), query(null, null, null, null, ReportStatus.NEW, null));
+        assertEquals(QueryPlanner.Strategy.REMOTE, plan.getStrategy());
+        assertEquals(-1, plan.getEstimatedRows());
+    }
+
+    @Test
+    void estimatesRowsFromLoadStatistics() throws Exception {
+        QueryPlanner planner = new QueryPlanner();
+        planner.sync(reports());
+
+        assertEquals(250, plan(planner, query(null, null, null, null, ReportStatus.NEW, null)).getEstimatedRows());
+        assertEquals(100, plan(planner, query("r1", null, null, null, null, null)).getEstimatedRows());
+        assertEquals(250, plan(planner, query(null, null, null, null, null, 3L)).getEstimatedRows());
+        assertEquals(0, plan(planner, query("нет такого", null, null, null, null, null)).getEstimatedRows());
+        assertEquals(100, plan(planner, query(null, FIRST_DAY, FIRST_DAY.plusDays(9), null, null, null))
+                .getEstimatedRows(), "границы диапазона дат включаются");
+        assertEquals(500, plan(planner, query(null, FIRST_DAY.plusDays(50), null, null, null, null)).getEstimatedRows());
+        assertEquals(100, plan(planner, query(null, null, null, "Москва", null, null)).getEstimatedRows(),
+                "доля текстового условия по умолчанию — 10%");
+        assertEquals(25, plan(planner, query("r1", null, null, null, ReportStatus.NEW, null)).getEstimatedRows(),
+                "условия считаются независимыми");
+    }
+
+    @Test
+    void plansLocalForFreshCopyAndExecutesOnCopies() throws Exception {
+        List<Report> loaded = reports();
+        QueryPlanner planner = new QueryPlanner();
+        planner.sync(loaded);
+        ReportQuery query = query("r0", FIRST_DAY, FIRST_DAY.plusDays(9), "москва", null, null);
+
+        QueryPlanner.Plan plan = plan(planner, query);
+        assertEquals(QueryPlanner.Strategy.LOCAL, plan.getStrategy());
+        loaded.get(0).setReporterId("изменен после передачи");
+
+        List<Report> found = planner.executeLocal(plan).get();
+        assertEquals(List.of(0L, 100L, 200L, 300L, 400L, 500L, 600L, 700L, 800L, 900L),
+                found.stream().map(Report::getId).toList());
+        found.get(0).setReporterId("изменен получателем");
+        assertEquals("r0", planner.executeLocal(plan).get().get(0).getReporterId());
+    }
+
+    @Test
+    void mergesNewerLocalChangesIntoRemoteResult() throws Exception {
+        List<Report> loaded = reports().subList(0, 8);
+        loaded.forEach(report -> report.setLastUpdatedMillis(1000));
+        QueryPlanner planner = new QueryPlanner();
+        planner.sync(loaded);
+
+        Report closed = new Report(loaded.get(0));
+        closed.setStatus(ReportStatus.CLOSED);
+        closed.setLastUpdatedMillis(2000);
+        Report reopened = new Report(loaded.get(1));
+        reopened.setStatus(ReportStatus.NEW);
+        reopened.setLastUpdatedMillis(2000);
+        planner.upsert(List.of(closed, reopened));
+
+        ReportQuery query = query(null, null, null, null, ReportStatus.NEW, null);
+        QueryPlanner.Plan plan = new QueryPlanner.Plan(query, QueryPlanner.Strategy.HYBRID, 2, "тест");
+        List<Report> remote = List.of(loaded.get(0), loaded.get(4));
+        List<Report> merged = planner.mergeHybrid(plan, remote).get();
+        assertEquals(List.of(4L, 1L), merged.stream().map(Report::getId).toList());
+    }
+}
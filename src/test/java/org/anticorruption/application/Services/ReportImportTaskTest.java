@@ -0,0 +1,351 @@
+package org.anticorruption.application.Services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.anticorruption.application.UserSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Тесты импорта отчетов из файла: продолжение по файлу результатов, ограничение числа
+ * одновременных отправок, отмена во время отправки, проверка строк и разбор CSV.
+ * <p>
+ * Задача выполняется вызовом {@code call()} в потоке теста; обновление прогресса
+ * и признак отмены подменяются, чтобы не требовался запущенный JavaFX.
+ *
+ * @author Гордейчик Е.А.
+ * @version 1.0
+ * @since 10.10.2024
+ */
+class ReportImportTaskTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Pattern RESULT_LINE = Pattern.compile("(\\d+);(OK|FAILED|INVALID);");
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void logIn() {
+        UserSession.getInstance().setToken("token-1");
+    }
+
+    @AfterEach
+    void logOut() {
+        UserSession.getInstance().clear();
+    }
+
+    /**
+     * Задача импорта без обращений к потоку JavaFX.
+     */
+    private static final class TestImportTask extends ReportImportTask {
+        private volatile boolean cancelled;
+
+        TestImportTask(Path input, ReportSubmitter submitter, int concurrency) {
+            super(input, submitter, concurrency);
+        }
+
+        void requestCancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        protected void updateProgress(long workDone, long max) {
+        }
+
+        @Override
+        protected void updateProgress(double workDone, double max) {
+        }
+
+        @Override
+        protected void updateMessage(String message) {
+        }
+    }
+
+    /**
+     * Отправка, запоминающая запросы и число одновременных отправок.
+     * Ответ вычисляется по телу запроса: null — успех, иначе сообщение об ошибке;
+     * для описаний из списка недоступных отправка завершается исключением.
+     * Если функция ответа не задана, отправки удерживаются до {@link #completeHeld()}.
+     */
+    private static final class FakeSubmitter implements ReportSubmitter {
+        private final List<ObjectNode> bodies = new CopyOnWriteArrayList<>();
+        private final List<String> tokens = new CopyOnWriteArrayList<>();
+        private final Queue<CompletableFuture<String>> held = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final Function<ObjectNode, String> response;
+        private final Set<String> unreachable;
+        private final long delayMillis;
+
+        FakeSubmitter(Function<ObjectNode, String> response, Set<String> unreachable, long delayMillis) {
+            this.response = response;
+            this.unreachable = unreachable;
+            this.delayMillis = delayMillis;
+        }
+
+        static FakeSubmitter accepting() {
+            return new FakeSubmitter(body -> null, Set.of(), 0);
+        }
+
+        static FakeSubmitter holding() {
+            return new FakeSubmitter(null, Set.of(), 0);
+        }
+
+        @Override
+        public CompletableFuture<String> submit(ObjectNode body, String token) {
+            bodies.add(body);
+            tokens.add(token);
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            CompletableFuture<String> future = new CompletableFuture<>();
+            if (response == null) {
+                held.add(future);
+                return future;
+            }
+            String description = body.get("description").asText();
+            CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS).execute(() -> {
+                inFlight.decrementAndGet();
+                if (unreachable.contains(description)) {
+                    future.completeExceptionally(new IOException("Нет соединения с сервером"));
+                } else {
+                    future.complete(response.apply(body));
+                }
+            });
+            return future;
+        }
+
+        void completeHeld() {
+            CompletableFuture<String> future;
+            while ((future = held.poll()) != null) {
+                inFlight.decrementAndGet();
+                future.complete(null);
+            }
+        }
+
+        List<String> descriptions() {
+            return bodies.stream().map(body -> body.get("description").asText()).collect(Collectors.toList());
+        }
+    }
+
+    private static String jsonRow(String date, String time, String description) {
+        ObjectNode row = MAPPER.createObjectNode();
+        row.put("incidentDate", date);
+        row.put("incidentTime", time);
+        row.put("incidentLocation", "г. Москва");
+        row.put("involvedPersons", "Иванов И.И.");
+        row.put("description", description);
+        return row.toString();
+    }
+
+    private Path jsonLines(String... rows) throws IOException {
+        Path input = directory.resolve("reports.jsonl");
+        Files.writeString(input, String.join("\n", rows) + "\n", StandardCharsets.UTF_8);
+        return input;
+    }
+
+    private static Path resultFile(Path input) {
+        return input.resolveSibling(input.getFileName() + ".result.csv");
+    }
+
+    /**
+     * Читает последний результат каждой строки из файла результатов. Сообщения
+     * в кавычках могут занимать несколько строк файла, поэтому учитываются только
+     * строки, которые начинаются с номера и известного результата.
+     */
+    private static Map<Integer, String> results(Path input) throws IOException {
+        Map<Integer, String> results = new TreeMap<>();
+        for (String line : Files.readAllLines(resultFile(input), StandardCharsets.UTF_8)) {
+            Matcher matcher = RESULT_LINE.matcher(line);
+            if (matcher.lookingAt()) {
+                results.put(Integer.parseInt(matcher.group(1)), matcher.group(2));
+            }
+        }
+        return results;
+    }
+
+    private static ReportImportTask.Summary run(Path input, ReportSubmitter submitter, int concurrency) throws Exception {
+        return new TestImportTask(input, submitter, concurrency).call();
+    }
+
+    @Test
+    void resumesOnlyFailedRowsFromResultFile() throws Exception {
+        Path input = jsonLines(
+                jsonRow("2024-10-01", "10:00", "первый"),
+                jsonRow("2024-10-02", "11:00", "отказ сервера"),
+                jsonRow("2024-10-03", "12:00", "третий"),
+                jsonRow("2024-10-04", "13:00", "обрыв связи"),
+                jsonRow("2024-10-05", "", "без времени"));
+        FakeSubmitter firstRun = new FakeSubmitter(
+                body -> body.get("description").asText().startsWith("отказ") ? "Ошибка сервера" : null,
+                Set.of("обрыв связи"), 0);
+
+        ReportImportTask.Summary first = run(input, firstRun, 2);
+        assertEquals(5, first.getTotal());
+        assertEquals(2, first.getSubmitted());
+        assertEquals(2, first.getFailed());
+        assertEquals(1, first.getInvalid());
+        assertEquals(Map.of(1, "OK", 2, "FAILED", 3, "OK", 4, "FAILED", 5, "INVALID"), results(input));
+        assertTrue(Files.readString(resultFile(input)).contains("Нет соединения с сервером"));
+
+        FakeSubmitter secondRun = FakeSubmitter.accepting();
+        ReportImportTask.Summary second = run(input, secondRun, 2);
+        assertEquals(List.of("отказ сервера", "обрыв связи"), secondRun.descriptions());
+        assertEquals(3, second.getSkipped());
+        assertEquals(2, second.getSubmitted());
+        assertEquals(0, second.getInvalid());
+        assertEquals(Map.of(1, "OK", 2, "OK", 3, "OK", 4, "OK", 5, "INVALID"), results(input));
+        assertEquals(1, Files.readAllLines(resultFile(input)).stream().filter(line -> line.startsWith("Строка")).count(),
+                "заголовок файла результатов пишется один раз");
+    }
+
+    @Test
+    void resumeReadsQuotedMessagesInResultFile() throws Exception {
+        Path input = jsonLines(
+                jsonRow("2024-10-01", "10:00", "первый"),
+                jsonRow("2024-10-02", "10:00", "второй"),
+                jsonRow("2024-10-03", "10:00", "третий"));
+        Files.writeString(resultFile(input), "Строка;Результат;Сообщение\r\n"
+                + "1;FAILED;\"Ответ: \"\"ошибка; повторите\"\"\r\n2;OK;\"\r\n"
+                + "3;OK;\r\n", StandardCharsets.UTF_8);
+
+        FakeSubmitter submitter = FakeSubmitter.accepting();
+        ReportImportTask.Summary summary = run(input, submitter, 1);
+        assertEquals(List.of("первый", "второй"), submitter.descriptions(),
+                "перевод строки в кавычках не порождает отдельную запись");
+        assertEquals(1, summary.getSkipped());
+    }
+
+    @Test
+    void limitsConcurrentSubmissions() throws Exception {
+        String[] rows = new String[12];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = jsonRow("2024-10-01", "10:00", "отчет " + i);
+        }
+        Path input = jsonLines(rows);
+        FakeSubmitter submitter = new FakeSubmitter(body -> null, Set.of(), 20);
+
+        ReportImportTask.Summary summary = run(input, submitter, 3);
+        assertEquals(12, summary.getSubmitted());
+        assertEquals(3, submitter.maxInFlight.get());
+        assertEquals(Collections.nCopies(12, "token-1"), submitter.tokens);
+    }
+
+    @Test
+    void cancelKeepsResultsOfSubmissionsInFlight() throws Exception {
+        Path input = jsonLines(
+                jsonRow("2024-10-01", "10:00", "первый"),
+                jsonRow("2024-10-02", "10:00", "второй"),
+                jsonRow("2024-10-03", "10:00", "третий"),
+                jsonRow("2024-10-04", "10:00", "четвертый"));
+        FakeSubmitter submitter = FakeSubmitter.holding();
+        TestImportTask task = new TestImportTask(input, submitter, 2);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<ReportImportTask.Summary> running = executor.submit(task::call);
+            long deadline = System.currentTimeMillis() + 5000;
+            while (submitter.held.size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, submitter.held.size());
+
+            // Выход из системы после запуска не меняет токен начатого импорта
+            UserSession.getInstance().clear();
+            task.requestCancel();
+            Thread.sleep(300);
+            assertFalse(running.isDone(), "задача ждет ответов на начатые отправки");
+            submitter.completeHeld();
+
+            ReportImportTask.Summary summary = running.get(5, TimeUnit.SECONDS);
+            assertTrue(summary.isCancelled());
+            assertEquals(2, summary.getSubmitted());
+            assertEquals(List.of("token-1", "token-1"), submitter.tokens);
+            assertEquals(Map.of(1, "OK", 2, "OK"), results(input));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        FakeSubmitter resumed = FakeSubmitter.accepting();
+        ReportImportTask.Summary summary = run(input, resumed, 2);
+        assertEquals(List.of("третий", "четвертый"), resumed.descriptions());
+        assertEquals(2, summary.getSkipped());
+    }
+
+    @Test
+    void invalidRowsUseFormValidationAndAreNotSubmitted() throws Exception {
+        Path input = jsonLines(
+                jsonRow("10.10.2024", "10:00", "дата в другом формате"),
+                jsonRow("2024-10-10", "24:00", "неверное время"),
+                jsonRow("2024-10-10", "9:05", ""),
+                "{не json",
+                jsonRow("2024-10-10", "9:05", "час одной цифрой"));
+        FakeSubmitter submitter = FakeSubmitter.accepting();
+
+        ReportImportTask.Summary summary = run(input, submitter, 2);
+        assertEquals(4, summary.getInvalid());
+        assertEquals(1, summary.getSubmitted());
+        assertEquals(List.of("час одной цифрой"), submitter.descriptions());
+        assertEquals(Map.of(1, "INVALID", 2, "INVALID", 3, "INVALID", 4, "INVALID", 5, "OK"), results(input));
+
+        String results = Files.readString(resultFile(input));
+        assertTrue(results.contains("Некорректная дата инцидента"));
+        assertTrue(results.contains(ReportValidator.validate(LocalDate.of(2024, 10, 10), "24:00", "г. Москва", "Иванов И.И.", "дата")));
+        assertTrue(results.contains(ReportValidator.validate(LocalDate.of(2024, 10, 10), "9:05", "г. Москва", "Иванов И.И.", "")));
+        assertTrue(results.contains("Некорректный JSON"));
+    }
+
+    @Test
+    void parsesSemicolonCsvWithBomAndQuotedNewlines() throws Exception {
+        Path input = directory.resolve("reports.csv");
+        Files.writeString(input, "﻿incidentDate;incidentTime;incidentLocation;involvedPersons;description\r\n"
+                + "2024-10-01;10:00;\"г. Москва; ул. Ленина\";Иванов И.И.;\"Первая строка\r\nвторая \"\"в кавычках\"\"\"\r\n"
+                + "\r\n"
+                + "2024-10-02;9:05;Казань;Петров П.П.;Короткое описание\r\n", StandardCharsets.UTF_8);
+        FakeSubmitter submitter = FakeSubmitter.accepting();
+
+        ReportImportTask.Summary summary = run(input, submitter, 1);
+        assertEquals(2, summary.getTotal());
+        assertEquals(2, summary.getSubmitted());
+        ObjectNode first = submitter.bodies.get(0);
+        assertEquals("2024-10-01", first.get("incidentDate").asText(), "BOM не попадает в имя первого столбца");
+        assertEquals("г. Москва; ул. Ленина", first.get("incidentLocation").asText());
+        assertEquals("Первая строка\r\nвторая \"в кавычках\"", first.get("description").asText(),
+                "перевод строки в кавычках сохраняется как есть");
+        assertEquals("", first.get("witnesses").asText());
+        assertEquals("9:05", submitter.bodies.get(1).get("incidentTime").asText());
+    }
+
+    @Test
+    void parsesCommaCsv() throws Exception {
+        Path input = directory.resolve("reports.csv");
+        Files.writeString(input, "incidentDate,incidentTime,incidentLocation,involvedPersons,description,witnesses\n"
+                + "2024-10-01,10:00,Казань,Петров П.П.,\"Описание, с запятой\",Сидоров С.С.\n", StandardCharsets.UTF_8);
+        FakeSubmitter submitter = FakeSubmitter.accepting();
+
+        run(input, submitter, 1);
+        ObjectNode body = submitter.bodies.get(0);
+        assertEquals("Описание, с запятой", body.get("description").asText());
+        assertEquals("Сидоров С.С.", body.get("witnesses").asText());
+    }
+}